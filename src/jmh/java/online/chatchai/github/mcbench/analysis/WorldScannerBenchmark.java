@@ -0,0 +1,179 @@
+package online.chatchai.github.mcbench.analysis;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.bukkit.entity.EntityType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import online.chatchai.github.mcbench.diagnostics.DiagnosticsEngine;
+
+/**
+ * World scan microbenchmarks for MCBench Pro
+ * Builds a synthetic snapshot of 100k entities spread over up to 20k chunks (0-10 entities of
+ * random types per chunk) and measures one scan, as used by the diagnostics, and the full
+ * report analysis on top of it, against the six boxed-map passes the two made before the scan
+ * was shared. Run with: mvn -Pjmh compile exec:exec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorldScannerBenchmark {
+    
+    private static final int CHUNKS = 20_000;
+    private static final int ENTITIES = 100_000;
+    private static final EntityType[] ENTITY_TYPES = EntityType.values();
+    
+    // Low enough that a few percent of the chunks are hot and get clustered
+    private static final int HOT_CHUNK_ENTITIES = 9;
+    private static final int[] TRACKED_TYPES = {
+        EntityType.ITEM_FRAME.ordinal(), EntityType.GLOW_ITEM_FRAME.ordinal(), EntityType.ARMOR_STAND.ordinal()
+    };
+    
+    private EntitySnapshot snapshot;
+    
+    // The same entities in capture order, as chunk.getEntities() gave them to the baseline
+    private int chunks;
+    private int[] chunkOffsets;
+    private int[] entityTypes;
+    
+    @Setup
+    public void setup() {
+        Random random = new Random(7);
+        EntitySnapshot.Builder builder = new EntitySnapshot.Builder();
+        int world = builder.addWorld("world", CHUNKS);
+        chunkOffsets = new int[CHUNKS + 1];
+        entityTypes = new int[ENTITIES + 10];
+        int entities = 0;
+        int chunk = 0;
+        for (; chunk < CHUNKS && entities < ENTITIES; chunk++) {
+            builder.addChunk(world, chunk % 150, chunk / 150);
+            chunkOffsets[chunk] = entities;
+            int count = random.nextInt(11);
+            for (int i = 0; i < count; i++) {
+                int type = random.nextInt(ENTITY_TYPES.length);
+                builder.addEntity(type);
+                entityTypes[entities + i] = type;
+            }
+            entities += count;
+        }
+        chunkOffsets[chunk] = entities;
+        chunks = chunk;
+        snapshot = builder.build(0, 0L, 0L, 0L);
+    }
+    
+    @Benchmark
+    public WorldScanner.Scan scan() {
+        return WorldScanner.scan(snapshot, TRACKED_TYPES, ChunkEntityAnalyzer.TOP_CHUNKS);
+    }
+    
+    @Benchmark
+    public ChunkEntityAnalyzer.AnalysisResult analyze() {
+        return ChunkEntityAnalyzer.analyze(snapshot, HOT_CHUNK_ENTITIES, 5);
+    }
+    
+    /**
+     * DiagnosticsEngine.analyzeWorlds/analyzeEntities/detectHotspots and ChunkEntityAnalyzer
+     * analyzeLoadedChunks/analyzeEntityCounts/analyzeChunkEntityDensity as they were, minus the
+     * Bukkit calls: every entity is walked four times, counting into boxed HashMap<EntityType,
+     * Integer> maps per chunk and per run
+     */
+    @Benchmark
+    public Object[] baseline() {
+        // DiagnosticsEngine.analyzeWorlds
+        Map<String, Integer> worldStats = new HashMap<>();
+        worldStats.put("world", CHUNKS);
+        worldStats.put("TOTAL", CHUNKS);
+        
+        // DiagnosticsEngine.analyzeEntities
+        int totalEntities = 0;
+        int droppedItems = 0;
+        int itemFrames = 0;
+        int glowItemFrames = 0;
+        int armorStands = 0;
+        for (int i = 0; i < chunkOffsets[chunks]; i++) {
+            EntityType type = ENTITY_TYPES[entityTypes[i]];
+            totalEntities++;
+            if (type == EntityType.ITEM) {
+                droppedItems++;
+            } else if (type == EntityType.GLOW_ITEM_FRAME) {
+                glowItemFrames++;
+            } else if (type == EntityType.ITEM_FRAME) {
+                itemFrames++;
+            } else if (type == EntityType.ARMOR_STAND) {
+                armorStands++;
+            }
+        }
+        
+        // DiagnosticsEngine.detectHotspots with the default thresholds
+        List<DiagnosticsEngine.Hotspot> hotspots = new ArrayList<>();
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            Map<EntityType, Integer> chunkEntityCounts = new HashMap<>();
+            for (int i = chunkOffsets[chunk]; i < chunkOffsets[chunk + 1]; i++) {
+                chunkEntityCounts.merge(ENTITY_TYPES[entityTypes[i]], 1, Integer::sum);
+            }
+            int chunkItemFrames = chunkEntityCounts.getOrDefault(EntityType.ITEM_FRAME, 0);
+            int chunkGlowItemFrames = chunkEntityCounts.getOrDefault(EntityType.GLOW_ITEM_FRAME, 0);
+            int chunkArmorStands = chunkEntityCounts.getOrDefault(EntityType.ARMOR_STAND, 0);
+            if (chunkItemFrames > 15) {
+                hotspots.add(new DiagnosticsEngine.Hotspot("world", chunk % 150, chunk / 150, "ITEM_FRAME", chunkItemFrames));
+            }
+            if (chunkGlowItemFrames > 15) {
+                hotspots.add(new DiagnosticsEngine.Hotspot("world", chunk % 150, chunk / 150, "GLOW_ITEM_FRAME", chunkGlowItemFrames));
+            }
+            if (chunkArmorStands > 5) {
+                hotspots.add(new DiagnosticsEngine.Hotspot("world", chunk % 150, chunk / 150, "ARMOR_STAND", chunkArmorStands));
+            }
+        }
+        
+        // ChunkEntityAnalyzer.analyzeLoadedChunks
+        Map<String, Integer> loadedChunks = new HashMap<>();
+        loadedChunks.put("world", CHUNKS);
+        
+        // ChunkEntityAnalyzer.analyzeEntityCounts
+        Map<EntityType, Integer> entityCounts = new HashMap<>();
+        for (int i = 0; i < chunkOffsets[chunks]; i++) {
+            entityCounts.merge(ENTITY_TYPES[entityTypes[i]], 1, Integer::sum);
+        }
+        int countedEntities = entityCounts.values().stream().mapToInt(Integer::intValue).sum();
+        
+        // ChunkEntityAnalyzer.analyzeChunkEntityDensity
+        List<ChunkEntityAnalyzer.ChunkEntityDensity> densities = new ArrayList<>();
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int count = chunkOffsets[chunk + 1] - chunkOffsets[chunk];
+            if (count > 0) {
+                Map<EntityType, Integer> chunkEntityCounts = new HashMap<>();
+                for (int i = chunkOffsets[chunk]; i < chunkOffsets[chunk + 1]; i++) {
+                    chunkEntityCounts.merge(ENTITY_TYPES[entityTypes[i]], 1, Integer::sum);
+                }
+                densities.add(new ChunkEntityAnalyzer.ChunkEntityDensity("world", chunk % 150, chunk / 150, count, chunkEntityCounts));
+            }
+        }
+        List<ChunkEntityAnalyzer.ChunkEntityDensity> densest = densities.stream()
+            .sorted((a, b) -> Integer.compare(b.getTotalEntities(), a.getTotalEntities()))
+            .limit(5)
+            .collect(Collectors.toList());
+        
+        return new Object[] {
+            worldStats, totalEntities, droppedItems, itemFrames, glowItemFrames, armorStands, hotspots,
+            loadedChunks, entityCounts, countedEntities, densest
+        };
+    }
+}
@@ -9,12 +9,17 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerLoginEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import online.chatchai.github.mcbench.analysis.EntityIndex;
 import online.chatchai.github.mcbench.benchmark.BenchmarkManager;
 import online.chatchai.github.mcbench.command.MCBenchCommand;
 import online.chatchai.github.mcbench.config.ConfigManager;
 import online.chatchai.github.mcbench.config.Lang;
 import online.chatchai.github.mcbench.metrics.MetricSampler;
+import online.chatchai.github.mcbench.monitor.JmxManager;
+import online.chatchai.github.mcbench.monitor.OpenMetricsExporter;
+import online.chatchai.github.mcbench.monitor.SoakMonitor;
 import online.chatchai.github.mcbench.util.Util;
+import online.chatchai.github.mcbench.workload.WorkloadModuleRegistry;
 
 /**
  * MCBench Pro - Professional-grade controlled server benchmark plugin
@@ -25,6 +30,11 @@ public class Main extends JavaPlugin implements Listener {
     private ConfigManager configManager;
     private BenchmarkManager benchmarkManager;
     private MetricSampler metricSampler;
+    private SoakMonitor soakMonitor;
+    private OpenMetricsExporter openMetricsExporter;
+    private JmxManager jmxManager;
+    private WorkloadModuleRegistry workloadModuleRegistry;
+    private EntityIndex entityIndex;
     
     @Override
     public void onEnable() {
@@ -44,14 +54,41 @@ public class Main extends JavaPlugin implements Listener {
             // Initialize metric sampler
             metricSampler = new MetricSampler(this);
             
+            // Initialize workload module registry (built-ins plus ServicesManager registrations)
+            workloadModuleRegistry = new WorkloadModuleRegistry(this);
+            
             // Initialize benchmark manager
             benchmarkManager = new BenchmarkManager(this, configManager, metricSampler);
             
+            // Initialize soak monitor (started on demand)
+            soakMonitor = new SoakMonitor(this, configManager, metricSampler);
+            
+            // Start OpenMetrics endpoint if enabled
+            openMetricsExporter = new OpenMetricsExporter(this, configManager, metricSampler,
+                benchmarkManager, soakMonitor);
+            if (configManager.isOpenMetricsEnabled()) {
+                openMetricsExporter.start();
+            }
+            
+            // Register JMX MBeans if enabled
+            if (configManager.isJmxEnabled()) {
+                jmxManager = new JmxManager(this, configManager, metricSampler, benchmarkManager, soakMonitor);
+                jmxManager.register();
+            }
+            
             // Register commands
             registerCommands();
             
             // Register event listeners
             getServer().getPluginManager().registerEvents(this, this);
+            getServer().getPluginManager().registerEvents(metricSampler.getTickRecorder(), this);
+            
+            // Build the live entity index and keep it updated from events
+            if (configManager.isLiveEntityIndexEnabled()) {
+                entityIndex = new EntityIndex(this, configManager.getLiveIndexResyncChunksPerTick());
+                getServer().getPluginManager().registerEvents(entityIndex, this);
+                entityIndex.start();
+            }
             
             // Log successful startup
             String enabledMessage = configManager.getMessage("system.enabled", 
@@ -77,6 +114,26 @@ public class Main extends JavaPlugin implements Listener {
                 benchmarkManager.forceStop();
             }
             
+            // Unregister JMX MBeans
+            if (jmxManager != null) {
+                jmxManager.unregister();
+            }
+            
+            // Stop serving scrapes
+            if (openMetricsExporter != null) {
+                openMetricsExporter.stop();
+            }
+            
+            // Stop soak monitoring and flush its data
+            if (soakMonitor != null) {
+                soakMonitor.stop();
+            }
+            
+            // Stop maintaining the entity index
+            if (entityIndex != null) {
+                entityIndex.stop();
+            }
+            
             // Shutdown metric sampler
             if (metricSampler != null) {
                 metricSampler.shutdown();
@@ -160,6 +217,25 @@ public class Main extends JavaPlugin implements Listener {
         return metricSampler;
     }
     
+    public SoakMonitor getSoakMonitor() {
+        return soakMonitor;
+    }
+    
+    public OpenMetricsExporter getOpenMetricsExporter() {
+        return openMetricsExporter;
+    }
+    
+    public WorkloadModuleRegistry getWorkloadModuleRegistry() {
+        return workloadModuleRegistry;
+    }
+    
+    /**
+     * Get the live entity index, or null when analysis.liveIndex is disabled
+     */
+    public EntityIndex getEntityIndex() {
+        return entityIndex;
+    }
+    
     /**
      * Handle player login event - block players during safe mode benchmark
      */
@@ -0,0 +1,229 @@
+package online.chatchai.github.mcbench.analysis;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from chunk key to per-EntityType entity counters and the ids counted
+ * Keys are Paper chunk keys (x in the low 32 bits, z in the high 32 bits). Linear probing with
+ * backward-shift deletion, so a chunk whose last entity leaves is removed without tombstones.
+ * Counter and id arrays are allocated only for chunks that hold entities. Not thread-safe.
+ */
+class ChunkCounterMap {
+    
+    static final int NO_ID = Integer.MIN_VALUE;
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final double MAX_LOAD = 0.6;
+    
+    private final int types;
+    private long[] keys;
+    private int[][] counters;
+    private int[][] ids;
+    private int[] totals;
+    private int size = 0;
+    
+    ChunkCounterMap(int types) {
+        this.types = types;
+        allocate(64);
+    }
+    
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        counters = new int[capacity][];
+        ids = new int[capacity][];
+        totals = new int[capacity];
+    }
+    
+    /**
+     * Count an entity of a type in a chunk
+     * @return Position of the id in the chunk's id list, for {@link #remove}
+     */
+    int add(long key, int type, int id) {
+        int slot = find(key);
+        if (slot < 0) {
+            if (size + 1 > keys.length * MAX_LOAD) {
+                resize(keys.length * 2);
+            }
+            slot = insertionSlot(key);
+            keys[slot] = key;
+            counters[slot] = new int[types];
+            ids[slot] = new int[4];
+            totals[slot] = 0;
+            size++;
+        }
+        
+        int position = totals[slot];
+        if (position == ids[slot].length) {
+            ids[slot] = Arrays.copyOf(ids[slot], position * 2);
+        }
+        ids[slot][position] = id;
+        counters[slot][type]++;
+        totals[slot]++;
+        return position;
+    }
+    
+    /**
+     * Uncount the entity at a position of a chunk's id list
+     * The last id of the list moves into the position; the chunk is removed when it empties.
+     * @return Id moved into the position, or {@link #NO_ID} if none moved
+     */
+    int remove(long key, int type, int position) {
+        int slot = find(key);
+        if (slot < 0 || position < 0 || position >= totals[slot]) {
+            return NO_ID;
+        }
+        
+        int last = --totals[slot];
+        if (counters[slot][type] > 0) {
+            counters[slot][type]--;
+        }
+        if (last == 0) {
+            delete(slot);
+            return NO_ID;
+        }
+        if (position == last) {
+            return NO_ID;
+        }
+        int moved = ids[slot][last];
+        ids[slot][position] = moved;
+        return moved;
+    }
+    
+    /**
+     * Get a copy of the ids counted in a chunk
+     */
+    int[] ids(long key) {
+        int slot = find(key);
+        return slot >= 0 ? Arrays.copyOf(ids[slot], totals[slot]) : new int[0];
+    }
+    
+    /**
+     * Get number of entities counted in a chunk
+     */
+    int total(long key) {
+        int slot = find(key);
+        return slot >= 0 ? totals[slot] : 0;
+    }
+    
+    /**
+     * Get number of chunks holding entities
+     */
+    int size() {
+        return size;
+    }
+    
+    /**
+     * Get table capacity, for iterating with {@link #keyAt}, {@link #countersAt} and {@link #totalAt}
+     */
+    int capacity() {
+        return keys.length;
+    }
+    
+    /**
+     * Get whether the table slot holds a chunk
+     */
+    boolean isUsed(int slot) {
+        return keys[slot] != EMPTY;
+    }
+    
+    long keyAt(int slot) {
+        return keys[slot];
+    }
+    
+    int[] countersAt(int slot) {
+        return counters[slot];
+    }
+    
+    int totalAt(int slot) {
+        return totals[slot];
+    }
+    
+    void clear() {
+        allocate(64);
+        size = 0;
+    }
+    
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+    
+    private int insertionSlot(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+    
+    /**
+     * Remove a slot and shift later entries of the probe run back into the gap
+     */
+    private void delete(int slot) {
+        int mask = keys.length - 1;
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = hash(keys[next]) & mask;
+            // Move the entry if its home is not cyclically within (gap, next]
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                counters[gap] = counters[next];
+                ids[gap] = ids[next];
+                totals[gap] = totals[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = EMPTY;
+        counters[gap] = null;
+        ids[gap] = null;
+        totals[gap] = 0;
+        size--;
+    }
+    
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[][] oldCounters = counters;
+        int[][] oldIds = ids;
+        int[] oldTotals = totals;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = insertionSlot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                counters[slot] = oldCounters[i];
+                ids[slot] = oldIds[i];
+                totals[slot] = oldTotals[i];
+            }
+        }
+    }
+    
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+    
+    /**
+     * Build a chunk key in Paper's layout
+     */
+    static long key(int chunkX, int chunkZ) {
+        return (chunkX & 0xFFFFFFFFL) | ((chunkZ & 0xFFFFFFFFL) << 32);
+    }
+    
+    static int keyX(long key) {
+        return (int) key;
+    }
+    
+    static int keyZ(long key) {
+        return (int) (key >>> 32);
+    }
+}
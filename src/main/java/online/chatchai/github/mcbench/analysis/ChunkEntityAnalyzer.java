@@ -1,9 +1,13 @@
 package online.chatchai.github.mcbench.analysis;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import org.bukkit.Bukkit;
@@ -11,15 +15,27 @@ import org.bukkit.Chunk;
 import org.bukkit.World;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
+import org.bukkit.scheduler.BukkitRunnable;
 
 import online.chatchai.github.mcbench.Main;
+import online.chatchai.github.mcbench.config.ConfigManager;
 
 /**
  * Chunk and entity analyzer for MCBench Pro
- * Analyzes server world state to provide insights for performance tuning
+ * Analyzes server world state to provide insights for performance tuning.
+ * Work is split in two: the main thread only copies chunk coordinates and entity type ordinals
+ * into an {@link EntitySnapshot}, a bounded number of chunks per tick within a nanosecond budget
+ * so a large world never stalls a tick; counting and density ranking then run on a worker thread
+ * in one {@link WorldScanner} pass.
+ * With the live {@link EntityIndex} enabled the snapshot is copied from its counters instead.
+ * Connected hot chunks are grouped by {@link HotspotClusterer} into clusters and region heatmaps.
+ * The result records what the capture cost on the main thread and how long the analysis took.
  */
 public class ChunkEntityAnalyzer {
     
+    public static final int TOP_CHUNKS = 5;
+    private static final EntityType[] ENTITY_TYPES = EntityType.values();
+    
     private final Main plugin;
     
     public ChunkEntityAnalyzer(Main plugin) {
@@ -27,116 +43,265 @@ public class ChunkEntityAnalyzer {
     }
     
     /**
-     * Perform comprehensive chunk and entity analysis
+     * Perform comprehensive chunk and entity analysis in one go on the calling (main) thread
+     * Use only where the result is needed immediately (e.g. while the plugin is disabling).
      * @return Analysis result containing all collected data
      */
     public AnalysisResult performAnalysis() {
+        ConfigManager configManager = plugin.getConfigManager();
+        return analyze(captureNow(), configManager.getHotChunkEntities(), configManager.getMaxReportedClusters());
+    }
+    
+    /**
+     * Capture incrementally on the main thread, then analyze on a worker thread
+     * @param sliceBudgetNanos Main-thread time the capture may use per tick
+     * @param maxChunksPerTick Chunks captured per tick at most
+     * @return Future completing off the main thread; cancelling it also stops the capture
+     */
+    public CompletableFuture<AnalysisResult> analyzeAsync(long sliceBudgetNanos, int maxChunksPerTick) {
+        CompletableFuture<EntitySnapshot> capture = capture(sliceBudgetNanos, maxChunksPerTick);
+        int hotChunkEntities = plugin.getConfigManager().getHotChunkEntities();
+        int maxClusters = plugin.getConfigManager().getMaxReportedClusters();
+        CompletableFuture<AnalysisResult> result = capture.thenApplyAsync(
+            snapshot -> analyze(snapshot, hotChunkEntities, maxClusters));
+        result.whenComplete((analysis, error) -> {
+            if (result.isCancelled()) {
+                capture.cancel(false);
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * Copy all loaded chunks with entities, spread over as many ticks as needed
+     * Completes at once from the live {@link EntityIndex} when it is enabled.
+     * Must be called on the main thread.
+     * @param sliceBudgetNanos Main-thread time the capture may use per tick
+     * @param maxChunksPerTick Chunks captured per tick at most
+     * @return Future completing on the main thread once every world has been captured
+     */
+    public CompletableFuture<EntitySnapshot> capture(long sliceBudgetNanos, int maxChunksPerTick) {
+        EntityIndex index = plugin.getEntityIndex();
+        if (index != null) {
+            return CompletableFuture.completedFuture(index.snapshot());
+        }
+        Capture capture = new Capture(Math.max(1L, sliceBudgetNanos), Math.max(1, maxChunksPerTick));
+        capture.runTaskTimer(plugin, 0L, 1L);
+        return capture.future;
+    }
+    
+    /**
+     * Copy all loaded chunks with entities in one go, from the live index when it is enabled
+     * Must be called on the main thread.
+     */
+    public EntitySnapshot captureNow() {
+        EntityIndex index = plugin.getEntityIndex();
+        if (index != null) {
+            return index.snapshot();
+        }
+        Capture capture = new Capture(Long.MAX_VALUE, Integer.MAX_VALUE);
         try {
-            Map<String, Integer> loadedChunks = analyzeLoadedChunks();
-            Map<EntityType, Integer> entityCounts = analyzeEntityCounts();
-            List<ChunkEntityDensity> topChunksByDensity = analyzeChunkEntityDensity();
-            
-            int totalChunks = loadedChunks.values().stream().mapToInt(Integer::intValue).sum();
-            int totalEntities = entityCounts.values().stream().mapToInt(Integer::intValue).sum();
-            
-            return new AnalysisResult(
-                totalChunks,
-                totalEntities,
-                loadedChunks,
-                entityCounts,
-                topChunksByDensity
-            );
-            
+            capture.step();
         } catch (Exception e) {
             plugin.getLogger().warning("Failed to perform chunk/entity analysis: " + e.getMessage());
-            return new AnalysisResult(0, 0, new HashMap<>(), new HashMap<>(), new ArrayList<>());
         }
+        return capture.build();
     }
     
     /**
-     * Analyze loaded chunks per world
-     * @return Map of world name to loaded chunk count
+     * Count entity types, chunks per world, find the densest chunks and cluster hot chunks
+     * Works on the snapshot alone and is safe to call from any thread.
+     * @param hotChunkEntities Entities a chunk needs to count as hot
+     * @param maxClusters Number of hotspot clusters to keep
      */
-    private Map<String, Integer> analyzeLoadedChunks() {
-        Map<String, Integer> result = new HashMap<>();
+    public static AnalysisResult analyze(EntitySnapshot snapshot, int hotChunkEntities, int maxClusters) {
+        return analyze(WorldScanner.scan(snapshot, new int[0], TOP_CHUNKS), hotChunkEntities, maxClusters);
+    }
+    
+    /**
+     * Build the analysis from a scan that ranked the densest chunks (any thread)
+     */
+    public static AnalysisResult analyze(WorldScanner.Scan scan, int hotChunkEntities, int maxClusters) {
+        long startNanos = System.nanoTime();
+        EntitySnapshot snapshot = scan.getSnapshot();
         
-        for (World world : Bukkit.getWorlds()) {
-            try {
-                Chunk[] loadedChunks = world.getLoadedChunks();
-                result.put(world.getName(), loadedChunks.length);
-            } catch (Exception e) {
-                plugin.getLogger().warning("Failed to analyze chunks for world " + world.getName() + ": " + e.getMessage());
-                result.put(world.getName(), 0);
+        Map<String, Integer> loadedChunks = new LinkedHashMap<>();
+        int totalChunks = 0;
+        for (int world = 0; world < snapshot.getWorldCount(); world++) {
+            loadedChunks.merge(snapshot.getWorldName(world), snapshot.getLoadedChunks(world), Integer::sum);
+            totalChunks += snapshot.getLoadedChunks(world);
+        }
+        
+        Map<EntityType, Integer> entityCounts = new EnumMap<>(EntityType.class);
+        for (int i = 0; i < ENTITY_TYPES.length; i++) {
+            if (scan.getTypeTotal(i) > 0) {
+                entityCounts.put(ENTITY_TYPES[i], scan.getTypeTotal(i));
             }
         }
         
-        return result;
+        List<ChunkEntityDensity> densest = new ArrayList<>();
+        for (int chunk : scan.getTopChunks()) {
+            densest.add(toDensity(scan, chunk));
+        }
+        
+        List<HotspotClusterer.Cluster> clusters = HotspotClusterer.cluster(snapshot, hotChunkEntities, maxClusters);
+        List<HotspotClusterer.RegionCell> heatmap = HotspotClusterer.heatmap(snapshot, hotChunkEntities);
+        
+        ScanCost cost = new ScanCost(
+            snapshot.getChunksScanned(),
+            snapshot.getCaptureTicks(),
+            snapshot.getCaptureNanos() / 1_000_000.0,
+            snapshot.getMaxSliceNanos() / 1_000_000.0,
+            snapshot.getWallNanos() / 1_000_000.0,
+            (scan.getScanNanos() + System.nanoTime() - startNanos) / 1_000_000.0
+        );
+        return new AnalysisResult(
+            totalChunks,
+            snapshot.getEntityCount(),
+            loadedChunks,
+            entityCounts,
+            Collections.unmodifiableList(densest),
+            Collections.unmodifiableList(clusters),
+            Collections.unmodifiableList(heatmap),
+            cost
+        );
+    }
+    
+    private static ChunkEntityDensity toDensity(WorldScanner.Scan scan, int chunk) {
+        EntitySnapshot snapshot = scan.getSnapshot();
+        Map<EntityType, Integer> chunkEntityCounts = new EnumMap<>(EntityType.class);
+        int[] counts = scan.getChunkBreakdown(chunk);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                chunkEntityCounts.put(ENTITY_TYPES[i], counts[i]);
+            }
+        }
+        return new ChunkEntityDensity(
+            snapshot.getWorldName(snapshot.getChunkWorld(chunk)),
+            snapshot.getChunkX(chunk),
+            snapshot.getChunkZ(chunk),
+            snapshot.getChunkEntityCount(chunk),
+            chunkEntityCounts
+        );
     }
     
     /**
-     * Analyze entity counts by type across all worlds
-     * @return Map of entity type to count
+     * One pass over all loaded chunks of all worlds, copying into an {@link EntitySnapshot}
+     * Chunk arrays are fetched per world when the pass reaches it; chunks that unloaded since
+     * are skipped.
      */
-    private Map<EntityType, Integer> analyzeEntityCounts() {
-        Map<EntityType, Integer> entityCounts = new HashMap<>();
+    private class Capture extends BukkitRunnable {
+        private final CompletableFuture<EntitySnapshot> future = new CompletableFuture<>();
+        private final EntitySnapshot.Builder builder = new EntitySnapshot.Builder();
+        private final List<World> worlds = new ArrayList<>(Bukkit.getWorlds());
+        private final long sliceBudgetNanos;
+        private final int maxChunksPerTick;
+        private final long startNanos = System.nanoTime();
+        
+        private int worldIndex = 0;
+        private int world;
+        private Chunk[] chunks;
+        private int chunkIndex = 0;
+        
+        private int slices = 0;
+        private long busyNanos = 0L;
+        private long maxSliceNanos = 0L;
+        
+        Capture(long sliceBudgetNanos, int maxChunksPerTick) {
+            this.sliceBudgetNanos = sliceBudgetNanos;
+            this.maxChunksPerTick = maxChunksPerTick;
+        }
         
-        for (World world : Bukkit.getWorlds()) {
+        @Override
+        public void run() {
+            // Cancelled by the consumer
+            if (future.isDone()) {
+                cancel();
+                return;
+            }
+            
+            boolean done;
             try {
-                for (Entity entity : world.getEntities()) {
-                    EntityType type = entity.getType();
-                    entityCounts.merge(type, 1, Integer::sum);
-                }
+                done = step();
             } catch (Exception e) {
-                plugin.getLogger().warning("Failed to analyze entities for world " + world.getName() + ": " + e.getMessage());
+                plugin.getLogger().warning("Failed to perform chunk/entity analysis: " + e.getMessage());
+                done = true;
+            }
+            
+            if (done) {
+                cancel();
+                future.complete(build());
             }
         }
         
-        return entityCounts;
-    }
-    
-    /**
-     * Analyze chunk entity density to find performance hotspots
-     * @return List of top 5 chunks by entity density
-     */
-    private List<ChunkEntityDensity> analyzeChunkEntityDensity() {
-        List<ChunkEntityDensity> densities = new ArrayList<>();
-        
-        for (World world : Bukkit.getWorlds()) {
+        /**
+         * Copy chunks until the budget or chunk limit is used up
+         * @return true once every world has been captured
+         */
+        boolean step() {
+            long sliceStart = System.nanoTime();
+            int processed = 0;
             try {
-                Chunk[] loadedChunks = world.getLoadedChunks();
-                
-                for (Chunk chunk : loadedChunks) {
-                    try {
-                        Entity[] entities = chunk.getEntities();
-                        if (entities.length > 0) {
-                            Map<EntityType, Integer> chunkEntityCounts = new HashMap<>();
-                            for (Entity entity : entities) {
-                                chunkEntityCounts.merge(entity.getType(), 1, Integer::sum);
-                            }
-                            
-                            densities.add(new ChunkEntityDensity(
-                                world.getName(),
-                                chunk.getX(),
-                                chunk.getZ(),
-                                entities.length,
-                                chunkEntityCounts
-                            ));
+                while (true) {
+                    if (chunks == null) {
+                        if (worldIndex >= worlds.size()) {
+                            return true;
                         }
-                    } catch (Exception e) {
-                        // Skip problematic chunks
+                        openWorld(worlds.get(worldIndex));
+                    }
+                    if (chunkIndex >= chunks.length) {
+                        chunks = null;
+                        worldIndex++;
                         continue;
                     }
+                    if (processed > 0 && (processed >= maxChunksPerTick || System.nanoTime() - sliceStart >= sliceBudgetNanos)) {
+                        return false;
+                    }
+                    
+                    copyChunk(chunks[chunkIndex]);
+                    chunks[chunkIndex++] = null;
+                    processed++;
                 }
+            } finally {
+                long spent = System.nanoTime() - sliceStart;
+                busyNanos += spent;
+                maxSliceNanos = Math.max(maxSliceNanos, spent);
+                slices++;
+            }
+        }
+        
+        private void openWorld(World next) {
+            chunkIndex = 0;
+            try {
+                chunks = next.getLoadedChunks();
             } catch (Exception e) {
-                plugin.getLogger().warning("Failed to analyze chunk density for world " + world.getName() + ": " + e.getMessage());
+                plugin.getLogger().warning("Failed to analyze chunks for world " + next.getName() + ": " + e.getMessage());
+                chunks = new Chunk[0];
             }
+            world = builder.addWorld(next.getName(), chunks.length);
         }
         
-        // Return top 5 chunks by entity count
-        return densities.stream()
-            .sorted((a, b) -> Integer.compare(b.getTotalEntities(), a.getTotalEntities()))
-            .limit(5)
-            .collect(Collectors.toList());
+        private void copyChunk(Chunk chunk) {
+            Entity[] entities;
+            try {
+                if (!chunk.isLoaded()) {
+                    return;
+                }
+                entities = chunk.getEntities();
+            } catch (Exception e) {
+                // Skip problematic chunks
+                return;
+            }
+            
+            builder.addChunk(world, chunk.getX(), chunk.getZ());
+            for (Entity entity : entities) {
+                builder.addEntity(entity.getType().ordinal());
+            }
+        }
+        
+        EntitySnapshot build() {
+            return builder.build(slices, busyNanos, maxSliceNanos, System.nanoTime() - startNanos);
+        }
     }
     
     /**
@@ -148,16 +313,25 @@ public class ChunkEntityAnalyzer {
         private final Map<String, Integer> loadedChunksByWorld;
         private final Map<EntityType, Integer> entityCountsByType;
         private final List<ChunkEntityDensity> topChunksByDensity;
+        private final List<HotspotClusterer.Cluster> hotspotClusters;
+        private final List<HotspotClusterer.RegionCell> regionHeatmap;
+        private final ScanCost scanCost;
         
         public AnalysisResult(int totalLoadedChunks, int totalEntities,
                              Map<String, Integer> loadedChunksByWorld,
                              Map<EntityType, Integer> entityCountsByType,
-                             List<ChunkEntityDensity> topChunksByDensity) {
+                             List<ChunkEntityDensity> topChunksByDensity,
+                             List<HotspotClusterer.Cluster> hotspotClusters,
+                             List<HotspotClusterer.RegionCell> regionHeatmap,
+                             ScanCost scanCost) {
             this.totalLoadedChunks = totalLoadedChunks;
             this.totalEntities = totalEntities;
             this.loadedChunksByWorld = loadedChunksByWorld;
             this.entityCountsByType = entityCountsByType;
             this.topChunksByDensity = topChunksByDensity;
+            this.hotspotClusters = hotspotClusters;
+            this.regionHeatmap = regionHeatmap;
+            this.scanCost = scanCost;
         }
         
         // Getters
@@ -166,6 +340,17 @@ public class ChunkEntityAnalyzer {
         public Map<String, Integer> getLoadedChunksByWorld() { return loadedChunksByWorld; }
         public Map<EntityType, Integer> getEntityCountsByType() { return entityCountsByType; }
         public List<ChunkEntityDensity> getTopChunksByDensity() { return topChunksByDensity; }
+        public List<HotspotClusterer.Cluster> getHotspotClusters() { return hotspotClusters; }
+        public List<HotspotClusterer.RegionCell> getRegionHeatmap() { return regionHeatmap; }
+        public ScanCost getScanCost() { return scanCost; }
+        
+        /**
+         * Get an empty result for when the analysis failed
+         */
+        public static AnalysisResult empty() {
+            return new AnalysisResult(0, 0, new HashMap<>(), new HashMap<>(), new ArrayList<>(),
+                new ArrayList<>(), new ArrayList<>(), null);
+        }
         
         /**
          * Get formatted string of loaded chunks by world
@@ -239,4 +424,34 @@ public class ChunkEntityAnalyzer {
                 .collect(Collectors.joining(", "));
         }
     }
+    
+    /**
+     * Cost of an analysis: the main-thread capture and the off-thread analysis
+     */
+    public static class ScanCost {
+        private final int chunksScanned;
+        private final int ticks;
+        private final double mainThreadMillis;
+        private final double maxTickMillis;
+        private final double wallMillis;
+        private final double analysisMillis;
+        
+        public ScanCost(int chunksScanned, int ticks, double mainThreadMillis,
+                       double maxTickMillis, double wallMillis, double analysisMillis) {
+            this.chunksScanned = chunksScanned;
+            this.ticks = ticks;
+            this.mainThreadMillis = mainThreadMillis;
+            this.maxTickMillis = maxTickMillis;
+            this.wallMillis = wallMillis;
+            this.analysisMillis = analysisMillis;
+        }
+        
+        // Getters
+        public int getChunksScanned() { return chunksScanned; }
+        public int getTicks() { return ticks; }
+        public double getMainThreadMillis() { return mainThreadMillis; }
+        public double getMaxTickMillis() { return maxTickMillis; }
+        public double getWallMillis() { return wallMillis; }
+        public double getAnalysisMillis() { return analysisMillis; }
+    }
 }
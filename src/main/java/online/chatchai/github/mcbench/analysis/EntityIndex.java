@@ -0,0 +1,553 @@
+package online.chatchai.github.mcbench.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.scheduler.BukkitTask;
+
+import com.destroystokyo.paper.event.entity.EntityAddToWorldEvent;
+import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
+
+import online.chatchai.github.mcbench.Main;
+
+/**
+ * Live entity/chunk index for MCBench Pro
+ * Kept up to date from entity add/remove and chunk load/unload events, so entity totals,
+ * per-type counts and loaded chunks are O(1) reads and a full {@link EntitySnapshot} costs
+ * one pass over the chunks that hold entities instead of a walk over every loaded chunk.
+ * Each world keeps a {@link ChunkCounterMap} of per-EntityType counters and entity ids, and the
+ * chunk, type and last resync pass every entity was counted and seen with. Entities are
+ * attributed to the chunk they were added in; a resync task re-reads a few loaded chunks per
+ * tick, round robin, moving entities that walked into another chunk and dropping entities whose
+ * remove event was missed once no pass has seen them for two passes. Main thread only.
+ */
+public class EntityIndex implements Listener {
+    
+    private static final EntityType[] ENTITY_TYPES = EntityType.values();
+    
+    private final Main plugin;
+    private final int resyncChunksPerTick;
+    private final Map<UUID, WorldIndex> worlds = new LinkedHashMap<>();
+    private final int[] typeTotals = new int[ENTITY_TYPES.length];
+    private int totalEntities = 0;
+    private int loadedChunks = 0;
+    
+    private BukkitTask resyncTask;
+    private List<World> resyncWorlds = new ArrayList<>();
+    private int resyncWorldIndex = 0;
+    private Chunk[] resyncChunks;
+    private int resyncChunkIndex = 0;
+    private int resyncPass = 0;
+    private long movedEntities = 0L;
+    
+    public EntityIndex(Main plugin, int resyncChunksPerTick) {
+        this.plugin = plugin;
+        this.resyncChunksPerTick = Math.max(1, resyncChunksPerTick);
+    }
+    
+    /**
+     * Build the index from the worlds loaded now and start the resync task
+     * Register this as a listener in the same tick so no event is missed.
+     */
+    public void start() {
+        long startNanos = System.nanoTime();
+        rebuild();
+        plugin.getLogger().info(String.format("Entity index built: %d entities in %d chunks (%.1f ms)",
+            totalEntities, loadedChunks, (System.nanoTime() - startNanos) / 1_000_000.0));
+        
+        if (resyncTask == null) {
+            resyncTask = Bukkit.getScheduler().runTaskTimer(plugin, this::resync, 20L, 1L);
+        }
+    }
+    
+    public void stop() {
+        if (resyncTask != null) {
+            resyncTask.cancel();
+            resyncTask = null;
+        }
+        worlds.clear();
+        Arrays.fill(typeTotals, 0);
+        totalEntities = 0;
+        loadedChunks = 0;
+    }
+    
+    /**
+     * Discard all counters and count every loaded chunk again
+     */
+    public void rebuild() {
+        worlds.clear();
+        Arrays.fill(typeTotals, 0);
+        totalEntities = 0;
+        loadedChunks = 0;
+        
+        for (World world : Bukkit.getWorlds()) {
+            try {
+                WorldIndex index = worldIndex(world);
+                Chunk[] chunks = world.getLoadedChunks();
+                index.loadedChunks = chunks.length;
+                loadedChunks += chunks.length;
+                for (Chunk chunk : chunks) {
+                    long key = ChunkCounterMap.key(chunk.getX(), chunk.getZ());
+                    for (Entity entity : chunk.getEntities()) {
+                        track(index, entity, key);
+                    }
+                }
+            } catch (Exception e) {
+                plugin.getLogger().warning("Failed to index world " + world.getName() + ": " + e.getMessage());
+            }
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityAdd(EntityAddToWorldEvent event) {
+        Entity entity = event.getEntity();
+        track(worldIndex(event.getWorld()), entity, chunkKey(entity.getLocation()));
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityRemove(EntityRemoveFromWorldEvent event) {
+        Entity entity = event.getEntity();
+        WorldIndex index = worlds.get(event.getWorld().getUID());
+        if (index != null) {
+            untrack(index, entity.getEntityId());
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        worldIndex(event.getWorld()).loadedChunks++;
+        loadedChunks++;
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        // Entities of the chunk leave through their own remove events
+        WorldIndex index = worlds.get(event.getWorld().getUID());
+        if (index != null && index.loadedChunks > 0) {
+            index.loadedChunks--;
+            loadedChunks--;
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        WorldIndex index = worlds.remove(event.getWorld().getUID());
+        if (index == null) {
+            return;
+        }
+        for (int slot = 0; slot < index.chunks.capacity(); slot++) {
+            if (index.chunks.isUsed(slot)) {
+                int[] counts = index.chunks.countersAt(slot);
+                for (int type = 0; type < counts.length; type++) {
+                    typeTotals[type] -= counts[type];
+                }
+                totalEntities -= index.chunks.totalAt(slot);
+            }
+        }
+        loadedChunks -= index.loadedChunks;
+    }
+    
+    /**
+     * Copy the counters into a snapshot for {@link ChunkEntityAnalyzer#analyze}
+     * Each non-zero counter becomes one type run. The capture cost is the time of this call.
+     */
+    public EntitySnapshot snapshot() {
+        long startNanos = System.nanoTime();
+        EntitySnapshot.Builder builder = new EntitySnapshot.Builder();
+        for (WorldIndex index : worlds.values()) {
+            int world = builder.addWorld(index.name, index.loadedChunks);
+            ChunkCounterMap chunks = index.chunks;
+            for (int slot = 0; slot < chunks.capacity(); slot++) {
+                if (!chunks.isUsed(slot)) {
+                    continue;
+                }
+                long key = chunks.keyAt(slot);
+                builder.addChunk(world, ChunkCounterMap.keyX(key), ChunkCounterMap.keyZ(key));
+                int[] counts = chunks.countersAt(slot);
+                for (int type = 0; type < counts.length; type++) {
+                    builder.addEntities(type, counts[type]);
+                }
+            }
+        }
+        long nanos = System.nanoTime() - startNanos;
+        return builder.build(1, nanos, nanos, nanos);
+    }
+    
+    /**
+     * Re-read a few loaded chunks, moving entities counted in another chunk and dropping
+     * entities still counted in the chunk but no longer in it
+     */
+    private void resync() {
+        try {
+            int processed = 0;
+            while (processed < resyncChunksPerTick) {
+                if (resyncChunks == null || resyncChunkIndex >= resyncChunks.length) {
+                    if (!nextResyncWorld()) {
+                        return;
+                    }
+                    continue;
+                }
+                Chunk chunk = resyncChunks[resyncChunkIndex];
+                resyncChunks[resyncChunkIndex++] = null;
+                processed++;
+                if (!chunk.isLoaded()) {
+                    continue;
+                }
+                
+                WorldIndex index = worlds.get(chunk.getWorld().getUID());
+                if (index == null) {
+                    continue;
+                }
+                long key = ChunkCounterMap.key(chunk.getX(), chunk.getZ());
+                Entity[] entities = chunk.getEntities();
+                for (Entity entity : entities) {
+                    long counted = index.entityChunks.get(entity.getEntityId());
+                    if (counted == key) {
+                        index.entityChunks.markSeen(entity.getEntityId(), resyncPass);
+                        continue;
+                    }
+                    if (counted != EntityChunkMap.MISSING) {
+                        movedEntities++;
+                    }
+                    track(index, entity, key);
+                }
+                
+                // Every entity found is counted here now, so a higher count means missed removals
+                // or entities that walked into a chunk this pass already re-read
+                if (index.chunks.total(key) > entities.length) {
+                    removeGhosts(index, key);
+                }
+            }
+        } catch (Exception e) {
+            plugin.getLogger().warning("Failed to resync entity index: " + e.getMessage());
+            resyncChunks = null;
+        }
+    }
+    
+    /**
+     * Untrack the entities counted in a chunk that no resync has seen for two whole passes
+     * An entity that walks into a chunk after this pass re-read it is only found there next
+     * pass, and can miss that one too if the chunk it left comes first, so one unseen pass is
+     * not enough to call it gone.
+     */
+    private void removeGhosts(WorldIndex index, long key) {
+        for (int id : index.chunks.ids(key)) {
+            if (index.entityChunks.getSeen(id) < resyncPass - 2) {
+                untrack(index, id);
+            }
+        }
+    }
+    
+    /**
+     * Advance the resync to the next world, fetching its loaded chunks
+     * @return false when there are no worlds
+     */
+    private boolean nextResyncWorld() {
+        if (resyncWorldIndex >= resyncWorlds.size()) {
+            resyncWorlds = new ArrayList<>(Bukkit.getWorlds());
+            resyncWorldIndex = 0;
+            resyncPass++;
+            if (resyncWorlds.isEmpty()) {
+                return false;
+            }
+        }
+        World world = resyncWorlds.get(resyncWorldIndex++);
+        resyncChunkIndex = 0;
+        resyncChunks = world.getLoadedChunks();
+        
+        // Chunk events can be missed across reloads; the fetched array is authoritative
+        WorldIndex index = worldIndex(world);
+        loadedChunks += resyncChunks.length - index.loadedChunks;
+        index.loadedChunks = resyncChunks.length;
+        return true;
+    }
+    
+    /**
+     * Count an entity in a chunk, moving it if it was counted elsewhere, and mark it seen
+     */
+    private void track(WorldIndex index, Entity entity, long key) {
+        int id = entity.getEntityId();
+        long previous = index.entityChunks.get(id);
+        if (previous == key) {
+            index.entityChunks.markSeen(id, resyncPass);
+            return;
+        }
+        int type = entity.getType().ordinal();
+        if (previous != EntityChunkMap.MISSING) {
+            typeTotals[uncount(index, id, previous)]--;
+        } else {
+            totalEntities++;
+        }
+        typeTotals[type]++;
+        int position = index.chunks.add(key, type, id);
+        index.entityChunks.put(id, key, type, position, resyncPass);
+    }
+    
+    private void untrack(WorldIndex index, int entityId) {
+        long previous = index.entityChunks.get(entityId);
+        if (previous == EntityChunkMap.MISSING) {
+            return;
+        }
+        typeTotals[uncount(index, entityId, previous)]--;
+        totalEntities--;
+        index.entityChunks.remove(entityId);
+    }
+    
+    /**
+     * Take an entity out of the counters and id list of the chunk it is counted in
+     * @return EntityType ordinal it was counted with
+     */
+    private int uncount(WorldIndex index, int entityId, long key) {
+        int type = index.entityChunks.getType(entityId);
+        int position = index.entityChunks.getPosition(entityId);
+        int moved = index.chunks.remove(key, type, position);
+        if (moved != ChunkCounterMap.NO_ID) {
+            index.entityChunks.setPosition(moved, position);
+        }
+        return type;
+    }
+    
+    private WorldIndex worldIndex(World world) {
+        return worlds.computeIfAbsent(world.getUID(), uid -> new WorldIndex(world.getName()));
+    }
+    
+    private static long chunkKey(Location location) {
+        return ChunkCounterMap.key(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+    }
+    
+    /**
+     * Get number of entities in all worlds
+     */
+    public int getTotalEntities() {
+        return totalEntities;
+    }
+    
+    /**
+     * Get number of loaded chunks in all worlds
+     */
+    public int getLoadedChunks() {
+        return loadedChunks;
+    }
+    
+    /**
+     * Get number of entities of a type in all worlds
+     */
+    public int getEntityCount(EntityType type) {
+        return typeTotals[type.ordinal()];
+    }
+    
+    /**
+     * Get number of chunks holding at least one entity
+     */
+    public int getOccupiedChunks() {
+        int count = 0;
+        for (WorldIndex index : worlds.values()) {
+            count += index.chunks.size();
+        }
+        return count;
+    }
+    
+    /**
+     * Get number of entities the resync found counted in the wrong chunk
+     */
+    public long getMovedEntities() {
+        return movedEntities;
+    }
+    
+    /**
+     * Counters of one world
+     */
+    private static class WorldIndex {
+        private final String name;
+        private final ChunkCounterMap chunks = new ChunkCounterMap(ENTITY_TYPES.length);
+        private final EntityChunkMap entityChunks = new EntityChunkMap();
+        private int loadedChunks = 0;
+        
+        WorldIndex(String name) {
+            this.name = name;
+        }
+    }
+    
+    /**
+     * Open-addressing map from entity id to the chunk key, EntityType ordinal and id list
+     * position it is counted with, and the last resync pass that saw it
+     */
+    private static class EntityChunkMap {
+        static final long MISSING = Long.MIN_VALUE;
+        private static final int FREE = Integer.MIN_VALUE;
+        
+        private int[] ids = newIds(256);
+        private long[] keys = new long[256];
+        private short[] types = new short[256];
+        private int[] positions = new int[256];
+        private int[] seen = new int[256];
+        private int size = 0;
+        
+        private static int[] newIds(int capacity) {
+            int[] ids = new int[capacity];
+            Arrays.fill(ids, FREE);
+            return ids;
+        }
+        
+        long get(int id) {
+            int slot = find(id);
+            return slot >= 0 ? keys[slot] : MISSING;
+        }
+        
+        /**
+         * @return EntityType ordinal, or -1 if the id is not counted
+         */
+        int getType(int id) {
+            int slot = find(id);
+            return slot >= 0 ? types[slot] : -1;
+        }
+        
+        /**
+         * @return Position in the chunk's id list, or -1 if the id is not counted
+         */
+        int getPosition(int id) {
+            int slot = find(id);
+            return slot >= 0 ? positions[slot] : -1;
+        }
+        
+        /**
+         * @return Last resync pass that saw the id, or {@link Integer#MIN_VALUE} if not counted
+         */
+        int getSeen(int id) {
+            int slot = find(id);
+            return slot >= 0 ? seen[slot] : Integer.MIN_VALUE;
+        }
+        
+        void setPosition(int id, int position) {
+            int slot = find(id);
+            if (slot >= 0) {
+                positions[slot] = position;
+            }
+        }
+        
+        void markSeen(int id, int pass) {
+            int slot = find(id);
+            if (slot >= 0) {
+                seen[slot] = pass;
+            }
+        }
+        
+        /**
+         * @return Previous key, or {@link #MISSING}
+         */
+        long put(int id, long key, int type, int position, int pass) {
+            int slot = find(id);
+            long previous = MISSING;
+            if (slot >= 0) {
+                previous = keys[slot];
+            } else {
+                if (size + 1 > ids.length * 0.6) {
+                    resize(ids.length * 2);
+                }
+                slot = freeSlot(id);
+                ids[slot] = id;
+                size++;
+            }
+            keys[slot] = key;
+            types[slot] = (short) type;
+            positions[slot] = position;
+            seen[slot] = pass;
+            return previous;
+        }
+        
+        /**
+         * Remove with backward shifting
+         * @return Removed key, or {@link #MISSING}
+         */
+        long remove(int id) {
+            int slot = find(id);
+            if (slot < 0) {
+                return MISSING;
+            }
+            long removed = keys[slot];
+            int mask = ids.length - 1;
+            int gap = slot;
+            int next = (gap + 1) & mask;
+            while (ids[next] != FREE) {
+                int home = hash(ids[next]) & mask;
+                if (((next - home) & mask) >= ((next - gap) & mask)) {
+                    ids[gap] = ids[next];
+                    keys[gap] = keys[next];
+                    types[gap] = types[next];
+                    positions[gap] = positions[next];
+                    seen[gap] = seen[next];
+                    gap = next;
+                }
+                next = (next + 1) & mask;
+            }
+            ids[gap] = FREE;
+            size--;
+            return removed;
+        }
+        
+        private int find(int id) {
+            int mask = ids.length - 1;
+            int slot = hash(id) & mask;
+            while (ids[slot] != FREE) {
+                if (ids[slot] == id) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+        
+        private int freeSlot(int id) {
+            int mask = ids.length - 1;
+            int slot = hash(id) & mask;
+            while (ids[slot] != FREE) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+        
+        private void resize(int capacity) {
+            int[] oldIds = ids;
+            long[] oldKeys = keys;
+            short[] oldTypes = types;
+            int[] oldPositions = positions;
+            int[] oldSeen = seen;
+            ids = newIds(capacity);
+            keys = new long[capacity];
+            types = new short[capacity];
+            positions = new int[capacity];
+            seen = new int[capacity];
+            for (int i = 0; i < oldIds.length; i++) {
+                if (oldIds[i] != FREE) {
+                    int slot = freeSlot(oldIds[i]);
+                    ids[slot] = oldIds[i];
+                    keys[slot] = oldKeys[i];
+                    types[slot] = oldTypes[i];
+                    positions[slot] = oldPositions[i];
+                    seen[slot] = oldSeen[i];
+                }
+            }
+        }
+        
+        private static int hash(int id) {
+            int h = id * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
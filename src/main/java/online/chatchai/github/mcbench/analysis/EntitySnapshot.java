@@ -0,0 +1,258 @@
+package online.chatchai.github.mcbench.analysis;
+
+import java.util.Arrays;
+
+/**
+ * Packed copy of the loaded chunks and their entities for MCBench Pro
+ * Captured on the main thread and analyzed on a worker thread. Only chunks holding entities are
+ * kept: their world index and coordinates, and one (EntityType ordinal, count) run per entity
+ * type present, stored back to back, so chunk i owns runs [typeRunOffset(i), typeRunOffset(i + 1)).
+ * Immutable once built.
+ */
+public class EntitySnapshot {
+    
+    private final String[] worldNames;
+    private final int[] loadedChunks;
+    private final int chunkCount;
+    private final int[] chunkWorlds;
+    private final int[] chunkXs;
+    private final int[] chunkZs;
+    private final int[] chunkEntities;
+    private final int[] typeRunOffsets;
+    private final short[] runTypes;
+    private final int[] runEntities;
+    private final int entityCount;
+    
+    // Capture cost
+    private final int chunksScanned;
+    private final int captureTicks;
+    private final long captureNanos;
+    private final long maxSliceNanos;
+    private final long wallNanos;
+    
+    private EntitySnapshot(Builder builder, int captureTicks, long captureNanos, long maxSliceNanos, long wallNanos) {
+        this.worldNames = Arrays.copyOf(builder.worldNames, builder.worldCount);
+        this.loadedChunks = Arrays.copyOf(builder.loadedChunks, builder.worldCount);
+        this.chunkCount = builder.chunkCount;
+        this.chunkWorlds = Arrays.copyOf(builder.chunkWorlds, builder.chunkCount);
+        this.chunkXs = Arrays.copyOf(builder.chunkXs, builder.chunkCount);
+        this.chunkZs = Arrays.copyOf(builder.chunkZs, builder.chunkCount);
+        this.chunkEntities = Arrays.copyOf(builder.chunkEntities, builder.chunkCount);
+        this.typeRunOffsets = Arrays.copyOf(builder.typeRunOffsets, builder.chunkCount + 1);
+        this.runTypes = Arrays.copyOf(builder.runTypes, builder.runCount);
+        this.runEntities = Arrays.copyOf(builder.runEntities, builder.runCount);
+        this.entityCount = builder.entityCount;
+        this.chunksScanned = builder.chunksScanned;
+        this.captureTicks = captureTicks;
+        this.captureNanos = captureNanos;
+        this.maxSliceNanos = maxSliceNanos;
+        this.wallNanos = wallNanos;
+    }
+    
+    public int getWorldCount() {
+        return worldNames.length;
+    }
+    
+    public String getWorldName(int world) {
+        return worldNames[world];
+    }
+    
+    /**
+     * Get number of chunks the world had loaded when the capture reached it
+     */
+    public int getLoadedChunks(int world) {
+        return loadedChunks[world];
+    }
+    
+    /**
+     * Get number of captured chunks (chunks holding at least one entity)
+     */
+    public int getChunkCount() {
+        return chunkCount;
+    }
+    
+    public int getChunkWorld(int chunk) {
+        return chunkWorlds[chunk];
+    }
+    
+    public int getChunkX(int chunk) {
+        return chunkXs[chunk];
+    }
+    
+    public int getChunkZ(int chunk) {
+        return chunkZs[chunk];
+    }
+    
+    public int getChunkEntityCount(int chunk) {
+        return chunkEntities[chunk];
+    }
+    
+    /**
+     * Get index of the chunk's first type run
+     */
+    public int getTypeRunOffset(int chunk) {
+        return typeRunOffsets[chunk];
+    }
+    
+    /**
+     * Get number of entity types present in the chunk
+     */
+    public int getTypeRunCount(int chunk) {
+        return typeRunOffsets[chunk + 1] - typeRunOffsets[chunk];
+    }
+    
+    /**
+     * Get EntityType ordinal of a type run
+     */
+    public int getRunType(int run) {
+        return runTypes[run];
+    }
+    
+    /**
+     * Get number of entities in a type run
+     */
+    public int getRunEntities(int run) {
+        return runEntities[run];
+    }
+    
+    public int getEntityCount() {
+        return entityCount;
+    }
+    
+    // Getters
+    public int getChunksScanned() { return chunksScanned; }
+    public int getCaptureTicks() { return captureTicks; }
+    public long getCaptureNanos() { return captureNanos; }
+    public long getMaxSliceNanos() { return maxSliceNanos; }
+    public long getWallNanos() { return wallNanos; }
+    
+    /**
+     * Growable arrays filled by the capture on the main thread
+     */
+    static class Builder {
+        private String[] worldNames = new String[4];
+        private int[] loadedChunks = new int[4];
+        private int worldCount = 0;
+        
+        private int[] chunkWorlds = new int[1024];
+        private int[] chunkXs = new int[1024];
+        private int[] chunkZs = new int[1024];
+        private int[] chunkEntities = new int[1024];
+        private int[] typeRunOffsets = new int[1025];
+        private int chunkCount = 0;
+        
+        private short[] runTypes = new short[4096];
+        private int[] runEntities = new int[4096];
+        private int runCount = 0;
+        private int entityCount = 0;
+        private int chunksScanned = 0;
+        
+        // Chunk being added: per-type counts and the types touched, in first-seen order
+        private boolean chunkOpen = false;
+        private int openWorld;
+        private int openX;
+        private int openZ;
+        private int[] pending = new int[256];
+        private short[] touched = new short[64];
+        private int touchedCount = 0;
+        
+        /**
+         * Start a world
+         * @return World index for {@link #addChunk}
+         */
+        int addWorld(String name, int loaded) {
+            if (worldCount == worldNames.length) {
+                worldNames = Arrays.copyOf(worldNames, worldCount * 2);
+                loadedChunks = Arrays.copyOf(loadedChunks, worldCount * 2);
+            }
+            worldNames[worldCount] = name;
+            loadedChunks[worldCount] = loaded;
+            return worldCount++;
+        }
+        
+        /**
+         * Start a scanned chunk; its entities follow with {@link #addEntity} or {@link #addEntities}
+         * A chunk left without entities is counted as scanned but not kept.
+         */
+        void addChunk(int world, int x, int z) {
+            closeChunk();
+            chunksScanned++;
+            chunkOpen = true;
+            openWorld = world;
+            openX = x;
+            openZ = z;
+        }
+        
+        void addEntity(int typeOrdinal) {
+            addEntities(typeOrdinal, 1);
+        }
+        
+        /**
+         * Add entities of one type to the current chunk
+         */
+        void addEntities(int typeOrdinal, int count) {
+            if (count <= 0) {
+                return;
+            }
+            if (typeOrdinal >= pending.length) {
+                pending = Arrays.copyOf(pending, Math.max(pending.length * 2, typeOrdinal + 1));
+            }
+            if (pending[typeOrdinal] == 0) {
+                if (touchedCount == touched.length) {
+                    touched = Arrays.copyOf(touched, touchedCount * 2);
+                }
+                touched[touchedCount++] = (short) typeOrdinal;
+            }
+            pending[typeOrdinal] += count;
+        }
+        
+        /**
+         * Turn the current chunk's counts into type runs
+         */
+        private void closeChunk() {
+            if (!chunkOpen) {
+                return;
+            }
+            chunkOpen = false;
+            if (touchedCount == 0) {
+                return;
+            }
+            if (chunkCount == chunkWorlds.length) {
+                int capacity = chunkCount * 2;
+                chunkWorlds = Arrays.copyOf(chunkWorlds, capacity);
+                chunkXs = Arrays.copyOf(chunkXs, capacity);
+                chunkZs = Arrays.copyOf(chunkZs, capacity);
+                chunkEntities = Arrays.copyOf(chunkEntities, capacity);
+                typeRunOffsets = Arrays.copyOf(typeRunOffsets, capacity + 1);
+            }
+            if (runCount + touchedCount > runTypes.length) {
+                int capacity = Math.max(runTypes.length * 2, runCount + touchedCount);
+                runTypes = Arrays.copyOf(runTypes, capacity);
+                runEntities = Arrays.copyOf(runEntities, capacity);
+            }
+            
+            int entities = 0;
+            for (int i = 0; i < touchedCount; i++) {
+                int type = touched[i];
+                runTypes[runCount] = (short) type;
+                runEntities[runCount++] = pending[type];
+                entities += pending[type];
+                pending[type] = 0;
+            }
+            touchedCount = 0;
+            
+            chunkWorlds[chunkCount] = openWorld;
+            chunkXs[chunkCount] = openX;
+            chunkZs[chunkCount] = openZ;
+            chunkEntities[chunkCount] = entities;
+            chunkCount++;
+            typeRunOffsets[chunkCount] = runCount;
+            entityCount += entities;
+        }
+        
+        EntitySnapshot build(int captureTicks, long captureNanos, long maxSliceNanos, long wallNanos) {
+            closeChunk();
+            return new EntitySnapshot(this, captureTicks, captureNanos, maxSliceNanos, wallNanos);
+        }
+    }
+}
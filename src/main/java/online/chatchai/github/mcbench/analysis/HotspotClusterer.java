@@ -0,0 +1,246 @@
+package online.chatchai.github.mcbench.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spatial hotspot clustering for MCBench Pro
+ * A chunk is hot when it holds at least hotChunkEntities entities. Hot chunks touching each other
+ * (including diagonally) are merged into one cluster with union-find over the world's sorted
+ * chunk keys, so a farm spread over 3x3 chunks is reported as one problem with its bounding box
+ * and total entity count. All chunks are also summed into 32x32-chunk region cells (one cell
+ * per region file) for a per-world heatmap. Works on the snapshot alone (any thread).
+ */
+public final class HotspotClusterer {
+    
+    // Half of the 8-neighbourhood; the other half is covered from the neighbour's side
+    private static final int[][] NEIGHBOURS = {{1, 0}, {-1, 1}, {0, 1}, {1, 1}};
+    
+    private HotspotClusterer() {
+    }
+    
+    /**
+     * Merge connected hot chunks into clusters
+     * @param hotChunkEntities Entities a chunk needs to count as hot
+     * @param maxClusters Number of clusters to keep, by total entities
+     * @return Clusters, largest first
+     */
+    public static List<Cluster> cluster(EntitySnapshot snapshot, int hotChunkEntities, int maxClusters) {
+        List<Cluster> clusters = new ArrayList<>();
+        int threshold = Math.max(1, hotChunkEntities);
+        int[] hotChunks = new int[snapshot.getChunkCount()];
+        
+        for (int world = 0; world < snapshot.getWorldCount(); world++) {
+            int hot = 0;
+            for (int chunk = 0; chunk < snapshot.getChunkCount(); chunk++) {
+                if (snapshot.getChunkWorld(chunk) == world && snapshot.getChunkEntityCount(chunk) >= threshold) {
+                    hotChunks[hot++] = chunk;
+                }
+            }
+            if (hot == 0) {
+                continue;
+            }
+            
+            // Sorted keys of the world's hot chunks, with their entity counts
+            long[] keys = new long[hot];
+            for (int i = 0; i < hot; i++) {
+                keys[i] = ChunkCounterMap.key(snapshot.getChunkX(hotChunks[i]), snapshot.getChunkZ(hotChunks[i]));
+            }
+            Arrays.sort(keys);
+            int[] entities = new int[hot];
+            for (int i = 0; i < hot; i++) {
+                int chunk = hotChunks[i];
+                int index = Arrays.binarySearch(keys, ChunkCounterMap.key(snapshot.getChunkX(chunk), snapshot.getChunkZ(chunk)));
+                entities[index] += snapshot.getChunkEntityCount(chunk);
+            }
+            
+            // Union adjacent hot chunks
+            int[] parent = new int[hot];
+            for (int i = 0; i < hot; i++) {
+                parent[i] = i;
+            }
+            for (int i = 0; i < hot; i++) {
+                int x = ChunkCounterMap.keyX(keys[i]);
+                int z = ChunkCounterMap.keyZ(keys[i]);
+                for (int[] offset : NEIGHBOURS) {
+                    int j = Arrays.binarySearch(keys, ChunkCounterMap.key(x + offset[0], z + offset[1]));
+                    if (j >= 0) {
+                        union(parent, i, j);
+                    }
+                }
+            }
+            
+            // Aggregate per root
+            int[] clusterOf = new int[hot];
+            Arrays.fill(clusterOf, -1);
+            List<Builder> builders = new ArrayList<>();
+            for (int i = 0; i < hot; i++) {
+                int root = find(parent, i);
+                if (clusterOf[root] < 0) {
+                    clusterOf[root] = builders.size();
+                    builders.add(new Builder());
+                }
+                builders.get(clusterOf[root]).add(ChunkCounterMap.keyX(keys[i]), ChunkCounterMap.keyZ(keys[i]), entities[i]);
+            }
+            for (Builder builder : builders) {
+                clusters.add(builder.build(snapshot.getWorldName(world)));
+            }
+        }
+        
+        clusters.sort((a, b) -> Integer.compare(b.getTotalEntities(), a.getTotalEntities()));
+        return clusters.size() > maxClusters ? new ArrayList<>(clusters.subList(0, Math.max(0, maxClusters))) : clusters;
+    }
+    
+    /**
+     * Sum entities into 32x32-chunk region cells
+     * @param hotChunkEntities Entities a chunk needs to count as hot
+     * @return Cells holding entities, ordered by world, then region z, then region x
+     */
+    public static List<RegionCell> heatmap(EntitySnapshot snapshot, int hotChunkEntities) {
+        int threshold = Math.max(1, hotChunkEntities);
+        List<RegionCell> cells = new ArrayList<>();
+        for (int world = 0; world < snapshot.getWorldCount(); world++) {
+            // Values are {region x, region z, chunks, entities, hot chunks}
+            Map<Long, int[]> regions = new HashMap<>();
+            for (int chunk = 0; chunk < snapshot.getChunkCount(); chunk++) {
+                if (snapshot.getChunkWorld(chunk) != world) {
+                    continue;
+                }
+                int regionX = snapshot.getChunkX(chunk) >> 5;
+                int regionZ = snapshot.getChunkZ(chunk) >> 5;
+                int[] cell = regions.computeIfAbsent(ChunkCounterMap.key(regionX, regionZ),
+                    key -> new int[] {regionX, regionZ, 0, 0, 0});
+                int count = snapshot.getChunkEntityCount(chunk);
+                cell[2]++;
+                cell[3] += count;
+                if (count >= threshold) {
+                    cell[4]++;
+                }
+            }
+            List<int[]> rows = new ArrayList<>(regions.values());
+            rows.sort((a, b) -> a[1] != b[1] ? Integer.compare(a[1], b[1]) : Integer.compare(a[0], b[0]));
+            for (int[] cell : rows) {
+                cells.add(new RegionCell(snapshot.getWorldName(world), cell[0], cell[1], cell[2], cell[3], cell[4]));
+            }
+        }
+        return cells;
+    }
+    
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+    
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+    
+    private static class Builder {
+        private int minX = Integer.MAX_VALUE;
+        private int minZ = Integer.MAX_VALUE;
+        private int maxX = Integer.MIN_VALUE;
+        private int maxZ = Integer.MIN_VALUE;
+        private int chunks = 0;
+        private int totalEntities = 0;
+        private int peakEntities = 0;
+        
+        void add(int x, int z, int entities) {
+            minX = Math.min(minX, x);
+            minZ = Math.min(minZ, z);
+            maxX = Math.max(maxX, x);
+            maxZ = Math.max(maxZ, z);
+            chunks++;
+            totalEntities += entities;
+            peakEntities = Math.max(peakEntities, entities);
+        }
+        
+        Cluster build(String world) {
+            return new Cluster(world, minX, minZ, maxX, maxZ, chunks, totalEntities, peakEntities);
+        }
+    }
+    
+    /**
+     * Connected group of hot chunks
+     */
+    public static class Cluster {
+        private final String worldName;
+        private final int minChunkX;
+        private final int minChunkZ;
+        private final int maxChunkX;
+        private final int maxChunkZ;
+        private final int chunks;
+        private final int totalEntities;
+        private final int peakChunkEntities;
+        
+        public Cluster(String worldName, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ,
+                      int chunks, int totalEntities, int peakChunkEntities) {
+            this.worldName = worldName;
+            this.minChunkX = minChunkX;
+            this.minChunkZ = minChunkZ;
+            this.maxChunkX = maxChunkX;
+            this.maxChunkZ = maxChunkZ;
+            this.chunks = chunks;
+            this.totalEntities = totalEntities;
+            this.peakChunkEntities = peakChunkEntities;
+        }
+        
+        // Getters
+        public String getWorldName() { return worldName; }
+        public int getMinChunkX() { return minChunkX; }
+        public int getMinChunkZ() { return minChunkZ; }
+        public int getMaxChunkX() { return maxChunkX; }
+        public int getMaxChunkZ() { return maxChunkZ; }
+        public int getChunks() { return chunks; }
+        public int getTotalEntities() { return totalEntities; }
+        public int getPeakChunkEntities() { return peakChunkEntities; }
+        
+        /**
+         * Get formatted one-line summary with chunk and block bounds
+         */
+        public String getFormatted() {
+            return String.format("%s chunks (%d, %d)-(%d, %d), blocks (%d, %d)-(%d, %d): %d hot chunks, %d entities (peak %d/chunk)",
+                worldName, minChunkX, minChunkZ, maxChunkX, maxChunkZ,
+                minChunkX << 4, minChunkZ << 4, (maxChunkX << 4) + 15, (maxChunkZ << 4) + 15,
+                chunks, totalEntities, peakChunkEntities);
+        }
+    }
+    
+    /**
+     * Entity totals of one 32x32-chunk region; chunks counts only chunks holding entities
+     */
+    public static class RegionCell {
+        private final String worldName;
+        private final int regionX;
+        private final int regionZ;
+        private final int chunks;
+        private final int entities;
+        private final int hotChunks;
+        
+        public RegionCell(String worldName, int regionX, int regionZ, int chunks, int entities, int hotChunks) {
+            this.worldName = worldName;
+            this.regionX = regionX;
+            this.regionZ = regionZ;
+            this.chunks = chunks;
+            this.entities = entities;
+            this.hotChunks = hotChunks;
+        }
+        
+        // Getters
+        public String getWorldName() { return worldName; }
+        public int getRegionX() { return regionX; }
+        public int getRegionZ() { return regionZ; }
+        public int getChunks() { return chunks; }
+        public int getEntities() { return entities; }
+        public int getHotChunks() { return hotChunks; }
+    }
+}
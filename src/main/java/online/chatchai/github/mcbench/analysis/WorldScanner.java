@@ -0,0 +1,171 @@
+package online.chatchai.github.mcbench.analysis;
+
+import org.bukkit.entity.EntityType;
+
+/**
+ * Single-pass scanner over an {@link EntitySnapshot} for MCBench Pro
+ * Walks every captured (chunk, type) run exactly once, adding into one EntityType ordinal-indexed
+ * int[]. A chunk's count of a tracked type is the growth of that type's counter across the chunk,
+ * so per-chunk counts cost nothing per run. The densest chunks are ranked in the same pass.
+ * The benchmark analysis and the diagnostics totals and hotspot checks all read one scan.
+ * Safe to call from any thread.
+ */
+public final class WorldScanner {
+    
+    private static final int TYPE_COUNT = EntityType.values().length;
+    
+    private WorldScanner() {
+    }
+    
+    /**
+     * Scan a snapshot
+     * @param trackedTypes EntityType ordinals to count per chunk
+     * @param topChunks Number of densest chunks to rank
+     */
+    public static Scan scan(EntitySnapshot snapshot, int[] trackedTypes, int topChunks) {
+        long startNanos = System.nanoTime();
+        int chunkCount = snapshot.getChunkCount();
+        int tracked = trackedTypes.length;
+        int[] typeTotals = new int[TYPE_COUNT];
+        int[] chunkCounts = new int[chunkCount * tracked];
+        int[] before = new int[tracked];
+        
+        // Min-heap of chunk indices by entity count
+        int[] heap = new int[Math.max(0, topChunks)];
+        int heapSize = 0;
+        
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            for (int t = 0; t < tracked; t++) {
+                before[t] = typeTotals[trackedTypes[t]];
+            }
+            
+            int from = snapshot.getTypeRunOffset(chunk);
+            int to = from + snapshot.getTypeRunCount(chunk);
+            for (int run = from; run < to; run++) {
+                typeTotals[snapshot.getRunType(run)] += snapshot.getRunEntities(run);
+            }
+            
+            int base = chunk * tracked;
+            for (int t = 0; t < tracked; t++) {
+                chunkCounts[base + t] = typeTotals[trackedTypes[t]] - before[t];
+            }
+            
+            if (heapSize < heap.length) {
+                heap[heapSize] = chunk;
+                siftUp(snapshot, heap, heapSize++);
+            } else if (heapSize > 0 && snapshot.getChunkEntityCount(chunk) > snapshot.getChunkEntityCount(heap[0])) {
+                heap[0] = chunk;
+                siftDown(snapshot, heap, heapSize);
+            }
+        }
+        
+        // Heap into descending order
+        int[] top = new int[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            top[i] = heap[0];
+            heap[0] = heap[--heapSize];
+            siftDown(snapshot, heap, heapSize);
+        }
+        
+        return new Scan(snapshot, typeTotals, trackedTypes.clone(), chunkCounts, top, System.nanoTime() - startNanos);
+    }
+    
+    private static void siftUp(EntitySnapshot snapshot, int[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (snapshot.getChunkEntityCount(heap[index]) >= snapshot.getChunkEntityCount(heap[parent])) {
+                return;
+            }
+            swap(heap, index, parent);
+            index = parent;
+        }
+    }
+    
+    private static void siftDown(EntitySnapshot snapshot, int[] heap, int size) {
+        int index = 0;
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && snapshot.getChunkEntityCount(heap[left]) < snapshot.getChunkEntityCount(heap[smallest])) {
+                smallest = left;
+            }
+            if (right < size && snapshot.getChunkEntityCount(heap[right]) < snapshot.getChunkEntityCount(heap[smallest])) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(heap, index, smallest);
+            index = smallest;
+        }
+    }
+    
+    private static void swap(int[] heap, int a, int b) {
+        int tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+    }
+    
+    /**
+     * Result of one scan; chunk indices are those of the snapshot
+     */
+    public static class Scan {
+        private final EntitySnapshot snapshot;
+        private final int[] typeTotals;
+        private final int[] trackedTypes;
+        private final int[] chunkCounts;
+        private final int[] topChunks;
+        private final long scanNanos;
+        
+        private Scan(EntitySnapshot snapshot, int[] typeTotals, int[] trackedTypes, int[] chunkCounts,
+                    int[] topChunks, long scanNanos) {
+            this.snapshot = snapshot;
+            this.typeTotals = typeTotals;
+            this.trackedTypes = trackedTypes;
+            this.chunkCounts = chunkCounts;
+            this.topChunks = topChunks;
+            this.scanNanos = scanNanos;
+        }
+        
+        /**
+         * Get number of entities of a type over all chunks
+         */
+        public int getTypeTotal(int typeOrdinal) {
+            return typeTotals[typeOrdinal];
+        }
+        
+        /**
+         * Get number of entities of a tracked type in a chunk
+         * @param trackedIndex Index of the type in the trackedTypes given to {@link WorldScanner#scan}
+         */
+        public int getChunkCount(int chunk, int trackedIndex) {
+            return chunkCounts[chunk * trackedTypes.length + trackedIndex];
+        }
+        
+        /**
+         * Get the densest chunks, densest first
+         */
+        public int[] getTopChunks() {
+            return topChunks.clone();
+        }
+        
+        /**
+         * Count every entity type of a chunk (for the few chunks that need a full breakdown)
+         * @return EntityType ordinal-indexed counts
+         */
+        public int[] getChunkBreakdown(int chunk) {
+            int[] counts = new int[TYPE_COUNT];
+            int from = snapshot.getTypeRunOffset(chunk);
+            int to = from + snapshot.getTypeRunCount(chunk);
+            for (int run = from; run < to; run++) {
+                counts[snapshot.getRunType(run)] += snapshot.getRunEntities(run);
+            }
+            return counts;
+        }
+        
+        // Getters
+        public EntitySnapshot getSnapshot() { return snapshot; }
+        public long getScanNanos() { return scanNanos; }
+    }
+}
@@ -0,0 +1,231 @@
+package online.chatchai.github.mcbench.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Closed-loop intensity controller for MCBench Pro
+ * Adjusts the intensity multiplier every tick with a PID controller so tick time holds
+ * at a setpoint MSPT, and records how much synthetic work fits into each tick over time.
+ * The controller runs in velocity form on the relative error and scales its output by the
+ * current intensity, so the same gains behave alike on slow and fast hardware.
+ */
+public class AdaptiveController {
+    
+    // Largest relative intensity change allowed in a single tick
+    private static final double MAX_STEP = 0.5;
+    
+    private final double setpointMspt;
+    private final double kp;
+    private final double ki;
+    private final double kd;
+    private final double minIntensity;
+    private final double maxIntensity;
+    private final long sampleIntervalMillis;
+    
+    private double intensity;
+    private double previousError = 0.0;
+    private double previousPreviousError = 0.0;
+    private long lastUpdateTime = 0L;
+    private long lastTickCount = -1L;
+    private long startTime = 0L;
+    
+    // Accumulators for the sample currently being built
+    private long sampleStartTime = 0L;
+    private long sampleLoops = 0L;
+    private int sampleTicks = 0;
+    private double sampleIntensitySum = 0.0;
+    private double sampleMsptSum = 0.0;
+    private int sampleMsptCount = 0;
+    
+    private final List<Sample> samples = new ArrayList<>();
+    
+    public AdaptiveController(double setpointMspt, double kp, double ki, double kd,
+                             double initialIntensity, double minIntensity, double maxIntensity,
+                             int sampleIntervalSeconds) {
+        this.setpointMspt = Math.max(1.0, setpointMspt);
+        this.kp = kp;
+        this.ki = ki;
+        this.kd = kd;
+        this.minIntensity = Math.max(0.0001, minIntensity);
+        this.maxIntensity = Math.max(this.minIntensity, maxIntensity);
+        this.sampleIntervalMillis = Math.max(1, sampleIntervalSeconds) * 1000L;
+        this.intensity = Math.max(this.minIntensity, Math.min(this.maxIntensity, initialIntensity));
+    }
+    
+    /**
+     * Feed the duration of the previous tick and update the intensity multiplier
+     * @param tickNanos Duration of the last completed tick in nanoseconds (0 if unknown)
+     * @param tickCount Number of ticks completed so far, identifying the tick tickNanos belongs to
+     * @param now Current wall clock time in milliseconds
+     * @return Intensity multiplier to apply this tick
+     */
+    public double update(long tickNanos, long tickCount, long now) {
+        if (startTime == 0L) {
+            startTime = now;
+            sampleStartTime = now;
+        }
+        
+        // Only react once per completed tick
+        if (tickNanos <= 0L || tickCount == lastTickCount) {
+            return intensity;
+        }
+        lastTickCount = tickCount;
+        
+        double mspt = tickNanos / 1_000_000.0;
+        sampleMsptSum += mspt;
+        sampleMsptCount++;
+        
+        if (lastUpdateTime == 0L) {
+            lastUpdateTime = now;
+            previousError = (setpointMspt - mspt) / setpointMspt;
+            previousPreviousError = previousError;
+            return intensity;
+        }
+        
+        double dt = Math.max(0.001, (now - lastUpdateTime) / 1000.0);
+        lastUpdateTime = now;
+        
+        // Velocity-form PID: integral action lives in the accumulated intensity, so there is no windup
+        double error = (setpointMspt - mspt) / setpointMspt;
+        double delta = kp * (error - previousError)
+            + ki * error * dt
+            + kd * (error - 2 * previousError + previousPreviousError) / dt;
+        delta = Math.max(-MAX_STEP, Math.min(MAX_STEP, delta));
+        
+        intensity = Math.max(minIntensity, Math.min(maxIntensity, intensity * (1.0 + delta)));
+        previousPreviousError = previousError;
+        previousError = error;
+        
+        return intensity;
+    }
+    
+    /**
+     * Record the work executed this tick
+     * @param loopCount Loops run this tick
+     * @param now Current wall clock time in milliseconds
+     */
+    public void recordWork(int loopCount, long now) {
+        sampleLoops += loopCount;
+        sampleTicks++;
+        sampleIntensitySum += intensity;
+        
+        if (now - sampleStartTime >= sampleIntervalMillis) {
+            flushSample(now);
+        }
+    }
+    
+    /**
+     * Close the current sample and start a new one
+     */
+    private void flushSample(long now) {
+        if (sampleTicks > 0) {
+            samples.add(new Sample(
+                (sampleStartTime - startTime) / 1000.0,
+                sampleIntensitySum / sampleTicks,
+                sampleLoops / (double) sampleTicks,
+                sampleMsptCount > 0 ? sampleMsptSum / sampleMsptCount : 0.0
+            ));
+        }
+        
+        sampleStartTime = now;
+        sampleLoops = 0L;
+        sampleTicks = 0;
+        sampleIntensitySum = 0.0;
+        sampleMsptSum = 0.0;
+        sampleMsptCount = 0;
+    }
+    
+    /**
+     * Get the current intensity multiplier
+     */
+    public double getIntensity() {
+        return intensity;
+    }
+    
+    /**
+     * Get controller outcome
+     * Sustained throughput is averaged over the second half of the samples, after the
+     * controller has settled
+     */
+    public Result getResult() {
+        List<Sample> all = new ArrayList<>(samples);
+        if (all.isEmpty()) {
+            return null;
+        }
+        
+        List<Sample> settled = all.subList(all.size() / 2, all.size());
+        double loopsSum = 0.0;
+        double msptSum = 0.0;
+        double errorSum = 0.0;
+        for (Sample sample : settled) {
+            loopsSum += sample.getLoopsPerTick();
+            msptSum += sample.getMspt();
+            errorSum += Math.abs(sample.getMspt() - setpointMspt);
+        }
+        
+        int count = settled.size();
+        return new Result(
+            setpointMspt,
+            loopsSum / count,
+            msptSum / count,
+            errorSum / count / setpointMspt * 100.0,
+            intensity,
+            all
+        );
+    }
+    
+    /**
+     * Work and tick time averaged over one sample interval
+     */
+    public static class Sample {
+        private final double offsetSeconds;
+        private final double intensity;
+        private final double loopsPerTick;
+        private final double mspt;
+        
+        public Sample(double offsetSeconds, double intensity, double loopsPerTick, double mspt) {
+            this.offsetSeconds = offsetSeconds;
+            this.intensity = intensity;
+            this.loopsPerTick = loopsPerTick;
+            this.mspt = mspt;
+        }
+        
+        // Getters
+        public double getOffsetSeconds() { return offsetSeconds; }
+        public double getIntensity() { return intensity; }
+        public double getLoopsPerTick() { return loopsPerTick; }
+        public double getMspt() { return mspt; }
+    }
+    
+    /**
+     * Adaptive run result data class
+     */
+    public static class Result {
+        private final double setpointMspt;
+        private final double sustainedLoopsPerTick;
+        private final double meanMspt;
+        private final double trackingErrorPercent;
+        private final double finalIntensity;
+        private final List<Sample> samples;
+        
+        public Result(double setpointMspt, double sustainedLoopsPerTick, double meanMspt,
+                     double trackingErrorPercent, double finalIntensity, List<Sample> samples) {
+            this.setpointMspt = setpointMspt;
+            this.sustainedLoopsPerTick = sustainedLoopsPerTick;
+            this.meanMspt = meanMspt;
+            this.trackingErrorPercent = trackingErrorPercent;
+            this.finalIntensity = finalIntensity;
+            this.samples = Collections.unmodifiableList(samples);
+        }
+        
+        // Getters
+        public double getSetpointMspt() { return setpointMspt; }
+        public double getSustainedLoopsPerTick() { return sustainedLoopsPerTick; }
+        public double getMeanMspt() { return meanMspt; }
+        public double getTrackingErrorPercent() { return trackingErrorPercent; }
+        public double getFinalIntensity() { return finalIntensity; }
+        public List<Sample> getSamples() { return samples; }
+    }
+}
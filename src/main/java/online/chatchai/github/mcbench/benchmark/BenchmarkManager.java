@@ -1,9 +1,13 @@
 package online.chatchai.github.mcbench.benchmark;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.logging.Level;
 
 import org.bukkit.Bukkit;
@@ -14,12 +18,21 @@ import org.bukkit.scheduler.BukkitTask;
 import online.chatchai.github.mcbench.Main;
 import online.chatchai.github.mcbench.analysis.ChunkEntityAnalyzer;
 import online.chatchai.github.mcbench.config.ConfigManager;
+import online.chatchai.github.mcbench.metrics.GcRecorder;
+import online.chatchai.github.mcbench.metrics.JfrAnalyzer;
+import online.chatchai.github.mcbench.metrics.JfrProfiler;
 import online.chatchai.github.mcbench.metrics.MetricSampler;
+import online.chatchai.github.mcbench.metrics.StallSampler;
+import online.chatchai.github.mcbench.metrics.ThreadAccounting;
+import online.chatchai.github.mcbench.metrics.TickHistogram;
+import online.chatchai.github.mcbench.metrics.TickRateTracker;
+import online.chatchai.github.mcbench.metrics.TimeSeriesStore;
 import online.chatchai.github.mcbench.recommendation.RecommendationEngine;
 import online.chatchai.github.mcbench.report.ReportExporter;
 import online.chatchai.github.mcbench.scoring.ScoreCalculator;
 import online.chatchai.github.mcbench.util.RunLogger;
 import online.chatchai.github.mcbench.util.Util;
+import online.chatchai.github.mcbench.workload.WorkloadMix;
 
 /**
  * Main benchmark manager for MCBench Pro
@@ -35,12 +48,14 @@ public class BenchmarkManager {
     private final ReportExporter reportExporter;
     private final RunLogger runLogger;
     private final ScoreCalculator scoreCalculator;
+    private final JfrProfiler jfrProfiler;
     
     // Benchmark state
-    private BenchmarkState currentState = BenchmarkState.IDLE;
+    private volatile BenchmarkState currentState = BenchmarkState.IDLE;
     private ConfigManager.ProfileConfig currentProfile;
-    private boolean safeMode = false;
-    private String currentProfileName;
+    private volatile boolean safeMode = false;
+    private volatile WorkloadMode workloadMode = WorkloadMode.FIXED;
+    private volatile String currentProfileName;
     
     // Confirmation system
     private BukkitTask confirmationTask;
@@ -48,7 +63,9 @@ public class BenchmarkManager {
     private final AtomicInteger confirmationCountdown = new AtomicInteger(60);
     
     // Benchmark tasks and monitoring
-    private WorkloadTask workloadTask;
+    private volatile WorkloadTask workloadTask;
+    private CapacitySearch capacitySearch;
+    private AdaptiveController adaptiveController;
     private BukkitTask recoveryMonitorTask;
     private BukkitTask progressLogTask;
     private BukkitTask emergencyMonitorTask;
@@ -63,6 +80,30 @@ public class BenchmarkManager {
     private long recoveryEndTime;
     private long benchmarkStartTime;
     
+    // Per-tick latency histograms (fixed memory, reused between runs)
+    private final TickHistogram workloadTicks = new TickHistogram();
+    private final TickHistogram recoveryTicks = new TickHistogram();
+    
+    // Multi-core scaling curve captured when the workload ends
+    private List<ParallelWorkload.ScalingPoint> scalingCurve;
+    private KernelBudgetRunner.Result kernelBudgetResult;
+    private List<WorkloadMix.ModuleStats> moduleStats;
+    
+    // Repeated workload/recovery cycles; warmups run first and are excluded from statistics
+    private final List<IterationStatistics.Iteration> completedIterations = new ArrayList<>();
+    private int iterationIndex = 0;
+    private BukkitTask nextIterationTask;
+    
+    // JIT warmup before the first iteration
+    private JitWarmup jitWarmup;
+    private JitWarmup.Result jitWarmupResult;
+    
+    // Incremental chunk/entity scan for the final report
+    private CompletableFuture<ChunkEntityAnalyzer.AnalysisResult> analysisFuture;
+    
+    // JFR recording being dumped at the end of the run, parsed after the report is built
+    private CompletableFuture<File> jfrRecording;
+    
     // Emergency monitoring
     private long emergencyMsptStartTime = 0;
     private final AtomicInteger emergencyMsptCount = new AtomicInteger(0);
@@ -76,12 +117,21 @@ public class BenchmarkManager {
         this.reportExporter = new ReportExporter(plugin, configManager);
         this.runLogger = new RunLogger(plugin);
         this.scoreCalculator = new ScoreCalculator(plugin);
+        this.jfrProfiler = new JfrProfiler(plugin, configManager);
     }
     
     /**
      * Start benchmark confirmation process
      */
     public boolean startBenchmarkConfirmation(String profileName, boolean safeMode) {
+        return startBenchmarkConfirmation(profileName, safeMode, WorkloadMode.FIXED);
+    }
+    
+    /**
+     * Start benchmark confirmation process
+     * @param workloadMode How the workload load level is chosen
+     */
+    public boolean startBenchmarkConfirmation(String profileName, boolean safeMode, WorkloadMode workloadMode) {
         if (awaitingConfirmation.get() || currentState != BenchmarkState.IDLE) {
             return false;
         }
@@ -94,6 +144,7 @@ public class BenchmarkManager {
         this.currentProfile = profile;
         this.currentProfileName = profileName;
         this.safeMode = safeMode;
+        this.workloadMode = workloadMode;
         this.awaitingConfirmation.set(true);
         this.confirmationCountdown.set(60);
         
@@ -110,7 +161,7 @@ public class BenchmarkManager {
      * Show benchmark warning messages (console only)
      */
     private void showBenchmarkWarning() {
-        String mode = safeMode ? "Safe Mode" : "Normal Mode";
+        String mode = getModeLabel();
         
         // Console warning only - no player broadcasts
         plugin.getLogger().warning(Util.formatConsoleMessage(configManager.getMessage("command.start.warning")));
@@ -234,14 +285,23 @@ public class BenchmarkManager {
             
             // Record baseline metrics
             baselineMetrics = metricSampler.createSnapshot();
+            workloadTicks.reset();
+            recoveryTicks.reset();
+            completedIterations.clear();
+            iterationIndex = 0;
+            jitWarmupResult = null;
             
             // Execute safe mode operations if requested
             if (safeMode) {
                 executeSafeModeOperations();
             }
             
-            // Start workload
-            startWorkload();
+            // Warm up the JIT first so the timed phase measures compiled code
+            if (configManager.isJitWarmupEnabled()) {
+                startJitWarmup();
+            } else {
+                startMeasurement();
+            }
             
         } catch (Exception e) {
             plugin.getLogger().log(Level.SEVERE, "Failed to execute benchmark", e);
@@ -249,6 +309,68 @@ public class BenchmarkManager {
         }
     }
     
+    /**
+     * Run the workload kernels until their per-batch time is stable
+     */
+    private void startJitWarmup() {
+        currentState = BenchmarkState.WARMUP;
+        plugin.getLogger().info(Util.formatConsoleMessage(configManager.getMessage("benchmark.jitWarmup.started",
+            "%max%", String.valueOf(configManager.getJitWarmupMaxSeconds()))));
+        
+        jitWarmup = new JitWarmup(
+            plugin,
+            currentProfile,
+            configManager.getJitWarmupLoadFraction(),
+            configManager.getJitWarmupWindowBatches(),
+            configManager.getJitWarmupMaxCvPercent(),
+            configManager.getJitWarmupMaxCompileMsPerSecond(),
+            configManager.getJitWarmupMinSeconds(),
+            configManager.getJitWarmupMaxSeconds(),
+            this::onJitWarmupCompleted
+        );
+        jitWarmup.runTaskTimer(plugin, 1L, 1L);
+    }
+    
+    /**
+     * Called by the warmup task once it is stable or out of time
+     */
+    private void onJitWarmupCompleted(JitWarmup.Result result) {
+        jitWarmup = null;
+        jitWarmupResult = result;
+        plugin.getLogger().info(Util.formatConsoleMessage(configManager.getMessage(
+            result.isStable() ? "benchmark.jitWarmup.completed" : "benchmark.jitWarmup.timedOut",
+            "%seconds%", Util.formatDecimal(result.getDurationSeconds()),
+            "%batches%", String.valueOf(result.getBatches()),
+            "%cv%", Util.formatDecimal(Math.max(0.0, result.getFinalCvPercent())))));
+        
+        try {
+            startMeasurement();
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to execute benchmark", e);
+            forceStop();
+        }
+    }
+    
+    /**
+     * Start run-wide recorders and the first iteration
+     */
+    private void startMeasurement() {
+        metricSampler.getGcRecorder().start();
+        metricSampler.getThreadAccounting().startRun();
+        metricSampler.startTimeSeries(configManager.getTimeSeriesIntervalTicks());
+        jfrRecording = null;
+        jfrProfiler.start(currentProfileName);
+        if (configManager.isStallSamplingEnabled()) {
+            metricSampler.getStallSampler().start(
+                configManager.getStallSampleIntervalMs(),
+                configManager.getStallThresholdMs(),
+                configManager.getStallMaxDepth());
+        }
+        
+        // Start workload
+        startWorkload();
+    }
+    
     /**
      * Execute save-all command before benchmark
      */
@@ -296,15 +418,33 @@ public class BenchmarkManager {
      * Start the CPU workload
      */
     private void startWorkload() {
+        nextIterationTask = null;
         currentState = BenchmarkState.WORKLOAD;
         workloadStartTime = System.currentTimeMillis();
+        workloadEndTime = 0;
+        recoveryStartTime = 0;
+        recoveryEndTime = 0;
         
+        if (getTotalIterations() > 1) {
+            plugin.getLogger().info(Util.formatConsoleMessage(configManager.getMessage("benchmark.iterationStarted",
+                "%iteration%", String.valueOf(iterationIndex + 1),
+                "%total%", String.valueOf(getTotalIterations()),
+                "%kind%", isWarmupIteration() ? " (warmup)" : "")));
+        }
         plugin.getLogger().info(Util.formatConsoleMessage(configManager.getMessage("benchmark.workloadStarted", 
             "%profile%", currentProfileName)));
         
-        // Create and start workload task
-        workloadTask = new WorkloadTask(plugin, currentProfile, this);
+        // The report keeps these from the last iteration
+        scalingCurve = null;
+        kernelBudgetResult = null;
+        moduleStats = null;
+        
+        // Create and start workload task (capacity and adaptive runs let a controller drive the load)
+        capacitySearch = workloadMode == WorkloadMode.CAPACITY ? createCapacitySearch() : null;
+        adaptiveController = workloadMode == WorkloadMode.ADAPTIVE ? createAdaptiveController() : null;
+        workloadTask = new WorkloadTask(plugin, currentProfile, this, capacitySearch, adaptiveController);
         workloadTask.runTaskTimer(plugin, 0L, currentProfile.getTickInterval());
+        startPhase("workload", workloadTicks);
         
         // Start progress logging
         startProgressLogging();
@@ -316,6 +456,37 @@ public class BenchmarkManager {
         startGlobalTimeoutMonitoring();
     }
     
+    /**
+     * Create a capacity search from the configured capacity settings
+     */
+    private CapacitySearch createCapacitySearch() {
+        return new CapacitySearch(
+            configManager.getCapacityStartLoopCount(),
+            configManager.getCapacityTargetMspt(),
+            configManager.getCapacitySettleSeconds(),
+            configManager.getCapacityWindowSeconds(),
+            configManager.getCapacityRampFactor(),
+            configManager.getCapacityPrecision(),
+            configManager.getCapacityMaxSteps()
+        );
+    }
+    
+    /**
+     * Create an adaptive intensity controller from the configured adaptive settings
+     */
+    private AdaptiveController createAdaptiveController() {
+        return new AdaptiveController(
+            configManager.getAdaptiveSetpointMspt(),
+            configManager.getAdaptiveKp(),
+            configManager.getAdaptiveKi(),
+            configManager.getAdaptiveKd(),
+            currentProfile.getIntensityMultiplier(),
+            configManager.getAdaptiveMinIntensity(),
+            configManager.getAdaptiveMaxIntensity(),
+            configManager.getAdaptiveSampleIntervalSeconds()
+        );
+    }
+    
     /**
      * Start progress logging task
      */
@@ -337,8 +508,8 @@ public class BenchmarkManager {
                     "%ram%", Util.formatDecimal(current.getMemoryUsage()),
                     "%cpu%", Util.formatDecimal(current.getSystemCpu()))));
                 
-                // Progress update every 10 seconds
-                if (workloadTask != null) {
+                // Progress update every 10 seconds (capacity runs log each search step instead)
+                if (workloadTask != null && capacitySearch == null) {
                     long elapsed = workloadTask.getElapsedSeconds();
                     if (elapsed % 10 == 0) {
                         plugin.getLogger().info(Util.formatConsoleMessage(configManager.getMessage("benchmark.progress.progressUpdate",
@@ -346,6 +517,11 @@ public class BenchmarkManager {
                             "%total%", String.valueOf(workloadTask.getTotalDurationSeconds()),
                             "%percentage%", Util.formatDecimal(workloadTask.getCompletionPercentage()),
                             "%tps%", Util.formatDecimal(current.getTps()))));
+                        if (adaptiveController != null) {
+                            plugin.getLogger().info(Util.formatConsoleMessage(configManager.getMessage("benchmark.progress.adaptive",
+                                "%intensity%", Util.formatDecimal(adaptiveController.getIntensity()),
+                                "%setpoint%", Util.formatDecimal(configManager.getAdaptiveSetpointMspt()))));
+                        }
                     }
                 }
             }
@@ -388,15 +564,21 @@ public class BenchmarkManager {
     
     /**
      * Start global timeout monitoring
+     * A capacity search ends the workload on its own, so it gets its full step budget on top
+     * of the global timeout, which still bounds the recovery that follows
      */
     private void startGlobalTimeoutMonitoring() {
         int timeoutSeconds = configManager.getGlobalTimeoutSeconds();
+        if (capacitySearch != null) {
+            timeoutSeconds += capacitySearch.getMaxDurationSeconds();
+        }
+        int abortAfterSeconds = timeoutSeconds;
         globalTimeoutTask = new BukkitRunnable() {
             @Override
             public void run() {
-                timeoutAbort(timeoutSeconds);
+                timeoutAbort(abortAfterSeconds);
             }
-        }.runTaskLater(plugin, timeoutSeconds * 20L);
+        }.runTaskLater(plugin, abortAfterSeconds * 20L);
     }
     
     /**
@@ -411,6 +593,8 @@ public class BenchmarkManager {
         
         // Record metrics after workload
         afterLoadMetrics = metricSampler.createSnapshot();
+        captureWorkloadResults();
+        startPhase("recovery", recoveryTicks);
         
         // Cancel progress logging
         if (progressLogTask != null) {
@@ -422,43 +606,146 @@ public class BenchmarkManager {
     }
     
     /**
-     * Start recovery monitoring (wait for TPS/MSPT to return to normal)
+     * Point the tick histogram, stall sampler and time series at a new phase
+     * Measured iterations accumulate into the phase histograms; the first one keeps the plain
+     * phase label in the time series and later ones are numbered. Warmups are not recorded.
+     */
+    private void startPhase(String phase, TickHistogram histogram) {
+        if (isWarmupIteration()) {
+            metricSampler.getTickRecorder().stopRecording();
+            metricSampler.getStallSampler().setPhase("warmup");
+            if (phase.equals("workload")) {
+                metricSampler.getTimeSeries().mark("warmup#" + (iterationIndex + 1));
+            }
+            return;
+        }
+        
+        int measured = iterationIndex - currentProfile.getWarmupIterations() + 1;
+        metricSampler.getTickRecorder().startRecording(histogram);
+        metricSampler.getStallSampler().setPhase(phase);
+        metricSampler.getTimeSeries().mark(measured == 1 ? phase : phase + "#" + measured);
+    }
+    
+    /**
+     * Get number of workload/recovery cycles in this run, warmups included
+     */
+    private int getTotalIterations() {
+        return currentProfile != null ? currentProfile.getWarmupIterations() + currentProfile.getIterations() : 1;
+    }
+    
+    private boolean isWarmupIteration() {
+        return currentProfile != null && iterationIndex < currentProfile.getWarmupIterations();
+    }
+    
+    /**
+     * Start recovery monitoring (wait for TPS/MSPT to stay normal for a full stability window)
+     * Uses the tick recorder's own timestamps; Bukkit.getTPS() is a one-minute average and
+     * would add up to a minute of lag to the recovery time.
      */
     private void startRecoveryMonitoring() {
+        TickRateTracker rateTracker = metricSampler.getTickRecorder().getRateTracker();
+        long windowMillis = configManager.getRecoveryStabilityWindowSeconds() * 1000L;
+        double targetTps = configManager.getRecoveryTargetTps();
+        double targetMspt = configManager.getRecoveryTargetMspt();
+        double percentile = configManager.getRecoveryMsptPercentile();
+        
         recoveryMonitorTask = new BukkitRunnable() {
             @Override
             public void run() {
-                double currentTps = metricSampler.getTPS();
-                double currentMspt = metricSampler.getMSPT();
-                
-                double targetTps = configManager.getTargetTps();
-                double targetMspt = configManager.getTargetMspt();
+                // The window must hold recovery ticks only
+                long windowStart = System.currentTimeMillis() - windowMillis;
+                if (windowStart < recoveryStartTime) {
+                    return;
+                }
                 
-                if (currentTps >= targetTps && currentMspt <= targetMspt) {
-                    // Recovery complete
-                    onRecoveryCompleted();
+                double windowTps = rateTracker.getTps(windowMillis);
+                double windowMspt = rateTracker.getMsptPercentile(windowMillis, percentile);
+                if (windowTps >= targetTps && windowMspt <= targetMspt) {
+                    // Recovered at the start of the stable window
+                    onRecoveryCompleted(windowStart);
                     cancel();
                 }
             }
-        }.runTaskTimer(plugin, 20L, 20L); // Check every second
+        }.runTaskTimer(plugin, 5L, 5L); // Check every 5 ticks
     }
     
     /**
      * Called when recovery phase completes
+     * @param recoveredAt Time the server became stable again
      */
-    private void onRecoveryCompleted() {
-        currentState = BenchmarkState.REPORTING;
-        recoveryEndTime = System.currentTimeMillis();
+    private void onRecoveryCompleted(long recoveredAt) {
+        recoveryEndTime = recoveredAt;
+        recordIteration();
+        
+        // More iterations to go: let the server settle briefly, then start the next workload
+        if (iterationIndex + 1 < getTotalIterations()) {
+            endIteration();
+            iterationIndex++;
+            currentState = BenchmarkState.PREPARING;
+            nextIterationTask = Bukkit.getScheduler().runTaskLater(plugin, this::startWorkload, 40L);
+            return;
+        }
         
+        currentState = BenchmarkState.REPORTING;
         plugin.getLogger().info(Util.formatConsoleMessage(configManager.getMessage("benchmark.recoveryCompleted")));
         
         // Cancel all monitoring tasks
         cancelAllTasks();
         
-        // Generate and display final report
+        // Generate and display final report; the state returns to IDLE once the world scan is done
         generateFinalReport();
+    }
+    
+    /**
+     * Store the timing and score of the iteration that just recovered
+     */
+    private void recordIteration() {
+        double workloadSeconds = (workloadEndTime - workloadStartTime) / 1000.0;
+        double recoverySeconds = (recoveryEndTime - recoveryStartTime) / 1000.0;
+        double score = scoreCalculator.calculateScore(currentProfileName, recoverySeconds).finalScore;
+        completedIterations.add(new IterationStatistics.Iteration(
+            iterationIndex + 1, isWarmupIteration(), workloadSeconds, recoverySeconds, score, false));
         
-        currentState = BenchmarkState.IDLE;
+        if (getTotalIterations() > 1) {
+            plugin.getLogger().info(Util.formatConsoleMessage(configManager.getMessage("benchmark.iterationCompleted",
+                "%iteration%", String.valueOf(iterationIndex + 1),
+                "%total%", String.valueOf(getTotalIterations()),
+                "%recovery%", Util.formatDecimal(recoverySeconds),
+                "%score%", Util.formatDecimal(score))));
+        }
+    }
+    
+    /**
+     * Stop the per-iteration tasks; run-wide recorders (GC, JFR, time series) keep running
+     */
+    private void endIteration() {
+        metricSampler.getTickRecorder().stopRecording();
+        
+        if (workloadTask != null) {
+            workloadTask.stopWorkload();
+            workloadTask = null;
+        }
+        
+        if (progressLogTask != null) {
+            progressLogTask.cancel();
+            progressLogTask = null;
+        }
+        
+        if (recoveryMonitorTask != null) {
+            recoveryMonitorTask.cancel();
+            recoveryMonitorTask = null;
+        }
+        
+        if (emergencyMonitorTask != null) {
+            emergencyMonitorTask.cancel();
+            emergencyMonitorTask = null;
+        }
+        emergencyMsptStartTime = 0;
+        
+        if (globalTimeoutTask != null) {
+            globalTimeoutTask.cancel();
+            globalTimeoutTask = null;
+        }
     }
     
     /**
@@ -506,8 +793,8 @@ public class BenchmarkManager {
         // Cancel all tasks
         cancelAllTasks();
         
-        // Generate aborted report if we have baseline metrics
-        if (baselineMetrics != null) {
+        // Generate aborted report if we have baseline metrics and measurement has begun
+        if (baselineMetrics != null && currentState != BenchmarkState.WARMUP) {
             generateAbortedReport();
         }
         
@@ -519,7 +806,23 @@ public class BenchmarkManager {
      * Cancel all running tasks
      */
     private void cancelAllTasks() {
+        metricSampler.getTickRecorder().stopRecording();
+        metricSampler.getGcRecorder().stop();
+        metricSampler.getStallSampler().stop();
+        metricSampler.getThreadAccounting().stopRun();
+        metricSampler.stopTimeSeries();
+        CompletableFuture<File> recording = jfrProfiler.stop();
+        if (recording != null) {
+            jfrRecording = recording;
+        }
+        
+        if (jitWarmup != null) {
+            jitWarmup.stopWarmup();
+            jitWarmup = null;
+        }
+        
         if (workloadTask != null) {
+            captureWorkloadResults();
             workloadTask.stopWorkload();
             workloadTask = null;
         }
@@ -543,6 +846,33 @@ public class BenchmarkManager {
             globalTimeoutTask.cancel();
             globalTimeoutTask = null;
         }
+        
+        if (nextIterationTask != null) {
+            nextIterationTask.cancel();
+            nextIterationTask = null;
+        }
+        
+        if (analysisFuture != null) {
+            analysisFuture.cancel(false);
+            analysisFuture = null;
+        }
+    }
+    
+    /**
+     * Keep workload task measurements that must outlive the task itself
+     */
+    private void captureWorkloadResults() {
+        if (workloadTask != null && scalingCurve == null) {
+            List<ParallelWorkload.ScalingPoint> curve = workloadTask.getScalingCurve();
+            scalingCurve = curve.isEmpty() ? null : curve;
+        }
+        if (workloadTask != null && kernelBudgetResult == null) {
+            kernelBudgetResult = workloadTask.getKernelBudgetResult();
+        }
+        if (workloadTask != null && moduleStats == null) {
+            List<WorkloadMix.ModuleStats> stats = workloadTask.getModuleStats();
+            moduleStats = stats.isEmpty() ? null : stats;
+        }
     }
     
     /**
@@ -552,6 +882,9 @@ public class BenchmarkManager {
         currentProfile = null;
         currentProfileName = null;
         safeMode = false;
+        workloadMode = WorkloadMode.FIXED;
+        capacitySearch = null;
+        adaptiveController = null;
         baselineMetrics = null;
         afterLoadMetrics = null;
         workloadStartTime = 0;
@@ -561,43 +894,128 @@ public class BenchmarkManager {
         benchmarkStartTime = 0;
         emergencyMsptStartTime = 0;
         emergencyMsptCount.set(0);
+        scalingCurve = null;
+        kernelBudgetResult = null;
+        moduleStats = null;
+        jfrRecording = null;
+        completedIterations.clear();
+        iterationIndex = 0;
+        jitWarmupResult = null;
     }
     
     /**
      * Generate final benchmark report
      */
     private void generateFinalReport() {
+        generateReport(false, configManager.isExportEnabled());
+    }
+    
+    /**
+     * Generate aborted benchmark report
+     */
+    private void generateAbortedReport() {
+        generateReport(true, false);
+    }
+    
+    /**
+     * Capture the run's results now and finish the report once the chunk/entity analysis is done
+     * The world is copied a slice per tick and analyzed on a worker thread, so a large world does
+     * not stall the server; while the plugin is disabling it runs in one go instead.
+     */
+    private void generateReport(boolean aborted, boolean export) {
         try {
-            BenchmarkResult result = createBenchmarkResult(false);
-            displayBenchmarkReport(result);
+            Function<ChunkEntityAnalyzer.AnalysisResult, BenchmarkResult> pending = createBenchmarkResult(aborted);
+            CompletableFuture<File> recording = jfrRecording;
+            jfrRecording = null;
             
-            // Export to file if enabled
-            if (configManager.isExportEnabled()) {
-                reportExporter.exportReport(result);
+            Consumer<ChunkEntityAnalyzer.AnalysisResult> finish = analysis -> {
+                try {
+                    BenchmarkResult result = pending.apply(analysis);
+                    displayBenchmarkReport(result);
+                    
+                    // Export to file once the JFR profile (if any) is attached
+                    analyzeRecording(result, recording, export);
+                } catch (Exception e) {
+                    plugin.getLogger().log(Level.SEVERE, "Failed to generate benchmark report", e);
+                }
+            };
+            
+            if (!plugin.isEnabled()) {
+                finish.accept(entityAnalyzer.performAnalysis());
+                if (!aborted) {
+                    currentState = BenchmarkState.IDLE;
+                }
+                return;
             }
             
+            CompletableFuture<ChunkEntityAnalyzer.AnalysisResult> future = entityAnalyzer.analyzeAsync(
+                configManager.getAnalysisSliceBudgetMicros() * 1000L, configManager.getAnalysisMaxChunksPerTick());
+            // Aborted reports are not tracked: a new run may start while their analysis finishes
+            if (!aborted) {
+                analysisFuture = future;
+            }
+            future.whenComplete((analysis, error) -> {
+                if (!plugin.isEnabled() || future.isCancelled()) {
+                    return;
+                }
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    if (error != null) {
+                        plugin.getLogger().log(Level.WARNING, "Failed to perform chunk/entity analysis", error);
+                    }
+                    finish.accept(error != null ? ChunkEntityAnalyzer.AnalysisResult.empty() : analysis);
+                    if (!aborted && analysisFuture == future) {
+                        analysisFuture = null;
+                        currentState = BenchmarkState.IDLE;
+                    }
+                });
+            });
+        
         } catch (Exception e) {
             plugin.getLogger().log(Level.SEVERE, "Failed to generate benchmark report", e);
+            if (!aborted) {
+                currentState = BenchmarkState.IDLE;
+            }
         }
     }
     
     /**
-     * Generate aborted benchmark report
+     * Parse the run's JFR recording off the main thread, then attach it to the result,
+     * print the profile and optionally export the report back on the main thread
      */
-    private void generateAbortedReport() {
-        try {
-            BenchmarkResult result = createBenchmarkResult(true);
-            displayBenchmarkReport(result);
-            
-        } catch (Exception e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to generate aborted benchmark report", e);
+    private void analyzeRecording(BenchmarkResult result, CompletableFuture<File> recording, boolean export) {
+        if (recording == null || (recording.isDone() && recording.getNow(null) == null)) {
+            if (export) {
+                reportExporter.exportReport(result);
+            }
+            return;
         }
+        
+        // The recording is still being dumped on a worker; parse it there once the file is written
+        recording.thenCompose(file -> file != null ? jfrProfiler.analyzeAsync(file)
+                : CompletableFuture.<JfrAnalyzer.Profile>completedFuture(null)).whenComplete((profile, error) -> {
+            if (!plugin.isEnabled()) {
+                return;
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (error != null) {
+                    plugin.getLogger().log(Level.WARNING, "Failed to analyze JFR recording", error);
+                } else if (profile != null) {
+                    result.attachProfile(profile);
+                    plugin.getLogger().info(Util.translateColorCodesForConsole(result.formatProfileReport(configManager)));
+                }
+                
+                if (export) {
+                    reportExporter.exportReport(result);
+                }
+            });
+        });
     }
     
     /**
-     * Create benchmark result object
+     * Capture the run's results; the returned function completes them with the chunk/entity analysis
+     * Everything is read from the current run state here, which may be reset before the analysis is done.
      */
-    private BenchmarkResult createBenchmarkResult(boolean aborted) {
+    private Function<ChunkEntityAnalyzer.AnalysisResult, BenchmarkResult> createBenchmarkResult(boolean aborted) {
         // Calculate timing
         double workloadDuration = workloadEndTime > 0 ? 
             (workloadEndTime - workloadStartTime) / 1000.0 : 0.0;
@@ -610,32 +1028,74 @@ public class BenchmarkManager {
             .calculateScore(currentProfileName != null ? currentProfileName : "normal", recoverySecsRounded)
             .finalScore;
         double score = finalScore;
+        
+        // Multi-iteration runs report the median over accepted iterations instead
+        IterationStatistics iterationStats = getTotalIterations() > 1 && !completedIterations.isEmpty() ?
+            new IterationStatistics(completedIterations) : null;
+        if (iterationStats != null && iterationStats.getRecoveryStats() != null) {
+            workloadDuration = iterationStats.getWorkloadStats().getMean();
+            recoveryDuration = iterationStats.getRecoveryStats().getMedian();
+            score = iterationStats.getScoreStats().getMedian();
+        }
         double benchmarkPoint = calculateBenchmarkPoint(recoveryDuration);
         
         // Get system information
         SystemInfo systemInfo = collectSystemInfo();
         
-        // Analyze chunks and entities
-        ChunkEntityAnalyzer.AnalysisResult analysis = entityAnalyzer.performAnalysis();
+        // Whole-run time series
+        TimeSeriesStore.Series timeSeries = metricSampler.getTimeSeries().snapshot();
+        
+        // Stacks captured during slow ticks
+        List<StallSampler.PhaseProfile> stallProfiles = configManager.isStallSamplingEnabled() ?
+            metricSampler.getStallSampler().getResults() : new ArrayList<>();
         
-        // Generate recommendations
-        List<String> recommendations = recommendationEngine.generateRecommendations(
-            baselineMetrics, afterLoadMetrics != null ? afterLoadMetrics : baselineMetrics, analysis);
+        MetricSampler.MetricSnapshot baseline = baselineMetrics;
+        MetricSampler.MetricSnapshot afterLoad = afterLoadMetrics;
+        String profileName = currentProfileName;
+        String modeLabel = getModeLabel();
+        double resultWorkloadDuration = workloadDuration;
+        double resultRecoveryDuration = recoveryDuration;
+        double resultScore = score;
+        TickHistogram.Summary workloadSummary = workloadTicks.summarize();
+        TickHistogram.Summary recoverySummary = recoveryTicks.summarize();
+        List<ParallelWorkload.ScalingPoint> curve = scalingCurve;
+        CapacitySearch.Result capacityResult = capacitySearch != null ? capacitySearch.getResult() : null;
+        AdaptiveController.Result adaptiveResult = adaptiveController != null ? adaptiveController.getResult() : null;
+        KernelBudgetRunner.Result budgetResult = kernelBudgetResult;
+        List<WorkloadMix.ModuleStats> modules = moduleStats;
+        GcRecorder.Summary gcSummary = metricSampler.getGcRecorder().summarize();
+        ThreadAccounting.RunSummary threadUsage = metricSampler.getThreadAccounting().summarizeRun(configManager.getTopThreads());
+        JitWarmup.Result warmup = jitWarmupResult;
+        long timestamp = System.currentTimeMillis();
         
-        return new BenchmarkResult(
-            currentProfileName,
-            safeMode ? "Safe Mode" : "Normal Mode",
-            workloadDuration,
-            recoveryDuration,
-            score,
+        return analysis -> new BenchmarkResult(
+            profileName,
+            modeLabel,
+            resultWorkloadDuration,
+            resultRecoveryDuration,
+            resultScore,
             benchmarkPoint,
-            baselineMetrics,
-            afterLoadMetrics,
+            baseline,
+            afterLoad,
+            workloadSummary,
+            recoverySummary,
+            curve,
+            capacityResult,
+            adaptiveResult,
+            budgetResult,
+            modules,
+            gcSummary,
+            stallProfiles.isEmpty() ? null : stallProfiles,
+            threadUsage,
+            timeSeries.size() > 0 ? timeSeries : null,
+            iterationStats,
+            warmup,
             systemInfo,
             analysis,
-            recommendations,
+            recommendationEngine.generateRecommendations(
+                baseline, afterLoad != null ? afterLoad : baseline, analysis, timeSeries),
             aborted,
-            System.currentTimeMillis()
+            timestamp
         );
     }
     
@@ -678,6 +1138,21 @@ public class BenchmarkManager {
         plugin.getLogger().info(Util.translateColorCodesForConsole(report));
     }
     
+    /**
+     * Get human-readable run mode
+     */
+    private String getModeLabel() {
+        String mode = safeMode ? "Safe Mode" : "Normal Mode";
+        switch (workloadMode) {
+            case CAPACITY:
+                return mode + " (Capacity Search)";
+            case ADAPTIVE:
+                return mode + " (Adaptive " + Util.formatDecimal(configManager.getAdaptiveSetpointMspt()) + "ms)";
+            default:
+                return mode;
+        }
+    }
+    
     // Getters for state checking
     public BenchmarkState getCurrentState() {
         return currentState;
@@ -695,17 +1170,55 @@ public class BenchmarkManager {
         return safeMode;
     }
     
+    public WorkloadMode getWorkloadMode() {
+        return workloadMode;
+    }
+    
+    public String getCurrentProfileName() {
+        return currentProfileName;
+    }
+    
+    /**
+     * Get completion of the running workload phase (safe to read from any thread)
+     * @return Percentage (0-100), or -1 when no workload is running
+     */
+    public double getWorkloadProgress() {
+        WorkloadTask task = workloadTask;
+        return task != null ? task.getCompletionPercentage() : -1.0;
+    }
+    
+    /**
+     * Get tick histograms of the current or last run (safe to read from any thread)
+     */
+    public TickHistogram getWorkloadTicks() {
+        return workloadTicks;
+    }
+    
+    public TickHistogram getRecoveryTicks() {
+        return recoveryTicks;
+    }
+    
     /**
      * Benchmark state enumeration
      */
     public enum BenchmarkState {
         IDLE,
         PREPARING,
+        WARMUP,
         WORKLOAD,
         RECOVERY,
         REPORTING
     }
     
+    /**
+     * Workload load selection enumeration
+     */
+    public enum WorkloadMode {
+        FIXED,
+        CAPACITY,
+        ADAPTIVE
+    }
+    
     /**
      * System information data class
      */
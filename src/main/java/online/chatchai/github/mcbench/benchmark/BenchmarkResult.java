@@ -3,9 +3,17 @@ package online.chatchai.github.mcbench.benchmark;
 import java.util.List;
 
 import online.chatchai.github.mcbench.analysis.ChunkEntityAnalyzer;
+import online.chatchai.github.mcbench.analysis.HotspotClusterer;
 import online.chatchai.github.mcbench.config.ConfigManager;
+import online.chatchai.github.mcbench.metrics.GcRecorder;
+import online.chatchai.github.mcbench.metrics.JfrAnalyzer;
 import online.chatchai.github.mcbench.metrics.MetricSampler;
+import online.chatchai.github.mcbench.metrics.StallSampler;
+import online.chatchai.github.mcbench.metrics.ThreadAccounting;
+import online.chatchai.github.mcbench.metrics.TickHistogram;
+import online.chatchai.github.mcbench.metrics.TimeSeriesStore;
 import online.chatchai.github.mcbench.util.Util;
+import online.chatchai.github.mcbench.workload.WorkloadMix;
 
 /**
  * Benchmark result data class for MCBench Pro
@@ -21,16 +29,45 @@ public class BenchmarkResult {
     private final double benchmarkPoint;
     private final MetricSampler.MetricSnapshot baselineMetrics;
     private final MetricSampler.MetricSnapshot afterLoadMetrics;
+    private final TickHistogram.Summary workloadTicks;
+    private final TickHistogram.Summary recoveryTicks;
+    private final List<ParallelWorkload.ScalingPoint> scalingCurve;
+    private final CapacitySearch.Result capacityResult;
+    private final AdaptiveController.Result adaptiveResult;
+    private final KernelBudgetRunner.Result kernelBudgetResult;
+    private final List<WorkloadMix.ModuleStats> moduleStats;
+    private final GcRecorder.Summary gcSummary;
+    private final List<StallSampler.PhaseProfile> stallProfiles;
+    private final ThreadAccounting.RunSummary threadUsage;
+    private final TimeSeriesStore.Series timeSeries;
+    private final IterationStatistics iterationStats;
+    private final JitWarmup.Result jitWarmup;
     private final BenchmarkManager.SystemInfo systemInfo;
     private final ChunkEntityAnalyzer.AnalysisResult analysis;
     private final List<String> recommendations;
     private final boolean aborted;
     private final long timestamp;
     
+    // Set once the JFR recording has been parsed off the main thread
+    private volatile JfrAnalyzer.Profile profile;
+    
     public BenchmarkResult(String profileName, String mode, double workloadDuration,
                           double recoveryDuration, double score, double benchmarkPoint,
                           MetricSampler.MetricSnapshot baselineMetrics,
                           MetricSampler.MetricSnapshot afterLoadMetrics,
+                          TickHistogram.Summary workloadTicks,
+                          TickHistogram.Summary recoveryTicks,
+                          List<ParallelWorkload.ScalingPoint> scalingCurve,
+                          CapacitySearch.Result capacityResult,
+                          AdaptiveController.Result adaptiveResult,
+                          KernelBudgetRunner.Result kernelBudgetResult,
+                          List<WorkloadMix.ModuleStats> moduleStats,
+                          GcRecorder.Summary gcSummary,
+                          List<StallSampler.PhaseProfile> stallProfiles,
+                          ThreadAccounting.RunSummary threadUsage,
+                          TimeSeriesStore.Series timeSeries,
+                          IterationStatistics iterationStats,
+                          JitWarmup.Result jitWarmup,
                           BenchmarkManager.SystemInfo systemInfo,
                           ChunkEntityAnalyzer.AnalysisResult analysis,
                           List<String> recommendations, boolean aborted, long timestamp) {
@@ -42,6 +79,19 @@ public class BenchmarkResult {
         this.benchmarkPoint = benchmarkPoint;
         this.baselineMetrics = baselineMetrics;
         this.afterLoadMetrics = afterLoadMetrics;
+        this.workloadTicks = workloadTicks;
+        this.recoveryTicks = recoveryTicks;
+        this.scalingCurve = scalingCurve;
+        this.capacityResult = capacityResult;
+        this.adaptiveResult = adaptiveResult;
+        this.kernelBudgetResult = kernelBudgetResult;
+        this.moduleStats = moduleStats;
+        this.gcSummary = gcSummary;
+        this.stallProfiles = stallProfiles;
+        this.threadUsage = threadUsage;
+        this.timeSeries = timeSeries;
+        this.iterationStats = iterationStats;
+        this.jitWarmup = jitWarmup;
         this.systemInfo = systemInfo;
         this.analysis = analysis;
         this.recommendations = recommendations;
@@ -63,6 +113,14 @@ public class BenchmarkResult {
         sb.append(configManager.getMessage("report.mode", "%mode%", mode)).append("\n");
         sb.append(configManager.getMessage("report.duration", 
             "%duration%", Util.formatDecimal(workloadDuration))).append("\n");
+        if (jitWarmup != null) {
+            sb.append(configManager.getMessage("report.jitWarmup",
+                "%seconds%", Util.formatDecimal(jitWarmup.getDurationSeconds()),
+                "%batches%", String.valueOf(jitWarmup.getBatches()),
+                "%cv%", Util.formatDecimal(Math.max(0.0, jitWarmup.getFinalCvPercent())),
+                "%compile%", jitWarmup.getCompilationMillis() >= 0 ? String.valueOf(jitWarmup.getCompilationMillis()) : "n/a",
+                "%status%", jitWarmup.isStable() ? "" : "&e[not stable]")).append("\n");
+        }
         
         if (aborted) {
             sb.append("&c&lSTATUS: ABORTED\n");
@@ -97,6 +155,176 @@ public class BenchmarkResult {
             sb.append("\n");
         }
         
+        // Per-tick latency percentiles
+        if (workloadTicks != null || recoveryTicks != null) {
+            sb.append(configManager.getMessage("report.ticks.header")).append("\n");
+            appendTickSummary(sb, configManager, configManager.getMessage("report.ticks.workload"), workloadTicks);
+            appendTickSummary(sb, configManager, configManager.getMessage("report.ticks.recovery"), recoveryTicks);
+            sb.append("\n");
+        }
+        
+        // Per-phase curve summary from the time series
+        if (timeSeries != null) {
+            sb.append(configManager.getMessage("report.timeseries.header",
+                "%samples%", String.valueOf(timeSeries.size()),
+                "%interval%", String.valueOf(timeSeries.getIntervalMillis()))).append("\n");
+            for (TimeSeriesStore.Marker marker : timeSeries.getMarkers()) {
+                TimeSeriesStore.Stats tick = timeSeries.getStats(TimeSeriesStore.Metric.TICK_MS, marker.getLabel());
+                TimeSeriesStore.Stats heap = timeSeries.getStats(TimeSeriesStore.Metric.USED_MEMORY_MB, marker.getLabel());
+                if (tick == null || heap == null) {
+                    continue;
+                }
+                sb.append(configManager.getMessage("report.timeseries.phase",
+                    "%phase%", marker.getLabel(),
+                    "%mean%", Util.formatDecimal(tick.getMean()),
+                    "%p95%", Util.formatDecimal(tick.getP95()),
+                    "%max%", Util.formatDecimal(tick.getMax()),
+                    "%heapStart%", String.valueOf(Math.round(heap.getFirst())),
+                    "%heapEnd%", String.valueOf(Math.round(heap.getLast())))).append("\n");
+                
+                // Entity trend, recorded only when the live entity index is enabled
+                TimeSeriesStore.Stats entities = timeSeries.getStats(TimeSeriesStore.Metric.ENTITIES, marker.getLabel());
+                TimeSeriesStore.Stats chunks = timeSeries.getStats(TimeSeriesStore.Metric.LOADED_CHUNKS, marker.getLabel());
+                if (entities != null && chunks != null && chunks.getMax() > 0) {
+                    sb.append(configManager.getMessage("report.timeseries.entities",
+                        "%start%", String.valueOf(Math.round(entities.getFirst())),
+                        "%end%", String.valueOf(Math.round(entities.getLast())),
+                        "%peak%", String.valueOf(Math.round(entities.getMax())),
+                        "%chunksStart%", String.valueOf(Math.round(chunks.getFirst())),
+                        "%chunksEnd%", String.valueOf(Math.round(chunks.getLast())))).append("\n");
+                }
+            }
+            sb.append("\n");
+        }
+        
+        // Capacity search headroom
+        if (capacityResult != null) {
+            sb.append(configManager.getMessage("report.capacity.header")).append("\n");
+            sb.append(configManager.getMessage("report.capacity.headroom",
+                "%loops%", String.valueOf(capacityResult.getHeadroomLoopCount()),
+                "%target%", Util.formatDecimal(capacityResult.getTargetMspt()))).append("\n");
+            if (!capacityResult.isConverged()) {
+                sb.append(configManager.getMessage("report.capacity.notConverged")).append("\n");
+            }
+            for (CapacitySearch.Step step : capacityResult.getSteps()) {
+                sb.append(configManager.getMessage("report.capacity.step",
+                    "%loops%", String.valueOf(step.getLoopCount()),
+                    "%p95%", Util.formatDecimal(step.getP95Mspt()),
+                    "%status%", step.isPassed() ? "PASS" : "FAIL")).append("\n");
+            }
+            sb.append("\n");
+        }
+        
+        // Adaptive controller throughput at the setpoint
+        if (adaptiveResult != null) {
+            sb.append(configManager.getMessage("report.adaptive.header")).append("\n");
+            sb.append(configManager.getMessage("report.adaptive.sustained",
+                "%loops%", Util.formatDecimal(adaptiveResult.getSustainedLoopsPerTick()),
+                "%setpoint%", Util.formatDecimal(adaptiveResult.getSetpointMspt()))).append("\n");
+            sb.append(configManager.getMessage("report.adaptive.tracking",
+                "%mspt%", Util.formatDecimal(adaptiveResult.getMeanMspt()),
+                "%error%", Util.formatDecimal(adaptiveResult.getTrackingErrorPercent()),
+                "%intensity%", Util.formatDecimal(adaptiveResult.getFinalIntensity()))).append("\n\n");
+        }
+        
+        // CPU by thread group
+        if (threadUsage != null) {
+            sb.append(configManager.getMessage("report.threads.header")).append("\n");
+            for (ThreadAccounting.GroupUsage group : threadUsage.getGroups()) {
+                if (group.getCpuPercent() < 0.05 && group.getAllocationMbPerSecond() < 0.05) {
+                    continue;
+                }
+                sb.append(configManager.getMessage("report.threads.group",
+                    "%group%", group.getCategory().getLabel(),
+                    "%cpu%", Util.formatDecimal(group.getCpuPercent()),
+                    "%alloc%", Util.formatDecimal(group.getAllocationMbPerSecond()),
+                    "%threads%", String.valueOf(group.getThreads()))).append("\n");
+            }
+            if (!threadUsage.getTopThreads().isEmpty()) {
+                ThreadAccounting.ThreadUsage top = threadUsage.getTopThreads().get(0);
+                sb.append(configManager.getMessage("report.threads.top",
+                    "%name%", top.getName(),
+                    "%cpu%", Util.formatDecimal(top.getCpuPercent()))).append("\n");
+            }
+            sb.append("\n");
+        }
+        
+        // Slow tick stacks
+        if (stallProfiles != null) {
+            sb.append(configManager.getMessage("report.stalls.header",
+                "%threshold%", Util.formatDecimal(configManager.getStallThresholdMs()))).append("\n");
+            for (StallSampler.PhaseProfile phase : stallProfiles) {
+                String hottest = phase.getHottestFrame();
+                sb.append(configManager.getMessage("report.stalls.phase",
+                    "%phase%", phase.getPhase(),
+                    "%ticks%", String.valueOf(phase.getSlowTicks()),
+                    "%samples%", String.valueOf(phase.getSamples()),
+                    "%frame%", hottest,
+                    "%percent%", Util.formatDecimal(phase.getLeafSamples(hottest) * 100.0 / phase.getSamples()))).append("\n");
+            }
+            sb.append("\n");
+        }
+        
+        // Garbage collection
+        if (gcSummary != null) {
+            sb.append(configManager.getMessage("report.gc.header")).append("\n");
+            sb.append(configManager.getMessage("report.gc.pauses",
+                "%count%", String.valueOf(gcSummary.getPauseCount()),
+                "%total%", String.valueOf(gcSummary.getTotalPauseMillis()),
+                "%max%", String.valueOf(gcSummary.getMaxPauseMillis()),
+                "%avg%", Util.formatDecimal(gcSummary.getAveragePauseMillis()))).append("\n");
+            if (gcSummary.getConcurrentCount() > 0) {
+                sb.append(configManager.getMessage("report.gc.concurrent",
+                    "%count%", String.valueOf(gcSummary.getConcurrentCount()),
+                    "%total%", String.valueOf(gcSummary.getTotalConcurrentMillis()))).append("\n");
+            }
+            sb.append(configManager.getMessage("report.gc.allocation",
+                "%rate%", Util.formatDecimal(gcSummary.getAllocationRateMbPerSecond()),
+                "%total%", Util.formatDecimal(gcSummary.getAllocatedMb()))).append("\n\n");
+        }
+        
+        // Per-module cost breakdown
+        if (moduleStats != null && !moduleStats.isEmpty()) {
+            sb.append(configManager.getMessage("report.modules.header")).append("\n");
+            for (WorkloadMix.ModuleStats module : moduleStats) {
+                sb.append(configManager.getMessage("report.modules.module",
+                    "%name%", module.getName(),
+                    "%weight%", Util.formatDecimal(module.getWeightPercent()),
+                    "%ops%", String.format("%,.0f", module.getOpsPerSecond()),
+                    "%nsPerOp%", String.format("%,.0f", module.getNanosPerOperation()),
+                    "%bytesPerOp%", module.getBytesAllocated() >= 0 ?
+                        String.format("%,.0f", module.getBytesPerOperation()) : "n/a")).append("\n");
+            }
+            sb.append("\n");
+        }
+        
+        // Time-budgeted kernel throughput
+        if (kernelBudgetResult != null) {
+            sb.append(configManager.getMessage("report.kernels.header",
+                "%budget%", Util.formatDecimal(kernelBudgetResult.getBudgetMillisPerKernel()))).append("\n");
+            for (KernelBudgetRunner.KernelThroughput kernel : kernelBudgetResult.getKernels()) {
+                sb.append(configManager.getMessage("report.kernels.kernel",
+                    "%name%", kernel.getName(),
+                    "%ops%", String.format("%,.0f", kernel.getOpsPerSecond()),
+                    "%operations%", String.valueOf(kernel.getOperations()),
+                    "%elapsed%", Util.formatDecimal(kernel.getElapsedMillis()))).append("\n");
+            }
+            sb.append("\n");
+        }
+        
+        // Multi-core scaling curve
+        if (scalingCurve != null && !scalingCurve.isEmpty()) {
+            sb.append(configManager.getMessage("report.scaling.header")).append("\n");
+            for (ParallelWorkload.ScalingPoint point : scalingCurve) {
+                sb.append(configManager.getMessage("report.scaling.point",
+                    "%threads%", String.valueOf(point.getThreads()),
+                    "%ops%", String.format("%,.0f", point.getOpsPerSecond()),
+                    "%speedup%", Util.formatDecimal(point.getSpeedup()),
+                    "%efficiency%", Util.formatDecimal(point.getEfficiency()))).append("\n");
+            }
+            sb.append("\n");
+        }
+        
         // Recovery and scores
         if (!aborted) {
             String recoveryTime = Util.formatTime(recoveryDuration);
@@ -128,6 +356,30 @@ public class BenchmarkResult {
             sb.append("\n");
         }
         
+        // Repeated iterations (headline recovery and score above are medians)
+        if (iterationStats != null) {
+            int measured = iterationStats.getMeasuredCount();
+            sb.append(configManager.getMessage("report.iterations.header",
+                "%measured%", String.valueOf(measured),
+                "%warmup%", String.valueOf(iterationStats.getIterations().size() - measured),
+                "%rejected%", String.valueOf(iterationStats.getRejectedCount()))).append("\n");
+            if (iterationStats.getRecoveryStats() != null) {
+                sb.append(configManager.getMessage("report.iterations.recovery",
+                    "%summary%", iterationStats.getRecoveryStats().getFormatted())).append("\n");
+                sb.append(configManager.getMessage("report.iterations.score",
+                    "%summary%", iterationStats.getScoreStats().getFormatted())).append("\n");
+            }
+            for (IterationStatistics.Iteration iteration : iterationStats.getIterations()) {
+                String kind = iteration.isWarmup() ? " (warmup)" : iteration.isRejected() ? " (rejected)" : "";
+                sb.append(configManager.getMessage("report.iterations.entry",
+                    "%number%", String.valueOf(iteration.getNumber()),
+                    "%kind%", kind,
+                    "%recovery%", Util.formatDecimal(iteration.getRecoverySeconds()),
+                    "%score%", Util.formatDecimal(iteration.getScore()))).append("\n");
+            }
+            sb.append("\n");
+        }
+        
         // System information
         if (systemInfo != null) {
             sb.append(configManager.getMessage("report.system.header")).append("\n");
@@ -156,6 +408,24 @@ public class BenchmarkResult {
                     sb.append(chunk).append("\n");
                 }
             }
+            
+            if (!analysis.getHotspotClusters().isEmpty()) {
+                sb.append(configManager.getMessage("report.analysis.clusters",
+                    "%threshold%", String.valueOf(configManager.getHotChunkEntities()))).append("\n");
+                for (HotspotClusterer.Cluster cluster : analysis.getHotspotClusters()) {
+                    sb.append("  • ").append(cluster.getFormatted()).append("\n");
+                }
+            }
+            
+            ChunkEntityAnalyzer.ScanCost scanCost = analysis.getScanCost();
+            if (scanCost != null) {
+                sb.append(configManager.getMessage("report.analysis.scanCost",
+                    "%chunks%", String.valueOf(scanCost.getChunksScanned()),
+                    "%ticks%", String.valueOf(scanCost.getTicks()),
+                    "%busy%", Util.formatDecimal(scanCost.getMainThreadMillis()),
+                    "%max%", Util.formatDecimal(scanCost.getMaxTickMillis()),
+                    "%analysis%", Util.formatDecimal(scanCost.getAnalysisMillis()))).append("\n");
+            }
             sb.append("\n");
         }
         
@@ -174,6 +444,90 @@ public class BenchmarkResult {
         return sb.toString();
     }
     
+    /**
+     * Format the JFR profile section of the console report
+     * @return Formatted section, or an empty string if no profile is attached
+     */
+    public String formatProfileReport(ConfigManager configManager) {
+        if (profile == null) {
+            return "";
+        }
+        
+        StringBuilder sb = new StringBuilder();
+        sb.append(configManager.getMessage("report.profile.header")).append("\n");
+        sb.append(configManager.getMessage("report.profile.recording",
+            "%file%", profile.getRecordingFile())).append("\n");
+        
+        sb.append(configManager.getMessage("report.profile.hotMethods",
+            "%samples%", String.valueOf(profile.getExecutionSamples()))).append("\n");
+        for (JfrAnalyzer.Entry entry : profile.getHotMethods()) {
+            sb.append(configManager.getMessage("report.profile.hotMethod",
+                "%percent%", Util.formatDecimal(profile.getSamplePercent(entry)),
+                "%name%", entry.getName())).append("\n");
+        }
+        
+        sb.append(configManager.getMessage("report.profile.allocations",
+            "%total%", Util.formatDecimal(profile.getSampledAllocationBytes() / 1024.0 / 1024.0))).append("\n");
+        for (JfrAnalyzer.Entry entry : profile.getAllocationSites()) {
+            sb.append(configManager.getMessage("report.profile.allocation",
+                "%percent%", Util.formatDecimal(profile.getAllocationPercent(entry)),
+                "%name%", entry.getName(),
+                "%mb%", Util.formatDecimal(entry.getTotal() / 1024.0 / 1024.0))).append("\n");
+        }
+        
+        if (!profile.getLockContention().isEmpty()) {
+            sb.append(configManager.getMessage("report.profile.locks")).append("\n");
+            for (JfrAnalyzer.Entry entry : profile.getLockContention()) {
+                appendTimedEntry(sb, configManager, entry);
+            }
+        }
+        
+        if (!profile.getGcPhases().isEmpty()) {
+            sb.append(configManager.getMessage("report.profile.gcPhases")).append("\n");
+            for (JfrAnalyzer.Entry entry : profile.getGcPhases()) {
+                appendTimedEntry(sb, configManager, entry);
+            }
+        }
+        
+        return sb.toString();
+    }
+    
+    /**
+     * Append one lock or GC phase line to the profile report
+     */
+    private void appendTimedEntry(StringBuilder sb, ConfigManager configManager, JfrAnalyzer.Entry entry) {
+        sb.append(configManager.getMessage("report.profile.timed",
+            "%name%", entry.getName(),
+            "%count%", String.valueOf(entry.getCount()),
+            "%total%", Util.formatDecimal(entry.getTotalMillis()),
+            "%max%", Util.formatDecimal(entry.getMaxMillis()))).append("\n");
+    }
+    
+    /**
+     * Attach the parsed JFR profile
+     */
+    public void attachProfile(JfrAnalyzer.Profile profile) {
+        this.profile = profile;
+    }
+    
+    /**
+     * Append one phase's tick percentile line to the console report
+     */
+    private void appendTickSummary(StringBuilder sb, ConfigManager configManager,
+                                   String phase, TickHistogram.Summary summary) {
+        if (summary == null) {
+            return;
+        }
+        sb.append(configManager.getMessage("report.ticks.phase",
+            "%phase%", phase,
+            "%p50%", Util.formatDecimal(summary.getP50()),
+            "%p90%", Util.formatDecimal(summary.getP90()),
+            "%p99%", Util.formatDecimal(summary.getP99()),
+            "%p999%", Util.formatDecimal(summary.getP999()),
+            "%max%", Util.formatDecimal(summary.getMax()),
+            "%count%", String.valueOf(summary.getCount()))).append("\n");
+    }
+    
     // Getters
     public String getProfileName() { return profileName; }
     public String getMode() { return mode; }
@@ -183,6 +537,20 @@ public class BenchmarkResult {
     public double getBenchmarkPoint() { return benchmarkPoint; }
     public MetricSampler.MetricSnapshot getBaselineMetrics() { return baselineMetrics; }
     public MetricSampler.MetricSnapshot getAfterLoadMetrics() { return afterLoadMetrics; }
+    public TickHistogram.Summary getWorkloadTicks() { return workloadTicks; }
+    public TickHistogram.Summary getRecoveryTicks() { return recoveryTicks; }
+    public List<ParallelWorkload.ScalingPoint> getScalingCurve() { return scalingCurve; }
+    public CapacitySearch.Result getCapacityResult() { return capacityResult; }
+    public AdaptiveController.Result getAdaptiveResult() { return adaptiveResult; }
+    public KernelBudgetRunner.Result getKernelBudgetResult() { return kernelBudgetResult; }
+    public List<WorkloadMix.ModuleStats> getModuleStats() { return moduleStats; }
+    public GcRecorder.Summary getGcSummary() { return gcSummary; }
+    public List<StallSampler.PhaseProfile> getStallProfiles() { return stallProfiles; }
+    public ThreadAccounting.RunSummary getThreadUsage() { return threadUsage; }
+    public TimeSeriesStore.Series getTimeSeries() { return timeSeries; }
+    public IterationStatistics getIterationStats() { return iterationStats; }
+    public JitWarmup.Result getJitWarmup() { return jitWarmup; }
+    public JfrAnalyzer.Profile getProfile() { return profile; }
     public BenchmarkManager.SystemInfo getSystemInfo() { return systemInfo; }
     public ChunkEntityAnalyzer.AnalysisResult getAnalysis() { return analysis; }
     public List<String> getRecommendations() { return recommendations; }
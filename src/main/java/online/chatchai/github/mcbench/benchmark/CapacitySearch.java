@@ -0,0 +1,219 @@
+package online.chatchai.github.mcbench.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import online.chatchai.github.mcbench.metrics.TickHistogram;
+
+/**
+ * Capacity search for MCBench Pro
+ * Finds the largest loopCountPerTick the server sustains while keeping p95 tick time
+ * under a target. The load is ramped up geometrically until a step fails, then the
+ * interval between the last passing and first failing load is bisected.
+ */
+public class CapacitySearch {
+    
+    private final double targetMspt;
+    private final long settleMillis;
+    private final long windowMillis;
+    private final double rampFactor;
+    private final double precision;
+    private final int maxSteps;
+    
+    // Tick durations observed during the current step's measurement window
+    private final TickHistogram window = new TickHistogram();
+    private final List<Step> steps = new ArrayList<>();
+    
+    private int currentLoopCount;
+    private int highestPassing = 0;
+    private int lowestFailing = -1;
+    private long stepStartTime = 0L;
+    private int consecutiveSpikes = 0;
+    private boolean finished = false;
+    private boolean converged = false;
+    
+    public CapacitySearch(int startLoopCount, double targetMspt, int settleSeconds,
+                         int windowSeconds, double rampFactor, double precision, int maxSteps) {
+        this.currentLoopCount = Math.max(1, startLoopCount);
+        this.targetMspt = targetMspt;
+        this.settleMillis = Math.max(0, settleSeconds) * 1000L;
+        this.windowMillis = Math.max(1, windowSeconds) * 1000L;
+        this.rampFactor = Math.max(1.1, rampFactor);
+        this.precision = Math.max(0.001, precision);
+        this.maxSteps = Math.max(1, maxSteps);
+    }
+    
+    /**
+     * Feed the duration of the previous tick into the search
+     * @param lastTickNanos Duration of the last completed tick in nanoseconds (0 if unknown)
+     * @param now Current wall clock time in milliseconds
+     * @return The step that just completed, or null if the current step is still running
+     */
+    public Step onTick(long lastTickNanos, long now) {
+        if (finished) {
+            return null;
+        }
+        
+        if (stepStartTime == 0L) {
+            stepStartTime = now;
+            return null;
+        }
+        
+        // Ignore ticks while the server settles into the new load level
+        long stepElapsed = now - stepStartTime;
+        if (stepElapsed < settleMillis) {
+            return null;
+        }
+        
+        if (lastTickNanos > 0L) {
+            window.recordNanos(lastTickNanos);
+            consecutiveSpikes = lastTickNanos / 1_000_000.0 > targetMspt * 2 ? consecutiveSpikes + 1 : 0;
+        }
+        
+        // Three consecutive ticks over twice the target fail the step early
+        boolean failFast = consecutiveSpikes >= 3;
+        if (!failFast && stepElapsed < settleMillis + windowMillis) {
+            return null;
+        }
+        
+        return completeStep(failFast);
+    }
+    
+    /**
+     * Evaluate the finished measurement window and pick the next load level
+     */
+    private Step completeStep(boolean failFast) {
+        TickHistogram.Summary summary = window.summarize();
+        double p95 = summary != null ? summary.getP95() : 0.0;
+        boolean passed = !failFast && summary != null && p95 <= targetMspt;
+        
+        Step step = new Step(currentLoopCount, p95, passed);
+        steps.add(step);
+        
+        if (passed) {
+            highestPassing = Math.max(highestPassing, currentLoopCount);
+        } else {
+            lowestFailing = lowestFailing < 0 ? currentLoopCount : Math.min(lowestFailing, currentLoopCount);
+        }
+        
+        currentLoopCount = nextLoopCount();
+        window.reset();
+        stepStartTime = 0L;
+        consecutiveSpikes = 0;
+        
+        return step;
+    }
+    
+    /**
+     * Choose the next load: geometric ramp until the first failure, bisection afterwards
+     */
+    private int nextLoopCount() {
+        if (steps.size() >= maxSteps) {
+            finished = true;
+            return highestPassing;
+        }
+        
+        if (lowestFailing < 0) {
+            long next = (long) Math.ceil(currentLoopCount * rampFactor);
+            if (next >= Integer.MAX_VALUE) {
+                finished = true;
+                return highestPassing;
+            }
+            return (int) Math.max(next, currentLoopCount + 1L);
+        }
+        
+        long tolerance = Math.max(1L, (long) (highestPassing * precision));
+        if (lowestFailing - highestPassing <= tolerance) {
+            finished = true;
+            converged = true;
+            return highestPassing;
+        }
+        return highestPassing + (lowestFailing - highestPassing) / 2;
+    }
+    
+    /**
+     * Get the loop count to run this tick
+     */
+    public int getCurrentLoopCount() {
+        return currentLoopCount;
+    }
+    
+    /**
+     * Check whether the search has converged or run out of steps
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+    
+    /**
+     * Get number of completed steps
+     */
+    public int getCompletedSteps() {
+        return steps.size();
+    }
+    
+    /**
+     * Get maximum number of steps
+     */
+    public int getMaxSteps() {
+        return maxSteps;
+    }
+    
+    /**
+     * Get the longest the search can run, with every step using its full window
+     */
+    public int getMaxDurationSeconds() {
+        return (int) (maxSteps * (settleMillis + windowMillis) / 1000L);
+    }
+    
+    /**
+     * Get the current search outcome (partial if the search has not finished)
+     */
+    public Result getResult() {
+        return new Result(highestPassing, targetMspt, converged, new ArrayList<>(steps));
+    }
+    
+    /**
+     * One measured load level
+     */
+    public static class Step {
+        private final int loopCount;
+        private final double p95Mspt;
+        private final boolean passed;
+        
+        public Step(int loopCount, double p95Mspt, boolean passed) {
+            this.loopCount = loopCount;
+            this.p95Mspt = p95Mspt;
+            this.passed = passed;
+        }
+        
+        // Getters
+        public int getLoopCount() { return loopCount; }
+        public double getP95Mspt() { return p95Mspt; }
+        public boolean isPassed() { return passed; }
+    }
+    
+    /**
+     * Capacity search result data class
+     */
+    public static class Result {
+        private final int headroomLoopCount;
+        private final double targetMspt;
+        private final boolean converged;
+        private final List<Step> steps;
+        
+        public Result(int headroomLoopCount, double targetMspt, boolean converged, List<Step> steps) {
+            this.headroomLoopCount = headroomLoopCount;
+            this.targetMspt = targetMspt;
+            this.converged = converged;
+            this.steps = Collections.unmodifiableList(steps);
+        }
+        
+        // Getters
+        public int getHeadroomLoopCount() { return headroomLoopCount; }
+        public double getTargetMspt() { return targetMspt; }
+        public boolean isConverged() { return converged; }
+        public List<Step> getSteps() { return steps; }
+    }
+}
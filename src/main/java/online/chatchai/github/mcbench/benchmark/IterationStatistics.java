@@ -0,0 +1,266 @@
+package online.chatchai.github.mcbench.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import online.chatchai.github.mcbench.util.Util;
+
+/**
+ * Statistics over repeated workload/recovery iterations for MCBench Pro
+ * Warmup iterations are listed but never counted. Among measured iterations, outliers in
+ * recovery time are rejected with the modified Z-score rule (Iglewicz and Hoaglin):
+ * an iteration is rejected when 0.6745 * |x - median| / MAD > 3.5, where MAD is the median
+ * absolute deviation. The rule needs at least three measured iterations and a non-zero MAD,
+ * and never rejects more than a third of them. Mean, median, standard deviation, 95%
+ * confidence interval (Student's t) and coefficient of variation are then computed for
+ * recovery time and score over the accepted iterations.
+ */
+public class IterationStatistics {
+    
+    private static final double OUTLIER_THRESHOLD = 3.5;
+    
+    // Two-sided 95% Student's t critical values for 1-30 degrees of freedom
+    private static final double[] T_95 = {
+        12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+        2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+        2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+    
+    private final List<Iteration> iterations;
+    private final Summary recoveryStats;
+    private final Summary scoreStats;
+    private final Summary workloadStats;
+    
+    /**
+     * Reject outliers and summarize the given iterations
+     * @param iterations Completed iterations in run order, warmups included
+     */
+    public IterationStatistics(List<Iteration> iterations) {
+        List<Iteration> measured = new ArrayList<>();
+        for (Iteration iteration : iterations) {
+            if (!iteration.isWarmup()) {
+                measured.add(iteration);
+            }
+        }
+        
+        boolean[] rejected = findOutliers(measured);
+        List<Iteration> marked = new ArrayList<>();
+        List<Iteration> accepted = new ArrayList<>();
+        int m = 0;
+        for (Iteration iteration : iterations) {
+            if (iteration.isWarmup()) {
+                marked.add(iteration);
+                continue;
+            }
+            Iteration result = rejected[m++] ? iteration.reject() : iteration;
+            marked.add(result);
+            if (!result.isRejected()) {
+                accepted.add(result);
+            }
+        }
+        
+        double[] recovery = new double[accepted.size()];
+        double[] score = new double[accepted.size()];
+        double[] workload = new double[accepted.size()];
+        for (int i = 0; i < accepted.size(); i++) {
+            recovery[i] = accepted.get(i).getRecoverySeconds();
+            score[i] = accepted.get(i).getScore();
+            workload[i] = accepted.get(i).getWorkloadSeconds();
+        }
+        
+        this.iterations = Collections.unmodifiableList(marked);
+        this.recoveryStats = summarize(recovery);
+        this.scoreStats = summarize(score);
+        this.workloadStats = summarize(workload);
+    }
+    
+    /**
+     * Flag outliers in recovery time with the modified Z-score rule
+     */
+    private static boolean[] findOutliers(List<Iteration> measured) {
+        int n = measured.size();
+        boolean[] rejected = new boolean[n];
+        if (n < 3) {
+            return rejected;
+        }
+        
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = measured.get(i).getRecoverySeconds();
+        }
+        double median = median(values);
+        double[] deviations = new double[n];
+        for (int i = 0; i < n; i++) {
+            deviations[i] = Math.abs(values[i] - median);
+        }
+        double mad = median(deviations);
+        if (mad <= 0.0) {
+            return rejected;
+        }
+        
+        // Reject the most extreme first, keeping at least two thirds of the iterations
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(deviations[b], deviations[a]));
+        int maxRejected = n / 3;
+        for (int i = 0; i < maxRejected; i++) {
+            int index = order[i];
+            if (0.6745 * deviations[index] / mad <= OUTLIER_THRESHOLD) {
+                break;
+            }
+            rejected[index] = true;
+        }
+        return rejected;
+    }
+    
+    /**
+     * Summarize a sample
+     * @return Summary, or null for an empty sample
+     */
+    static Summary summarize(double[] values) {
+        int n = values.length;
+        if (n == 0) {
+            return null;
+        }
+        
+        double sum = 0.0;
+        for (double value : values) {
+            sum += value;
+        }
+        double mean = sum / n;
+        
+        double squares = 0.0;
+        for (double value : values) {
+            squares += (value - mean) * (value - mean);
+        }
+        double stdDev = n > 1 ? Math.sqrt(squares / (n - 1)) : 0.0;
+        double halfWidth = n > 1 ? tCritical(n - 1) * stdDev / Math.sqrt(n) : 0.0;
+        double cv = mean != 0.0 ? stdDev / Math.abs(mean) * 100.0 : 0.0;
+        
+        return new Summary(n, mean, median(values), stdDev, mean - halfWidth, mean + halfWidth, cv);
+    }
+    
+    private static double tCritical(int degreesOfFreedom) {
+        return degreesOfFreedom <= T_95.length ? T_95[degreesOfFreedom - 1] : 1.96;
+    }
+    
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int mid = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[mid] : (sorted[mid - 1] + sorted[mid]) / 2.0;
+    }
+    
+    /**
+     * Get number of measured iterations (warmups excluded)
+     */
+    public int getMeasuredCount() {
+        int count = 0;
+        for (Iteration iteration : iterations) {
+            if (!iteration.isWarmup()) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Get number of measured iterations rejected as outliers
+     */
+    public int getRejectedCount() {
+        int count = 0;
+        for (Iteration iteration : iterations) {
+            if (iteration.isRejected()) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    // Getters
+    public List<Iteration> getIterations() { return iterations; }
+    public Summary getRecoveryStats() { return recoveryStats; }
+    public Summary getScoreStats() { return scoreStats; }
+    public Summary getWorkloadStats() { return workloadStats; }
+    
+    /**
+     * One completed workload/recovery iteration
+     */
+    public static class Iteration {
+        private final int number;
+        private final boolean warmup;
+        private final double workloadSeconds;
+        private final double recoverySeconds;
+        private final double score;
+        private final boolean rejected;
+        
+        public Iteration(int number, boolean warmup, double workloadSeconds, double recoverySeconds,
+                         double score, boolean rejected) {
+            this.number = number;
+            this.warmup = warmup;
+            this.workloadSeconds = workloadSeconds;
+            this.recoverySeconds = recoverySeconds;
+            this.score = score;
+            this.rejected = rejected;
+        }
+        
+        Iteration reject() {
+            return new Iteration(number, warmup, workloadSeconds, recoverySeconds, score, true);
+        }
+        
+        // Getters
+        public int getNumber() { return number; }
+        public boolean isWarmup() { return warmup; }
+        public double getWorkloadSeconds() { return workloadSeconds; }
+        public double getRecoverySeconds() { return recoverySeconds; }
+        public double getScore() { return score; }
+        public boolean isRejected() { return rejected; }
+    }
+    
+    /**
+     * Sample statistics over accepted iterations
+     */
+    public static class Summary {
+        private final int count;
+        private final double mean;
+        private final double median;
+        private final double stdDev;
+        private final double ciLow;
+        private final double ciHigh;
+        private final double coefficientOfVariation;
+        
+        public Summary(int count, double mean, double median, double stdDev,
+                      double ciLow, double ciHigh, double coefficientOfVariation) {
+            this.count = count;
+            this.mean = mean;
+            this.median = median;
+            this.stdDev = stdDev;
+            this.ciLow = ciLow;
+            this.ciHigh = ciHigh;
+            this.coefficientOfVariation = coefficientOfVariation;
+        }
+        
+        // Getters
+        public int getCount() { return count; }
+        public double getMean() { return mean; }
+        public double getMedian() { return median; }
+        public double getStdDev() { return stdDev; }
+        public double getCiLow() { return ciLow; }
+        public double getCiHigh() { return ciHigh; }
+        public double getCoefficientOfVariation() { return coefficientOfVariation; }
+        
+        /**
+         * Get formatted one-line summary
+         */
+        public String getFormatted() {
+            return String.format("mean %s | median %s | sd %s | 95%% CI %s-%s | CV %s%% (n=%d)",
+                Util.formatDecimal(mean), Util.formatDecimal(median), Util.formatDecimal(stdDev),
+                Util.formatDecimal(ciLow), Util.formatDecimal(ciHigh),
+                Util.formatDecimal(coefficientOfVariation), count);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package online.chatchai.github.mcbench.benchmark;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import org.bukkit.scheduler.BukkitRunnable;
+
+import online.chatchai.github.mcbench.Main;
+import online.chatchai.github.mcbench.config.ConfigManager;
+import online.chatchai.github.mcbench.workload.WorkloadMix;
+
+/**
+ * JIT warmup phase for MCBench Pro
+ * Runs one batch of the profile's module mix per tick on the main thread until the kernels
+ * are compiled and their cost has settled, so the timed workload does not measure the
+ * interpreter and C1/C2 compilation. Warmup is considered stable once, over the last
+ * windowBatches batches, the coefficient of variation of batch times (slowest 10% trimmed to
+ * ignore GC pauses) is under maxCvPercent and the JIT compiled for less than
+ * maxCompileMsPerSecond over the last second. It always ends after maxSeconds.
+ */
+public class JitWarmup extends BukkitRunnable {
+    
+    private static final int CHECK_INTERVAL_BATCHES = 20;
+    private static final double TRIM_FRACTION = 0.1;
+    
+    private final WorkloadMix mix;
+    private final int batchLoopCount;
+    private final int windowBatches;
+    private final double maxCvPercent;
+    private final double maxCompileMsPerSecond;
+    private final long minNanos;
+    private final long maxNanos;
+    private final Consumer<Result> onComplete;
+    
+    // Null when the JVM cannot report compilation time
+    private final CompilationMXBean compilation;
+    
+    // Ring of the latest batch times
+    private final long[] batchNanos;
+    private final long[] scratch;
+    private int batches = 0;
+    
+    private long startNanos = 0L;
+    private long startCompileMillis = 0L;
+    private long lastCheckNanos = 0L;
+    private long lastCheckCompileMillis = 0L;
+    private double firstBatchMs = 0.0;
+    private double lastCv = -1.0;
+    private double lastCompileRate = -1.0;
+    private boolean finished = false;
+    
+    public JitWarmup(Main plugin, ConfigManager.ProfileConfig profile, double loadFraction, int windowBatches,
+                    double maxCvPercent, double maxCompileMsPerSecond, int minSeconds, int maxSeconds,
+                    Consumer<Result> onComplete) {
+        this.mix = plugin.getWorkloadModuleRegistry().createMix(profile.getModuleWeights());
+        this.batchLoopCount = (int) Math.max(1L, Math.min(Integer.MAX_VALUE,
+            (long) (profile.getLoopCountPerTick() * profile.getIntensityMultiplier() * loadFraction)));
+        this.windowBatches = Math.max(5, windowBatches);
+        this.maxCvPercent = maxCvPercent;
+        this.maxCompileMsPerSecond = maxCompileMsPerSecond;
+        this.minNanos = Math.max(0, minSeconds) * 1_000_000_000L;
+        this.maxNanos = Math.max(1, maxSeconds) * 1_000_000_000L;
+        this.onComplete = onComplete;
+        this.batchNanos = new long[this.windowBatches];
+        this.scratch = new long[this.windowBatches];
+        
+        CompilationMXBean bean = ManagementFactory.getCompilationMXBean();
+        this.compilation = bean != null && bean.isCompilationTimeMonitoringSupported() ? bean : null;
+    }
+    
+    @Override
+    public void run() {
+        if (finished) {
+            return;
+        }
+        
+        long now = System.nanoTime();
+        if (batches == 0) {
+            startNanos = now;
+            lastCheckNanos = now;
+            startCompileMillis = getCompileMillis();
+            lastCheckCompileMillis = startCompileMillis;
+        }
+        
+        long batchStart = System.nanoTime();
+        mix.run(batchLoopCount);
+        long elapsed = System.nanoTime() - batchStart;
+        batchNanos[batches % windowBatches] = elapsed;
+        if (batches == 0) {
+            firstBatchMs = elapsed / 1_000_000.0;
+        }
+        batches++;
+        
+        long runNanos = System.nanoTime() - startNanos;
+        if (batches % CHECK_INTERVAL_BATCHES == 0) {
+            long checkNanos = System.nanoTime();
+            long compileMillis = getCompileMillis();
+            double seconds = (checkNanos - lastCheckNanos) / 1_000_000_000.0;
+            lastCompileRate = compilation != null && seconds > 0 ?
+                (compileMillis - lastCheckCompileMillis) / seconds : -1.0;
+            lastCheckNanos = checkNanos;
+            lastCheckCompileMillis = compileMillis;
+            lastCv = batches >= windowBatches ? trimmedCv() : -1.0;
+            
+            if (batches >= windowBatches && runNanos >= minNanos && lastCv <= maxCvPercent
+                && (compilation == null || lastCompileRate <= maxCompileMsPerSecond)) {
+                finish(true);
+                return;
+            }
+        }
+        
+        if (runNanos >= maxNanos) {
+            finish(false);
+        }
+    }
+    
+    /**
+     * Stop warming up without reporting a result
+     */
+    public void stopWarmup() {
+        finished = true;
+        mix.close();
+        if (!isCancelled()) {
+            cancel();
+        }
+    }
+    
+    private void finish(boolean stable) {
+        if (lastCv < 0 && batches >= 2) {
+            lastCv = trimmedCv();
+        }
+        Result result = new Result(
+            (System.nanoTime() - startNanos) / 1_000_000_000.0,
+            batches,
+            batchLoopCount,
+            stable,
+            lastCv,
+            firstBatchMs,
+            medianBatchMs(),
+            compilation != null ? getCompileMillis() - startCompileMillis : -1L,
+            lastCompileRate
+        );
+        stopWarmup();
+        onComplete.accept(result);
+    }
+    
+    private long getCompileMillis() {
+        return compilation != null ? compilation.getTotalCompilationTime() : 0L;
+    }
+    
+    /**
+     * Copy the filled part of the window into scratch, sorted
+     * @return Number of batch times copied
+     */
+    private int sortedWindow() {
+        int count = Math.min(batches, windowBatches);
+        System.arraycopy(batchNanos, 0, scratch, 0, count);
+        Arrays.sort(scratch, 0, count);
+        return count;
+    }
+    
+    /**
+     * Coefficient of variation of the window in percent, slowest batches excluded
+     */
+    private double trimmedCv() {
+        int count = sortedWindow();
+        int kept = Math.max(2, count - (int) Math.ceil(count * TRIM_FRACTION));
+        kept = Math.min(kept, count);
+        if (kept < 2) {
+            return -1.0;
+        }
+        
+        double sum = 0.0;
+        for (int i = 0; i < kept; i++) {
+            sum += scratch[i];
+        }
+        double mean = sum / kept;
+        double squares = 0.0;
+        for (int i = 0; i < kept; i++) {
+            squares += (scratch[i] - mean) * (scratch[i] - mean);
+        }
+        return mean > 0 ? Math.sqrt(squares / (kept - 1)) / mean * 100.0 : 0.0;
+    }
+    
+    private double medianBatchMs() {
+        int count = sortedWindow();
+        return count > 0 ? scratch[count / 2] / 1_000_000.0 : 0.0;
+    }
+    
+    /**
+     * Outcome of the warmup phase
+     */
+    public static class Result {
+        private final double durationSeconds;
+        private final int batches;
+        private final int batchLoopCount;
+        private final boolean stable;
+        private final double finalCvPercent;
+        private final double firstBatchMs;
+        private final double finalBatchMs;
+        private final long compilationMillis;
+        private final double finalCompileMsPerSecond;
+        
+        public Result(double durationSeconds, int batches, int batchLoopCount, boolean stable,
+                     double finalCvPercent, double firstBatchMs, double finalBatchMs,
+                     long compilationMillis, double finalCompileMsPerSecond) {
+            this.durationSeconds = durationSeconds;
+            this.batches = batches;
+            this.batchLoopCount = batchLoopCount;
+            this.stable = stable;
+            this.finalCvPercent = finalCvPercent;
+            this.firstBatchMs = firstBatchMs;
+            this.finalBatchMs = finalBatchMs;
+            this.compilationMillis = compilationMillis;
+            this.finalCompileMsPerSecond = finalCompileMsPerSecond;
+        }
+        
+        // Getters
+        public double getDurationSeconds() { return durationSeconds; }
+        public int getBatches() { return batches; }
+        public int getBatchLoopCount() { return batchLoopCount; }
+        public boolean isStable() { return stable; }
+        public double getFinalCvPercent() { return finalCvPercent; }
+        public double getFirstBatchMs() { return firstBatchMs; }
+        public double getFinalBatchMs() { return finalBatchMs; }
+        public long getCompilationMillis() { return compilationMillis; }
+        public double getFinalCompileMsPerSecond() { return finalCompileMsPerSecond; }
+    }
+}
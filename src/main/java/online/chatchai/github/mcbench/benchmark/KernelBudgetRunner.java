@@ -0,0 +1,159 @@
+package online.chatchai.github.mcbench.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import online.chatchai.github.mcbench.workload.WorkloadMix;
+
+/**
+ * Time-budgeted kernel runner for MCBench Pro
+ * Gives every module in the mix a fixed millisecond budget per tick and runs it in small calibrated
+ * batches until the budget is spent, so each tick costs the same on any CPU and the
+ * result is a per-kernel ops/sec figure that can be compared across hardware.
+ */
+public class KernelBudgetRunner {
+    
+    // Batch sizes are tuned so one batch takes roughly this share of a kernel's budget
+    private static final int BATCHES_PER_BUDGET = 8;
+    private static final long MIN_BATCH_NANOS = 20_000L;
+    
+    private final WorkloadMix mix;
+    private final long budgetNanos;
+    private final long targetBatchNanos;
+    
+    private final int[] batchSizes;
+    private final double[] nanosPerOperation;
+    private final long[] operations;
+    private final long[] elapsedNanos;
+    private long ticks = 0L;
+    
+    public KernelBudgetRunner(WorkloadMix mix, double budgetMillisPerKernel) {
+        this.mix = mix;
+        this.batchSizes = new int[mix.size()];
+        this.nanosPerOperation = new double[mix.size()];
+        this.operations = new long[mix.size()];
+        this.elapsedNanos = new long[mix.size()];
+        this.budgetNanos = Math.max(1L, (long) (budgetMillisPerKernel * 1_000_000L));
+        this.targetBatchNanos = Math.max(MIN_BATCH_NANOS, budgetNanos / BATCHES_PER_BUDGET);
+        
+        for (int i = 0; i < batchSizes.length; i++) {
+            batchSizes[i] = 1;
+        }
+    }
+    
+    /**
+     * Run every kernel for its budget once
+     */
+    public void runTick() {
+        for (int kernel = 0; kernel < batchSizes.length; kernel++) {
+            runKernel(kernel);
+        }
+        ticks++;
+    }
+    
+    /**
+     * Run one kernel in calibrated batches until its budget is used
+     */
+    private void runKernel(int kernel) {
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+        long now = start;
+        
+        while (now < deadline) {
+            // Shrink the final batch so it does not overrun the deadline
+            int batch = batchSizes[kernel];
+            if (nanosPerOperation[kernel] > 0) {
+                batch = (int) Math.max(1, Math.min(batch, (deadline - now) / nanosPerOperation[kernel]));
+            }
+            
+            long batchStart = now;
+            mix.runModule(kernel, batch);
+            now = System.nanoTime();
+            operations[kernel] += batch;
+            
+            // Scale the batch toward the target duration, at most doubling or halving per step
+            long batchNanos = Math.max(1L, now - batchStart);
+            nanosPerOperation[kernel] = batchNanos / (double) batch;
+            if (batch < batchSizes[kernel]) {
+                continue;
+            }
+            double ratio = Math.max(0.5, Math.min(2.0, targetBatchNanos / (double) batchNanos));
+            batchSizes[kernel] = Math.max(1, (int) Math.min(Integer.MAX_VALUE, batch * ratio));
+        }
+        
+        elapsedNanos[kernel] += now - start;
+    }
+    
+    /**
+     * Get the per-kernel budget in milliseconds
+     */
+    public double getBudgetMillisPerKernel() {
+        return budgetNanos / 1_000_000.0;
+    }
+    
+    /**
+     * Get measured kernel throughput
+     * @return Result, or null if no tick ran yet
+     */
+    public Result getResult() {
+        if (ticks == 0L) {
+            return null;
+        }
+        
+        List<KernelThroughput> kernelResults = new ArrayList<>();
+        for (int i = 0; i < mix.size(); i++) {
+            double seconds = elapsedNanos[i] / 1_000_000_000.0;
+            kernelResults.add(new KernelThroughput(
+                mix.getName(i),
+                operations[i],
+                elapsedNanos[i] / 1_000_000.0,
+                seconds > 0 ? operations[i] / seconds : 0.0
+            ));
+        }
+        
+        return new Result(getBudgetMillisPerKernel(), ticks, kernelResults);
+    }
+    
+    /**
+     * Throughput of a single kernel
+     */
+    public static class KernelThroughput {
+        private final String name;
+        private final long operations;
+        private final double elapsedMillis;
+        private final double opsPerSecond;
+        
+        public KernelThroughput(String name, long operations, double elapsedMillis, double opsPerSecond) {
+            this.name = name;
+            this.operations = operations;
+            this.elapsedMillis = elapsedMillis;
+            this.opsPerSecond = opsPerSecond;
+        }
+        
+        // Getters
+        public String getName() { return name; }
+        public long getOperations() { return operations; }
+        public double getElapsedMillis() { return elapsedMillis; }
+        public double getOpsPerSecond() { return opsPerSecond; }
+    }
+    
+    /**
+     * Time-budgeted run result data class
+     */
+    public static class Result {
+        private final double budgetMillisPerKernel;
+        private final long ticks;
+        private final List<KernelThroughput> kernels;
+        
+        public Result(double budgetMillisPerKernel, long ticks, List<KernelThroughput> kernels) {
+            this.budgetMillisPerKernel = budgetMillisPerKernel;
+            this.ticks = ticks;
+            this.kernels = kernels;
+        }
+        
+        // Getters
+        public double getBudgetMillisPerKernel() { return budgetMillisPerKernel; }
+        public long getTicks() { return ticks; }
+        public List<KernelThroughput> getKernels() { return kernels; }
+    }
+}
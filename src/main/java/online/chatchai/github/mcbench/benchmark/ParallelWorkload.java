@@ -0,0 +1,150 @@
+package online.chatchai.github.mcbench.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import online.chatchai.github.mcbench.workload.WorkloadMix;
+
+/**
+ * Multi-core workload runner for MCBench Pro
+ * Splits the workload mix across a dedicated ForkJoinPool and steps through
+ * 1, 2, 4 ... N active threads over the workload phase to build a scaling curve
+ */
+public class ParallelWorkload {
+    
+    private final ForkJoinPool pool;
+    private final int[] levels;
+    private final KernelSlice[] slices;
+    private final ForkJoinTask<?>[] pending;
+    private final long[] opsPerLevel;
+    private final long[] nanosPerLevel;
+    
+    public ParallelWorkload(WorkloadMix mix, int threads) {
+        int poolSize = Math.max(1, threads);
+        this.pool = new ForkJoinPool(poolSize, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("MCBench-Workload-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+        this.levels = buildLevels(poolSize);
+        this.slices = new KernelSlice[poolSize];
+        this.pending = new ForkJoinTask<?>[poolSize];
+        this.opsPerLevel = new long[levels.length];
+        this.nanosPerLevel = new long[levels.length];
+        
+        for (int i = 0; i < poolSize; i++) {
+            slices[i] = new KernelSlice(mix.fork());
+        }
+    }
+    
+    /**
+     * Build thread count levels: powers of two up to N, always ending with N
+     */
+    private static int[] buildLevels(int maxThreads) {
+        List<Integer> values = new ArrayList<>();
+        for (int threads = 1; threads < maxThreads; threads <<= 1) {
+            values.add(threads);
+        }
+        values.add(maxThreads);
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+    
+    /**
+     * Run one tick of workload split across the thread level for the current progress
+     * @param loopCount Total loop budget for this tick
+     * @param progress Workload phase progress (0.0 - 1.0)
+     */
+    public void run(int loopCount, double progress) {
+        int levelIndex = (int) Math.min(levels.length - 1, Math.max(0, progress) * levels.length);
+        int threads = levels[levelIndex];
+        int share = loopCount / threads;
+        
+        long start = System.nanoTime();
+        for (int i = 0; i < threads; i++) {
+            slices[i].loops = i == 0 ? share + (loopCount % threads) : share;
+            pending[i] = pool.submit(slices[i]);
+        }
+        for (int i = 0; i < threads; i++) {
+            pending[i].join();
+            pending[i] = null;
+        }
+        
+        nanosPerLevel[levelIndex] += System.nanoTime() - start;
+        opsPerLevel[levelIndex] += loopCount;
+    }
+    
+    /**
+     * Get throughput per thread count measured so far
+     * @return Scaling points for every level that ran
+     */
+    public List<ScalingPoint> getScalingCurve() {
+        List<ScalingPoint> curve = new ArrayList<>();
+        double singleThreadOps = 0.0;
+        
+        for (int i = 0; i < levels.length; i++) {
+            if (nanosPerLevel[i] <= 0) {
+                continue;
+            }
+            double opsPerSecond = opsPerLevel[i] / (nanosPerLevel[i] / 1_000_000_000.0);
+            if (levels[i] == 1) {
+                singleThreadOps = opsPerSecond;
+            }
+            double speedup = singleThreadOps > 0 ? opsPerSecond / singleThreadOps : 0.0;
+            curve.add(new ScalingPoint(levels[i], opsPerSecond, speedup));
+        }
+        
+        return curve;
+    }
+    
+    /**
+     * Shutdown the worker pool
+     */
+    public void shutdown() {
+        pool.shutdownNow();
+        for (KernelSlice slice : slices) {
+            slice.mix.close();
+        }
+    }
+    
+    /**
+     * Runnable slice of the workload mix bound to its own module state
+     */
+    private static class KernelSlice implements Runnable {
+        private final WorkloadMix mix;
+        private volatile int loops;
+        
+        KernelSlice(WorkloadMix mix) {
+            this.mix = mix;
+        }
+        
+        @Override
+        public void run() {
+            mix.run(loops);
+        }
+    }
+    
+    /**
+     * Throughput at a given thread count
+     */
+    public static class ScalingPoint {
+        private final int threads;
+        private final double opsPerSecond;
+        private final double speedup;
+        
+        public ScalingPoint(int threads, double opsPerSecond, double speedup) {
+            this.threads = threads;
+            this.opsPerSecond = opsPerSecond;
+            this.speedup = speedup;
+        }
+        
+        // Getters
+        public int getThreads() { return threads; }
+        public double getOpsPerSecond() { return opsPerSecond; }
+        public double getSpeedup() { return speedup; }
+        public double getEfficiency() { return threads > 0 ? speedup / threads * 100.0 : 0.0; }
+    }
+}
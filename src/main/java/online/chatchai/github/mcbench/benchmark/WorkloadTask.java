@@ -1,13 +1,15 @@
 package online.chatchai.github.mcbench.benchmark;
 
-import java.math.BigInteger;
-import java.security.SecureRandom;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.Collections;
+import java.util.List;
 
 import org.bukkit.scheduler.BukkitRunnable;
 
 import online.chatchai.github.mcbench.Main;
 import online.chatchai.github.mcbench.config.ConfigManager;
+import online.chatchai.github.mcbench.metrics.TickRecorder;
+import online.chatchai.github.mcbench.util.Util;
+import online.chatchai.github.mcbench.workload.WorkloadMix;
 
 /**
  * CPU-intensive workload task for MCBench Pro
@@ -20,11 +22,14 @@ public class WorkloadTask extends BukkitRunnable {
     private final BenchmarkManager benchmarkManager;
     private final long startTime;
     
-    // Reusable objects to prevent allocations
-    private final SecureRandom secureRandom = new SecureRandom();
-    private final double[][] matrixA = new double[50][50];
-    private final double[][] matrixB = new double[50][50];
-    private final double[][] matrixResult = new double[50][50];
+    // Module mix (main thread), optional multi-core runner and optional time-budgeted runner
+    private final WorkloadMix mix;
+    private final ParallelWorkload parallelWorkload;
+    private final KernelBudgetRunner budgetRunner;
+    
+    // Controllers driving the loop count (null for fixed-load runs)
+    private final CapacitySearch capacitySearch;
+    private final AdaptiveController adaptiveController;
     
     // Workload state
     private long tickCount = 0;
@@ -32,25 +37,28 @@ public class WorkloadTask extends BukkitRunnable {
     
     public WorkloadTask(Main plugin, ConfigManager.ProfileConfig profile, 
                        BenchmarkManager benchmarkManager) {
+        this(plugin, profile, benchmarkManager, null, null);
+    }
+    
+    public WorkloadTask(Main plugin, ConfigManager.ProfileConfig profile,
+                       BenchmarkManager benchmarkManager, CapacitySearch capacitySearch,
+                       AdaptiveController adaptiveController) {
         this.plugin = plugin;
         this.profile = profile;
         this.benchmarkManager = benchmarkManager;
+        this.capacitySearch = capacitySearch;
+        this.adaptiveController = adaptiveController;
         this.startTime = System.currentTimeMillis();
+        this.mix = plugin.getWorkloadModuleRegistry().createMix(profile.getModuleWeights());
+        plugin.getLogger().info("Workload modules: " + mix.describe());
         
-        // Initialize matrices for reuse
-        initializeMatrices();
-    }
-    
-    /**
-     * Initialize matrices with random values for computation reuse
-     */
-    private void initializeMatrices() {
-        for (int i = 0; i < 50; i++) {
-            for (int j = 0; j < 50; j++) {
-                matrixA[i][j] = ThreadLocalRandom.current().nextDouble(0.1, 10.0);
-                matrixB[i][j] = ThreadLocalRandom.current().nextDouble(0.1, 10.0);
-            }
-        }
+        // Time budgets only apply to fixed-load runs and always run on the main thread
+        boolean budgeted = profile.getKernelBudgetMs() > 0 && capacitySearch == null && adaptiveController == null;
+        this.budgetRunner = budgeted ? new KernelBudgetRunner(mix, profile.getKernelBudgetMs()) : null;
+        
+        int threads = profile.getParallelThreads() < 0 ?
+            Runtime.getRuntime().availableProcessors() : profile.getParallelThreads();
+        this.parallelWorkload = threads > 0 && !budgeted ? new ParallelWorkload(mix, threads) : null;
     }
     
     @Override
@@ -61,11 +69,13 @@ public class WorkloadTask extends BukkitRunnable {
                 return;
             }
             
-            // Check if duration has elapsed
+            // Check if duration has elapsed (or the capacity search has converged)
             long elapsed = (System.currentTimeMillis() - startTime) / 1000;
-            if (elapsed >= profile.getDurationSeconds()) {
+            boolean completed = capacitySearch != null ?
+                capacitySearch.isFinished() : elapsed >= profile.getDurationSeconds();
+            if (completed) {
                 benchmarkManager.onWorkloadCompleted();
-                cancel();
+                stopWorkload();
                 return;
             }
             
@@ -76,7 +86,7 @@ public class WorkloadTask extends BukkitRunnable {
         } catch (Exception e) {
             plugin.getLogger().severe("Workload execution error: " + e.getMessage());
             benchmarkManager.onWorkloadError(e);
-            cancel();
+            stopWorkload();
         }
     }
     
@@ -84,158 +94,61 @@ public class WorkloadTask extends BukkitRunnable {
      * Perform the actual CPU-intensive workload
      */
     private void performWorkload() {
-        int adjustedLoopCount = (int) (profile.getLoopCountPerTick() * profile.getIntensityMultiplier());
-        
-        // Split workload into different types of computations
-        int mathLoops = adjustedLoopCount / 4;
-        int primeLoops = adjustedLoopCount / 8;
-        int matrixOps = adjustedLoopCount / 16;
-        int remainingLoops = adjustedLoopCount - mathLoops - primeLoops - matrixOps;
-        
-        // Mathematical computations (square roots, trigonometry)
-        performMathOperations(mathLoops);
-        
-        // Prime number checking
-        performPrimeChecking(primeLoops);
-        
-        // Matrix multiplication
-        performMatrixOperations(matrixOps);
-        
-        // Additional CPU-bound operations
-        performAdditionalOperations(remainingLoops);
-    }
-    
-    /**
-     * Perform mathematical operations (sqrt, sin, cos, log)
-     */
-    private void performMathOperations(int count) {
-        double accumulator = 1.0;
-        
-        for (int i = 0; i < count; i++) {
-            double value = (i % 1000) + 1.0;
-            
-            // Mix of mathematical operations
-            accumulator += Math.sqrt(value);
-            accumulator += Math.sin(value / 100.0);
-            accumulator += Math.cos(value / 100.0);
-            accumulator += Math.log(value);
-            accumulator += Math.pow(value, 0.5);
-            
-            // Prevent overflow
-            if (accumulator > 1e10) {
-                accumulator = accumulator % 1e6;
-            }
+        if (budgetRunner != null) {
+            // Each module runs for its millisecond budget regardless of loop counts
+            budgetRunner.runTick();
+            return;
         }
         
-        // Ensure the compiler doesn't optimize away the computation
-        if (accumulator < 0) {
-            plugin.getLogger().info("Negative accumulator: " + accumulator);
-        }
-    }
-    
-    /**
-     * Perform prime number checking operations
-     */
-    private void performPrimeChecking(int count) {
-        int primeCount = 0;
-        
-        for (int i = 0; i < count; i++) {
-            // Generate a number to test for primality
-            int candidate = 1000 + (i % 10000);
-            
-            if (isProbablyPrime(candidate)) {
-                primeCount++;
-            }
-        }
+        int adjustedLoopCount;
+        double progress;
         
-        // Ensure the computation isn't optimized away
-        if (primeCount < 0) {
-            plugin.getLogger().info("Negative prime count: " + primeCount);
+        if (capacitySearch != null) {
+            // Let the search see the previous tick before choosing this tick's load
+            stepCapacitySearch();
+            adjustedLoopCount = capacitySearch.getCurrentLoopCount();
+            progress = 1.0;
+        } else if (adaptiveController != null) {
+            // Hold tick time at the setpoint by steering the intensity multiplier
+            TickRecorder tickRecorder = plugin.getMetricSampler().getTickRecorder();
+            double intensity = adaptiveController.update(tickRecorder.getLastTickNanos(), tickRecorder.getTickCount(),
+                System.currentTimeMillis());
+            adjustedLoopCount = (int) Math.min(Integer.MAX_VALUE, profile.getLoopCountPerTick() * intensity);
+            progress = (System.currentTimeMillis() - startTime) / (profile.getDurationSeconds() * 1000.0);
+        } else {
+            adjustedLoopCount = (int) (profile.getLoopCountPerTick() * profile.getIntensityMultiplier());
+            progress = (System.currentTimeMillis() - startTime) / (profile.getDurationSeconds() * 1000.0);
         }
-    }
-    
-    /**
-     * Simple probabilistic primality test
-     */
-    private boolean isProbablyPrime(int n) {
-        if (n <= 1) return false;
-        if (n <= 3) return true;
-        if (n % 2 == 0 || n % 3 == 0) return false;
         
-        // Check for factors up to sqrt(n)
-        for (int i = 5; i * i <= n; i += 6) {
-            if (n % i == 0 || n % (i + 2) == 0) {
-                return false;
-            }
+        if (parallelWorkload != null) {
+            // Spread the module mix across worker threads, stepping through thread counts
+            parallelWorkload.run(adjustedLoopCount, progress);
+        } else {
+            mix.run(adjustedLoopCount);
         }
         
-        return true;
-    }
-    
-    /**
-     * Perform matrix multiplication operations
-     */
-    private void performMatrixOperations(int count) {
-        for (int op = 0; op < count; op++) {
-            // Perform matrix multiplication: result = A * B
-            for (int i = 0; i < 50; i++) {
-                for (int j = 0; j < 50; j++) {
-                    matrixResult[i][j] = 0.0;
-                    for (int k = 0; k < 50; k++) {
-                        matrixResult[i][j] += matrixA[i][k] * matrixB[k][j];
-                    }
-                }
-            }
-            
-            // Rotate matrices to vary computation
-            if (op % 10 == 0) {
-                rotateMatrix(matrixA);
-            }
+        if (adaptiveController != null) {
+            adaptiveController.recordWork(adjustedLoopCount, System.currentTimeMillis());
         }
     }
     
     /**
-     * Rotate matrix 90 degrees for variation in computation
+     * Advance the capacity search and log every completed step
      */
-    private void rotateMatrix(double[][] matrix) {
-        // Simple rotation logic
-        for (int i = 0; i < 25; i++) {
-            for (int j = i; j < 50 - i - 1; j++) {
-                double temp = matrix[i][j];
-                matrix[i][j] = matrix[50 - 1 - j][i];
-                matrix[50 - 1 - j][i] = matrix[50 - 1 - i][50 - 1 - j];
-                matrix[50 - 1 - i][50 - 1 - j] = matrix[j][50 - 1 - i];
-                matrix[j][50 - 1 - i] = temp;
-            }
-        }
-    }
-    
-    /**
-     * Perform additional CPU-bound operations
-     */
-    private void performAdditionalOperations(int count) {
-        for (int i = 0; i < count; i++) {
-            // String operations (memory + CPU)
-            StringBuilder sb = new StringBuilder();
-            for (int j = 0; j < 100; j++) {
-                sb.append("benchmark").append(j);
-            }
-            
-            // Hash the string for additional computation
-            int hash = sb.toString().hashCode();
-            
-            // BigInteger operations for CPU intensity
-            if (i % 100 == 0) {
-                BigInteger big1 = BigInteger.valueOf(hash);
-                BigInteger big2 = BigInteger.valueOf(i + 1);
-                BigInteger result = big1.multiply(big2).add(BigInteger.ONE);
-                
-                // Ensure computation isn't optimized away
-                if (result.compareTo(BigInteger.ZERO) < 0) {
-                    plugin.getLogger().info("Negative BigInteger: " + result);
-                }
-            }
+    private void stepCapacitySearch() {
+        long lastTickNanos = plugin.getMetricSampler().getTickRecorder().getLastTickNanos();
+        CapacitySearch.Step step = capacitySearch.onTick(lastTickNanos, System.currentTimeMillis());
+        if (step == null) {
+            return;
         }
+        
+        ConfigManager configManager = plugin.getConfigManager();
+        plugin.getLogger().info(Util.formatConsoleMessage(configManager.getMessage("benchmark.capacity.step",
+            "%step%", String.valueOf(capacitySearch.getCompletedSteps()),
+            "%loops%", String.valueOf(step.getLoopCount()),
+            "%p95%", Util.formatDecimal(step.getP95Mspt()),
+            "%status%", step.isPassed() ? "PASS" : "FAIL",
+            "%next%", String.valueOf(capacitySearch.getCurrentLoopCount()))));
     }
     
     /**
@@ -243,6 +156,10 @@ public class WorkloadTask extends BukkitRunnable {
      */
     public void stopWorkload() {
         isRunning = false;
+        if (parallelWorkload != null) {
+            parallelWorkload.shutdown();
+        }
+        mix.close();
         if (!isCancelled()) {
             cancel();
         }
@@ -276,4 +193,27 @@ public class WorkloadTask extends BukkitRunnable {
     public long getTickCount() {
         return tickCount;
     }
+    
+    /**
+     * Get multi-core scaling curve
+     * @return Throughput per thread count, empty when running on the main thread only
+     */
+    public List<ParallelWorkload.ScalingPoint> getScalingCurve() {
+        return parallelWorkload != null ? parallelWorkload.getScalingCurve() : Collections.emptyList();
+    }
+    
+    /**
+     * Get operations, time and allocations per workload module
+     */
+    public List<WorkloadMix.ModuleStats> getModuleStats() {
+        return mix.getStats();
+    }
+    
+    /**
+     * Get per-kernel throughput for time-budgeted runs
+     * @return Result, or null when running on loop counts
+     */
+    public KernelBudgetRunner.Result getKernelBudgetResult() {
+        return budgetRunner != null ? budgetRunner.getResult() : null;
+    }
 }
@@ -5,6 +5,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -12,10 +13,13 @@ import org.bukkit.command.ConsoleCommandSender;
 import org.bukkit.command.TabCompleter;
 
 import online.chatchai.github.mcbench.Main;
+import online.chatchai.github.mcbench.analysis.HotspotClusterer;
 import online.chatchai.github.mcbench.benchmark.BenchmarkManager;
 import online.chatchai.github.mcbench.config.ConfigManager;
 import online.chatchai.github.mcbench.diagnostics.DiagnosticsEngine;
+import online.chatchai.github.mcbench.monitor.SoakMonitor;
 import online.chatchai.github.mcbench.util.RunLogger;
+import online.chatchai.github.mcbench.util.Util;
 import online.chatchai.github.mcbench.verification.RAMVerifier;
 
 /**
@@ -61,7 +65,13 @@ public class MCBenchCommand implements CommandExecutor, TabCompleter {
         
         switch (subCommand) {
             case "start":
-                return handleStartCommand(sender, args);
+                return handleStartCommand(sender, args, BenchmarkManager.WorkloadMode.FIXED);
+            case "capacity":
+                return handleStartCommand(sender, args, BenchmarkManager.WorkloadMode.CAPACITY);
+            case "adaptive":
+                return handleStartCommand(sender, args, BenchmarkManager.WorkloadMode.ADAPTIVE);
+            case "monitor":
+                return handleMonitorCommand(sender, args);
             case "stop":
                 return handleStopCommand(sender);
             case "confirm":
@@ -111,9 +121,10 @@ public class MCBenchCommand implements CommandExecutor, TabCompleter {
     }
     
     /**
-     * Handle the start command
+     * Handle the start, capacity and adaptive commands
+     * @param workloadMode How the workload load level is chosen
      */
-    private boolean handleStartCommand(CommandSender sender, String[] args) {
+    private boolean handleStartCommand(CommandSender sender, String[] args, BenchmarkManager.WorkloadMode workloadMode) {
         // Allow both console and players, but only show messages to console for players
         boolean isPlayer = !(sender instanceof ConsoleCommandSender);
         
@@ -133,7 +144,15 @@ public class MCBenchCommand implements CommandExecutor, TabCompleter {
             return true;
         }
         
-        // Parse arguments: /mcbench start <profile> [safe] [--bypass]
+        // The soak monitor shares the tick recorder and GC capture with benchmarks
+        if (plugin.getSoakMonitor().isRunning()) {
+            if (!isPlayer) {
+                sender.sendMessage(configManager.getMessage("command.monitorRunning"));
+            }
+            return true;
+        }
+        
+        // Parse arguments: /mcbench <start|capacity|adaptive> <profile> [safe] [--bypass]
         if (args.length < 2) {
             if (!isPlayer) {
                 sender.sendMessage(configManager.getMessage("command.invalidSyntax"));
@@ -189,7 +208,7 @@ public class MCBenchCommand implements CommandExecutor, TabCompleter {
         }
         
         // Start confirmation process
-        boolean success = benchmarkManager.startBenchmarkConfirmation(profileName, safeMode);
+        boolean success = benchmarkManager.startBenchmarkConfirmation(profileName, safeMode, workloadMode);
         if (!success && !isPlayer) {
             sender.sendMessage("Failed to start benchmark confirmation process.");
         }
@@ -197,6 +216,60 @@ public class MCBenchCommand implements CommandExecutor, TabCompleter {
         return true;
     }
     
+    /**
+     * Handle the monitor command: /mcbench monitor <start|stop|status>
+     */
+    private boolean handleMonitorCommand(CommandSender sender, String[] args) {
+        // Only respond in console
+        if (!(sender instanceof ConsoleCommandSender)) {
+            return true;
+        }
+        
+        SoakMonitor monitor = plugin.getSoakMonitor();
+        String action = args.length >= 2 ? args[1].toLowerCase() : "status";
+        
+        switch (action) {
+            case "start":
+                if (benchmarkManager.isBenchmarkRunning() || benchmarkManager.isAwaitingConfirmation()) {
+                    sender.sendMessage(configManager.getMessage("command.benchmarkRunning"));
+                } else if (!monitor.start()) {
+                    sender.sendMessage(configManager.getMessage("command.monitor.alreadyRunning"));
+                } else {
+                    sender.sendMessage(configManager.getMessage("command.monitor.started",
+                        "%file%", monitor.getOutputFile().getAbsolutePath()));
+                }
+                return true;
+            case "stop":
+                if (!monitor.isRunning()) {
+                    sender.sendMessage(configManager.getMessage("command.monitor.notRunning"));
+                    return true;
+                }
+                monitor.stop();
+                sender.sendMessage(configManager.getMessage("command.monitor.stopped",
+                    "%minutes%", String.valueOf((System.currentTimeMillis() - monitor.getStartTime()) / 60000L),
+                    "%file%", monitor.getOutputFile().getAbsolutePath()));
+                return true;
+            case "status":
+                if (!monitor.isRunning()) {
+                    sender.sendMessage(configManager.getMessage("command.monitor.notRunning"));
+                    return true;
+                }
+                sender.sendMessage(configManager.getMessage("command.monitor.status",
+                    "%minutes%", String.valueOf((System.currentTimeMillis() - monitor.getStartTime()) / 60000L),
+                    "%overhead%", Util.formatDecimal(monitor.getAverageOverheadMicrosPerTick()),
+                    "%budget%", Util.formatDecimal(configManager.getMonitorOverheadBudgetMs() * 1000.0)));
+                SoakMonitor.MinuteAggregate last = monitor.getLastMinute();
+                if (last != null) {
+                    sender.sendMessage(configManager.getMessage("command.monitor.lastMinute",
+                        "%summary%", last.getFormatted()));
+                }
+                return true;
+            default:
+                sender.sendMessage(configManager.getMessage("command.invalidSyntax"));
+                return true;
+        }
+    }
+    
     /**
      * Handle the stop command
      */
@@ -253,10 +326,34 @@ public class MCBenchCommand implements CommandExecutor, TabCompleter {
             return true; // Don't show anything to players
         }
         
+        // Run diagnostics; the result is shown back on the main thread
+        try {
+            diagnosticsEngine.runDiagnosticsAsync().whenComplete((result, error) -> {
+                if (!plugin.isEnabled()) {
+                    return;
+                }
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    if (error != null) {
+                        sender.sendMessage("§cError running diagnostics: " + error.getMessage());
+                        plugin.getLogger().log(java.util.logging.Level.SEVERE, "Error running diagnostics", error);
+                        return;
+                    }
+                    showDiagnostics(sender, result);
+                });
+            });
+        } catch (Exception e) {
+            sender.sendMessage("§cError running diagnostics: " + e.getMessage());
+            plugin.getLogger().log(java.util.logging.Level.SEVERE, "Error running diagnostics", e);
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Display diagnostics results and export them to file
+     */
+    private void showDiagnostics(CommandSender sender, DiagnosticsEngine.DiagnosticsResult result) {
         try {
-            // Run diagnostics
-            DiagnosticsEngine.DiagnosticsResult result = diagnosticsEngine.runDiagnostics();
-            
             // Display results to console
             sender.sendMessage("§a========== MCBench Pro - Server Diagnostics ==========");
             
@@ -294,6 +391,22 @@ public class MCBenchCommand implements CommandExecutor, TabCompleter {
                 }
             }
             
+            // Densest chunks
+            if (!result.chunkAnalysis.getTopChunksByDensity().isEmpty()) {
+                sender.sendMessage("§eDensest Chunks:");
+                for (String line : result.chunkAnalysis.getFormattedTopChunks()) {
+                    sender.sendMessage("§f" + line);
+                }
+            }
+            
+            // Connected hot chunks
+            if (!result.chunkAnalysis.getHotspotClusters().isEmpty()) {
+                sender.sendMessage("§eHotspot Clusters:");
+                for (HotspotClusterer.Cluster cluster : result.chunkAnalysis.getHotspotClusters()) {
+                    sender.sendMessage("  §c" + cluster.getFormatted());
+                }
+            }
+            
             // Recommendations
             sender.sendMessage("§eRecommendations:");
             for (String recommendation : result.recommendations) {
@@ -311,8 +424,6 @@ public class MCBenchCommand implements CommandExecutor, TabCompleter {
             sender.sendMessage("§cError running diagnostics: " + e.getMessage());
             plugin.getLogger().log(java.util.logging.Level.SEVERE, "Error running diagnostics", e);
         }
-        
-        return true;
     }
     
     /**
@@ -350,6 +461,9 @@ public class MCBenchCommand implements CommandExecutor, TabCompleter {
         
         sender.sendMessage(configManager.getMessage("command.help.header"));
         sender.sendMessage(configManager.getMessage("command.help.start"));
+        sender.sendMessage(configManager.getMessage("command.help.capacity"));
+        sender.sendMessage(configManager.getMessage("command.help.adaptive"));
+        sender.sendMessage(configManager.getMessage("command.help.monitor"));
         sender.sendMessage(configManager.getMessage("command.help.stop"));
         sender.sendMessage(configManager.getMessage("command.help.confirm"));
         sender.sendMessage(configManager.getMessage("command.help.cancel"));
@@ -371,7 +485,7 @@ public class MCBenchCommand implements CommandExecutor, TabCompleter {
         
         if (args.length == 1) {
             // First argument: subcommands
-            List<String> subCommands = Arrays.asList("start", "stop", "confirm", "cancel", "check", "reload", "help");
+            List<String> subCommands = Arrays.asList("start", "capacity", "adaptive", "monitor", "stop", "confirm", "cancel", "check", "reload", "help");
             String input = args[0].toLowerCase();
             
             for (String subCommand : subCommands) {
@@ -379,8 +493,16 @@ public class MCBenchCommand implements CommandExecutor, TabCompleter {
                     completions.add(subCommand);
                 }
             }
-        } else if (args.length == 2 && args[0].equalsIgnoreCase("start")) {
-            // Second argument for start: profile names
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("monitor")) {
+            // Second argument for monitor: action
+            String input = args[1].toLowerCase();
+            for (String action : Arrays.asList("start", "stop", "status")) {
+                if (action.startsWith(input)) {
+                    completions.add(action);
+                }
+            }
+        } else if (args.length == 2 && isProfileCommand(args[0])) {
+            // Second argument for start/capacity/adaptive: profile names
             String input = args[1].toLowerCase();
             String[] profiles = configManager.getAvailableProfiles();
             
@@ -389,8 +511,8 @@ public class MCBenchCommand implements CommandExecutor, TabCompleter {
                     completions.add(profile);
                 }
             }
-        } else if (args.length >= 3 && args[0].equalsIgnoreCase("start")) {
-            // Third+ argument for start: "safe" and "--bypass" options
+        } else if (args.length >= 3 && isProfileCommand(args[0])) {
+            // Third+ argument for start/capacity/adaptive: "safe" and "--bypass" options
             String input = args[args.length - 1].toLowerCase();
             List<String> options = Arrays.asList("safe", "--bypass");
             
@@ -403,4 +525,12 @@ public class MCBenchCommand implements CommandExecutor, TabCompleter {
         
         return completions;
     }
+    
+    /**
+     * Check whether the subcommand takes a profile argument
+     */
+    private boolean isProfileCommand(String subCommand) {
+        return subCommand.equalsIgnoreCase("start") || subCommand.equalsIgnoreCase("capacity")
+            || subCommand.equalsIgnoreCase("adaptive");
+    }
 }
@@ -1,6 +1,9 @@
 package online.chatchai.github.mcbench.config;
 
 import java.io.File;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.logging.Level;
 
 import org.bukkit.configuration.ConfigurationSection;
@@ -166,6 +169,22 @@ public class ConfigManager {
                 return "&aWorkload phase completed. Monitoring recovery...&r";
             case "benchmark.recoveryCompleted":
                 return "&aRecovery complete. Generating report...&r";
+            case "benchmark.iterationStarted":
+                return "&7Starting iteration &f%iteration%/%total%%kind%&7...&r";
+            case "benchmark.iterationCompleted":
+                return "&aIteration %iteration%/%total% complete: recovery &f%recovery%s&a, score &f%score%&r";
+            case "benchmark.jitWarmup.started":
+                return "&7Warming up the JIT (up to %max%s)...&r";
+            case "benchmark.jitWarmup.completed":
+                return "&aJIT warmup stable after &f%seconds%s &a(%batches% batches, batch CV %cv%%)&r";
+            case "benchmark.jitWarmup.timedOut":
+                return "&eJIT warmup not stable after &f%seconds%s &e(%batches% batches, batch CV %cv%%); measuring anyway&r";
+            case "report.jitWarmup":
+                return "&7JIT Warmup: &f%seconds%s &7(%batches% batches, final CV %cv%%, JIT %compile%ms) %status%&r";
+            case "benchmark.capacity.step":
+                return "&7Capacity step %step%: &f%loops% loops/tick &7-> p95 &f%p95%ms &7[%status%] &7next: &f%next%&r";
+            case "benchmark.progress.adaptive":
+                return "&7Adaptive intensity: &f%intensity%x &7(setpoint %setpoint%ms)&r";
             case "benchmark.emergencyAbort":
                 return "&cEmergency abort: MSPT exceeded threshold (&f%threshold%&cms) for &f%duration% &cseconds.&r";
             case "benchmark.timeoutAbort":
@@ -196,6 +215,20 @@ public class ConfigManager {
                 return "&cUnknown profile: &f%profile%&r";
             case "command.noBenchmarkRunning":
                 return "&eNo benchmark is currently running.&r";
+            case "command.monitorRunning":
+                return "&cThe soak monitor is running. Use &e/mcbench monitor stop &cfirst.&r";
+            case "command.monitor.started":
+                return "&aSoak monitor started. &7Writing to &f%file%&r";
+            case "command.monitor.stopped":
+                return "&aSoak monitor stopped after &f%minutes% &aminutes. &7Data: &f%file%&r";
+            case "command.monitor.notRunning":
+                return "&eThe soak monitor is not running.&r";
+            case "command.monitor.alreadyRunning":
+                return "&eThe soak monitor is already running.&r";
+            case "command.monitor.status":
+                return "&7Monitoring for &f%minutes% &7minutes | avg overhead &f%overhead% us/tick &7(budget %budget% us)&r";
+            case "command.monitor.lastMinute":
+                return "&7Last minute: &f%summary%&r";
 
             // Help
             case "command.help.header":
@@ -208,6 +241,12 @@ public class ConfigManager {
                 return "&e/mcbench confirm &7- Confirm starting the benchmark&r";
             case "command.help.cancel":
                 return "&e/mcbench cancel &7- Cancel pending confirmation&r";
+            case "command.help.capacity":
+                return "&e/mcbench capacity <profile> [safe] [--bypass] &7- Find the maximum sustainable load&r";
+            case "command.help.adaptive":
+                return "&e/mcbench adaptive <profile> [safe] [--bypass] &7- Hold MSPT at the setpoint and measure sustained work&r";
+            case "command.help.monitor":
+                return "&e/mcbench monitor <start|stop|status> &7- Watch production ticks without a workload&r";
             case "command.help.check":
                 return "&e/mcbench check &7- Run diagnostics&r";
             case "command.help.reload":
@@ -266,6 +305,90 @@ public class ConfigManager {
                 return "&7RAM Bonus: &f%bonus% &7(from %jvmMb% MB * 1.75)&r";
             case "report.recovery.benchmarkPoint":
                 return "&7Benchmark Point: &f%point%&r";
+            case "report.iterations.header":
+                return "&aIterations (%measured% measured, %warmup% warmup, %rejected% rejected as outliers):&r";
+            case "report.iterations.recovery":
+                return "&7Recovery (s): &f%summary%&r";
+            case "report.iterations.score":
+                return "&7Score: &f%summary%&r";
+            case "report.iterations.entry":
+                return "&7#%number%%kind%: recovery &f%recovery%s &7| score &f%score%&r";
+            case "report.ticks.header":
+                return "&aTick Latency (per-tick MSPT):&r";
+            case "report.ticks.phase":
+                return "&7%phase%: &fp50 %p50%ms &7| &fp90 %p90%ms &7| &fp99 %p99%ms &7| &fp99.9 %p999%ms &7| &fmax %max%ms &7(%count% ticks)&r";
+            case "report.ticks.workload":
+                return "Workload";
+            case "report.ticks.recovery":
+                return "Recovery";
+            case "report.capacity.header":
+                return "&aCapacity Search:&r";
+            case "report.capacity.headroom":
+                return "&7Sustainable Load: &a%loops% loops/tick &7(p95 MSPT <= %target%ms)&r";
+            case "report.capacity.notConverged":
+                return "&eSearch did not converge; headroom is the best passing load so far.&r";
+            case "report.capacity.step":
+                return "&7  %loops% loops/tick -> p95 &f%p95%ms &7[%status%]&r";
+            case "report.adaptive.header":
+                return "&aAdaptive Load:&r";
+            case "report.adaptive.sustained":
+                return "&7Sustained Work: &a%loops% loops/tick &7at %setpoint%ms MSPT&r";
+            case "report.adaptive.tracking":
+                return "&7Mean MSPT: &f%mspt%ms &7| Tracking Error: &f%error%% &7| Final Intensity: &f%intensity%x&r";
+            case "report.kernels.header":
+                return "&aKernel Throughput (%budget%ms per kernel per tick):&r";
+            case "report.kernels.kernel":
+                return "&7%name%: &f%ops% ops/s &7(%operations% ops in %elapsed%ms)&r";
+            case "report.profile.header":
+                return "&aJFR Profile:&r";
+            case "report.profile.recording":
+                return "&7Recording: &f%file%&r";
+            case "report.profile.hotMethods":
+                return "&7Hot Methods (%samples% samples):&r";
+            case "report.profile.hotMethod":
+                return "&7  %percent%% &f%name%&r";
+            case "report.profile.allocations":
+                return "&7Allocation Sites (%total% MB sampled):&r";
+            case "report.profile.allocation":
+                return "&7  %percent%% &f%name% &7(%mb% MB)&r";
+            case "report.profile.locks":
+                return "&7Lock Contention:&r";
+            case "report.profile.gcPhases":
+                return "&7GC Pause Phases:&r";
+            case "report.profile.timed":
+                return "&7  &f%name% &7%count%x, %total%ms total, %max%ms max&r";
+            case "report.timeseries.header":
+                return "&aRun Time Series (%samples% samples, every %interval%ms):&r";
+            case "report.timeseries.phase":
+                return "&7%phase%: tick avg &f%mean%ms &7| p95 &f%p95%ms &7| max &f%max%ms &7| heap %heapStart% -> %heapEnd% MB&r";
+            case "report.timeseries.entities":
+                return "&7  entities %start% -> %end% (peak %peak%) &7| loaded chunks %chunksStart% -> %chunksEnd%&r";
+            case "report.threads.header":
+                return "&aCPU by Thread Group (100% = one core):&r";
+            case "report.threads.group":
+                return "&7%group%: &f%cpu%% CPU &7| %alloc% MB/s allocated | %threads% threads&r";
+            case "report.threads.top":
+                return "&7Busiest thread: &f%name% &7(%cpu%% CPU)&r";
+            case "report.stalls.header":
+                return "&aSlow Tick Stacks (> %threshold%ms):&r";
+            case "report.stalls.phase":
+                return "&7%phase%: &f%ticks% &7slow ticks, %samples% samples | Hottest: &f%frame% &7(%percent%%)&r";
+            case "report.gc.header":
+                return "&aGarbage Collection:&r";
+            case "report.gc.pauses":
+                return "&7Pauses: &f%count% &7| Total: &f%total%ms &7| Max: &f%max%ms &7| Avg: &f%avg%ms&r";
+            case "report.gc.concurrent":
+                return "&7Concurrent Cycles: &f%count% &7(%total%ms total)&r";
+            case "report.gc.allocation":
+                return "&7Allocation Rate: &f%rate% MB/s &7(%total% MB allocated)&r";
+            case "report.modules.header":
+                return "&aWorkload Modules:&r";
+            case "report.modules.module":
+                return "&7%name% (%weight%%): &f%ops% ops/s &7| %nsPerOp% ns/op | %bytesPerOp% B/op&r";
+            case "report.scaling.header":
+                return "&aMulti-core Scaling:&r";
+            case "report.scaling.point":
+                return "&7%threads% threads: &f%ops% ops/s &7(speedup &fx%speedup%&7, efficiency &f%efficiency%%%&7)&r";
             case "report.system.header":
                 return "&aSystem Information:&r";
             case "report.system.java":
@@ -284,6 +407,10 @@ public class ConfigManager {
                 return "&7Total Entities: &f%entities%&r";
             case "report.analysis.topChunks":
                 return "&7Top Entity-Dense Chunks:&r";
+            case "report.analysis.clusters":
+                return "&7Hotspot Clusters (%threshold%+ entities per chunk):&r";
+            case "report.analysis.scanCost":
+                return "&7Scan: &f%chunks% chunks &7in &f%ticks% ticks&7, &f%busy%ms &7main thread (max &f%max%ms&7/tick), analyzed off-thread in &f%analysis%ms&r";
             case "report.recommendations.header":
                 return "&aRecommendations:&r";
             case "report.recommendations.noRecommendations":
@@ -311,6 +438,10 @@ public class ConfigManager {
         return config.getInt("settings.emergency.durationSeconds", 10);
     }
     
+    public String getMetricsBackend() {
+        return config.getString("settings.metricsBackend", "jfr");
+    }
+    
     public boolean isExportEnabled() {
         return config.getBoolean("settings.export.enableResultFile", true);
     }
@@ -347,12 +478,26 @@ public class ConfigManager {
             return null;
         }
         
+        // Optional module weights; an empty map selects the default mix
+        Map<String, Double> moduleWeights = new LinkedHashMap<>();
+        ConfigurationSection modulesSection = section.getConfigurationSection("modules");
+        if (modulesSection != null) {
+            for (String moduleName : modulesSection.getKeys(false)) {
+                moduleWeights.put(moduleName, modulesSection.getDouble(moduleName, 0.0));
+            }
+        }
+        
         return new ProfileConfig(
             section.getInt("durationSeconds", 120),
             section.getDouble("intensityMultiplier", 1.0),
             section.getInt("tickInterval", 1),
             section.getInt("loopCountPerTick", 1000000),
-            section.getDouble("emergencyMsptThreshold", 1000.0)
+            section.getDouble("emergencyMsptThreshold", 1000.0),
+            section.getInt("parallelThreads", 0),
+            section.getDouble("kernelBudgetMs", 0.0),
+            moduleWeights,
+            Math.max(1, section.getInt("iterations", 1)),
+            Math.max(0, section.getInt("warmupIterations", 0))
         );
     }
     
@@ -369,6 +514,200 @@ public class ConfigManager {
         return keys.toArray(new String[keys.size()]);
     }
     
+    // Capacity search settings
+    public double getCapacityTargetMspt() {
+        return config.getDouble("capacity.targetMspt", 45.0);
+    }
+    
+    public int getCapacityWindowSeconds() {
+        return config.getInt("capacity.windowSeconds", 10);
+    }
+    
+    public int getCapacitySettleSeconds() {
+        return config.getInt("capacity.settleSeconds", 3);
+    }
+    
+    public int getCapacityStartLoopCount() {
+        return config.getInt("capacity.startLoopCount", 5000);
+    }
+    
+    public double getCapacityRampFactor() {
+        return config.getDouble("capacity.rampFactor", 2.0);
+    }
+    
+    public double getCapacityPrecision() {
+        return config.getDouble("capacity.precision", 0.05);
+    }
+    
+    public int getCapacityMaxSteps() {
+        return config.getInt("capacity.maxSteps", 24);
+    }
+    
+    // Adaptive intensity controller settings
+    public double getAdaptiveSetpointMspt() {
+        return config.getDouble("adaptive.setpointMspt", 40.0);
+    }
+    
+    public double getAdaptiveKp() {
+        return config.getDouble("adaptive.kp", 0.3);
+    }
+    
+    public double getAdaptiveKi() {
+        return config.getDouble("adaptive.ki", 1.0);
+    }
+    
+    public double getAdaptiveKd() {
+        return config.getDouble("adaptive.kd", 0.0);
+    }
+    
+    public double getAdaptiveMinIntensity() {
+        return config.getDouble("adaptive.minIntensity", 0.01);
+    }
+    
+    public double getAdaptiveMaxIntensity() {
+        return config.getDouble("adaptive.maxIntensity", 50.0);
+    }
+    
+    public int getAdaptiveSampleIntervalSeconds() {
+        return config.getInt("adaptive.sampleIntervalSeconds", 1);
+    }
+    
+    // Allocation-pressure workload module settings
+    public double getAllocationMbPerSecond() {
+        return config.getDouble("allocation.mbPerSecond", 200.0);
+    }
+    
+    public int getAllocationObjectSizeBytes() {
+        return config.getInt("allocation.objectSizeBytes", 256);
+    }
+    
+    public int getAllocationShortLivedPercent() {
+        return config.getInt("allocation.shortLivedPercent", 90);
+    }
+    
+    public int getAllocationMediumLivedPercent() {
+        return config.getInt("allocation.mediumLivedPercent", 9);
+    }
+    
+    public int getAllocationMediumLifetimeSeconds() {
+        return config.getInt("allocation.mediumLifetimeSeconds", 5);
+    }
+    
+    public int getAllocationTenuredRetainMb() {
+        return config.getInt("allocation.tenuredRetainMb", 256);
+    }
+    
+    public int getTopThreads() {
+        return Math.max(1, config.getInt("threads.topThreads", 8));
+    }
+    
+    // Time series settings
+    public int getTimeSeriesIntervalTicks() {
+        return Math.max(1, config.getInt("timeseries.sampleIntervalTicks", 5));
+    }
+    
+    public int getTimeSeriesMaxMemoryMb() {
+        return Math.max(1, config.getInt("timeseries.maxMemoryMb", 4));
+    }
+    
+    public boolean isTimeSeriesCsvExportEnabled() {
+        return config.getBoolean("timeseries.exportCsv", true);
+    }
+    
+    // Soak monitor settings
+    public int getMonitorSampleIntervalTicks() {
+        return Math.max(1, config.getInt("monitor.sampleIntervalTicks", 20));
+    }
+    
+    public int getMonitorFlushIntervalMinutes() {
+        return Math.max(1, config.getInt("monitor.flushIntervalMinutes", 5));
+    }
+    
+    public int getMonitorKeepMinutes() {
+        return Math.max(1, config.getInt("monitor.keepMinutes", 60));
+    }
+    
+    public double getMonitorOverheadBudgetMs() {
+        return config.getDouble("monitor.overheadBudgetMs", 0.1);
+    }
+    
+    // OpenMetrics endpoint settings
+    public boolean isOpenMetricsEnabled() {
+        return config.getBoolean("openmetrics.enabled", false);
+    }
+    
+    public String getOpenMetricsBindAddress() {
+        return config.getString("openmetrics.bindAddress", "127.0.0.1");
+    }
+    
+    public int getOpenMetricsPort() {
+        return config.getInt("openmetrics.port", 9465);
+    }
+    
+    public String getOpenMetricsPath() {
+        String path = config.getString("openmetrics.path", "/metrics");
+        return path.startsWith("/") ? path : "/" + path;
+    }
+    
+    // JMX settings
+    public boolean isJmxEnabled() {
+        return config.getBoolean("jmx.enabled", false);
+    }
+    
+    public boolean isJmxControlAllowed() {
+        return config.getBoolean("jmx.allowControl", true);
+    }
+    
+    // Stall sampler settings
+    public boolean isStallSamplingEnabled() {
+        return config.getBoolean("stall.enabled", true);
+    }
+    
+    public double getStallThresholdMs() {
+        return config.getDouble("stall.thresholdMs", 50.0);
+    }
+    
+    public int getStallSampleIntervalMs() {
+        return Math.max(1, config.getInt("stall.sampleIntervalMs", 5));
+    }
+    
+    public int getStallMaxDepth() {
+        return config.getInt("stall.maxDepth", 128);
+    }
+    
+    public int getStallTopStacks() {
+        return Math.max(1, config.getInt("stall.topStacks", 5));
+    }
+    
+    // JFR profiling settings
+    public boolean isJfrEnabled() {
+        return config.getBoolean("jfr.enabled", true);
+    }
+    
+    public int getJfrSamplePeriodMs() {
+        return Math.max(1, config.getInt("jfr.samplePeriodMs", 10));
+    }
+    
+    public int getJfrAllocationSamplesPerSecond() {
+        return Math.max(1, config.getInt("jfr.allocationSamplesPerSecond", 300));
+    }
+    
+    public int getJfrLockThresholdMs() {
+        return Math.max(0, config.getInt("jfr.lockThresholdMs", 10));
+    }
+    
+    public int getJfrMaxSizeMb() {
+        return Math.max(16, config.getInt("jfr.maxSizeMb", 256));
+    }
+    
+    public int getJfrTopEntries() {
+        return Math.max(1, config.getInt("jfr.topEntries", 10));
+    }
+    
+    public int getJfrKeepRecordings() {
+        return config.getInt("jfr.keepRecordings", 10);
+    }
+    
     // Recommendation thresholds
     public int getHighEntityCountThreshold() {
         return config.getInt("recommendations.thresholds.highEntityCount", 1000);
@@ -407,6 +746,81 @@ public class ConfigManager {
         return config.getDouble("benchmarkPoint.targetMspt", 25.0);
     }
 
+    // Recovery detection (own tick timestamps, see TickRateTracker)
+    public double getRecoveryTargetTps() {
+        return config.getDouble("scoring.recovery.targetTps", 19.9);
+    }
+    
+    public double getRecoveryTargetMspt() {
+        return config.getDouble("scoring.recovery.targetMspt", 25.0);
+    }
+    
+    public int getRecoveryStabilityWindowSeconds() {
+        return Math.max(1, Math.min(60, config.getInt("scoring.recovery.stabilityWindowSeconds", 5)));
+    }
+    
+    public double getRecoveryMsptPercentile() {
+        return Math.max(50.0, Math.min(100.0, config.getDouble("scoring.recovery.msptPercentile", 95.0)));
+    }
+    
+    // Chunk/entity analysis settings
+    public long getAnalysisSliceBudgetMicros() {
+        return Math.max(100L, config.getLong("analysis.sliceBudgetMicros", 2000L));
+    }
+    
+    public int getAnalysisMaxChunksPerTick() {
+        return Math.max(1, config.getInt("analysis.maxChunksPerTick", 256));
+    }
+    
+    public boolean isLiveEntityIndexEnabled() {
+        return config.getBoolean("analysis.liveIndex.enabled", true);
+    }
+    
+    public int getLiveIndexResyncChunksPerTick() {
+        return Math.max(1, config.getInt("analysis.liveIndex.resyncChunksPerTick", 8));
+    }
+    
+    public int getHotChunkEntities() {
+        return Math.max(1, config.getInt("analysis.clusters.hotChunkEntities", 50));
+    }
+    
+    public int getMaxReportedClusters() {
+        return Math.max(0, config.getInt("analysis.clusters.maxReported", 5));
+    }
+    
+    public boolean isHeatmapExportEnabled() {
+        return config.getBoolean("analysis.clusters.exportHeatmap", true);
+    }
+    
+    // JIT warmup settings
+    public boolean isJitWarmupEnabled() {
+        return config.getBoolean("jitWarmup.enabled", true);
+    }
+    
+    public double getJitWarmupLoadFraction() {
+        return Math.max(0.01, Math.min(1.0, config.getDouble("jitWarmup.loadFraction", 0.25)));
+    }
+    
+    public int getJitWarmupWindowBatches() {
+        return Math.max(5, config.getInt("jitWarmup.windowBatches", 40));
+    }
+    
+    public double getJitWarmupMaxCvPercent() {
+        return config.getDouble("jitWarmup.maxCvPercent", 5.0);
+    }
+    
+    public double getJitWarmupMaxCompileMsPerSecond() {
+        return config.getDouble("jitWarmup.maxCompileMsPerSecond", 5.0);
+    }
+    
+    public int getJitWarmupMinSeconds() {
+        return Math.max(0, config.getInt("jitWarmup.minSeconds", 3));
+    }
+    
+    public int getJitWarmupMaxSeconds() {
+        return Math.max(1, config.getInt("jitWarmup.maxSeconds", 30));
+    }
+    
     // Scoring configuration
     public int getProfileBasePoints(String profile) {
         return config.getInt("scoring." + profile + ".profileBasePoints", 1000);
@@ -425,15 +839,27 @@ public class ConfigManager {
         private final int tickInterval;
         private final int loopCountPerTick;
         private final double emergencyMsptThreshold;
+        private final int parallelThreads;
+        private final double kernelBudgetMs;
+        private final Map<String, Double> moduleWeights;
+        private final int iterations;
+        private final int warmupIterations;
         
         public ProfileConfig(int durationSeconds, double intensityMultiplier, 
                            int tickInterval, int loopCountPerTick, 
-                           double emergencyMsptThreshold) {
+                           double emergencyMsptThreshold, int parallelThreads,
+                           double kernelBudgetMs, Map<String, Double> moduleWeights,
+                           int iterations, int warmupIterations) {
             this.durationSeconds = durationSeconds;
             this.intensityMultiplier = intensityMultiplier;
             this.tickInterval = tickInterval;
             this.loopCountPerTick = loopCountPerTick;
             this.emergencyMsptThreshold = emergencyMsptThreshold;
+            this.parallelThreads = parallelThreads;
+            this.kernelBudgetMs = kernelBudgetMs;
+            this.moduleWeights = Collections.unmodifiableMap(new LinkedHashMap<>(moduleWeights));
+            this.iterations = iterations;
+            this.warmupIterations = warmupIterations;
         }
         
         public int getDurationSeconds() { return durationSeconds; }
@@ -441,5 +867,10 @@ public class ConfigManager {
         public int getTickInterval() { return tickInterval; }
         public int getLoopCountPerTick() { return loopCountPerTick; }
         public double getEmergencyMsptThreshold() { return emergencyMsptThreshold; }
+        public int getParallelThreads() { return parallelThreads; }
+        public double getKernelBudgetMs() { return kernelBudgetMs; }
+        public Map<String, Double> getModuleWeights() { return moduleWeights; }
+        public int getIterations() { return iterations; }
+        public int getWarmupIterations() { return warmupIterations; }
     }
 }
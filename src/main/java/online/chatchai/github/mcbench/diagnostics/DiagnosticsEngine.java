@@ -9,17 +9,17 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 
-import org.bukkit.Bukkit;
-import org.bukkit.Chunk;
-import org.bukkit.World;
-import org.bukkit.entity.ArmorStand;
-import org.bukkit.entity.Entity;
+import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.EntityType;
-import org.bukkit.entity.ItemFrame;
 
 import online.chatchai.github.mcbench.Main;
+import online.chatchai.github.mcbench.analysis.ChunkEntityAnalyzer;
+import online.chatchai.github.mcbench.analysis.EntitySnapshot;
+import online.chatchai.github.mcbench.analysis.WorldScanner;
+import online.chatchai.github.mcbench.config.ConfigManager;
 import online.chatchai.github.mcbench.util.Util;
 
 /**
@@ -27,34 +27,67 @@ import online.chatchai.github.mcbench.util.Util;
  */
 public class DiagnosticsEngine {
     
+    // EntityType ordinals as stored in EntitySnapshot
+    private static final int ITEM = EntityType.ITEM.ordinal();
+    private static final int ITEM_FRAME = EntityType.ITEM_FRAME.ordinal();
+    private static final int GLOW_ITEM_FRAME = EntityType.GLOW_ITEM_FRAME.ordinal();
+    private static final int ARMOR_STAND = EntityType.ARMOR_STAND.ordinal();
+    
+    // Types counted per chunk for hotspot detection, and their indices in the scan
+    private static final int[] HOTSPOT_TYPES = {ITEM_FRAME, GLOW_ITEM_FRAME, ARMOR_STAND};
+    private static final int HOTSPOT_ITEM_FRAME = 0;
+    private static final int HOTSPOT_GLOW_ITEM_FRAME = 1;
+    private static final int HOTSPOT_ARMOR_STAND = 2;
+    
     private final Main plugin;
+    private final ChunkEntityAnalyzer analyzer;
     private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
     
     public DiagnosticsEngine(Main plugin) {
         this.plugin = plugin;
+        this.analyzer = new ChunkEntityAnalyzer(plugin);
     }
     
     /**
      * Run comprehensive server diagnostics
-     * @return DiagnosticsResult containing all analysis
+     * The main thread only copies chunk coordinates and entity types (a slice per tick);
+     * counting, hotspot detection and recommendations run on a worker thread.
+     * Must be called on the main thread.
+     * @return Future completing off the main thread with the analysis
      */
-    public DiagnosticsResult runDiagnostics() {
+    public CompletableFuture<DiagnosticsResult> runDiagnosticsAsync() {
+        ConfigManager configManager = plugin.getConfigManager();
+        Thresholds thresholds = new Thresholds(plugin.getConfig(), configManager);
+        return analyzer.capture(configManager.getAnalysisSliceBudgetMicros() * 1000L, configManager.getAnalysisMaxChunksPerTick())
+            .thenApplyAsync(snapshot -> analyze(snapshot, thresholds));
+    }
+    
+    /**
+     * Build the diagnostics from a captured snapshot (any thread)
+     */
+    private DiagnosticsResult analyze(EntitySnapshot snapshot, Thresholds thresholds) {
         DiagnosticsResult result = new DiagnosticsResult();
         
+        // One pass over the entities; everything below reads its counters
+        WorldScanner.Scan scan = WorldScanner.scan(snapshot, HOTSPOT_TYPES, ChunkEntityAnalyzer.TOP_CHUNKS);
+        
         // JVM Memory information
         result.jvmMemoryInfo = Util.getJVMMemoryInfo();
         
         // World and chunk analysis
-        result.worldStats = analyzeWorlds();
+        result.worldStats = analyzeWorlds(snapshot);
         
         // Entity analysis
-        result.entityStats = analyzeEntities();
+        result.entityStats = analyzeEntities(scan);
         
         // Hotspot detection
-        result.hotspots = detectHotspots();
+        result.hotspots = detectHotspots(scan, thresholds);
+        
+        // Densest chunks, as in the benchmark report
+        result.chunkAnalysis = ChunkEntityAnalyzer.analyze(scan, thresholds.hotChunkEntities, thresholds.maxClusters);
         
         // Generate recommendations
-        result.recommendations = generateRecommendations(result);
+        result.recommendations = generateRecommendations(result, thresholds);
         
         // Generate player recommendations
         result.playerRecommendation = generatePlayerRecommendation();
@@ -67,13 +100,13 @@ public class DiagnosticsEngine {
     /**
      * Analyze worlds and chunk counts
      */
-    private Map<String, Integer> analyzeWorlds() {
+    private Map<String, Integer> analyzeWorlds(EntitySnapshot snapshot) {
         Map<String, Integer> worldStats = new HashMap<>();
         int totalChunks = 0;
         
-        for (World world : Bukkit.getWorlds()) {
-            int chunkCount = world.getLoadedChunks().length;
-            worldStats.put(world.getName(), chunkCount);
+        for (int world = 0; world < snapshot.getWorldCount(); world++) {
+            int chunkCount = snapshot.getLoadedChunks(world);
+            worldStats.put(snapshot.getWorldName(world), chunkCount);
             totalChunks += chunkCount;
         }
         
@@ -84,63 +117,44 @@ public class DiagnosticsEngine {
     /**
      * Analyze entity counts
      */
-    private EntityStats analyzeEntities() {
+    private EntityStats analyzeEntities(WorldScanner.Scan scan) {
         EntityStats stats = new EntityStats();
-        
-        for (World world : Bukkit.getWorlds()) {
-            for (Entity entity : world.getEntities()) {
-                stats.totalEntities++;
-                
-                if (entity.getType() == EntityType.ITEM) {
-                    stats.droppedItems++;
-                } else if (entity instanceof ItemFrame) {
-                    if (entity.getType() == EntityType.GLOW_ITEM_FRAME) {
-                        stats.glowItemFrames++;
-                    } else {
-                        stats.itemFrames++;
-                    }
-                } else if (entity instanceof ArmorStand) {
-                    stats.armorStands++;
-                }
-            }
-        }
-        
+        stats.totalEntities = scan.getSnapshot().getEntityCount();
+        stats.droppedItems = scan.getTypeTotal(ITEM);
+        stats.itemFrames = scan.getTypeTotal(ITEM_FRAME);
+        stats.glowItemFrames = scan.getTypeTotal(GLOW_ITEM_FRAME);
+        stats.armorStands = scan.getTypeTotal(ARMOR_STAND);
         return stats;
     }
     
     /**
      * Detect performance hotspots (chunks with too many entities)
      */
-    private List<Hotspot> detectHotspots() {
+    private List<Hotspot> detectHotspots(WorldScanner.Scan scan, Thresholds thresholds) {
         List<Hotspot> hotspots = new ArrayList<>();
+        EntitySnapshot snapshot = scan.getSnapshot();
         
-        int itemFrameThreshold = plugin.getConfig().getInt("diagnostics.thresholds.perChunk.itemFrames", 15);
-        int glowItemFrameThreshold = plugin.getConfig().getInt("diagnostics.thresholds.perChunk.glowItemFrames", 15);
-        int armorStandThreshold = plugin.getConfig().getInt("diagnostics.thresholds.perChunk.armorStands", 5);
-        
-        for (World world : Bukkit.getWorlds()) {
-            for (Chunk chunk : world.getLoadedChunks()) {
-                Map<EntityType, Integer> chunkEntityCounts = new HashMap<>();
-                
-                for (Entity entity : chunk.getEntities()) {
-                    EntityType type = entity.getType();
-                    chunkEntityCounts.merge(type, 1, Integer::sum);
-                }
-                
-                // Check for hotspots
-                int itemFrames = chunkEntityCounts.getOrDefault(EntityType.ITEM_FRAME, 0);
-                int glowItemFrames = chunkEntityCounts.getOrDefault(EntityType.GLOW_ITEM_FRAME, 0);
-                int armorStands = chunkEntityCounts.getOrDefault(EntityType.ARMOR_STAND, 0);
-                
-                if (itemFrames > itemFrameThreshold) {
-                    hotspots.add(new Hotspot(world.getName(), chunk.getX(), chunk.getZ(), "ITEM_FRAME", itemFrames));
-                }
-                if (glowItemFrames > glowItemFrameThreshold) {
-                    hotspots.add(new Hotspot(world.getName(), chunk.getX(), chunk.getZ(), "GLOW_ITEM_FRAME", glowItemFrames));
-                }
-                if (armorStands > armorStandThreshold) {
-                    hotspots.add(new Hotspot(world.getName(), chunk.getX(), chunk.getZ(), "ARMOR_STAND", armorStands));
-                }
+        for (int chunk = 0; chunk < snapshot.getChunkCount(); chunk++) {
+            int itemFrames = scan.getChunkCount(chunk, HOTSPOT_ITEM_FRAME);
+            int glowItemFrames = scan.getChunkCount(chunk, HOTSPOT_GLOW_ITEM_FRAME);
+            int armorStands = scan.getChunkCount(chunk, HOTSPOT_ARMOR_STAND);
+            if (itemFrames <= thresholds.itemFrames && glowItemFrames <= thresholds.glowItemFrames
+                && armorStands <= thresholds.armorStands) {
+                continue;
+            }
+            
+            // Check for hotspots
+            String world = snapshot.getWorldName(snapshot.getChunkWorld(chunk));
+            int chunkX = snapshot.getChunkX(chunk);
+            int chunkZ = snapshot.getChunkZ(chunk);
+            if (itemFrames > thresholds.itemFrames) {
+                hotspots.add(new Hotspot(world, chunkX, chunkZ, "ITEM_FRAME", itemFrames));
+            }
+            if (glowItemFrames > thresholds.glowItemFrames) {
+                hotspots.add(new Hotspot(world, chunkX, chunkZ, "GLOW_ITEM_FRAME", glowItemFrames));
+            }
+            if (armorStands > thresholds.armorStands) {
+                hotspots.add(new Hotspot(world, chunkX, chunkZ, "ARMOR_STAND", armorStands));
             }
         }
         
@@ -150,7 +164,7 @@ public class DiagnosticsEngine {
     /**
      * Generate performance recommendations
      */
-    private List<String> generateRecommendations(DiagnosticsResult result) {
+    private List<String> generateRecommendations(DiagnosticsResult result, Thresholds thresholds) {
         List<String> recommendations = new ArrayList<>();
         
         long jvmMaxMB = result.jvmMemoryInfo.getMaxMemoryMB();
@@ -159,21 +173,21 @@ public class DiagnosticsEngine {
         int totalEntities = result.entityStats.totalEntities;
         
         // RAM recommendations
-        int chunkWarning = plugin.getConfig().getInt("diagnostics.thresholds.loadedChunksWarning", 200);
-        int minRamForHighEntities = plugin.getConfig().getInt("diagnostics.thresholds.minRamForHighEntities", 4096);
+        int chunkWarning = thresholds.loadedChunksWarning;
+        int minRamForHighEntities = thresholds.minRamForHighEntities;
         
         if (totalChunks > chunkWarning && jvmMaxMB < minRamForHighEntities) {
             recommendations.add("Consider upgrading RAM (current: " + jvmMaxMB + " MB, recommended: 4+ GB)");
         }
         
         // Entity cleanup recommendations
-        int droppedItemsWarning = plugin.getConfig().getInt("diagnostics.thresholds.droppedItemsWarning", 30);
+        int droppedItemsWarning = thresholds.droppedItemsWarning;
         if (droppedItems > droppedItemsWarning) {
             recommendations.add("Install entity cleanup plugin (Clearlagg, ServerBoost, Lagfixer, LagAssist, CMI)");
         }
         
         // Entity count warnings
-        int totalEntitiesWarning = plugin.getConfig().getInt("diagnostics.thresholds.totalEntitiesWarning", 120);
+        int totalEntitiesWarning = thresholds.totalEntitiesWarning;
         if (totalEntities > totalEntitiesWarning && jvmMaxMB < minRamForHighEntities) {
             recommendations.add("Reduce entities and consider plugin solutions");
         }
@@ -296,11 +310,39 @@ public class DiagnosticsEngine {
         public Map<String, Integer> worldStats;
         public EntityStats entityStats;
         public List<Hotspot> hotspots;
+        public ChunkEntityAnalyzer.AnalysisResult chunkAnalysis;
         public List<String> recommendations;
         public String playerRecommendation;
         public String timestamp;
     }
     
+    /**
+     * Diagnostic thresholds, read on the main thread before the analysis runs
+     */
+    private static class Thresholds {
+        private final int loadedChunksWarning;
+        private final int droppedItemsWarning;
+        private final int totalEntitiesWarning;
+        private final int minRamForHighEntities;
+        private final int itemFrames;
+        private final int glowItemFrames;
+        private final int armorStands;
+        private final int hotChunkEntities;
+        private final int maxClusters;
+        
+        Thresholds(FileConfiguration config, ConfigManager configManager) {
+            this.loadedChunksWarning = config.getInt("diagnostics.thresholds.loadedChunksWarning", 200);
+            this.droppedItemsWarning = config.getInt("diagnostics.thresholds.droppedItemsWarning", 30);
+            this.totalEntitiesWarning = config.getInt("diagnostics.thresholds.totalEntitiesWarning", 120);
+            this.minRamForHighEntities = config.getInt("diagnostics.thresholds.minRamForHighEntities", 4096);
+            this.itemFrames = config.getInt("diagnostics.thresholds.perChunk.itemFrames", 15);
+            this.glowItemFrames = config.getInt("diagnostics.thresholds.perChunk.glowItemFrames", 15);
+            this.armorStands = config.getInt("diagnostics.thresholds.perChunk.armorStands", 5);
+            this.hotChunkEntities = configManager.getHotChunkEntities();
+            this.maxClusters = configManager.getMaxReportedClusters();
+        }
+    }
+    
     /**
      * Entity statistics data class
      */
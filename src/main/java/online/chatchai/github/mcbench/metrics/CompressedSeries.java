@@ -0,0 +1,324 @@
+package online.chatchai.github.mcbench.metrics;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Gorilla-style compressed multi-column time series for MCBench Pro
+ * Rows (one timestamp plus a fixed number of double columns) are appended to a single bit
+ * stream. Timestamps are stored as delta-of-delta, so a steady sampling interval costs one
+ * bit per row; each column is XOR-encoded against its previous value, so an unchanged value
+ * costs one bit and slowly drifting values only store their changing middle bits.
+ * Rows are read back in order through a {@link Cursor} without decoding the whole series.
+ *
+ * Bit layout per row after the first (first row: 64-bit timestamp, 64-bit raw values):
+ *   timestamp: '0' (dod = 0) | '10' + 7 bits | '110' + 9 bits | '1110' + 12 bits | '1111' + 64 bits
+ *   value:     '0' (same) | '10' + bits in previous window | '11' + 5 bits leading zeros
+ *              + 6 bits (length - 1) + meaningful bits
+ */
+public class CompressedSeries {
+    
+    private static final int INITIAL_WORDS = 256;
+    
+    private final int columns;
+    private long[] words = new long[INITIAL_WORDS];
+    private long bitLength = 0L;
+    private int rows = 0;
+    
+    // Encoder state
+    private long lastTimestamp;
+    private long lastDelta;
+    private final long[] lastValueBits;
+    private final int[] lastLeading;
+    private final int[] lastTrailing;
+    
+    /**
+     * @param columns Number of double values per row
+     */
+    public CompressedSeries(int columns) {
+        this.columns = columns;
+        this.lastValueBits = new long[columns];
+        this.lastLeading = new int[columns];
+        this.lastTrailing = new int[columns];
+    }
+    
+    /**
+     * Append one row
+     * @param timestamp Row timestamp in milliseconds; must not go backwards
+     * @param values One value per column
+     */
+    public void append(long timestamp, double[] values) {
+        if (rows == 0) {
+            writeBits(timestamp, 64);
+            lastTimestamp = timestamp;
+            lastDelta = 0L;
+            for (int c = 0; c < columns; c++) {
+                long bits = Double.doubleToRawLongBits(values[c]);
+                writeBits(bits, 64);
+                lastValueBits[c] = bits;
+                lastLeading[c] = Integer.MAX_VALUE;
+                lastTrailing[c] = 0;
+            }
+            rows++;
+            return;
+        }
+        
+        long delta = timestamp - lastTimestamp;
+        writeDeltaOfDelta(delta - lastDelta);
+        lastTimestamp = timestamp;
+        lastDelta = delta;
+        
+        for (int c = 0; c < columns; c++) {
+            long bits = Double.doubleToRawLongBits(values[c]);
+            long xor = bits ^ lastValueBits[c];
+            lastValueBits[c] = bits;
+            
+            if (xor == 0L) {
+                writeBits(0L, 1);
+                continue;
+            }
+            
+            int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int trailing = Long.numberOfTrailingZeros(xor);
+            if (leading >= lastLeading[c] && trailing >= lastTrailing[c]) {
+                // Fits in the previous meaningful-bit window
+                writeBits(0b10L, 2);
+                writeBits(xor >>> lastTrailing[c], 64 - lastLeading[c] - lastTrailing[c]);
+            } else {
+                int meaningful = 64 - leading - trailing;
+                writeBits(0b11L, 2);
+                writeBits(leading, 5);
+                writeBits(meaningful - 1, 6);
+                writeBits(xor >>> trailing, meaningful);
+                lastLeading[c] = leading;
+                lastTrailing[c] = trailing;
+            }
+        }
+        rows++;
+    }
+    
+    private void writeDeltaOfDelta(long dod) {
+        if (dod == 0L) {
+            writeBits(0L, 1);
+        } else if (fits(dod, 7)) {
+            writeBits(0b10L, 2);
+            writeBits(dod, 7);
+        } else if (fits(dod, 9)) {
+            writeBits(0b110L, 3);
+            writeBits(dod, 9);
+        } else if (fits(dod, 12)) {
+            writeBits(0b1110L, 4);
+            writeBits(dod, 12);
+        } else {
+            writeBits(0b1111L, 4);
+            writeBits(dod, 64);
+        }
+    }
+    
+    private static boolean fits(long value, int bits) {
+        return value >= -(1L << (bits - 1)) && value < (1L << (bits - 1));
+    }
+    
+    /**
+     * Write the low bits of a value, most significant first
+     */
+    private void writeBits(long value, int bits) {
+        long needed = (bitLength + bits + 63) >>> 6;
+        if (needed > words.length) {
+            words = Arrays.copyOf(words, (int) Math.max(needed, words.length + (words.length >> 1)));
+        }
+        if (bits < 64) {
+            value &= (1L << bits) - 1;
+        }
+        
+        int index = (int) (bitLength >>> 6);
+        int free = 64 - (int) (bitLength & 63);
+        if (bits <= free) {
+            words[index] |= value << (free - bits);
+        } else {
+            int rest = bits - free;
+            words[index] |= value >>> rest;
+            words[index + 1] |= value << (64 - rest);
+        }
+        bitLength += bits;
+    }
+    
+    /**
+     * Get number of rows
+     */
+    public int size() {
+        return rows;
+    }
+    
+    /**
+     * Get number of columns per row
+     */
+    public int getColumns() {
+        return columns;
+    }
+    
+    /**
+     * Get heap used by the bit stream in bytes (allocated, not just written)
+     */
+    public long getAllocatedBytes() {
+        return words.length * 8L;
+    }
+    
+    /**
+     * Get bytes actually written to the bit stream
+     */
+    public long getEncodedBytes() {
+        return (bitLength + 7) >>> 3;
+    }
+    
+    /**
+     * Copy the written part of the stream; the copy can be read while this one keeps growing
+     */
+    public CompressedSeries copy() {
+        CompressedSeries copy = new CompressedSeries(columns);
+        copy.words = Arrays.copyOf(words, (int) ((bitLength + 63) >>> 6));
+        copy.bitLength = bitLength;
+        copy.rows = rows;
+        copy.lastTimestamp = lastTimestamp;
+        copy.lastDelta = lastDelta;
+        System.arraycopy(lastValueBits, 0, copy.lastValueBits, 0, columns);
+        System.arraycopy(lastLeading, 0, copy.lastLeading, 0, columns);
+        System.arraycopy(lastTrailing, 0, copy.lastTrailing, 0, columns);
+        return copy;
+    }
+    
+    /**
+     * Start reading from the first row
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+    
+    /**
+     * Write the encoded stream (column count, row count, bit length, words)
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        int usedWords = (int) ((bitLength + 63) >>> 6);
+        out.writeInt(columns);
+        out.writeInt(rows);
+        out.writeLong(bitLength);
+        out.writeInt(usedWords);
+        for (int i = 0; i < usedWords; i++) {
+            out.writeLong(words[i]);
+        }
+    }
+    
+    /**
+     * Read a stream written by {@link #writeTo(DataOutputStream)}; the result is read-only
+     */
+    public static CompressedSeries readFrom(DataInputStream in) throws IOException {
+        CompressedSeries series = new CompressedSeries(in.readInt());
+        series.rows = in.readInt();
+        series.bitLength = in.readLong();
+        int usedWords = in.readInt();
+        if (usedWords < 0 || series.bitLength > usedWords * 64L) {
+            throw new IOException("Corrupt compressed series header");
+        }
+        series.words = new long[usedWords];
+        for (int i = 0; i < usedWords; i++) {
+            series.words[i] = in.readLong();
+        }
+        return series;
+    }
+    
+    /**
+     * Forward-only reader over the rows of this series
+     */
+    public class Cursor {
+        private final int endRow = rows;
+        private final long[] valueBits = new long[columns];
+        private final int[] leading = new int[columns];
+        private final int[] trailing = new int[columns];
+        private long position = 0L;
+        private int row = 0;
+        private long timestamp;
+        private long delta;
+        
+        /**
+         * Advance to the next row
+         * @return false when there are no more rows
+         */
+        public boolean next() {
+            if (row >= endRow) {
+                return false;
+            }
+            
+            if (row == 0) {
+                timestamp = readBits(64);
+                for (int c = 0; c < columns; c++) {
+                    valueBits[c] = readBits(64);
+                }
+                row++;
+                return true;
+            }
+            
+            delta += readDeltaOfDelta();
+            timestamp += delta;
+            
+            for (int c = 0; c < columns; c++) {
+                if (readBits(1) == 0L) {
+                    continue;
+                }
+                if (readBits(1) == 0L) {
+                    int meaningful = 64 - leading[c] - trailing[c];
+                    valueBits[c] ^= readBits(meaningful) << trailing[c];
+                } else {
+                    leading[c] = (int) readBits(5);
+                    int meaningful = (int) readBits(6) + 1;
+                    trailing[c] = 64 - leading[c] - meaningful;
+                    valueBits[c] ^= readBits(meaningful) << trailing[c];
+                }
+            }
+            row++;
+            return true;
+        }
+        
+        private long readDeltaOfDelta() {
+            if (readBits(1) == 0L) {
+                return 0L;
+            }
+            if (readBits(1) == 0L) {
+                return signExtend(readBits(7), 7);
+            }
+            if (readBits(1) == 0L) {
+                return signExtend(readBits(9), 9);
+            }
+            if (readBits(1) == 0L) {
+                return signExtend(readBits(12), 12);
+            }
+            return readBits(64);
+        }
+        
+        private long signExtend(long value, int bits) {
+            return (value << (64 - bits)) >> (64 - bits);
+        }
+        
+        private long readBits(int bits) {
+            int index = (int) (position >>> 6);
+            int free = 64 - (int) (position & 63);
+            long value;
+            if (bits <= free) {
+                value = words[index] >>> (free - bits);
+                if (bits < 64) {
+                    value &= (1L << bits) - 1;
+                }
+            } else {
+                int rest = bits - free;
+                value = ((words[index] & ((1L << free) - 1)) << rest) | (words[index + 1] >>> (64 - rest));
+            }
+            position += bits;
+            return value;
+        }
+        
+        // Getters
+        public long getTimestamp() { return timestamp; }
+        public double getValue(int column) { return Double.longBitsToDouble(valueBits[column]); }
+    }
+}
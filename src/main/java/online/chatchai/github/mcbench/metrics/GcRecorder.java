@@ -0,0 +1,305 @@
+package online.chatchai.github.mcbench.metrics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+
+/**
+ * GC event recorder for MCBench Pro
+ * Subscribes to garbage collection notifications while a run is active and stores every
+ * collection in a preallocated ring of primitive arrays. Aggregates (count, total, max,
+ * allocated bytes) are kept separately, so they stay exact even after the ring wraps.
+ * Collectors that report whole concurrent cycles (ZGC/Shenandoah cycles) are tracked apart
+ * from stop-the-world pauses; G1's Remark and Cleanup pauses count as pauses.
+ */
+public class GcRecorder implements NotificationListener {
+    
+    private static final int RING_CAPACITY = 4096;
+    
+    // Event ring (preallocated, written from the JMX notification thread)
+    private final long[] offsetMillis = new long[RING_CAPACITY];
+    private final long[] durationMillis = new long[RING_CAPACITY];
+    private final long[] heapBeforeBytes = new long[RING_CAPACITY];
+    private final long[] heapAfterBytes = new long[RING_CAPACITY];
+    private final String[] collectors = new String[RING_CAPACITY];
+    private final String[] causes = new String[RING_CAPACITY];
+    private final boolean[] concurrent = new boolean[RING_CAPACITY];
+    private long eventCount = 0L;
+    
+    // Aggregates
+    private long pauseCount = 0L;
+    private long totalPauseMillis = 0L;
+    private long maxPauseMillis = 0L;
+    private long concurrentCount = 0L;
+    private long totalConcurrentMillis = 0L;
+    private long allocatedBytes = 0L;
+    private long lastHeapAfterBytes = 0L;
+    
+    private long startTime = 0L;
+    private long stopTime = 0L;
+    private long jvmStartTime = 0L;
+    private boolean recording = false;
+    
+    /**
+     * Start listening for GC notifications and clear previous data
+     */
+    public synchronized void start() {
+        if (recording) {
+            return;
+        }
+        
+        eventCount = 0L;
+        pauseCount = 0L;
+        totalPauseMillis = 0L;
+        maxPauseMillis = 0L;
+        concurrentCount = 0L;
+        totalConcurrentMillis = 0L;
+        allocatedBytes = 0L;
+        lastHeapAfterBytes = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        startTime = System.currentTimeMillis();
+        stopTime = 0L;
+        jvmStartTime = ManagementFactory.getRuntimeMXBean().getStartTime();
+        
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (bean instanceof NotificationEmitter) {
+                ((NotificationEmitter) bean).addNotificationListener(this, null, null);
+            }
+        }
+        recording = true;
+    }
+    
+    /**
+     * Stop listening for GC notifications
+     */
+    public synchronized void stop() {
+        if (!recording) {
+            return;
+        }
+        
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (bean instanceof NotificationEmitter) {
+                try {
+                    ((NotificationEmitter) bean).removeNotificationListener(this);
+                } catch (Exception e) {
+                    // Listener was not registered on this bean
+                }
+            }
+        }
+        
+        // Count what was allocated since the last collection
+        long heapNow = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        allocatedBytes += Math.max(0L, heapNow - lastHeapAfterBytes);
+        stopTime = System.currentTimeMillis();
+        recording = false;
+    }
+    
+    @Override
+    public void handleNotification(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        
+        GarbageCollectionNotificationInfo info =
+            GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        record(info);
+    }
+    
+    /**
+     * Store one collection in the ring and update aggregates
+     */
+    private synchronized void record(GarbageCollectionNotificationInfo info) {
+        if (!recording) {
+            return;
+        }
+        
+        GcInfo gcInfo = info.getGcInfo();
+        long before = sumUsed(gcInfo.getMemoryUsageBeforeGc());
+        long after = sumUsed(gcInfo.getMemoryUsageAfterGc());
+        long duration = gcInfo.getDuration();
+        boolean isConcurrent = isConcurrentCycle(info.getGcName());
+        
+        int slot = (int) (eventCount % RING_CAPACITY);
+        offsetMillis[slot] = jvmStartTime + gcInfo.getStartTime() - startTime;
+        durationMillis[slot] = duration;
+        heapBeforeBytes[slot] = before;
+        heapAfterBytes[slot] = after;
+        collectors[slot] = info.getGcName();
+        causes[slot] = info.getGcCause();
+        concurrent[slot] = isConcurrent;
+        eventCount++;
+        
+        if (isConcurrent) {
+            concurrentCount++;
+            totalConcurrentMillis += duration;
+        } else {
+            pauseCount++;
+            totalPauseMillis += duration;
+            maxPauseMillis = Math.max(maxPauseMillis, duration);
+        }
+        
+        // Bytes allocated since the previous collection finished
+        allocatedBytes += Math.max(0L, before - lastHeapAfterBytes);
+        lastHeapAfterBytes = after;
+    }
+    
+    /**
+     * Sum used bytes over all memory pools
+     */
+    private static long sumUsed(Map<String, MemoryUsage> usage) {
+        long total = 0L;
+        for (MemoryUsage pool : usage.values()) {
+            total += pool.getUsed();
+        }
+        return total;
+    }
+    
+    /**
+     * Check whether a collector event describes a concurrent cycle rather than a pause
+     * Only ZGC and Shenandoah report whole cycles ("ZGC Cycles", "Shenandoah Cycles"); the
+     * "G1 Concurrent GC" bean reports the Remark and Cleanup stop-the-world pauses.
+     */
+    private static boolean isConcurrentCycle(String gcName) {
+        return gcName.contains("Cycles");
+    }
+    
+    /**
+     * Get cumulative counters without building a full summary
+     * @return {event count, pause count, total pause ms, allocated bytes}
+     */
+    public synchronized long[] getTotals() {
+        return new long[] {eventCount, pauseCount, totalPauseMillis, allocatedBytes};
+    }
+    
+    /**
+     * Get the longest stop-the-world pause among events recorded since the given event count
+     * @param fromEvent Event count from an earlier {@link #getTotals()} call
+     */
+    public synchronized long getMaxPauseSince(long fromEvent) {
+        long max = 0L;
+        for (long i = Math.max(fromEvent, eventCount - RING_CAPACITY); i < eventCount; i++) {
+            int slot = (int) (i % RING_CAPACITY);
+            if (!concurrent[slot]) {
+                max = Math.max(max, durationMillis[slot]);
+            }
+        }
+        return max;
+    }
+    
+    /**
+     * Build a summary of everything recorded in the current or last run
+     * @return Summary, or null if recording never started
+     */
+    public synchronized Summary summarize() {
+        if (startTime == 0L) {
+            return null;
+        }
+        
+        long end = stopTime > 0L ? stopTime : System.currentTimeMillis();
+        double seconds = Math.max(0.001, (end - startTime) / 1000.0);
+        
+        List<Event> events = new ArrayList<>();
+        long first = Math.max(0L, eventCount - RING_CAPACITY);
+        for (long i = first; i < eventCount; i++) {
+            int slot = (int) (i % RING_CAPACITY);
+            events.add(new Event(offsetMillis[slot], collectors[slot], causes[slot], durationMillis[slot],
+                heapBeforeBytes[slot], heapAfterBytes[slot], concurrent[slot]));
+        }
+        
+        return new Summary(
+            pauseCount,
+            totalPauseMillis,
+            maxPauseMillis,
+            concurrentCount,
+            totalConcurrentMillis,
+            allocatedBytes / 1024.0 / 1024.0,
+            allocatedBytes / 1024.0 / 1024.0 / seconds,
+            eventCount - events.size(),
+            events
+        );
+    }
+    
+    /**
+     * Single garbage collection event
+     */
+    public static class Event {
+        private final long offsetMillis;
+        private final String collector;
+        private final String cause;
+        private final long durationMillis;
+        private final long heapBeforeBytes;
+        private final long heapAfterBytes;
+        private final boolean concurrent;
+        
+        public Event(long offsetMillis, String collector, String cause, long durationMillis,
+                    long heapBeforeBytes, long heapAfterBytes, boolean concurrent) {
+            this.offsetMillis = offsetMillis;
+            this.collector = collector;
+            this.cause = cause;
+            this.durationMillis = durationMillis;
+            this.heapBeforeBytes = heapBeforeBytes;
+            this.heapAfterBytes = heapAfterBytes;
+            this.concurrent = concurrent;
+        }
+        
+        // Getters
+        public long getOffsetMillis() { return offsetMillis; }
+        public String getCollector() { return collector; }
+        public String getCause() { return cause; }
+        public long getDurationMillis() { return durationMillis; }
+        public long getHeapBeforeBytes() { return heapBeforeBytes; }
+        public long getHeapAfterBytes() { return heapAfterBytes; }
+        public boolean isConcurrent() { return concurrent; }
+    }
+    
+    /**
+     * GC summary data class
+     */
+    public static class Summary {
+        private final long pauseCount;
+        private final long totalPauseMillis;
+        private final long maxPauseMillis;
+        private final long concurrentCount;
+        private final long totalConcurrentMillis;
+        private final double allocatedMb;
+        private final double allocationRateMbPerSecond;
+        private final long droppedEvents;
+        private final List<Event> events;
+        
+        public Summary(long pauseCount, long totalPauseMillis, long maxPauseMillis,
+                      long concurrentCount, long totalConcurrentMillis, double allocatedMb,
+                      double allocationRateMbPerSecond, long droppedEvents, List<Event> events) {
+            this.pauseCount = pauseCount;
+            this.totalPauseMillis = totalPauseMillis;
+            this.maxPauseMillis = maxPauseMillis;
+            this.concurrentCount = concurrentCount;
+            this.totalConcurrentMillis = totalConcurrentMillis;
+            this.allocatedMb = allocatedMb;
+            this.allocationRateMbPerSecond = allocationRateMbPerSecond;
+            this.droppedEvents = droppedEvents;
+            this.events = events;
+        }
+        
+        // Getters
+        public long getPauseCount() { return pauseCount; }
+        public long getTotalPauseMillis() { return totalPauseMillis; }
+        public long getMaxPauseMillis() { return maxPauseMillis; }
+        public double getAveragePauseMillis() { return pauseCount > 0 ? totalPauseMillis / (double) pauseCount : 0.0; }
+        public long getConcurrentCount() { return concurrentCount; }
+        public long getTotalConcurrentMillis() { return totalConcurrentMillis; }
+        public double getAllocatedMb() { return allocatedMb; }
+        public double getAllocationRateMbPerSecond() { return allocationRateMbPerSecond; }
+        public long getDroppedEvents() { return droppedEvents; }
+        public List<Event> getEvents() { return events; }
+    }
+}
@@ -0,0 +1,184 @@
+package online.chatchai.github.mcbench.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * JFR recording analyzer for MCBench Pro
+ * Reads a dumped recording once and aggregates the top hot methods (self time by execution
+ * samples), allocation sites (sampled bytes by allocating frame and type), monitor
+ * contention (blocked time by lock class) and GC pause phases.
+ * Runs on a background thread; never call it from the server thread.
+ */
+public final class JfrAnalyzer {
+    
+    private JfrAnalyzer() {
+    }
+    
+    /**
+     * Parse a recording file
+     * @param file Recording to read
+     * @param topEntries Number of entries kept per section
+     * @return Profile summary
+     */
+    public static Profile analyze(File file, int topEntries) throws IOException {
+        Map<String, Accumulator> hotMethods = new HashMap<>();
+        Map<String, Accumulator> allocationSites = new HashMap<>();
+        Map<String, Accumulator> locks = new HashMap<>();
+        Map<String, Accumulator> gcPhases = new HashMap<>();
+        long executionSamples = 0L;
+        long sampledAllocationBytes = 0L;
+        
+        try (RecordingFile recordingFile = new RecordingFile(file.toPath())) {
+            while (recordingFile.hasMoreEvents()) {
+                RecordedEvent event = recordingFile.readEvent();
+                switch (event.getEventType().getName()) {
+                    case "jdk.ExecutionSample":
+                        executionSamples++;
+                        add(hotMethods, topFrame(event.getStackTrace()), 1L);
+                        break;
+                    case "jdk.ObjectAllocationSample":
+                        long weight = event.getLong("weight");
+                        sampledAllocationBytes += weight;
+                        RecordedClass objectClass = event.getClass("objectClass");
+                        String type = objectClass != null ? objectClass.getName() : "unknown";
+                        add(allocationSites, type + " @ " + topFrame(event.getStackTrace()), weight);
+                        break;
+                    case "jdk.JavaMonitorEnter":
+                        RecordedClass monitorClass = event.getClass("monitorClass");
+                        add(locks, monitorClass != null ? monitorClass.getName() : "unknown",
+                            event.getDuration().toNanos());
+                        break;
+                    case "jdk.GCPhasePause":
+                        add(gcPhases, event.getString("name"), event.getDuration().toNanos());
+                        break;
+                    case "jdk.GCPhasePauseLevel1":
+                        add(gcPhases, "  " + event.getString("name"), event.getDuration().toNanos());
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        
+        return new Profile(
+            file.getAbsolutePath(),
+            executionSamples,
+            sampledAllocationBytes,
+            top(hotMethods, topEntries),
+            top(allocationSites, topEntries),
+            top(locks, topEntries),
+            top(gcPhases, topEntries * 2)
+        );
+    }
+    
+    /**
+     * Get "Class.method:line" for the innermost frame of a stack trace
+     */
+    private static String topFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        
+        RecordedFrame frame = stackTrace.getFrames().get(0);
+        String name = frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+        int line = frame.getLineNumber();
+        return line > 0 ? name + ":" + line : name;
+    }
+    
+    private static void add(Map<String, Accumulator> map, String key, long value) {
+        Accumulator accumulator = map.computeIfAbsent(key, k -> new Accumulator());
+        accumulator.count++;
+        accumulator.total += value;
+        accumulator.max = Math.max(accumulator.max, value);
+    }
+    
+    private static List<Entry> top(Map<String, Accumulator> map, int limit) {
+        List<Entry> entries = new ArrayList<>(map.size());
+        for (Map.Entry<String, Accumulator> entry : map.entrySet()) {
+            Accumulator accumulator = entry.getValue();
+            entries.add(new Entry(entry.getKey(), accumulator.count, accumulator.total, accumulator.max));
+        }
+        entries.sort((a, b) -> Long.compare(b.getTotal(), a.getTotal()));
+        return entries.size() > limit ? new ArrayList<>(entries.subList(0, limit)) : entries;
+    }
+    
+    private static class Accumulator {
+        private long count;
+        private long total;
+        private long max;
+    }
+    
+    /**
+     * Aggregated profile entry
+     * Total is samples for hot methods, sampled bytes for allocation sites and nanoseconds
+     * for lock contention and GC phases.
+     */
+    public static class Entry {
+        private final String name;
+        private final long count;
+        private final long total;
+        private final long max;
+        
+        public Entry(String name, long count, long total, long max) {
+            this.name = name;
+            this.count = count;
+            this.total = total;
+            this.max = max;
+        }
+        
+        // Getters
+        public String getName() { return name; }
+        public long getCount() { return count; }
+        public long getTotal() { return total; }
+        public long getMax() { return max; }
+        public double getTotalMillis() { return total / 1_000_000.0; }
+        public double getMaxMillis() { return max / 1_000_000.0; }
+    }
+    
+    /**
+     * Profile summary data class
+     */
+    public static class Profile {
+        private final String recordingFile;
+        private final long executionSamples;
+        private final long sampledAllocationBytes;
+        private final List<Entry> hotMethods;
+        private final List<Entry> allocationSites;
+        private final List<Entry> lockContention;
+        private final List<Entry> gcPhases;
+        
+        public Profile(String recordingFile, long executionSamples, long sampledAllocationBytes,
+                      List<Entry> hotMethods, List<Entry> allocationSites,
+                      List<Entry> lockContention, List<Entry> gcPhases) {
+            this.recordingFile = recordingFile;
+            this.executionSamples = executionSamples;
+            this.sampledAllocationBytes = sampledAllocationBytes;
+            this.hotMethods = hotMethods;
+            this.allocationSites = allocationSites;
+            this.lockContention = lockContention;
+            this.gcPhases = gcPhases;
+        }
+        
+        // Getters
+        public String getRecordingFile() { return recordingFile; }
+        public long getExecutionSamples() { return executionSamples; }
+        public long getSampledAllocationBytes() { return sampledAllocationBytes; }
+        public List<Entry> getHotMethods() { return hotMethods; }
+        public List<Entry> getAllocationSites() { return allocationSites; }
+        public List<Entry> getLockContention() { return lockContention; }
+        public List<Entry> getGcPhases() { return gcPhases; }
+        public double getSamplePercent(Entry entry) { return executionSamples > 0 ? entry.getTotal() * 100.0 / executionSamples : 0.0; }
+        public double getAllocationPercent(Entry entry) { return sampledAllocationBytes > 0 ? entry.getTotal() * 100.0 / sampledAllocationBytes : 0.0; }
+    }
+}
@@ -0,0 +1,198 @@
+package online.chatchai.github.mcbench.metrics;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+import online.chatchai.github.mcbench.Main;
+
+/**
+ * Streaming JFR metrics backend for MCBench Pro
+ * Consumes CPULoad, GCHeapSummary, ThreadCPULoad, JavaMonitorEnter and ObjectAllocationSample
+ * events as the JVM emits them instead of polling MXBeans. CPU samples are pushed into the
+ * sampler's rolling window so the snapshot API is unchanged; the other events add allocation
+ * rate, heap used after GC (the live-data floor), main thread CPU and monitor contention that
+ * polling cannot see. Thread accounting is sampled on each stream flush, so no polling thread
+ * is needed. All callbacks run on the stream's own dispatch thread.
+ */
+public class JfrMetricStream {
+    
+    private static final long CPU_PERIOD_MILLIS = 500L;
+    private static final long THREAD_CPU_PERIOD_MILLIS = 1000L;
+    private static final long MONITOR_THRESHOLD_MILLIS = 1L;
+    
+    // Thread CPU entries not refreshed for this long belong to threads that have ended
+    private static final long THREAD_STALE_MILLIS = 5000L;
+    
+    private final Main plugin;
+    private final MetricSampler sampler;
+    
+    private RecordingStream stream;
+    
+    // Allocation rate (sampled bytes, converted to a rate on each CPU period)
+    private final LongAdder allocatedBytes = new LongAdder();
+    private long lastAllocatedBytes = 0L;
+    private long lastRateNanos = 0L;
+    private volatile double allocationRateMbPerSecond = 0.0;
+    
+    // Monitor contention (cumulative since start)
+    private final LongAdder contendedEnters = new LongAdder();
+    private final LongAdder contendedNanos = new LongAdder();
+    
+    // Heap and per-thread CPU
+    private volatile long heapUsedAfterGcBytes = -1L;
+    private final Map<String, ThreadLoad> threadLoads = new ConcurrentHashMap<>();
+    
+    public JfrMetricStream(Main plugin, MetricSampler sampler) {
+        this.plugin = plugin;
+        this.sampler = sampler;
+    }
+    
+    /**
+     * Start streaming events
+     * @return true if the stream is running, false if JFR is unavailable
+     */
+    public boolean start() {
+        try {
+            if (!FlightRecorder.isAvailable()) {
+                return false;
+            }
+            
+            RecordingStream newStream = new RecordingStream();
+            newStream.setMaxAge(Duration.ofSeconds(10));
+            
+            newStream.enable("jdk.CPULoad").withPeriod(Duration.ofMillis(CPU_PERIOD_MILLIS));
+            newStream.enable("jdk.ThreadCPULoad").withPeriod(Duration.ofMillis(THREAD_CPU_PERIOD_MILLIS));
+            newStream.enable("jdk.GCHeapSummary");
+            newStream.enable("jdk.JavaMonitorEnter")
+                .withThreshold(Duration.ofMillis(MONITOR_THRESHOLD_MILLIS))
+                .withoutStackTrace();
+            newStream.enable("jdk.ObjectAllocationSample")
+                .with("throttle", "100/s")
+                .withoutStackTrace();
+            
+            newStream.onEvent("jdk.CPULoad", this::onCpuLoad);
+            newStream.onEvent("jdk.ThreadCPULoad", this::onThreadCpuLoad);
+            newStream.onEvent("jdk.GCHeapSummary", this::onHeapSummary);
+            newStream.onEvent("jdk.JavaMonitorEnter", this::onMonitorEnter);
+            newStream.onEvent("jdk.ObjectAllocationSample", event -> allocatedBytes.add(event.getLong("weight")));
+            newStream.onFlush(sampler::sampleThreadAccounting);
+            
+            newStream.startAsync();
+            stream = newStream;
+            return true;
+        
+        } catch (Exception | LinkageError e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to start JFR metric stream", e);
+            return false;
+        }
+    }
+    
+    /**
+     * Stop streaming events
+     */
+    public void close() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+    
+    private void onCpuLoad(RecordedEvent event) {
+        double process = (event.getFloat("jvmUser") + event.getFloat("jvmSystem")) * 100.0;
+        double system = event.getFloat("machineTotal") * 100.0;
+        sampler.recordCpuSample(system, process);
+        
+        // Convert sampled allocation bytes into a rate over the last period
+        long now = System.nanoTime();
+        long bytes = allocatedBytes.sum();
+        if (lastRateNanos > 0L && now > lastRateNanos) {
+            double seconds = (now - lastRateNanos) / 1_000_000_000.0;
+            allocationRateMbPerSecond = (bytes - lastAllocatedBytes) / 1024.0 / 1024.0 / seconds;
+        }
+        lastAllocatedBytes = bytes;
+        lastRateNanos = now;
+        
+        // Forget threads that have ended
+        long nowMillis = System.currentTimeMillis();
+        threadLoads.values().removeIf(load -> nowMillis - load.timestamp > THREAD_STALE_MILLIS);
+    }
+    
+    private void onThreadCpuLoad(RecordedEvent event) {
+        RecordedThread thread = event.getThread();
+        if (thread == null || thread.getJavaName() == null) {
+            return;
+        }
+        double load = (event.getFloat("user") + event.getFloat("system")) * 100.0;
+        threadLoads.put(thread.getJavaName(), new ThreadLoad(load, System.currentTimeMillis()));
+    }
+    
+    private void onHeapSummary(RecordedEvent event) {
+        if ("After GC".equals(event.getString("when"))) {
+            heapUsedAfterGcBytes = event.getLong("heapUsed");
+        }
+    }
+    
+    private void onMonitorEnter(RecordedEvent event) {
+        contendedEnters.increment();
+        contendedNanos.add(event.getDuration().toNanos());
+    }
+    
+    /**
+     * Get allocation rate over the last CPU period in MB/s
+     */
+    public double getAllocationRateMbPerSecond() {
+        return allocationRateMbPerSecond;
+    }
+    
+    /**
+     * Get number of contended monitor enters since start
+     */
+    public long getContendedEnters() {
+        return contendedEnters.sum();
+    }
+    
+    /**
+     * Get time spent blocked on contended monitors since start in milliseconds
+     */
+    public double getContendedMillis() {
+        return contendedNanos.sum() / 1_000_000.0;
+    }
+    
+    /**
+     * Get heap used right after the most recent GC, or -1 if none has happened yet
+     */
+    public long getHeapUsedAfterGcBytes() {
+        return heapUsedAfterGcBytes;
+    }
+    
+    /**
+     * Get CPU usage of a thread by name as a percentage of total machine CPU, or -1 if unknown
+     */
+    public double getThreadCpuLoad(String threadName) {
+        ThreadLoad load = threadLoads.get(threadName);
+        if (load == null || System.currentTimeMillis() - load.timestamp > THREAD_STALE_MILLIS) {
+            return -1.0;
+        }
+        return load.load;
+    }
+    
+    /**
+     * Latest CPU sample for a single thread
+     */
+    private static class ThreadLoad {
+        private final double load;
+        private final long timestamp;
+        
+        private ThreadLoad(double load, long timestamp) {
+            this.load = load;
+            this.timestamp = timestamp;
+        }
+    }
+}
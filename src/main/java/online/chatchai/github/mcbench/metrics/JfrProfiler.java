@@ -0,0 +1,181 @@
+package online.chatchai.github.mcbench.metrics;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import online.chatchai.github.mcbench.Main;
+import online.chatchai.github.mcbench.config.ConfigManager;
+
+/**
+ * Java Flight Recorder integration for MCBench Pro
+ * Records every benchmark run with a low-overhead settings profile tuned for finding where
+ * tick time goes (execution samples, allocation samples, monitor contention, GC phases),
+ * dumps it to plugins/MCBenchPro/recordings/ and parses it off the main thread.
+ */
+public class JfrProfiler {
+    
+    private final Main plugin;
+    private final ConfigManager configManager;
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss");
+    
+    private Recording recording;
+    private String recordingLabel;
+    
+    public JfrProfiler(Main plugin, ConfigManager configManager) {
+        this.plugin = plugin;
+        this.configManager = configManager;
+    }
+    
+    /**
+     * Start a new recording, discarding any recording still in progress
+     * @param label Label used in the recording file name (usually the profile name)
+     */
+    public synchronized void start(String label) {
+        discard();
+        if (!configManager.isJfrEnabled()) {
+            return;
+        }
+        
+        try {
+            if (!FlightRecorder.isAvailable()) {
+                plugin.getLogger().warning("Java Flight Recorder is not available on this JVM, skipping recording");
+                return;
+            }
+            
+            Recording newRecording = new Recording(Configuration.getConfiguration("default"));
+            newRecording.setName("MCBenchPro-" + label);
+            newRecording.setToDisk(true);
+            newRecording.setMaxSize((long) configManager.getJfrMaxSizeMb() * 1024 * 1024);
+            
+            // Tuned settings: denser CPU sampling, throttled allocation samples, lower lock threshold
+            newRecording.enable("jdk.ExecutionSample")
+                .withPeriod(Duration.ofMillis(configManager.getJfrSamplePeriodMs()))
+                .withStackTrace();
+            newRecording.enable("jdk.ObjectAllocationSample")
+                .with("throttle", configManager.getJfrAllocationSamplesPerSecond() + "/s")
+                .withStackTrace();
+            newRecording.enable("jdk.JavaMonitorEnter")
+                .withThreshold(Duration.ofMillis(configManager.getJfrLockThresholdMs()))
+                .withStackTrace();
+            newRecording.enable("jdk.GCPhasePause");
+            newRecording.enable("jdk.GCPhasePauseLevel1");
+            
+            newRecording.start();
+            recording = newRecording;
+            recordingLabel = label;
+        
+        } catch (Exception | LinkageError e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to start JFR recording", e);
+            recording = null;
+        }
+    }
+    
+    /**
+     * Stop the active recording and dump it to the recordings folder on a background thread
+     * Writing out a large recording takes a while, so only stopping it happens on the caller's thread.
+     * @return Future completing with the dumped recording file (null if the dump failed),
+     *         or null if nothing was being recorded
+     */
+    public synchronized CompletableFuture<File> stop() {
+        if (recording == null) {
+            return null;
+        }
+        
+        Recording stopped = recording;
+        File recordingsDir = new File(plugin.getDataFolder(), "recordings");
+        File file = new File(recordingsDir, "mcbench_" + recordingLabel + "_" + dateFormat.format(new Date()) + ".jfr");
+        int keep = configManager.getJfrKeepRecordings();
+        recording = null;
+        recordingLabel = null;
+        
+        try {
+            stopped.stop();
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to stop JFR recording", e);
+            stopped.close();
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        // While the plugin is disabling the worker may never get to run, so dump in one go
+        if (!plugin.isEnabled()) {
+            return CompletableFuture.completedFuture(dump(stopped, recordingsDir, file, keep));
+        }
+        return CompletableFuture.supplyAsync(() -> dump(stopped, recordingsDir, file, keep));
+    }
+    
+    /**
+     * Write a stopped recording to disk and release it
+     * @return The recording file, or null if it could not be written
+     */
+    private File dump(Recording stopped, File recordingsDir, File file, int keep) {
+        try {
+            if (!recordingsDir.exists()) {
+                recordingsDir.mkdirs();
+            }
+            
+            stopped.dump(file.toPath());
+            plugin.getLogger().info("JFR recording saved: " + file.getAbsolutePath());
+            pruneOldRecordings(recordingsDir, keep);
+            return file;
+        
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to dump JFR recording", e);
+            return null;
+        } finally {
+            stopped.close();
+        }
+    }
+    
+    /**
+     * Stop and discard the active recording without dumping it
+     */
+    public synchronized void discard() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+            recordingLabel = null;
+        }
+    }
+    
+    /**
+     * Parse a dumped recording on a background thread
+     * @param file Recording file dumped by {@link #stop()}
+     * @return Future completing with the profile summary
+     */
+    public CompletableFuture<JfrAnalyzer.Profile> analyzeAsync(File file) {
+        int topEntries = configManager.getJfrTopEntries();
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return JfrAnalyzer.analyze(file, topEntries);
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to parse JFR recording " + file.getName(), e);
+            }
+        });
+    }
+    
+    /**
+     * Delete the oldest recordings beyond the configured limit
+     */
+    private void pruneOldRecordings(File recordingsDir, int keep) {
+        File[] files = recordingsDir.listFiles((dir, name) -> name.endsWith(".jfr"));
+        if (keep <= 0 || files == null || files.length <= keep) {
+            return;
+        }
+        
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (int i = 0; i < files.length - keep; i++) {
+            if (!files[i].delete()) {
+                plugin.getLogger().warning("Could not delete old JFR recording: " + files[i].getName());
+            }
+        }
+    }
+}
@@ -2,16 +2,19 @@ package online.chatchai.github.mcbench.metrics;
 
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
+import java.util.List;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
 
 import com.sun.management.OperatingSystemMXBean;
 
 import online.chatchai.github.mcbench.Main;
+import online.chatchai.github.mcbench.analysis.EntityIndex;
 import online.chatchai.github.mcbench.util.Util;
 
 /**
@@ -26,7 +29,7 @@ public class MetricSampler {
     private final Runtime runtime;
     
     // CPU monitoring
-    private final ScheduledExecutorService cpuMonitorExecutor;
+    private ScheduledExecutorService cpuMonitorExecutor;
     private final double[] recentSystemCpuUsage = new double[20];
     private final double[] recentProcessCpuUsage = new double[20];
     private int cpuSampleIndex = 0;
@@ -34,16 +37,56 @@ public class MetricSampler {
     private volatile double recentProcessCpuSnapshot = 0.0;
     private ScheduledFuture<?> cpuMonitorTask;
     
+    // Per-tick duration recording and slow-tick stack sampling
+    private final StallSampler stallSampler;
+    private final TickRecorder tickRecorder;
+    
+    // Per-thread-group CPU and allocation accounting
+    private final ThreadAccounting threadAccounting;
+    
+    // GC pause and allocation recording
+    private final GcRecorder gcRecorder = new GcRecorder();
+    
+    // Whole-run time series, sampled on the main thread
+    private final TimeSeriesStore timeSeries;
+    private final double[] timeSeriesRow = new double[TimeSeriesStore.Metric.values().length];
+    private BukkitTask timeSeriesTask;
+    private volatile long timeSeriesOverheadNanos = 0L;
+    
+    // Streaming JFR backend (null when polling)
+    private JfrMetricStream jfrStream;
+    private final String mainThreadName;
+    
     public MetricSampler(Main plugin) {
         this.plugin = plugin;
         this.osMXBean = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
         this.memoryMXBean = ManagementFactory.getMemoryMXBean();
         this.runtime = Runtime.getRuntime();
+        this.mainThreadName = Thread.currentThread().getName();
+        this.stallSampler = new StallSampler(Thread.currentThread().threadId());
+        this.tickRecorder = new TickRecorder(stallSampler);
+        this.threadAccounting = new ThreadAccounting(Thread.currentThread().threadId());
+        this.timeSeries = new TimeSeriesStore((long) plugin.getConfigManager().getTimeSeriesMaxMemoryMb() * 1024 * 1024);
+        
+        if (!threadAccounting.isSupported()) {
+            plugin.getLogger().warning("Per-thread CPU time is not supported on this JVM, thread accounting disabled");
+        }
+        
+        // The JFR stream delivers CPU samples and drives thread accounting itself
+        if ("jfr".equalsIgnoreCase(plugin.getConfigManager().getMetricsBackend())) {
+            JfrMetricStream stream = new JfrMetricStream(plugin, this);
+            if (stream.start()) {
+                jfrStream = stream;
+                plugin.getLogger().info("Metrics backend: JFR event stream");
+                return;
+            }
+            plugin.getLogger().warning("JFR event stream unavailable, falling back to polling metrics");
+        }
         
         // Initialize CPU monitoring
         this.cpuMonitorExecutor = Executors.newSingleThreadScheduledExecutor(
             r -> new Thread(r, "MCBench-CPU-Monitor"));
-        
+        startThreadAccounting();
         startCpuMonitoring();
     }
     
@@ -55,23 +98,119 @@ public class MetricSampler {
             this::recordCpuUsage, 0L, 500L, TimeUnit.MILLISECONDS);
     }
     
+    /**
+     * Start per-thread accounting task
+     */
+    private void startThreadAccounting() {
+        if (threadAccounting.isSupported()) {
+            cpuMonitorExecutor.scheduleAtFixedRate(this::sampleThreadAccounting, 0L, 1000L, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    /**
+     * Take one thread accounting sample (polling thread or JFR stream flush)
+     */
+    void sampleThreadAccounting() {
+        if (!threadAccounting.isSupported()) {
+            return;
+        }
+        try {
+            threadAccounting.sample();
+        } catch (Exception e) {
+            plugin.getLogger().warning("Failed to sample thread CPU usage: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Clear the time series and start sampling it on the main thread
+     * @param intervalTicks Ticks between samples
+     */
+    public void startTimeSeries(int intervalTicks) {
+        stopTimeSeries();
+        timeSeries.reset(intervalTicks * 50L);
+        timeSeriesTask = Bukkit.getScheduler().runTaskTimer(plugin, this::recordTimeSeriesSample, 0L, intervalTicks);
+    }
+    
+    /**
+     * Stop sampling the time series, keeping what was recorded
+     */
+    public void stopTimeSeries() {
+        if (timeSeriesTask != null) {
+            timeSeriesTask.cancel();
+            timeSeriesTask = null;
+        }
+    }
+    
+    /**
+     * Append the current metrics to the time series (main thread)
+     */
+    private void recordTimeSeriesSample() {
+        long start = System.nanoTime();
+        try {
+            timeSeriesRow[TimeSeriesStore.Metric.TPS.ordinal()] = getTPS();
+            timeSeriesRow[TimeSeriesStore.Metric.MSPT.ordinal()] = getMSPT();
+            timeSeriesRow[TimeSeriesStore.Metric.TICK_MS.ordinal()] = tickRecorder.getLastTickNanos() / 1_000_000.0;
+            timeSeriesRow[TimeSeriesStore.Metric.SYSTEM_CPU.ordinal()] = getSystemCpuUsage();
+            timeSeriesRow[TimeSeriesStore.Metric.PROCESS_CPU.ordinal()] = getProcessCpuUsage();
+            timeSeriesRow[TimeSeriesStore.Metric.MAIN_THREAD_CPU.ordinal()] = getMainThreadCpuUsage();
+            timeSeriesRow[TimeSeriesStore.Metric.MEMORY_PERCENT.ordinal()] = getMemoryUsagePercentage();
+            timeSeriesRow[TimeSeriesStore.Metric.USED_MEMORY_MB.ordinal()] = getUsedMemoryMB();
+            timeSeriesRow[TimeSeriesStore.Metric.HEAP_AFTER_GC_MB.ordinal()] = getHeapAfterGcMB();
+            timeSeriesRow[TimeSeriesStore.Metric.ALLOCATION_MB_PER_SEC.ordinal()] = getAllocationRateMbPerSecond();
+            EntityIndex entityIndex = plugin.getEntityIndex();
+            timeSeriesRow[TimeSeriesStore.Metric.ENTITIES.ordinal()] = entityIndex != null ? entityIndex.getTotalEntities() : 0;
+            timeSeriesRow[TimeSeriesStore.Metric.LOADED_CHUNKS.ordinal()] = entityIndex != null ? entityIndex.getLoadedChunks() : 0;
+            
+            // Thread group columns stay missing until the first accounting interval has completed
+            for (ThreadAccounting.ThreadCategory category : ThreadAccounting.ThreadCategory.values()) {
+                timeSeriesRow[TimeSeriesStore.Metric.threadCpu(category).ordinal()] = -1.0;
+                timeSeriesRow[TimeSeriesStore.Metric.threadAllocation(category).ordinal()] = -1.0;
+            }
+            for (ThreadAccounting.GroupUsage usage : threadAccounting.getLatest()) {
+                timeSeriesRow[TimeSeriesStore.Metric.threadCpu(usage.getCategory()).ordinal()] = usage.getCpuPercent();
+                timeSeriesRow[TimeSeriesStore.Metric.threadAllocation(usage.getCategory()).ordinal()] = usage.getAllocationMbPerSecond();
+            }
+            timeSeries.record(System.currentTimeMillis(), timeSeriesRow);
+        } catch (Exception e) {
+            plugin.getLogger().warning("Failed to record time series sample: " + e.getMessage());
+        }
+        timeSeriesOverheadNanos += System.nanoTime() - start;
+    }
+    
+    /**
+     * Get total main-thread time spent sampling the time series
+     * @return Cumulative sampling time in nanoseconds
+     */
+    public long getTimeSeriesOverheadNanos() {
+        return timeSeriesOverheadNanos;
+    }
+    
     /**
      * Record CPU usage samples
      */
     private void recordCpuUsage() {
         try {
-            recentSystemCpuUsage[cpuSampleIndex] = getCurrentSystemCpuLoad();
-            recentProcessCpuUsage[cpuSampleIndex] = getCurrentProcessCpuLoad();
-            
-            recentSystemCpuSnapshot = calculateAverageCpu(recentSystemCpuUsage);
-            recentProcessCpuSnapshot = calculateAverageCpu(recentProcessCpuUsage);
-            
-            cpuSampleIndex = (cpuSampleIndex + 1) % 20;
+            recordCpuSample(getCurrentSystemCpuLoad(), getCurrentProcessCpuLoad());
         } catch (Exception e) {
             plugin.getLogger().warning("Failed to record CPU usage: " + e.getMessage());
         }
     }
     
+    /**
+     * Add one CPU sample to the rolling window (called by the polling task or the JFR stream)
+     * @param systemCpu System CPU usage (0-100)
+     * @param processCpu Process CPU usage (0-100)
+     */
+    void recordCpuSample(double systemCpu, double processCpu) {
+        recentSystemCpuUsage[cpuSampleIndex] = systemCpu;
+        recentProcessCpuUsage[cpuSampleIndex] = processCpu;
+        
+        recentSystemCpuSnapshot = calculateAverageCpu(recentSystemCpuUsage);
+        recentProcessCpuSnapshot = calculateAverageCpu(recentProcessCpuUsage);
+        
+        cpuSampleIndex = (cpuSampleIndex + 1) % 20;
+    }
+    
     /**
      * Calculate average CPU usage from samples
      */
@@ -142,6 +281,42 @@ public class MetricSampler {
         }
     }
     
+    /**
+     * Get the per-tick duration recorder
+     * @return TickRecorder listening to Paper tick events
+     */
+    public TickRecorder getTickRecorder() {
+        return tickRecorder;
+    }
+    
+    /**
+     * Get per-thread-group CPU and allocation accounting
+     */
+    public ThreadAccounting getThreadAccounting() {
+        return threadAccounting;
+    }
+    
+    /**
+     * Get the main-thread stall sampler
+     */
+    public StallSampler getStallSampler() {
+        return stallSampler;
+    }
+    
+    /**
+     * Get the whole-run time series store
+     */
+    public TimeSeriesStore getTimeSeries() {
+        return timeSeries;
+    }
+    
+    /**
+     * Get GC event recorder
+     */
+    public GcRecorder getGcRecorder() {
+        return gcRecorder;
+    }
+    
     /**
      * Get system CPU usage percentage
      * @return System CPU usage (0-100)
@@ -158,6 +333,42 @@ public class MetricSampler {
         return recentProcessCpuSnapshot;
     }
     
+    /**
+     * Get the streaming JFR backend
+     * @return Stream, or null when metrics are polled
+     */
+    public JfrMetricStream getJfrStream() {
+        return jfrStream;
+    }
+    
+    /**
+     * Get allocation rate in MB/s
+     * @return Allocation rate, or -1 when the JFR backend is not active
+     */
+    public double getAllocationRateMbPerSecond() {
+        return jfrStream != null ? jfrStream.getAllocationRateMbPerSecond() : -1.0;
+    }
+    
+    /**
+     * Get main server thread CPU usage as a percentage of total machine CPU
+     * @return Main thread CPU usage, or -1 when unknown
+     */
+    public double getMainThreadCpuUsage() {
+        return jfrStream != null ? jfrStream.getThreadCpuLoad(mainThreadName) : -1.0;
+    }
+    
+    /**
+     * Get heap used right after the most recent GC in MB (the live-data floor)
+     * @return Heap after GC, or -1 when the JFR backend is not active or no GC has run yet
+     */
+    public long getHeapAfterGcMB() {
+        if (jfrStream == null) {
+            return -1L;
+        }
+        long bytes = jfrStream.getHeapUsedAfterGcBytes();
+        return bytes >= 0 ? bytes / 1024 / 1024 : -1L;
+    }
+    
     /**
      * Get JVM memory usage percentage
      * @return Memory usage percentage (0-100)
@@ -239,6 +450,12 @@ public class MetricSampler {
             getMemoryUsagePercentage(),
             getUsedMemoryMB(),
             getMaxMemoryMB(),
+            getMainThreadCpuUsage(),
+            getAllocationRateMbPerSecond(),
+            getHeapAfterGcMB(),
+            jfrStream != null ? jfrStream.getContendedEnters() : -1L,
+            jfrStream != null ? jfrStream.getContendedMillis() : -1.0,
+            threadAccounting.getLatest(),
             System.currentTimeMillis()
         );
     }
@@ -248,6 +465,13 @@ public class MetricSampler {
      */
     public void shutdown() {
         try {
+            gcRecorder.stop();
+            stallSampler.stop();
+            stopTimeSeries();
+            if (jfrStream != null) {
+                jfrStream.close();
+                jfrStream = null;
+            }
             if (cpuMonitorTask != null) {
                 cpuMonitorTask.cancel(false);
             }
@@ -273,11 +497,20 @@ public class MetricSampler {
         private final double memoryUsage;
         private final long usedMemoryMB;
         private final long maxMemoryMB;
+        private final double mainThreadCpu;
+        private final double allocationRateMbPerSecond;
+        private final long heapAfterGcMB;
+        private final long contendedEnters;
+        private final double contendedMillis;
+        private final List<ThreadAccounting.GroupUsage> threadGroups;
         private final long timestamp;
         
         public MetricSnapshot(double tps, double mspt, double systemCpu, 
                             double processCpu, double memoryUsage, 
-                            long usedMemoryMB, long maxMemoryMB, long timestamp) {
+                            long usedMemoryMB, long maxMemoryMB, double mainThreadCpu,
+                            double allocationRateMbPerSecond, long heapAfterGcMB, long contendedEnters,
+                            double contendedMillis, List<ThreadAccounting.GroupUsage> threadGroups,
+                            long timestamp) {
             this.tps = tps;
             this.mspt = mspt;
             this.systemCpu = systemCpu;
@@ -285,6 +518,12 @@ public class MetricSampler {
             this.memoryUsage = memoryUsage;
             this.usedMemoryMB = usedMemoryMB;
             this.maxMemoryMB = maxMemoryMB;
+            this.mainThreadCpu = mainThreadCpu;
+            this.allocationRateMbPerSecond = allocationRateMbPerSecond;
+            this.heapAfterGcMB = heapAfterGcMB;
+            this.contendedEnters = contendedEnters;
+            this.contendedMillis = contendedMillis;
+            this.threadGroups = threadGroups;
             this.timestamp = timestamp;
         }
         
@@ -296,6 +535,13 @@ public class MetricSampler {
         public double getMemoryUsage() { return memoryUsage; }
         public long getUsedMemoryMB() { return usedMemoryMB; }
         public long getMaxMemoryMB() { return maxMemoryMB; }
+        public double getMainThreadCpu() { return mainThreadCpu; }
+        public double getAllocationRateMbPerSecond() { return allocationRateMbPerSecond; }
+        public long getHeapAfterGcMB() { return heapAfterGcMB; }
+        public long getContendedEnters() { return contendedEnters; }
+        public double getContendedMillis() { return contendedMillis; }
+        public boolean hasStreamedMetrics() { return contendedEnters >= 0; }
+        public List<ThreadAccounting.GroupUsage> getThreadGroups() { return threadGroups; }
         public long getTimestamp() { return timestamp; }
     }
 }
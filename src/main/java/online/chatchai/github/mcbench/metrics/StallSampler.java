@@ -0,0 +1,324 @@
+package online.chatchai.github.mcbench.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Main-thread stall sampler for MCBench Pro
+ * While a tick is in progress, a background thread captures the server thread's stack every
+ * few milliseconds into a small per-tick buffer. When the tick ends over the slow threshold
+ * the buffered stacks are kept and folded into collapsed-stack (flame graph) counts for the
+ * current benchmark phase; otherwise they are dropped. The main thread only swaps references.
+ */
+public class StallSampler {
+    
+    // Per-tick sample buffer size; a 1 s tick at 5 ms spacing fits in 200
+    private static final int MAX_SAMPLES_PER_TICK = 512;
+    
+    // Distinct stacks kept per phase before new ones are counted as "[other]"
+    private static final int MAX_DISTINCT_STACKS = 10000;
+    
+    // Markers in the pending queue: switch to the next queued phase / count one slow tick
+    private static final StackTraceElement[] PHASE_MARKER = new StackTraceElement[0];
+    private static final StackTraceElement[] SLOW_TICK_MARKER = new StackTraceElement[0];
+    
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final long mainThreadId;
+    
+    // Settings for the current run
+    private volatile long intervalNanos = TimeUnit.MILLISECONDS.toNanos(5);
+    private volatile long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(50);
+    private volatile int maxDepth = 128;
+    
+    // Current tick buffer (guarded by itself)
+    private final StackTraceElement[][] tickSamples = new StackTraceElement[MAX_SAMPLES_PER_TICK][];
+    private int tickSampleCount = 0;
+    private volatile boolean tickInProgress = false;
+    
+    // Stacks from slow ticks waiting to be folded by the sampler thread
+    private final ConcurrentLinkedQueue<StackTraceElement[]> pendingStacks = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<String> pendingPhaseSwitches = new ConcurrentLinkedQueue<>();
+    
+    // Per-phase results (guarded by itself; folded on the sampler thread)
+    private final Map<String, PhaseAccumulator> phases = new LinkedHashMap<>();
+    private volatile String currentPhase;
+    private PhaseAccumulator foldingPhase;
+    
+    private volatile Thread samplerThread;
+    private volatile boolean running = false;
+    
+    /**
+     * @param mainThreadId Id of the server thread to sample
+     */
+    public StallSampler(long mainThreadId) {
+        this.mainThreadId = mainThreadId;
+    }
+    
+    /**
+     * Clear previous results and start sampling
+     * @param intervalMs Sampling interval while a tick is in progress
+     * @param thresholdMs Ticks longer than this keep their stacks
+     * @param maxDepth Maximum captured stack depth
+     */
+    public synchronized void start(int intervalMs, double thresholdMs, int maxDepth) {
+        stop();
+        
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, intervalMs));
+        this.thresholdNanos = (long) (thresholdMs * 1_000_000L);
+        this.maxDepth = Math.max(8, maxDepth);
+        synchronized (phases) {
+            phases.clear();
+            foldingPhase = null;
+        }
+        pendingStacks.clear();
+        pendingPhaseSwitches.clear();
+        currentPhase = null;
+        
+        running = true;
+        samplerThread = new Thread(this::samplingLoop, "MCBench-Stall-Sampler");
+        samplerThread.setDaemon(true);
+        samplerThread.start();
+    }
+    
+    /**
+     * Stop sampling and fold any remaining stacks
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        
+        running = false;
+        tickInProgress = false;
+        LockSupport.unpark(samplerThread);
+        try {
+            samplerThread.join(1000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        samplerThread = null;
+        foldPending();
+        currentPhase = null;
+    }
+    
+    /**
+     * Attribute subsequent slow ticks to the given phase
+     * @param phase Phase name (e.g. "workload", "recovery"), or null to pause attribution
+     */
+    public void setPhase(String phase) {
+        currentPhase = phase;
+        if (running) {
+            pendingPhaseSwitches.add(phase != null ? phase : "");
+            pendingStacks.add(PHASE_MARKER);
+        }
+    }
+    
+    /**
+     * Called from the server thread when a tick starts
+     */
+    void onTickStart() {
+        if (!running || currentPhase == null) {
+            return;
+        }
+        synchronized (tickSamples) {
+            tickSampleCount = 0;
+        }
+        tickInProgress = true;
+        LockSupport.unpark(samplerThread);
+    }
+    
+    /**
+     * Called from the server thread when a tick ends
+     * @param durationNanos Tick duration
+     */
+    void onTickEnd(long durationNanos) {
+        if (!tickInProgress) {
+            return;
+        }
+        tickInProgress = false;
+        
+        synchronized (tickSamples) {
+            if (durationNanos >= thresholdNanos && tickSampleCount > 0) {
+                for (int i = 0; i < tickSampleCount; i++) {
+                    pendingStacks.add(tickSamples[i]);
+                    tickSamples[i] = null;
+                }
+                pendingStacks.add(SLOW_TICK_MARKER);
+            }
+            tickSampleCount = 0;
+        }
+    }
+    
+    /**
+     * Sampler thread body: capture while a tick is running, fold pending stacks otherwise
+     */
+    private void samplingLoop() {
+        while (running) {
+            if (tickInProgress) {
+                ThreadInfo info = threadMXBean.getThreadInfo(mainThreadId, maxDepth);
+                if (info != null && tickInProgress) {
+                    synchronized (tickSamples) {
+                        if (tickSampleCount < MAX_SAMPLES_PER_TICK) {
+                            tickSamples[tickSampleCount++] = info.getStackTrace();
+                        }
+                    }
+                }
+                LockSupport.parkNanos(intervalNanos);
+            } else {
+                foldPending();
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(20));
+            }
+        }
+    }
+    
+    /**
+     * Fold queued slow-tick stacks into the per-phase collapsed counts
+     */
+    private void foldPending() {
+        synchronized (phases) {
+            StackTraceElement[] stack;
+            while ((stack = pendingStacks.poll()) != null) {
+                if (stack == PHASE_MARKER) {
+                    String phase = pendingPhaseSwitches.poll();
+                    foldingPhase = phase == null || phase.isEmpty() ? null :
+                        phases.computeIfAbsent(phase, PhaseAccumulator::new);
+                } else if (foldingPhase == null) {
+                    continue;
+                } else if (stack == SLOW_TICK_MARKER) {
+                    foldingPhase.slowTicks++;
+                } else {
+                    foldingPhase.add(collapse(stack));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Render a stack root-first as "frame;frame;frame"
+     */
+    private static String collapse(StackTraceElement[] stack) {
+        StringBuilder sb = new StringBuilder(stack.length * 48);
+        for (int i = stack.length - 1; i >= 0; i--) {
+            if (sb.length() > 0) {
+                sb.append(';');
+            }
+            sb.append(stack[i].getClassName()).append('.').append(stack[i].getMethodName());
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Get collapsed stacks per phase from the current or last run
+     * @return Phase results in the order phases started; empty if nothing was slow
+     */
+    public List<PhaseProfile> getResults() {
+        foldPending();
+        List<PhaseProfile> results = new ArrayList<>();
+        synchronized (phases) {
+            for (PhaseAccumulator phase : phases.values()) {
+                if (phase.samples == 0L) {
+                    continue;
+                }
+                List<Map.Entry<String, Long>> sorted = new ArrayList<>(phase.stacks.entrySet());
+                sorted.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+                Map<String, Long> stacks = new LinkedHashMap<>();
+                for (Map.Entry<String, Long> entry : sorted) {
+                    stacks.put(entry.getKey(), entry.getValue());
+                }
+                results.add(new PhaseProfile(phase.name, phase.slowTicks, phase.samples, stacks));
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * Mutable per-phase counts (sampler thread only)
+     */
+    private static class PhaseAccumulator {
+        private final String name;
+        private final Map<String, Long> stacks = new HashMap<>();
+        private long slowTicks;
+        private long samples;
+        
+        private PhaseAccumulator(String name) {
+            this.name = name;
+        }
+        
+        private void add(String collapsed) {
+            samples++;
+            String key = stacks.containsKey(collapsed) || stacks.size() < MAX_DISTINCT_STACKS ? collapsed : "[other]";
+            stacks.merge(key, 1L, Long::sum);
+        }
+    }
+    
+    /**
+     * Collapsed stacks captured during slow ticks of one phase
+     */
+    public static class PhaseProfile {
+        private final String phase;
+        private final long slowTicks;
+        private final long samples;
+        private final Map<String, Long> stacks;
+        
+        public PhaseProfile(String phase, long slowTicks, long samples, Map<String, Long> stacks) {
+            this.phase = phase;
+            this.slowTicks = slowTicks;
+            this.samples = samples;
+            this.stacks = stacks;
+        }
+        
+        /**
+         * Get the leaf frame seen most often across all stacks
+         */
+        public String getHottestFrame() {
+            Map<String, Long> leaves = new HashMap<>();
+            for (Map.Entry<String, Long> entry : stacks.entrySet()) {
+                String stack = entry.getKey();
+                leaves.merge(stack.substring(stack.lastIndexOf(';') + 1), entry.getValue(), Long::sum);
+            }
+            return leaves.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse("unknown");
+        }
+        
+        /**
+         * Get samples whose leaf frame is the given frame
+         */
+        public long getLeafSamples(String frame) {
+            long count = 0L;
+            for (Map.Entry<String, Long> entry : stacks.entrySet()) {
+                if (entry.getKey().equals(frame) || entry.getKey().endsWith(";" + frame)) {
+                    count += entry.getValue();
+                }
+            }
+            return count;
+        }
+        
+        /**
+         * Render as collapsed-stack lines ("frame;frame;frame count") for flame graph tools
+         */
+        public String toCollapsed() {
+            StringBuilder sb = new StringBuilder();
+            for (Map.Entry<String, Long> entry : stacks.entrySet()) {
+                sb.append(entry.getKey()).append(' ').append(entry.getValue()).append('\n');
+            }
+            return sb.toString();
+        }
+        
+        // Getters
+        public String getPhase() { return phase; }
+        public long getSlowTicks() { return slowTicks; }
+        public long getSamples() { return samples; }
+        public Map<String, Long> getStacks() { return stacks; }
+    }
+}
@@ -0,0 +1,367 @@
+package online.chatchai.github.mcbench.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-thread CPU and allocation accounting for MCBench Pro
+ * Each interval reads CPU time and allocated bytes for every live thread in two bulk calls,
+ * turns them into deltas and sums them per thread group (main thread, Netty IO, chunk system,
+ * async scheduler, benchmark workers, other). Keeps the latest group sample, which the run
+ * time series records every interval, and per-run totals per group and per thread for the report.
+ */
+public class ThreadAccounting {
+    
+    /**
+     * Thread groups, classified by thread name
+     */
+    public enum ThreadCategory {
+        MAIN("Main thread"),
+        NETTY("Netty IO"),
+        CHUNK_SYSTEM("Chunk system"),
+        ASYNC_SCHEDULER("Async scheduler"),
+        BENCHMARK("MCBench workers"),
+        OTHER("Other");
+        
+        private final String label;
+        
+        ThreadCategory(String label) {
+            this.label = label;
+        }
+        
+        public String getLabel() {
+            return label;
+        }
+    }
+    
+    private static final int GROUP_COUNT = ThreadCategory.values().length;
+    
+    private final com.sun.management.ThreadMXBean threadMXBean;
+    private final long mainThreadId;
+    
+    // Per-thread state from the previous interval
+    private Map<Long, ThreadState> threads = new HashMap<>();
+    private long lastSampleNanos = 0L;
+    
+    // Totals since startRun()
+    private final long[] runCpuNanos = new long[GROUP_COUNT];
+    private final long[] runAllocatedBytes = new long[GROUP_COUNT];
+    private final List<ThreadState> endedThreads = new ArrayList<>();
+    private long runStartNanos = 0L;
+    private long runEndNanos = 0L;
+    private boolean runActive = false;
+    
+    private volatile List<GroupUsage> latest = new ArrayList<>();
+    
+    public ThreadAccounting(long mainThreadId) {
+        this.mainThreadId = mainThreadId;
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean && bean.isThreadCpuTimeSupported()) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (!sunBean.isThreadCpuTimeEnabled()) {
+                sunBean.setThreadCpuTimeEnabled(true);
+            }
+            this.threadMXBean = sunBean;
+        } else {
+            this.threadMXBean = null;
+        }
+    }
+    
+    /**
+     * Check whether per-thread CPU time is available on this JVM
+     */
+    public boolean isSupported() {
+        return threadMXBean != null;
+    }
+    
+    /**
+     * Take one sample of every live thread (called on the sampler executor)
+     */
+    public synchronized void sample() {
+        if (threadMXBean == null) {
+            return;
+        }
+        
+        long now = System.nanoTime();
+        long[] ids = threadMXBean.getAllThreadIds();
+        long[] cpuTimes = threadMXBean.getThreadCpuTime(ids);
+        long[] allocated = threadMXBean.isThreadAllocatedMemoryEnabled() ?
+            threadMXBean.getThreadAllocatedBytes(ids) : null;
+        
+        // Resolve names only for threads seen for the first time
+        List<Long> unknown = new ArrayList<>();
+        for (long id : ids) {
+            if (!threads.containsKey(id)) {
+                unknown.add(id);
+            }
+        }
+        Map<Long, String> newNames = new HashMap<>();
+        if (!unknown.isEmpty()) {
+            long[] unknownIds = unknown.stream().mapToLong(Long::longValue).toArray();
+            for (ThreadInfo info : threadMXBean.getThreadInfo(unknownIds, 0)) {
+                if (info != null) {
+                    newNames.put(info.getThreadId(), info.getThreadName());
+                }
+            }
+        }
+        
+        long[] groupCpu = new long[GROUP_COUNT];
+        long[] groupBytes = new long[GROUP_COUNT];
+        int[] groupThreads = new int[GROUP_COUNT];
+        Map<Long, ThreadState> current = new HashMap<>(ids.length * 2);
+        
+        for (int i = 0; i < ids.length; i++) {
+            if (cpuTimes[i] < 0) {
+                continue;
+            }
+            
+            ThreadState previous = threads.get(ids[i]);
+            ThreadState state;
+            if (previous != null) {
+                state = previous;
+            } else {
+                String name = newNames.get(ids[i]);
+                if (name == null) {
+                    continue;
+                }
+                state = new ThreadState(name, classify(ids[i], name));
+            }
+            
+            // A thread first seen after the initial sample started since then, so all of its usage counts
+            long bytes = allocated != null ? allocated[i] : 0L;
+            long cpuBase = previous != null ? previous.cpuNanos : 0L;
+            long bytesBase = previous != null ? previous.allocatedBytes : 0L;
+            boolean counted = previous != null || lastSampleNanos > 0L;
+            long cpuDelta = counted ? Math.max(0L, cpuTimes[i] - cpuBase) : 0L;
+            long bytesDelta = counted ? Math.max(0L, bytes - bytesBase) : 0L;
+            state.cpuNanos = cpuTimes[i];
+            state.allocatedBytes = bytes;
+            if (runActive) {
+                state.runCpuNanos += cpuDelta;
+                state.runAllocatedBytes += bytesDelta;
+            }
+            current.put(ids[i], state);
+            
+            int group = state.category.ordinal();
+            groupCpu[group] += cpuDelta;
+            groupBytes[group] += bytesDelta;
+            groupThreads[group]++;
+        }
+        
+        // Threads that ended keep their run totals until the run summary is built
+        if (runActive) {
+            for (Map.Entry<Long, ThreadState> entry : threads.entrySet()) {
+                if (!current.containsKey(entry.getKey()) && entry.getValue().runCpuNanos > 0L) {
+                    endedThreads.add(entry.getValue());
+                }
+            }
+        }
+        threads = current;
+        
+        if (lastSampleNanos > 0L) {
+            double seconds = (now - lastSampleNanos) / 1_000_000_000.0;
+            List<GroupUsage> usage = new ArrayList<>(GROUP_COUNT);
+            for (ThreadCategory group : ThreadCategory.values()) {
+                int g = group.ordinal();
+                double cpuPercent = groupCpu[g] / 1_000_000_000.0 / seconds * 100.0;
+                double allocationMb = groupBytes[g] / 1024.0 / 1024.0 / seconds;
+                usage.add(new GroupUsage(group, groupThreads[g], cpuPercent, allocationMb));
+                if (runActive) {
+                    runCpuNanos[g] += groupCpu[g];
+                    runAllocatedBytes[g] += groupBytes[g];
+                }
+            }
+            latest = usage;
+        }
+        lastSampleNanos = now;
+    }
+    
+    /**
+     * Assign a thread to a group by id and name
+     */
+    private ThreadCategory classify(long id, String name) {
+        if (id == mainThreadId) {
+            return ThreadCategory.MAIN;
+        }
+        if (name.contains("Netty")) {
+            return ThreadCategory.NETTY;
+        }
+        if (name.contains("Chunk") || name.startsWith("Worker-Main") || name.contains("Region")
+                || name.startsWith("C2ME")) {
+            return ThreadCategory.CHUNK_SYSTEM;
+        }
+        if (name.startsWith("Craft Scheduler") || name.contains("Async Task") || name.contains("Async Scheduler")) {
+            return ThreadCategory.ASYNC_SCHEDULER;
+        }
+        if (name.startsWith("MCBench-")) {
+            return ThreadCategory.BENCHMARK;
+        }
+        return ThreadCategory.OTHER;
+    }
+    
+    /**
+     * Start accumulating run totals
+     */
+    public synchronized void startRun() {
+        for (int g = 0; g < GROUP_COUNT; g++) {
+            runCpuNanos[g] = 0L;
+            runAllocatedBytes[g] = 0L;
+        }
+        for (ThreadState state : threads.values()) {
+            state.runCpuNanos = 0L;
+            state.runAllocatedBytes = 0L;
+        }
+        endedThreads.clear();
+        runStartNanos = System.nanoTime();
+        runEndNanos = 0L;
+        runActive = true;
+    }
+    
+    /**
+     * Stop accumulating run totals
+     */
+    public synchronized void stopRun() {
+        if (runActive) {
+            runEndNanos = System.nanoTime();
+            runActive = false;
+        }
+    }
+    
+    /**
+     * Get per-group usage over the most recent interval
+     */
+    public List<GroupUsage> getLatest() {
+        return latest;
+    }
+    
+    /**
+     * Build the run summary: totals per group and the top individual threads by CPU
+     * @param topThreads Number of threads to list
+     * @return Summary, or null if no run was accounted
+     */
+    public synchronized RunSummary summarizeRun(int topThreads) {
+        if (runStartNanos == 0L || threadMXBean == null) {
+            return null;
+        }
+        
+        double seconds = Math.max(0.001, ((runEndNanos > 0L ? runEndNanos : System.nanoTime()) - runStartNanos) / 1_000_000_000.0);
+        List<GroupUsage> groups = new ArrayList<>();
+        for (ThreadCategory group : ThreadCategory.values()) {
+            int g = group.ordinal();
+            int count = 0;
+            for (ThreadState state : threads.values()) {
+                if (state.category == group) {
+                    count++;
+                }
+            }
+            groups.add(new GroupUsage(group, count,
+                runCpuNanos[g] / 1_000_000_000.0 / seconds * 100.0,
+                runAllocatedBytes[g] / 1024.0 / 1024.0 / seconds));
+        }
+        groups.sort((a, b) -> Double.compare(b.getCpuPercent(), a.getCpuPercent()));
+        
+        List<ThreadState> candidates = new ArrayList<>(threads.values());
+        candidates.addAll(endedThreads);
+        candidates.sort((a, b) -> Long.compare(b.runCpuNanos, a.runCpuNanos));
+        List<ThreadUsage> top = new ArrayList<>();
+        for (int i = 0; i < Math.min(topThreads, candidates.size()); i++) {
+            ThreadState state = candidates.get(i);
+            if (state.runCpuNanos == 0L) {
+                break;
+            }
+            top.add(new ThreadUsage(state.name, state.category,
+                state.runCpuNanos / 1_000_000_000.0 / seconds * 100.0,
+                state.runAllocatedBytes / 1024.0 / 1024.0 / seconds));
+        }
+        
+        return new RunSummary(seconds, groups, top);
+    }
+    
+    /**
+     * Mutable per-thread counters
+     */
+    private static class ThreadState {
+        private final String name;
+        private final ThreadCategory category;
+        private long cpuNanos;
+        private long allocatedBytes;
+        private long runCpuNanos;
+        private long runAllocatedBytes;
+        
+        private ThreadState(String name, ThreadCategory category) {
+            this.name = name;
+            this.category = category;
+        }
+    }
+    
+    /**
+     * CPU and allocation of one thread group
+     * CPU is a percentage of one core (200% = two cores fully busy).
+     */
+    public static class GroupUsage {
+        private final ThreadCategory category;
+        private final int threads;
+        private final double cpuPercent;
+        private final double allocationMbPerSecond;
+        
+        public GroupUsage(ThreadCategory category, int threads, double cpuPercent, double allocationMbPerSecond) {
+            this.category = category;
+            this.threads = threads;
+            this.cpuPercent = cpuPercent;
+            this.allocationMbPerSecond = allocationMbPerSecond;
+        }
+        
+        // Getters
+        public ThreadCategory getCategory() { return category; }
+        public int getThreads() { return threads; }
+        public double getCpuPercent() { return cpuPercent; }
+        public double getAllocationMbPerSecond() { return allocationMbPerSecond; }
+    }
+    
+    /**
+     * CPU and allocation of one thread over a run
+     */
+    public static class ThreadUsage {
+        private final String name;
+        private final ThreadCategory category;
+        private final double cpuPercent;
+        private final double allocationMbPerSecond;
+        
+        public ThreadUsage(String name, ThreadCategory category, double cpuPercent, double allocationMbPerSecond) {
+            this.name = name;
+            this.category = category;
+            this.cpuPercent = cpuPercent;
+            this.allocationMbPerSecond = allocationMbPerSecond;
+        }
+        
+        // Getters
+        public String getName() { return name; }
+        public ThreadCategory getCategory() { return category; }
+        public double getCpuPercent() { return cpuPercent; }
+        public double getAllocationMbPerSecond() { return allocationMbPerSecond; }
+    }
+    
+    /**
+     * Thread usage over a benchmark run
+     */
+    public static class RunSummary {
+        private final double durationSeconds;
+        private final List<GroupUsage> groups;
+        private final List<ThreadUsage> topThreads;
+        
+        public RunSummary(double durationSeconds, List<GroupUsage> groups, List<ThreadUsage> topThreads) {
+            this.durationSeconds = durationSeconds;
+            this.groups = groups;
+            this.topThreads = topThreads;
+        }
+        
+        // Getters
+        public double getDurationSeconds() { return durationSeconds; }
+        public List<GroupUsage> getGroups() { return groups; }
+        public List<ThreadUsage> getTopThreads() { return topThreads; }
+    }
+}
@@ -0,0 +1,222 @@
+package online.chatchai.github.mcbench.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import online.chatchai.github.mcbench.util.Util;
+
+/**
+ * Lock-free, fixed-memory log-linear histogram for tick durations
+ * Each power-of-two range is split into 32 linear sub-buckets (~3% relative precision).
+ * Recording never allocates, so it is safe to call from the main thread every tick.
+ */
+public class TickHistogram {
+    
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final long MAX_TRACKABLE_MICROS = (1L << 31) - 1; // ~35 minutes
+    private static final int BUCKET_COUNT = indexFor(MAX_TRACKABLE_MICROS) + 1;
+    
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+    
+    /**
+     * Record a duration in nanoseconds
+     */
+    public void recordNanos(long nanos) {
+        recordMicros(nanos / 1000L);
+    }
+    
+    /**
+     * Record a duration in microseconds
+     */
+    public void recordMicros(long micros) {
+        long value = Math.max(0L, Math.min(micros, MAX_TRACKABLE_MICROS));
+        
+        counts.incrementAndGet(indexFor(value));
+        totalCount.incrementAndGet();
+        totalMicros.addAndGet(value);
+        
+        long currentMax;
+        while (value > (currentMax = maxMicros.get())) {
+            if (maxMicros.compareAndSet(currentMax, value)) {
+                break;
+            }
+        }
+    }
+    
+    /**
+     * Clear all recorded values
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0L);
+        }
+        totalCount.set(0L);
+        totalMicros.set(0L);
+        maxMicros.set(0L);
+    }
+    
+    /**
+     * Get number of recorded values
+     */
+    public long getCount() {
+        return totalCount.get();
+    }
+    
+    /**
+     * Get sum of all recorded values in microseconds
+     */
+    public long getTotalMicros() {
+        return totalMicros.get();
+    }
+    
+    /**
+     * Count recorded values at or below each bound in one pass, without allocating
+     * Bounds fall on bucket edges, so counts are accurate to the ~3% bucket width.
+     * @param boundsMicros Ascending upper bounds in microseconds
+     * @param cumulativeCounts Receives the count for each bound; must be as long as boundsMicros
+     * @return Total count over all buckets (consistent with the cumulative counts)
+     */
+    public long fillCumulativeCounts(long[] boundsMicros, long[] cumulativeCounts) {
+        long cumulative = 0L;
+        int bound = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            while (bound < boundsMicros.length && lowestValueAt(i) > boundsMicros[bound]) {
+                cumulativeCounts[bound++] = cumulative;
+            }
+            cumulative += counts.get(i);
+        }
+        while (bound < boundsMicros.length) {
+            cumulativeCounts[bound++] = cumulative;
+        }
+        return cumulative;
+    }
+    
+    /**
+     * Build a percentile summary from the current bucket counts
+     * @return Summary, or null if nothing was recorded
+     */
+    public Summary summarize() {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long count = 0L;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        
+        if (count == 0L) {
+            return null;
+        }
+        
+        long max = maxMicros.get();
+        return new Summary(
+            count,
+            totalMicros.get() / (double) count / 1000.0,
+            valueAtPercentile(snapshot, count, 50.0, max) / 1000.0,
+            valueAtPercentile(snapshot, count, 90.0, max) / 1000.0,
+            valueAtPercentile(snapshot, count, 95.0, max) / 1000.0,
+            valueAtPercentile(snapshot, count, 99.0, max) / 1000.0,
+            valueAtPercentile(snapshot, count, 99.9, max) / 1000.0,
+            max / 1000.0
+        );
+    }
+    
+    /**
+     * Find the representative value (in microseconds) at the given percentile
+     */
+    private static long valueAtPercentile(long[] snapshot, long count, double percentile, long max) {
+        long target = Math.max(1L, (long) Math.ceil(count * percentile / 100.0));
+        long cumulative = 0L;
+        
+        for (int i = 0; i < snapshot.length; i++) {
+            cumulative += snapshot[i];
+            if (cumulative >= target) {
+                return Math.min(max, (lowestValueAt(i) + highestValueAt(i)) / 2);
+            }
+        }
+        return max;
+    }
+    
+    /**
+     * Map a value to its bucket index
+     */
+    static int indexFor(long value) {
+        if (value < (SUB_BUCKET_COUNT << 1)) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+    
+    /**
+     * Lowest value that maps to the given bucket index
+     */
+    static long lowestValueAt(int index) {
+        if (index < (SUB_BUCKET_COUNT << 1)) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long top = (index & (SUB_BUCKET_COUNT - 1)) + SUB_BUCKET_COUNT;
+        return top << shift;
+    }
+    
+    /**
+     * Highest value that maps to the given bucket index
+     */
+    static long highestValueAt(int index) {
+        if (index < (SUB_BUCKET_COUNT << 1)) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long top = (index & (SUB_BUCKET_COUNT - 1)) + SUB_BUCKET_COUNT;
+        return ((top + 1) << shift) - 1;
+    }
+    
+    /**
+     * Percentile summary data class (all values in milliseconds)
+     */
+    public static class Summary {
+        private final long count;
+        private final double mean;
+        private final double p50;
+        private final double p90;
+        private final double p95;
+        private final double p99;
+        private final double p999;
+        private final double max;
+        
+        public Summary(long count, double mean, double p50, double p90, double p95,
+                      double p99, double p999, double max) {
+            this.count = count;
+            this.mean = mean;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p95 = p95;
+            this.p99 = p99;
+            this.p999 = p999;
+            this.max = max;
+        }
+        
+        // Getters
+        public long getCount() { return count; }
+        public double getMean() { return mean; }
+        public double getP50() { return p50; }
+        public double getP90() { return p90; }
+        public double getP95() { return p95; }
+        public double getP99() { return p99; }
+        public double getP999() { return p999; }
+        public double getMax() { return max; }
+        
+        /**
+         * Get formatted one-line percentile summary
+         */
+        public String getFormatted() {
+            return String.format("p50 %sms | p90 %sms | p99 %sms | p99.9 %sms | max %sms (%d ticks)",
+                Util.formatDecimal(p50), Util.formatDecimal(p90), Util.formatDecimal(p99),
+                Util.formatDecimal(p999), Util.formatDecimal(max), count);
+        }
+    }
+}
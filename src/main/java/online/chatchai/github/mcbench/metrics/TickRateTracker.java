@@ -0,0 +1,143 @@
+package online.chatchai.github.mcbench.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Tick-interval tracker for MCBench Pro
+ * Keeps the start time and duration of the last minute of ticks in a ring buffer and computes
+ * TPS and MSPT over short windows from those real timestamps. Unlike Bukkit.getTPS(), which is a
+ * one-minute exponential average, a window here reflects only the ticks inside it, so recovery
+ * is detected as soon as the server is actually stable again.
+ * Fed and queried on the main thread only.
+ */
+public class TickRateTracker {
+    
+    // One minute at 20 TPS
+    private static final int CAPACITY = 1200;
+    
+    private final long[] startNanos = new long[CAPACITY];
+    private final long[] durationNanos = new long[CAPACITY];
+    private final long[] scratch = new long[CAPACITY];
+    private int head = 0;
+    private int size = 0;
+    
+    /**
+     * Record a completed tick
+     * @param tickStartNanos System.nanoTime() at tick start
+     * @param tickDurationNanos Tick duration in nanoseconds
+     */
+    public void record(long tickStartNanos, long tickDurationNanos) {
+        startNanos[head] = tickStartNanos;
+        durationNanos[head] = tickDurationNanos;
+        head = (head + 1) % CAPACITY;
+        if (size < CAPACITY) {
+            size++;
+        }
+    }
+    
+    /**
+     * Forget all recorded ticks
+     */
+    public void reset() {
+        head = 0;
+        size = 0;
+    }
+    
+    /**
+     * Get TPS from the interval between the last two tick starts
+     * @return Ticks per second capped at 20, or 20 before two ticks were recorded
+     */
+    public double getInstantTps() {
+        if (size < 2) {
+            return 20.0;
+        }
+        long interval = startNanos[index(0)] - startNanos[index(1)];
+        return interval > 0 ? Math.min(20.0, 1_000_000_000.0 / interval) : 20.0;
+    }
+    
+    /**
+     * Get TPS over the ticks started within the window before the latest tick
+     * The interval leading into the window is included, so a stall longer than the window
+     * still shows up as a low rate.
+     * @param windowMillis Window length in milliseconds
+     * @return Ticks per second capped at 20, or 20 before two ticks were recorded
+     */
+    public double getTps(long windowMillis) {
+        int count = countInWindow(windowMillis);
+        int oldest = count < size ? count : count - 1;
+        if (oldest < 1) {
+            return 20.0;
+        }
+        long span = startNanos[index(0)] - startNanos[index(oldest)];
+        return span > 0 ? Math.min(20.0, oldest * 1_000_000_000.0 / span) : 20.0;
+    }
+    
+    /**
+     * Get mean tick duration over the window
+     * @param windowMillis Window length in milliseconds
+     * @return Mean MSPT, or 0 when no ticks were recorded
+     */
+    public double getMeanMspt(long windowMillis) {
+        int count = countInWindow(windowMillis);
+        if (count == 0) {
+            return 0.0;
+        }
+        long total = 0L;
+        for (int i = 0; i < count; i++) {
+            total += durationNanos[index(i)];
+        }
+        return total / (double) count / 1_000_000.0;
+    }
+    
+    /**
+     * Get a tick duration percentile over the window
+     * @param windowMillis Window length in milliseconds
+     * @param percentile Percentile (0-100)
+     * @return MSPT at the percentile, or 0 when no ticks were recorded
+     */
+    public double getMsptPercentile(long windowMillis, double percentile) {
+        int count = countInWindow(windowMillis);
+        if (count == 0) {
+            return 0.0;
+        }
+        for (int i = 0; i < count; i++) {
+            scratch[i] = durationNanos[index(i)];
+        }
+        Arrays.sort(scratch, 0, count);
+        int rank = (int) Math.ceil(count * percentile / 100.0) - 1;
+        return scratch[Math.max(0, Math.min(count - 1, rank))] / 1_000_000.0;
+    }
+    
+    /**
+     * Get time covered by the recorded ticks
+     * @return Milliseconds between the oldest and latest recorded tick start
+     */
+    public long getCoveredMillis() {
+        if (size < 2) {
+            return 0L;
+        }
+        return (startNanos[index(0)] - startNanos[index(size - 1)]) / 1_000_000L;
+    }
+    
+    /**
+     * Count recorded ticks that started within the window before the latest tick start
+     */
+    private int countInWindow(long windowMillis) {
+        if (size == 0) {
+            return 0;
+        }
+        long from = startNanos[index(0)] - windowMillis * 1_000_000L;
+        int count = 0;
+        while (count < size && startNanos[index(count)] >= from) {
+            count++;
+        }
+        return count;
+    }
+    
+    /**
+     * Map an age (0 = latest tick) to a ring index
+     */
+    private int index(int age) {
+        return (head - 1 - age + CAPACITY) % CAPACITY;
+    }
+}
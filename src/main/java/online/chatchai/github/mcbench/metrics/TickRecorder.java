@@ -0,0 +1,129 @@
+package online.chatchai.github.mcbench.metrics;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import com.destroystokyo.paper.event.server.ServerTickStartEvent;
+
+/**
+ * Per-tick duration recorder for MCBench Pro
+ * Timestamps every server tick via Paper's tick start/end events and writes the
+ * duration into whichever histogram is currently attached. Tick boundaries are also
+ * forwarded to the stall sampler. The time spent inside these handlers is accumulated so
+ * monitoring modes can report their own main-thread overhead.
+ */
+public class TickRecorder implements Listener {
+    
+    private final StallSampler stallSampler;
+    private volatile TickHistogram target;
+    private volatile long lastTickNanos = 0L;
+    private long tickStartNanos = 0L;
+    
+    // Written by the server thread only
+    private volatile long tickCount = 0L;
+    private volatile long overheadNanos = 0L;
+    
+    // Every tick since the plugin was enabled, and the last minute of tick timestamps
+    private final TickHistogram lifetimeTicks = new TickHistogram();
+    private final TickRateTracker rateTracker = new TickRateTracker();
+    private volatile double recentTps = 20.0;
+    
+    public TickRecorder(StallSampler stallSampler) {
+        this.stallSampler = stallSampler;
+    }
+    
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onTickStart(ServerTickStartEvent event) {
+        long start = System.nanoTime();
+        tickStartNanos = start;
+        stallSampler.onTickStart();
+        overheadNanos += System.nanoTime() - start;
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTickEnd(ServerTickEndEvent event) {
+        if (tickStartNanos == 0L) {
+            return;
+        }
+        
+        long end = System.nanoTime();
+        long duration = end - tickStartNanos;
+        lastTickNanos = duration;
+        stallSampler.onTickEnd(duration);
+        
+        TickHistogram histogram = target;
+        if (histogram != null) {
+            histogram.recordNanos(duration);
+        }
+        lifetimeTicks.recordNanos(duration);
+        rateTracker.record(tickStartNanos, duration);
+        
+        // Published for other threads once per second of ticks
+        if (++tickCount % 20 == 0) {
+            recentTps = rateTracker.getTps(1000L);
+        }
+        overheadNanos += System.nanoTime() - end;
+    }
+    
+    /**
+     * Start recording tick durations into the given histogram
+     * @param histogram Histogram receiving every subsequent tick
+     */
+    public void startRecording(TickHistogram histogram) {
+        this.target = histogram;
+    }
+    
+    /**
+     * Stop recording tick durations
+     */
+    public void stopRecording() {
+        this.target = null;
+    }
+    
+    /**
+     * Get duration of the most recently completed tick
+     * @return Tick duration in nanoseconds, 0 if no tick has completed yet
+     */
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+    
+    /**
+     * Get number of ticks completed since the plugin was enabled
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+    
+    /**
+     * Get histogram of every tick since the plugin was enabled (safe to read from any thread)
+     */
+    public TickHistogram getLifetimeTicks() {
+        return lifetimeTicks;
+    }
+    
+    /**
+     * Get tick rate over the last second, refreshed every 20 ticks (safe to read from any thread)
+     * @return Ticks per second, capped at 20
+     */
+    public double getRecentTps() {
+        return recentTps;
+    }
+    
+    /**
+     * Get tracker of recent tick timestamps (main thread only)
+     */
+    public TickRateTracker getRateTracker() {
+        return rateTracker;
+    }
+    
+    /**
+     * Get total time spent in this recorder's tick handlers
+     * @return Cumulative handler time in nanoseconds
+     */
+    public long getOverheadNanos() {
+        return overheadNanos;
+    }
+}
@@ -0,0 +1,512 @@
+package online.chatchai.github.mcbench.metrics;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Whole-run time series store for MCBench Pro
+ * Rows (timestamp plus one value per {@link Metric}) are appended to a Gorilla-style
+ * {@link CompressedSeries}, so a steady metric costs about one bit per sample and multi-hour
+ * soak runs fit in a few MB. When the encoded stream reaches the memory cap it is re-encoded
+ * with adjacent rows averaged, and later samples are averaged in groups of the same size so
+ * the store always covers the whole run at a uniform resolution. The re-encoding runs on a
+ * worker thread while new rows go to a fresh stream, which is appended to the result after.
+ */
+public class TimeSeriesStore {
+    
+    /**
+     * Recorded metrics, one column each
+     */
+    public enum Metric {
+        TPS("tps"),
+        MSPT("mspt"),
+        TICK_MS("tick_ms"),
+        SYSTEM_CPU("system_cpu"),
+        PROCESS_CPU("process_cpu"),
+        MAIN_THREAD_CPU("main_thread_cpu"),
+        MEMORY_PERCENT("memory_percent"),
+        USED_MEMORY_MB("used_memory_mb"),
+        HEAP_AFTER_GC_MB("heap_after_gc_mb"),
+        ALLOCATION_MB_PER_SEC("allocation_mb_per_sec"),
+        ENTITIES("entities"),
+        LOADED_CHUNKS("loaded_chunks"),
+        // CPU % of one core and MB/s allocated per thread group, in ThreadCategory order
+        THREADS_MAIN_CPU("threads_main_cpu"),
+        THREADS_MAIN_ALLOC("threads_main_alloc_mb_s"),
+        THREADS_NETTY_CPU("threads_netty_cpu"),
+        THREADS_NETTY_ALLOC("threads_netty_alloc_mb_s"),
+        THREADS_CHUNK_CPU("threads_chunk_cpu"),
+        THREADS_CHUNK_ALLOC("threads_chunk_alloc_mb_s"),
+        THREADS_ASYNC_CPU("threads_async_cpu"),
+        THREADS_ASYNC_ALLOC("threads_async_alloc_mb_s"),
+        THREADS_MCBENCH_CPU("threads_mcbench_cpu"),
+        THREADS_MCBENCH_ALLOC("threads_mcbench_alloc_mb_s"),
+        THREADS_OTHER_CPU("threads_other_cpu"),
+        THREADS_OTHER_ALLOC("threads_other_alloc_mb_s");
+        
+        private final String key;
+        
+        Metric(String key) {
+            this.key = key;
+        }
+        
+        public String getKey() {
+            return key;
+        }
+        
+        /**
+         * Get the CPU column of a thread group
+         */
+        public static Metric threadCpu(ThreadAccounting.ThreadCategory category) {
+            return METRICS[THREADS_MAIN_CPU.ordinal() + category.ordinal() * 2];
+        }
+        
+        /**
+         * Get the allocation rate column of a thread group
+         */
+        public static Metric threadAllocation(ThreadAccounting.ThreadCategory category) {
+            return METRICS[THREADS_MAIN_ALLOC.ordinal() + category.ordinal() * 2];
+        }
+    }
+    
+    // Persisted series file header
+    private static final int FILE_MAGIC = 0x4D435453; // "MCTS"
+    private static final int FILE_VERSION = 3;
+    
+    private static final Metric[] METRICS = Metric.values();
+    private static final int METRIC_COUNT = METRICS.length;
+    
+    // Values are rounded to 1/1024 so averaged samples keep short mantissas and XOR-encode well
+    private static final double QUANTUM = 1024.0;
+    
+    private final long maxBytes;
+    private CompressedSeries data = new CompressedSeries(METRIC_COUNT);
+    
+    // Older rows being compacted on a worker (null when idle); data holds the rows recorded since
+    private CompressedSeries sealed;
+    private int generation = 0;
+    
+    // Incoming samples averaged into one row once the store has been compacted
+    private int samplesPerRow = 1;
+    private final double[] pendingSums = new double[METRIC_COUNT];
+    private long pendingTimestamp = 0L;
+    private int pendingCount = 0;
+    
+    private long sampleIntervalMillis = 0L;
+    private final List<Marker> markers = new ArrayList<>();
+    
+    /**
+     * @param maxBytes Memory cap for the encoded stream
+     */
+    public TimeSeriesStore(long maxBytes) {
+        this.maxBytes = Math.max(64 * 1024, maxBytes);
+    }
+    
+    /**
+     * Clear all samples and markers
+     * @param sampleIntervalMillis Nominal interval between samples, used for reporting
+     */
+    public synchronized void reset(long sampleIntervalMillis) {
+        this.sampleIntervalMillis = sampleIntervalMillis;
+        data = new CompressedSeries(METRIC_COUNT);
+        sealed = null;
+        generation++;
+        samplesPerRow = 1;
+        pendingCount = 0;
+        Arrays.fill(pendingSums, 0.0);
+        markers.clear();
+    }
+    
+    /**
+     * Append one sample
+     * @param timestamp Sample time in epoch milliseconds
+     * @param values One value per {@link Metric}, in declaration order
+     */
+    public synchronized void record(long timestamp, double... values) {
+        if (pendingCount == 0) {
+            pendingTimestamp = timestamp;
+        }
+        for (int m = 0; m < METRIC_COUNT; m++) {
+            pendingSums[m] += m < values.length ? values[m] : Double.NaN;
+        }
+        pendingCount++;
+        
+        if (pendingCount < samplesPerRow) {
+            return;
+        }
+        
+        for (int m = 0; m < METRIC_COUNT; m++) {
+            pendingSums[m] = quantize(pendingSums[m] / pendingCount);
+        }
+        data.append(pendingTimestamp, pendingSums);
+        Arrays.fill(pendingSums, 0.0);
+        pendingCount = 0;
+        
+        if (sealed == null && data.getAllocatedBytes() > maxBytes) {
+            startCompaction();
+        }
+    }
+    
+    /**
+     * Halve resolution: seal the stream, average its row pairs on a worker and double the samples per row
+     * Rows recorded meanwhile already use the new resolution and are moved behind the compacted rows.
+     */
+    private void startCompaction() {
+        CompressedSeries source = data;
+        int startedGeneration = generation;
+        sealed = source;
+        data = new CompressedSeries(METRIC_COUNT);
+        samplesPerRow *= 2;
+        
+        CompletableFuture.supplyAsync(() -> compact(source)).thenAccept(compacted -> {
+            synchronized (this) {
+                if (generation != startedGeneration || sealed != source) {
+                    return;
+                }
+                appendRows(data, compacted);
+                data = compacted;
+                sealed = null;
+            }
+        });
+    }
+    
+    /**
+     * Re-encode a sealed stream with each pair of rows averaged
+     */
+    private static CompressedSeries compact(CompressedSeries source) {
+        CompressedSeries compacted = new CompressedSeries(METRIC_COUNT);
+        double[] row = new double[METRIC_COUNT];
+        CompressedSeries.Cursor cursor = source.cursor();
+        while (cursor.next()) {
+            long timestamp = cursor.getTimestamp();
+            for (int m = 0; m < METRIC_COUNT; m++) {
+                row[m] = cursor.getValue(m);
+            }
+            if (cursor.next()) {
+                for (int m = 0; m < METRIC_COUNT; m++) {
+                    row[m] = quantize((row[m] + cursor.getValue(m)) / 2.0);
+                }
+            }
+            compacted.append(timestamp, row);
+        }
+        return compacted;
+    }
+    
+    /**
+     * Copy every row of one stream onto the end of another
+     */
+    private static void appendRows(CompressedSeries from, CompressedSeries to) {
+        double[] row = new double[METRIC_COUNT];
+        CompressedSeries.Cursor cursor = from.cursor();
+        while (cursor.next()) {
+            for (int m = 0; m < METRIC_COUNT; m++) {
+                row[m] = cursor.getValue(m);
+            }
+            to.append(cursor.getTimestamp(), row);
+        }
+    }
+    
+    private static double quantize(double value) {
+        return Double.isNaN(value) ? value : Math.rint(value * QUANTUM) / QUANTUM;
+    }
+    
+    /**
+     * Mark the start of a phase (e.g. "workload", "recovery")
+     */
+    public synchronized void mark(String label) {
+        markers.add(new Marker(System.currentTimeMillis(), label));
+    }
+    
+    /**
+     * Get heap used by the encoded stream in bytes
+     */
+    public synchronized long getMemoryBytes() {
+        return data.getAllocatedBytes() + (sealed != null ? sealed.getAllocatedBytes() : 0L);
+    }
+    
+    /**
+     * Copy the current contents into an immutable series
+     */
+    public synchronized Series snapshot() {
+        CompressedSeries copy;
+        if (sealed != null) {
+            // Mid-compaction: join the sealed rows and the rows recorded since
+            copy = sealed.copy();
+            appendRows(data, copy);
+        } else {
+            copy = data.copy();
+        }
+        return new Series(copy, new ArrayList<>(markers), sampleIntervalMillis * samplesPerRow);
+    }
+    
+    /**
+     * Phase boundary marker
+     */
+    public static class Marker {
+        private final long timestamp;
+        private final String label;
+        
+        public Marker(long timestamp, String label) {
+            this.timestamp = timestamp;
+            this.label = label;
+        }
+        
+        // Getters
+        public long getTimestamp() { return timestamp; }
+        public String getLabel() { return label; }
+    }
+    
+    /**
+     * Immutable copy of a recorded time series
+     * Values are decoded on demand; statistics are computed once per phase and cached.
+     */
+    public static class Series {
+        private final CompressedSeries data;
+        private final List<Marker> markers;
+        private final long intervalMillis;
+        private final Map<String, Stats[]> statsByPhase = new ConcurrentHashMap<>();
+        
+        public Series(CompressedSeries data, List<Marker> markers, long intervalMillis) {
+            this.data = data;
+            this.markers = markers;
+            this.intervalMillis = intervalMillis;
+        }
+        
+        /**
+         * Get the phase a timestamp falls into, or "baseline" before the first marker
+         */
+        public String getPhaseAt(long timestamp) {
+            String phase = "baseline";
+            for (Marker marker : markers) {
+                if (marker.getTimestamp() <= timestamp) {
+                    phase = marker.getLabel();
+                }
+            }
+            return phase;
+        }
+        
+        /**
+         * Get the time range covered by a phase
+         * @return {start, end} in epoch milliseconds, or null if the phase never started
+         */
+        public long[] getPhaseRange(String phase) {
+            for (int i = 0; i < markers.size(); i++) {
+                if (markers.get(i).getLabel().equals(phase)) {
+                    long end = i + 1 < markers.size() ? markers.get(i + 1).getTimestamp() : Long.MAX_VALUE;
+                    return new long[] {markers.get(i).getTimestamp(), end};
+                }
+            }
+            return null;
+        }
+        
+        /**
+         * Get the values of one metric within a time range, skipping missing values
+         */
+        public double[] getValues(Metric metric, long from, long to) {
+            return decodeRange(from, to)[metric.ordinal()];
+        }
+        
+        /**
+         * Decode every metric within a time range in one pass, skipping missing values
+         */
+        private double[][] decodeRange(long from, long to) {
+            double[][] values = new double[METRIC_COUNT][Math.min(data.size(), 1024)];
+            int[] counts = new int[METRIC_COUNT];
+            CompressedSeries.Cursor cursor = data.cursor();
+            while (cursor.next()) {
+                long timestamp = cursor.getTimestamp();
+                if (timestamp < from) {
+                    continue;
+                }
+                if (timestamp >= to) {
+                    break;
+                }
+                for (int m = 0; m < METRIC_COUNT; m++) {
+                    double value = cursor.getValue(m);
+                    if (value >= 0 && !Double.isNaN(value)) {
+                        if (counts[m] == values[m].length) {
+                            values[m] = Arrays.copyOf(values[m], values[m].length * 2);
+                        }
+                        values[m][counts[m]++] = value;
+                    }
+                }
+            }
+            for (int m = 0; m < METRIC_COUNT; m++) {
+                values[m] = Arrays.copyOf(values[m], counts[m]);
+            }
+            return values;
+        }
+        
+        /**
+         * Get summary statistics for one metric within a phase
+         * @param phase Phase label, or null for the whole series
+         * @return Stats, or null if the phase has no samples of that metric
+         */
+        public Stats getStats(Metric metric, String phase) {
+            long[] range = phase != null ? getPhaseRange(phase) : new long[] {Long.MIN_VALUE, Long.MAX_VALUE};
+            if (range == null) {
+                return null;
+            }
+            Stats[] stats = statsByPhase.computeIfAbsent(phase != null ? phase : "", key -> {
+                double[][] values = decodeRange(range[0], range[1]);
+                Stats[] computed = new Stats[METRIC_COUNT];
+                for (int m = 0; m < METRIC_COUNT; m++) {
+                    computed[m] = computeStats(values[m]);
+                }
+                return computed;
+            });
+            return stats[metric.ordinal()];
+        }
+        
+        private Stats computeStats(double[] values) {
+            if (values.length == 0) {
+                return null;
+            }
+            
+            double sum = 0.0;
+            double sumTime = 0.0;
+            double sumTimeSquared = 0.0;
+            double sumTimeValue = 0.0;
+            for (int i = 0; i < values.length; i++) {
+                double t = i * intervalMillis / 60_000.0;
+                sum += values[i];
+                sumTime += t;
+                sumTimeSquared += t * t;
+                sumTimeValue += t * values[i];
+            }
+            double n = values.length;
+            double denominator = n * sumTimeSquared - sumTime * sumTime;
+            double slopePerMinute = denominator != 0.0 ? (n * sumTimeValue - sumTime * sum) / denominator : 0.0;
+            
+            double[] sorted = values.clone();
+            Arrays.sort(sorted);
+            return new Stats(values.length, sorted[0], sum / n, sorted[(int) Math.min(sorted.length - 1, Math.ceil(0.95 * n) - 1)],
+                sorted[sorted.length - 1], values[0], values[values.length - 1], slopePerMinute);
+        }
+        
+        /**
+         * Get fraction of samples in a phase where a metric exceeds a threshold
+         */
+        public double getFractionAbove(Metric metric, String phase, double threshold) {
+            long[] range = getPhaseRange(phase);
+            if (range == null) {
+                return 0.0;
+            }
+            double[] values = getValues(metric, range[0], range[1]);
+            if (values.length == 0) {
+                return 0.0;
+            }
+            int above = 0;
+            for (double value : values) {
+                if (value > threshold) {
+                    above++;
+                }
+            }
+            return above / (double) values.length;
+        }
+        
+        /**
+         * Read rows in order without decoding the whole series
+         */
+        public CompressedSeries.Cursor cursor() {
+            return data.cursor();
+        }
+        
+        /**
+         * Write the series in its compressed form
+         * Layout: "MCTS", version, metric keys, interval, markers, then the encoded stream.
+         */
+        public void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(FILE_MAGIC);
+            out.writeShort(FILE_VERSION);
+            out.writeShort(METRIC_COUNT);
+            for (Metric metric : Metric.values()) {
+                out.writeUTF(metric.getKey());
+            }
+            out.writeLong(intervalMillis);
+            out.writeInt(markers.size());
+            for (Marker marker : markers) {
+                out.writeLong(marker.getTimestamp());
+                out.writeUTF(marker.getLabel());
+            }
+            data.writeTo(out);
+        }
+        
+        /**
+         * Read a series written by {@link #writeTo(DataOutputStream)}
+         */
+        public static Series readFrom(DataInputStream in) throws IOException {
+            if (in.readInt() != FILE_MAGIC || in.readShort() != FILE_VERSION) {
+                throw new IOException("Not an MCBench time series file");
+            }
+            int metricCount = in.readShort();
+            for (int m = 0; m < metricCount; m++) {
+                String key = in.readUTF();
+                if (m >= METRIC_COUNT || !Metric.values()[m].getKey().equals(key)) {
+                    throw new IOException("Unexpected metric column: " + key);
+                }
+            }
+            long intervalMillis = in.readLong();
+            int markerCount = in.readInt();
+            List<Marker> markers = new ArrayList<>();
+            for (int i = 0; i < markerCount; i++) {
+                markers.add(new Marker(in.readLong(), in.readUTF()));
+            }
+            CompressedSeries data = CompressedSeries.readFrom(in);
+            if (data.getColumns() != METRIC_COUNT) {
+                throw new IOException("Column count mismatch: " + data.getColumns());
+            }
+            return new Series(data, markers, intervalMillis);
+        }
+        
+        public int size() { return data.size(); }
+        
+        // Getters
+        public List<Marker> getMarkers() { return markers; }
+        public long getIntervalMillis() { return intervalMillis; }
+        public long getEncodedBytes() { return data.getEncodedBytes(); }
+    }
+    
+    /**
+     * Summary statistics of one metric over a phase
+     */
+    public static class Stats {
+        private final int count;
+        private final double min;
+        private final double mean;
+        private final double p95;
+        private final double max;
+        private final double first;
+        private final double last;
+        private final double slopePerMinute;
+        
+        public Stats(int count, double min, double mean, double p95, double max,
+                    double first, double last, double slopePerMinute) {
+            this.count = count;
+            this.min = min;
+            this.mean = mean;
+            this.p95 = p95;
+            this.max = max;
+            this.first = first;
+            this.last = last;
+            this.slopePerMinute = slopePerMinute;
+        }
+        
+        // Getters
+        public int getCount() { return count; }
+        public double getMin() { return min; }
+        public double getMean() { return mean; }
+        public double getP95() { return p95; }
+        public double getMax() { return max; }
+        public double getFirst() { return first; }
+        public double getLast() { return last; }
+        public double getSlopePerMinute() { return slopePerMinute; }
+    }
+}
@@ -0,0 +1,67 @@
+package online.chatchai.github.mcbench.monitor;
+
+/**
+ * JMX interface for driving benchmarks
+ * Registered as online.chatchai.github.mcbench:type=BenchmarkControl when jmx.enabled is set.
+ * Operations run on the main thread and return once it has handled them; invalid requests
+ * throw IllegalArgumentException or IllegalStateException with a readable message.
+ */
+public interface BenchmarkControlMXBean {
+    
+    /**
+     * Get current benchmark state (IDLE, PREPARING, WARMUP, WORKLOAD, RECOVERY, REPORTING)
+     */
+    String getState();
+    
+    /**
+     * Get profile of the pending or running benchmark, or null
+     */
+    String getProfile();
+    
+    /**
+     * Get workload mode (FIXED, CAPACITY, ADAPTIVE)
+     */
+    String getWorkloadMode();
+    
+    boolean isAwaitingConfirmation();
+    
+    boolean isSafeMode();
+    
+    /**
+     * Get completion of the workload phase in percent, or -1 outside the workload phase
+     */
+    double getPhaseProgress();
+    
+    /**
+     * Get profiles defined in config.yml
+     */
+    String[] getAvailableProfiles();
+    
+    /**
+     * Request a benchmark; it starts after {@link #confirm()}, like /mcbench start
+     * @param profile Profile name
+     * @param mode FIXED, CAPACITY or ADAPTIVE
+     * @param safeMode Kick players and clear inventories before the run
+     * @param bypassRam Skip the profile's minimum RAM check (logged to runs.log)
+     * @return true if the confirmation countdown started
+     */
+    boolean start(String profile, String mode, boolean safeMode, boolean bypassRam);
+    
+    /**
+     * Confirm the pending benchmark
+     * @return false if nothing was awaiting confirmation
+     */
+    boolean confirm();
+    
+    /**
+     * Cancel a pending confirmation
+     * @return false if nothing was awaiting confirmation
+     */
+    boolean cancel();
+    
+    /**
+     * Stop the running benchmark (an aborted report is written) or cancel a pending one
+     * @return false if no benchmark was pending or running
+     */
+    boolean stop();
+}
@@ -0,0 +1,315 @@
+package online.chatchai.github.mcbench.monitor;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.bukkit.Bukkit;
+
+import online.chatchai.github.mcbench.Main;
+import online.chatchai.github.mcbench.benchmark.BenchmarkManager;
+import online.chatchai.github.mcbench.config.ConfigManager;
+import online.chatchai.github.mcbench.metrics.MetricSampler;
+import online.chatchai.github.mcbench.metrics.TickHistogram;
+import online.chatchai.github.mcbench.util.RunLogger;
+import online.chatchai.github.mcbench.verification.RAMVerifier;
+
+/**
+ * Registers the MCBench Pro MBeans on the platform MBean server
+ * Lets JMX tooling drive benchmarks and read structured metrics instead of parsing console output.
+ * Control operations are handed to the main thread, which also runs the command handlers.
+ */
+public class JmxManager {
+    
+    private static final String DOMAIN = "online.chatchai.github.mcbench";
+    private static final long OPERATION_TIMEOUT_SECONDS = 10L;
+    
+    private final Main plugin;
+    private final ConfigManager configManager;
+    private final MetricSampler metricSampler;
+    private final BenchmarkManager benchmarkManager;
+    private final SoakMonitor soakMonitor;
+    
+    private ObjectName controlName;
+    private ObjectName metricsName;
+    
+    public JmxManager(Main plugin, ConfigManager configManager, MetricSampler metricSampler,
+                      BenchmarkManager benchmarkManager, SoakMonitor soakMonitor) {
+        this.plugin = plugin;
+        this.configManager = configManager;
+        this.metricSampler = metricSampler;
+        this.benchmarkManager = benchmarkManager;
+        this.soakMonitor = soakMonitor;
+    }
+    
+    /**
+     * Register both MBeans, replacing any left over from a previous plugin instance
+     */
+    public void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            controlName = new ObjectName(DOMAIN + ":type=BenchmarkControl");
+            metricsName = new ObjectName(DOMAIN + ":type=LiveMetrics");
+            
+            unregister(server, controlName);
+            unregister(server, metricsName);
+            server.registerMBean(new BenchmarkControl(), controlName);
+            server.registerMBean(new LiveMetrics(), metricsName);
+            plugin.getLogger().info("JMX MBeans registered under " + DOMAIN);
+        } catch (JMException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to register JMX MBeans", e);
+        }
+    }
+    
+    /**
+     * Unregister both MBeans
+     */
+    public void unregister() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            unregister(server, controlName);
+            unregister(server, metricsName);
+        } catch (JMException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to unregister JMX MBeans", e);
+        }
+        controlName = null;
+        metricsName = null;
+    }
+    
+    private static void unregister(MBeanServer server, ObjectName name) throws JMException {
+        if (name != null && server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+    }
+    
+    /**
+     * Run an operation on the main thread and wait for its result
+     */
+    private <T> T onMainThread(Callable<T> operation) {
+        if (!configManager.isJmxControlAllowed()) {
+            throw new IllegalStateException("Benchmark control over JMX is disabled (jmx.allowControl)");
+        }
+        try {
+            return Bukkit.getScheduler().callSyncMethod(plugin, operation)
+                .get(OPERATION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the main thread");
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Main thread did not respond within " + OPERATION_TIMEOUT_SECONDS + " seconds");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause != null ? cause.getMessage() : e.getMessage());
+        }
+    }
+    
+    /**
+     * Benchmark control MBean
+     */
+    private class BenchmarkControl implements BenchmarkControlMXBean {
+        private final RAMVerifier ramVerifier = new RAMVerifier(plugin);
+        private final RunLogger runLogger = new RunLogger(plugin);
+        
+        @Override
+        public String getState() {
+            return benchmarkManager.getCurrentState().name();
+        }
+        
+        @Override
+        public String getProfile() {
+            return benchmarkManager.isAwaitingConfirmation() || benchmarkManager.isBenchmarkRunning()
+                ? benchmarkManager.getCurrentProfileName() : null;
+        }
+        
+        @Override
+        public String getWorkloadMode() {
+            return benchmarkManager.getWorkloadMode().name();
+        }
+        
+        @Override
+        public boolean isAwaitingConfirmation() {
+            return benchmarkManager.isAwaitingConfirmation();
+        }
+        
+        @Override
+        public boolean isSafeMode() {
+            return benchmarkManager.isSafeMode();
+        }
+        
+        @Override
+        public double getPhaseProgress() {
+            return benchmarkManager.getWorkloadProgress();
+        }
+        
+        @Override
+        public String[] getAvailableProfiles() {
+            return configManager.getAvailableProfiles();
+        }
+        
+        @Override
+        public boolean start(String profile, String mode, boolean safeMode, boolean bypassRam) {
+            BenchmarkManager.WorkloadMode workloadMode;
+            try {
+                workloadMode = BenchmarkManager.WorkloadMode.valueOf(
+                    mode == null || mode.isEmpty() ? "FIXED" : mode.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown workload mode: " + mode + " (FIXED, CAPACITY, ADAPTIVE)");
+            }
+            if (configManager.getProfile(profile) == null) {
+                throw new IllegalArgumentException("Unknown profile: " + profile
+                    + " (available: " + String.join(", ", configManager.getAvailableProfiles()) + ")");
+            }
+            
+            return onMainThread(() -> {
+                // Same checks as /mcbench start
+                if (benchmarkManager.isBenchmarkRunning() || benchmarkManager.isAwaitingConfirmation()) {
+                    throw new IllegalStateException("A benchmark is already pending or running");
+                }
+                if (soakMonitor.isRunning()) {
+                    throw new IllegalStateException("Soak monitor is running; stop it first");
+                }
+                if (bypassRam) {
+                    runLogger.logBypassUsage("JMX", profile);
+                } else {
+                    RAMVerifier.VerificationResult ramCheck = ramVerifier.verifyRAMRequirements(profile);
+                    if (!ramCheck.sufficient) {
+                        throw new IllegalStateException("Not enough RAM for profile " + profile + ": "
+                            + ramCheck.getFormattedCurrentRAM() + " available, "
+                            + ramCheck.getFormattedRequiredRAM() + " required");
+                    }
+                }
+                plugin.getLogger().info("Benchmark requested over JMX: " + profile + " (" + workloadMode + ")");
+                return benchmarkManager.startBenchmarkConfirmation(profile, safeMode, workloadMode);
+            });
+        }
+        
+        @Override
+        public boolean confirm() {
+            return onMainThread(benchmarkManager::confirmBenchmark);
+        }
+        
+        @Override
+        public boolean cancel() {
+            return onMainThread(benchmarkManager::cancelConfirmation);
+        }
+        
+        @Override
+        public boolean stop() {
+            return onMainThread(() -> {
+                if (benchmarkManager.isBenchmarkRunning()) {
+                    benchmarkManager.forceStop();
+                    return true;
+                }
+                return benchmarkManager.cancelConfirmation();
+            });
+        }
+    }
+    
+    /**
+     * Live metrics MBean
+     */
+    private class LiveMetrics implements LiveMetricsMXBean {
+        private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        
+        @Override
+        public double getTps() {
+            return metricSampler.getTPS();
+        }
+        
+        @Override
+        public double getMspt() {
+            return metricSampler.getMSPT();
+        }
+        
+        @Override
+        public double getRecentTps() {
+            return metricSampler.getTickRecorder().getRecentTps();
+        }
+        
+        @Override
+        public double getLastTickMillis() {
+            return metricSampler.getTickRecorder().getLastTickNanos() / 1_000_000.0;
+        }
+        
+        @Override
+        public long getTickCount() {
+            return metricSampler.getTickRecorder().getTickCount();
+        }
+        
+        @Override
+        public TickHistogram.Summary getLifetimeTicks() {
+            return metricSampler.getTickRecorder().getLifetimeTicks().summarize();
+        }
+        
+        @Override
+        public TickHistogram.Summary getWorkloadTicks() {
+            return benchmarkManager.getWorkloadTicks().summarize();
+        }
+        
+        @Override
+        public TickHistogram.Summary getRecoveryTicks() {
+            return benchmarkManager.getRecoveryTicks().summarize();
+        }
+        
+        @Override
+        public double getSystemCpuPercent() {
+            return metricSampler.getSystemCpuUsage();
+        }
+        
+        @Override
+        public double getProcessCpuPercent() {
+            return metricSampler.getProcessCpuUsage();
+        }
+        
+        @Override
+        public long getUsedMemoryMB() {
+            return metricSampler.getUsedMemoryMB();
+        }
+        
+        @Override
+        public long getMaxMemoryMB() {
+            return metricSampler.getMaxMemoryMB();
+        }
+        
+        @Override
+        public long getGcCount() {
+            long total = 0L;
+            for (GarbageCollectorMXBean collector : collectors) {
+                total += Math.max(0L, collector.getCollectionCount());
+            }
+            return total;
+        }
+        
+        @Override
+        public long getGcTimeMillis() {
+            long total = 0L;
+            for (GarbageCollectorMXBean collector : collectors) {
+                total += Math.max(0L, collector.getCollectionTime());
+            }
+            return total;
+        }
+        
+        @Override
+        public long getRunGcPauses() {
+            return metricSampler.getGcRecorder().getTotals()[1];
+        }
+        
+        @Override
+        public long getRunGcPauseMillis() {
+            return metricSampler.getGcRecorder().getTotals()[2];
+        }
+    }
+}
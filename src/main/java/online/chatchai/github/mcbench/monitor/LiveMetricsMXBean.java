@@ -0,0 +1,77 @@
+package online.chatchai.github.mcbench.monitor;
+
+import online.chatchai.github.mcbench.metrics.TickHistogram;
+
+/**
+ * JMX interface for live server metrics
+ * Registered as online.chatchai.github.mcbench:type=LiveMetrics when jmx.enabled is set.
+ * Tick summaries are exposed as composite data (count, mean, p50, p90, p95, p99, p999, max in ms).
+ * All attributes are read from volatile fields and lock-free histograms, never from the main thread.
+ */
+public interface LiveMetricsMXBean {
+    
+    /**
+     * Get 1-minute TPS reported by the server
+     */
+    double getTps();
+    
+    /**
+     * Get average MSPT reported by the server
+     */
+    double getMspt();
+    
+    /**
+     * Get TPS measured from tick timestamps over the last second
+     */
+    double getRecentTps();
+    
+    double getLastTickMillis();
+    
+    /**
+     * Get ticks observed since the plugin was enabled
+     */
+    long getTickCount();
+    
+    /**
+     * Get tick percentiles since the plugin was enabled
+     */
+    TickHistogram.Summary getLifetimeTicks();
+    
+    /**
+     * Get tick percentiles of the workload phase of the current or last benchmark, or null
+     */
+    TickHistogram.Summary getWorkloadTicks();
+    
+    /**
+     * Get tick percentiles of the recovery phase of the current or last benchmark, or null
+     */
+    TickHistogram.Summary getRecoveryTicks();
+    
+    double getSystemCpuPercent();
+    
+    double getProcessCpuPercent();
+    
+    long getUsedMemoryMB();
+    
+    long getMaxMemoryMB();
+    
+    /**
+     * Get garbage collections since JVM start, over all collectors
+     */
+    long getGcCount();
+    
+    /**
+     * Get accumulated collection time since JVM start in milliseconds, over all collectors
+     */
+    long getGcTimeMillis();
+    
+    /**
+     * Get stop-the-world pauses captured during the current or last benchmark or monitor session
+     */
+    long getRunGcPauses();
+    
+    /**
+     * Get total stop-the-world pause time captured during the current or last run in milliseconds
+     */
+    long getRunGcPauseMillis();
+}
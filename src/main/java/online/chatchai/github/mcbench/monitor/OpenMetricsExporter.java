@@ -0,0 +1,357 @@
+package online.chatchai.github.mcbench.monitor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import online.chatchai.github.mcbench.Main;
+import online.chatchai.github.mcbench.benchmark.BenchmarkManager;
+import online.chatchai.github.mcbench.config.ConfigManager;
+import online.chatchai.github.mcbench.metrics.MetricSampler;
+import online.chatchai.github.mcbench.metrics.ThreadAccounting;
+import online.chatchai.github.mcbench.metrics.TickHistogram;
+import online.chatchai.github.mcbench.metrics.TickRecorder;
+
+/**
+ * OpenMetrics scrape endpoint for MCBench Pro
+ * Serves tick histograms, CPU, memory, GC, thread group usage and the benchmark state in the
+ * OpenMetrics text format for Prometheus-compatible scrapers. Scrapes are rendered on a single
+ * HTTP thread from volatile fields and lock-free histograms only, so they never wait for or
+ * schedule work on the main thread. The text buffer and byte buffer are reused between scrapes.
+ */
+public class OpenMetricsExporter {
+    
+    private static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+    
+    // Histogram bucket bounds in milliseconds (50 ms is the 20 TPS budget)
+    private static final double[] BUCKET_BOUNDS_MS = {5, 10, 20, 30, 40, 50, 75, 100, 200, 500, 1000};
+    
+    private final Main plugin;
+    private final ConfigManager configManager;
+    private final MetricSampler metricSampler;
+    private final BenchmarkManager benchmarkManager;
+    private final SoakMonitor soakMonitor;
+    
+    private final long[] bucketBoundsMicros = new long[BUCKET_BOUNDS_MS.length];
+    private final String[] bucketLabels = new String[BUCKET_BOUNDS_MS.length];
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private final String[] collectorLabels;
+    
+    // Render buffers, only touched by the HTTP thread
+    private final StringBuilder text = new StringBuilder(8192);
+    private final long[] cumulativeCounts = new long[BUCKET_BOUNDS_MS.length];
+    private byte[] body = new byte[8192];
+    
+    private HttpServer server;
+    private ExecutorService executor;
+    
+    public OpenMetricsExporter(Main plugin, ConfigManager configManager, MetricSampler metricSampler,
+                               BenchmarkManager benchmarkManager, SoakMonitor soakMonitor) {
+        this.plugin = plugin;
+        this.configManager = configManager;
+        this.metricSampler = metricSampler;
+        this.benchmarkManager = benchmarkManager;
+        this.soakMonitor = soakMonitor;
+        
+        for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+            bucketBoundsMicros[i] = (long) (BUCKET_BOUNDS_MS[i] * 1000.0);
+            bucketLabels[i] = Double.toString(BUCKET_BOUNDS_MS[i] / 1000.0);
+        }
+        collectorLabels = new String[collectors.size()];
+        for (int i = 0; i < collectorLabels.length; i++) {
+            collectorLabels[i] = escapeLabel(collectors.get(i).getName());
+        }
+    }
+    
+    /**
+     * Start serving scrapes on the configured address
+     * @return false if the server could not be bound
+     */
+    public synchronized boolean start() {
+        if (server != null) {
+            return true;
+        }
+        
+        String bindAddress = configManager.getOpenMetricsBindAddress();
+        int port = configManager.getOpenMetricsPort();
+        try {
+            server = HttpServer.create(new InetSocketAddress(bindAddress, port), 0);
+            executor = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "MCBench-OpenMetrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+            server.setExecutor(executor);
+            server.createContext(configManager.getOpenMetricsPath(), this::handleScrape);
+            server.start();
+            plugin.getLogger().info("OpenMetrics endpoint listening on http://" + bindAddress + ":" + port
+                + configManager.getOpenMetricsPath());
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to start OpenMetrics endpoint on " + bindAddress + ":" + port, e);
+            stop();
+            return false;
+        }
+    }
+    
+    /**
+     * Stop the HTTP server
+     */
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+    
+    public synchronized boolean isRunning() {
+        return server != null;
+    }
+    
+    private void handleScrape(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            if (!"GET".equals(method) && !"HEAD".equals(method)) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            
+            int length;
+            try {
+                length = render();
+            } catch (Exception e) {
+                plugin.getLogger().warning("Failed to render OpenMetrics scrape: " + e.getMessage());
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if ("HEAD".equals(method)) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body, 0, length);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+    
+    /**
+     * Render all metric families into the reused body buffer (HTTP thread only)
+     * @return Number of bytes written
+     */
+    private int render() {
+        StringBuilder sb = text;
+        sb.setLength(0);
+        
+        TickRecorder tickRecorder = metricSampler.getTickRecorder();
+        
+        // Server ticks
+        family(sb, "mcbench_ticks", "counter", "Server ticks observed since the plugin was enabled", null);
+        sb.append("mcbench_ticks_total ").append(tickRecorder.getTickCount()).append('\n');
+        
+        family(sb, "mcbench_tick_duration_seconds", "histogram", "Server tick duration", "seconds");
+        histogram(sb, "mcbench_tick_duration_seconds", null, tickRecorder.getLifetimeTicks());
+        
+        family(sb, "mcbench_tick_rate", "gauge", "Ticks per second over the last second of tick timestamps", null);
+        sb.append("mcbench_tick_rate ").append(tickRecorder.getRecentTps()).append('\n');
+        
+        family(sb, "mcbench_last_tick_seconds", "gauge", "Duration of the last completed tick", "seconds");
+        sb.append("mcbench_last_tick_seconds ").append(tickRecorder.getLastTickNanos() / 1e9).append('\n');
+        
+        family(sb, "mcbench_overhead_seconds", "counter", "Main-thread time spent in MCBench tick handlers and sampling", "seconds");
+        sb.append("mcbench_overhead_seconds_total ")
+            .append((tickRecorder.getOverheadNanos() + metricSampler.getTimeSeriesOverheadNanos()) / 1e9).append('\n');
+        
+        // CPU and memory
+        family(sb, "mcbench_system_cpu_percent", "gauge", "System CPU usage", "percent");
+        gauge(sb, "mcbench_system_cpu_percent", metricSampler.getSystemCpuUsage());
+        
+        family(sb, "mcbench_process_cpu_percent", "gauge", "Server process CPU usage", "percent");
+        gauge(sb, "mcbench_process_cpu_percent", metricSampler.getProcessCpuUsage());
+        
+        family(sb, "mcbench_main_thread_cpu_percent", "gauge", "Main server thread CPU usage (JFR backend only)", "percent");
+        gauge(sb, "mcbench_main_thread_cpu_percent", metricSampler.getMainThreadCpuUsage());
+        
+        Runtime runtime = Runtime.getRuntime();
+        family(sb, "mcbench_heap_used_bytes", "gauge", "Used heap memory", "bytes");
+        sb.append("mcbench_heap_used_bytes ").append(runtime.totalMemory() - runtime.freeMemory()).append('\n');
+        
+        family(sb, "mcbench_heap_max_bytes", "gauge", "Maximum heap memory", "bytes");
+        sb.append("mcbench_heap_max_bytes ").append(runtime.maxMemory()).append('\n');
+        
+        family(sb, "mcbench_allocation_rate_bytes_per_second", "gauge", "Heap allocation rate (JFR backend only)", null);
+        double allocationMb = metricSampler.getAllocationRateMbPerSecond();
+        gauge(sb, "mcbench_allocation_rate_bytes_per_second", allocationMb >= 0 ? allocationMb * 1024.0 * 1024.0 : -1.0);
+        
+        // Garbage collection
+        family(sb, "mcbench_gc_collections", "counter", "Garbage collections per collector", null);
+        for (int i = 0; i < collectorLabels.length; i++) {
+            long count = collectors.get(i).getCollectionCount();
+            if (count >= 0) {
+                sb.append("mcbench_gc_collections_total{collector=\"").append(collectorLabels[i]).append("\"} ")
+                    .append(count).append('\n');
+            }
+        }
+        
+        family(sb, "mcbench_gc_time_seconds", "counter", "Accumulated collection time per collector", "seconds");
+        for (int i = 0; i < collectorLabels.length; i++) {
+            long millis = collectors.get(i).getCollectionTime();
+            if (millis >= 0) {
+                sb.append("mcbench_gc_time_seconds_total{collector=\"").append(collectorLabels[i]).append("\"} ")
+                    .append(millis / 1000.0).append('\n');
+            }
+        }
+        
+        // Thread groups (latest accounting interval)
+        ThreadAccounting threadAccounting = metricSampler.getThreadAccounting();
+        if (threadAccounting.isSupported()) {
+            List<ThreadAccounting.GroupUsage> groups = threadAccounting.getLatest();
+            family(sb, "mcbench_thread_group_cpu_percent", "gauge", "CPU usage per server thread group", "percent");
+            for (int i = 0; i < groups.size(); i++) {
+                ThreadAccounting.GroupUsage group = groups.get(i);
+                sb.append("mcbench_thread_group_cpu_percent{group=\"").append(group.getCategory().name()).append("\"} ")
+                    .append(group.getCpuPercent()).append('\n');
+            }
+            
+            family(sb, "mcbench_thread_group_threads", "gauge", "Live threads per server thread group", null);
+            for (int i = 0; i < groups.size(); i++) {
+                ThreadAccounting.GroupUsage group = groups.get(i);
+                sb.append("mcbench_thread_group_threads{group=\"").append(group.getCategory().name()).append("\"} ")
+                    .append(group.getThreads()).append('\n');
+            }
+        }
+        
+        // Benchmark state
+        BenchmarkManager.BenchmarkState currentState = benchmarkManager.getCurrentState();
+        family(sb, "mcbench_benchmark_state", "stateset", "Current benchmark phase", null);
+        for (BenchmarkManager.BenchmarkState state : BenchmarkManager.BenchmarkState.values()) {
+            sb.append("mcbench_benchmark_state{mcbench_benchmark_state=\"").append(state.name()).append("\"} ")
+                .append(state == currentState ? '1' : '0').append('\n');
+        }
+        
+        String profile = benchmarkManager.getCurrentProfileName();
+        if (profile != null && currentState != BenchmarkManager.BenchmarkState.IDLE) {
+            family(sb, "mcbench_benchmark", "info", "Profile and workload mode of the running benchmark", null);
+            sb.append("mcbench_benchmark_info{profile=\"").append(escapeLabel(profile))
+                .append("\",mode=\"").append(benchmarkManager.getWorkloadMode().name()).append("\"} 1\n");
+        }
+        
+        family(sb, "mcbench_benchmark_tick_duration_seconds", "histogram", "Tick duration of the current or last benchmark run by phase", "seconds");
+        histogram(sb, "mcbench_benchmark_tick_duration_seconds", "phase=\"workload\",", benchmarkManager.getWorkloadTicks());
+        histogram(sb, "mcbench_benchmark_tick_duration_seconds", "phase=\"recovery\",", benchmarkManager.getRecoveryTicks());
+        
+        family(sb, "mcbench_monitor_running", "gauge", "Whether the soak monitor is running", null);
+        sb.append("mcbench_monitor_running ").append(soakMonitor.isRunning() ? '1' : '0').append('\n');
+        
+        sb.append("# EOF\n");
+        return encode(sb);
+    }
+    
+    private static void family(StringBuilder sb, String name, String type, String help, String unit) {
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        if (unit != null) {
+            sb.append("# UNIT ").append(name).append(' ').append(unit).append('\n');
+        }
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    }
+    
+    /**
+     * Write a gauge sample, leaving it out when the value is unknown (negative)
+     */
+    private static void gauge(StringBuilder sb, String name, double value) {
+        if (value >= 0) {
+            sb.append(name).append(' ').append(value).append('\n');
+        }
+    }
+    
+    /**
+     * Write cumulative buckets, count and sum of a tick histogram
+     * @param labels Extra labels with a trailing comma, or null
+     */
+    private void histogram(StringBuilder sb, String name, String labels, TickHistogram histogram) {
+        // Sum first: a tick recorded between the two reads then only makes the sum lag slightly
+        long totalMicros = histogram.getTotalMicros();
+        long count = histogram.fillCumulativeCounts(bucketBoundsMicros, cumulativeCounts);
+        
+        for (int i = 0; i < bucketLabels.length; i++) {
+            bucketLine(sb, name, labels, bucketLabels[i], cumulativeCounts[i]);
+        }
+        bucketLine(sb, name, labels, "+Inf", count);
+        
+        sb.append(name).append("_count");
+        if (labels != null) {
+            sb.append('{').append(labels, 0, labels.length() - 1).append('}');
+        }
+        sb.append(' ').append(count).append('\n');
+        
+        sb.append(name).append("_sum");
+        if (labels != null) {
+            sb.append('{').append(labels, 0, labels.length() - 1).append('}');
+        }
+        sb.append(' ').append(totalMicros / 1e6).append('\n');
+    }
+    
+    private static void bucketLine(StringBuilder sb, String name, String labels, String le, long count) {
+        sb.append(name).append("_bucket{");
+        if (labels != null) {
+            sb.append(labels);
+        }
+        sb.append("le=\"").append(le).append("\"} ").append(count).append('\n');
+    }
+    
+    /**
+     * Encode the rendered text as UTF-8 into the reused body buffer
+     */
+    private int encode(StringBuilder sb) {
+        int length = 0;
+        for (int i = 0; i < sb.length(); i++) {
+            char c = sb.charAt(i);
+            if (length + 4 > body.length) {
+                body = Arrays.copyOf(body, body.length * 2);
+            }
+            if (c < 0x80) {
+                body[length++] = (byte) c;
+            } else if (c < 0x800) {
+                body[length++] = (byte) (0xC0 | (c >> 6));
+                body[length++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < sb.length() && Character.isLowSurrogate(sb.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, sb.charAt(++i));
+                body[length++] = (byte) (0xF0 | (codePoint >> 18));
+                body[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                body[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                body[length++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                body[length++] = (byte) (0xE0 | (c >> 12));
+                body[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                body[length++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return length;
+    }
+    
+    /**
+     * Escape a label value (backslash, double quote and line feed)
+     */
+    private static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
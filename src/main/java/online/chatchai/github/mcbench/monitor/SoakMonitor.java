@@ -0,0 +1,379 @@
+package online.chatchai.github.mcbench.monitor;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import online.chatchai.github.mcbench.Main;
+import online.chatchai.github.mcbench.config.ConfigManager;
+import online.chatchai.github.mcbench.metrics.GcRecorder;
+import online.chatchai.github.mcbench.metrics.MetricSampler;
+import online.chatchai.github.mcbench.metrics.TickHistogram;
+import online.chatchai.github.mcbench.metrics.TickRecorder;
+import online.chatchai.github.mcbench.util.Util;
+
+/**
+ * Continuous soak monitor for MCBench Pro
+ * Watches real production ticks with no workload: the tick histogram, GC capture, CPU
+ * sampling and the compressed time series keep running, and a background thread rolls them
+ * into one aggregate per minute that is flushed to plugins/MCBenchPro/monitor/ periodically.
+ * The only main-thread work is the tick recorder and time series sampling; their cost is
+ * measured every minute and published as overhead per tick.
+ */
+public class SoakMonitor {
+    
+    private final Main plugin;
+    private final ConfigManager configManager;
+    private final MetricSampler metricSampler;
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss");
+    
+    private ScheduledExecutorService executor;
+    private volatile boolean running = false;
+    private long startTime;
+    private File outputFile;
+    
+    // The recorder writes into one histogram while the other is summarized
+    private TickHistogram activeMinute = new TickHistogram();
+    private TickHistogram spareMinute = new TickHistogram();
+    
+    // Counters at the start of the current minute
+    private long minuteStartMillis;
+    private long lastTickCount;
+    private long lastOverheadNanos;
+    private long[] lastGcTotals;
+    
+    // Rolled-up minutes (guarded by this)
+    private final Deque<MinuteAggregate> recentMinutes = new ArrayDeque<>();
+    private final List<MinuteAggregate> pendingFlush = new ArrayList<>();
+    private int minutesSinceFlush = 0;
+    
+    public SoakMonitor(Main plugin, ConfigManager configManager, MetricSampler metricSampler) {
+        this.plugin = plugin;
+        this.configManager = configManager;
+        this.metricSampler = metricSampler;
+    }
+    
+    /**
+     * Start monitoring (main thread)
+     * @return false if already running
+     */
+    public synchronized boolean start() {
+        if (running) {
+            return false;
+        }
+        
+        File monitorDir = new File(plugin.getDataFolder(), "monitor");
+        if (!monitorDir.exists()) {
+            monitorDir.mkdirs();
+        }
+        startTime = System.currentTimeMillis();
+        outputFile = new File(monitorDir, "monitor_" + dateFormat.format(new Date(startTime)) + ".csv");
+        recentMinutes.clear();
+        pendingFlush.clear();
+        minutesSinceFlush = 0;
+        
+        TickRecorder tickRecorder = metricSampler.getTickRecorder();
+        activeMinute.reset();
+        spareMinute.reset();
+        tickRecorder.startRecording(activeMinute);
+        metricSampler.getGcRecorder().start();
+        metricSampler.startTimeSeries(configManager.getMonitorSampleIntervalTicks());
+        metricSampler.getTimeSeries().mark("monitor");
+        
+        minuteStartMillis = System.currentTimeMillis();
+        lastTickCount = tickRecorder.getTickCount();
+        lastOverheadNanos = tickRecorder.getOverheadNanos() + metricSampler.getTimeSeriesOverheadNanos();
+        lastGcTotals = metricSampler.getGcRecorder().getTotals();
+        
+        executor = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "MCBench-Monitor"));
+        executor.scheduleAtFixedRate(this::rollMinuteSafely, 60L, 60L, TimeUnit.SECONDS);
+        running = true;
+        return true;
+    }
+    
+    /**
+     * Stop monitoring, roll the partial minute, flush and save the time series (main thread)
+     */
+    public void stop() {
+        ScheduledExecutorService stopping;
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            stopping = executor;
+            executor = null;
+        }
+        
+        // Outside the lock: a roll-up waiting for it sees running == false and exits
+        stopping.shutdownNow();
+        try {
+            stopping.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        synchronized (this) {
+            rollMinute();
+            metricSampler.getTickRecorder().stopRecording();
+            metricSampler.getGcRecorder().stop();
+            metricSampler.stopTimeSeries();
+            flush();
+            saveTimeSeries();
+        }
+    }
+    
+    public boolean isRunning() {
+        return running;
+    }
+    
+    private void rollMinuteSafely() {
+        try {
+            synchronized (this) {
+                if (running) {
+                    rollMinute();
+                }
+            }
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to roll up monitor minute", e);
+        }
+    }
+    
+    /**
+     * Close the current minute: swap histograms, diff the counters and queue the aggregate
+     */
+    private void rollMinute() {
+        TickRecorder tickRecorder = metricSampler.getTickRecorder();
+        GcRecorder gcRecorder = metricSampler.getGcRecorder();
+        
+        TickHistogram finished = activeMinute;
+        activeMinute = spareMinute;
+        tickRecorder.startRecording(activeMinute);
+        spareMinute = finished;
+        
+        long now = System.currentTimeMillis();
+        long tickCount = tickRecorder.getTickCount();
+        long overheadNanos = tickRecorder.getOverheadNanos() + metricSampler.getTimeSeriesOverheadNanos();
+        long[] gcTotals = gcRecorder.getTotals();
+        
+        TickHistogram.Summary ticks = finished.summarize();
+        finished.reset();
+        
+        long elapsedMillis = Math.max(1L, now - minuteStartMillis);
+        long tickDelta = tickCount - lastTickCount;
+        double overheadMicrosPerTick = tickDelta > 0 ? (overheadNanos - lastOverheadNanos) / 1000.0 / tickDelta : 0.0;
+        
+        MinuteAggregate minute = new MinuteAggregate(
+            minuteStartMillis,
+            tickDelta,
+            Math.min(20.0, tickDelta * 1000.0 / elapsedMillis),
+            ticks != null ? ticks.getMean() : 0.0,
+            ticks != null ? ticks.getP50() : 0.0,
+            ticks != null ? ticks.getP95() : 0.0,
+            ticks != null ? ticks.getP99() : 0.0,
+            ticks != null ? ticks.getMax() : 0.0,
+            metricSampler.getSystemCpuUsage(),
+            metricSampler.getProcessCpuUsage(),
+            metricSampler.getUsedMemoryMB(),
+            gcTotals[1] - lastGcTotals[1],
+            gcTotals[2] - lastGcTotals[2],
+            gcRecorder.getMaxPauseSince(lastGcTotals[0]),
+            (gcTotals[3] - lastGcTotals[3]) / 1024.0 / 1024.0 / (elapsedMillis / 1000.0),
+            overheadMicrosPerTick
+        );
+        
+        minuteStartMillis = now;
+        lastTickCount = tickCount;
+        lastOverheadNanos = overheadNanos;
+        lastGcTotals = gcTotals;
+        
+        recentMinutes.addLast(minute);
+        while (recentMinutes.size() > configManager.getMonitorKeepMinutes()) {
+            recentMinutes.removeFirst();
+        }
+        pendingFlush.add(minute);
+        
+        if (overheadMicrosPerTick > configManager.getMonitorOverheadBudgetMs() * 1000.0) {
+            plugin.getLogger().warning(String.format("Monitor overhead %.1f us/tick exceeds the %.1f us budget",
+                overheadMicrosPerTick, configManager.getMonitorOverheadBudgetMs() * 1000.0));
+        }
+        
+        if (++minutesSinceFlush >= configManager.getMonitorFlushIntervalMinutes()) {
+            flush();
+        }
+    }
+    
+    /**
+     * Append queued minutes to the CSV file
+     */
+    private void flush() {
+        minutesSinceFlush = 0;
+        if (pendingFlush.isEmpty()) {
+            return;
+        }
+        
+        boolean newFile = !outputFile.exists();
+        try (FileWriter writer = new FileWriter(outputFile, true)) {
+            if (newFile) {
+                writer.write(MinuteAggregate.CSV_HEADER);
+                writer.write("\n");
+            }
+            for (MinuteAggregate minute : pendingFlush) {
+                writer.write(minute.toCsv());
+                writer.write("\n");
+            }
+            pendingFlush.clear();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to write monitor data to " + outputFile.getName(), e);
+        }
+    }
+    
+    /**
+     * Save the compressed time series of the whole session next to the CSV
+     */
+    private void saveTimeSeries() {
+        File file = new File(outputFile.getParentFile(), outputFile.getName().replace(".csv", ".mcts"));
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            metricSampler.getTimeSeries().snapshot().writeTo(out);
+            plugin.getLogger().info("Monitor data saved: " + outputFile.getAbsolutePath());
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to save monitor time series", e);
+        }
+    }
+    
+    /**
+     * Get the most recent completed minute
+     * @return Aggregate, or null if no minute has completed yet
+     */
+    public synchronized MinuteAggregate getLastMinute() {
+        return recentMinutes.peekLast();
+    }
+    
+    /**
+     * Get completed minutes kept in memory, oldest first
+     */
+    public synchronized List<MinuteAggregate> getRecentMinutes() {
+        return new ArrayList<>(recentMinutes);
+    }
+    
+    /**
+     * Get main-thread overhead per tick averaged over the minutes kept in memory
+     * @return Overhead in microseconds per tick
+     */
+    public synchronized double getAverageOverheadMicrosPerTick() {
+        long ticks = 0L;
+        double weighted = 0.0;
+        for (MinuteAggregate minute : recentMinutes) {
+            ticks += minute.getTicks();
+            weighted += minute.getOverheadMicrosPerTick() * minute.getTicks();
+        }
+        return ticks > 0 ? weighted / ticks : 0.0;
+    }
+    
+    public long getStartTime() {
+        return startTime;
+    }
+    
+    public File getOutputFile() {
+        return outputFile;
+    }
+    
+    /**
+     * One minute of production tick, CPU, memory and GC data
+     */
+    public static class MinuteAggregate {
+        static final String CSV_HEADER = "minute_start,ticks,tps,mspt_mean,mspt_p50,mspt_p95,mspt_p99,mspt_max,"
+            + "system_cpu,process_cpu,used_memory_mb,gc_pauses,gc_pause_ms,gc_max_pause_ms,"
+            + "allocation_mb_per_sec,overhead_us_per_tick";
+        
+        private final long timestamp;
+        private final long ticks;
+        private final double tps;
+        private final double meanMspt;
+        private final double p50Mspt;
+        private final double p95Mspt;
+        private final double p99Mspt;
+        private final double maxMspt;
+        private final double systemCpu;
+        private final double processCpu;
+        private final long usedMemoryMB;
+        private final long gcPauses;
+        private final long gcPauseMillis;
+        private final long gcMaxPauseMillis;
+        private final double allocationMbPerSecond;
+        private final double overheadMicrosPerTick;
+        
+        public MinuteAggregate(long timestamp, long ticks, double tps, double meanMspt, double p50Mspt,
+                              double p95Mspt, double p99Mspt, double maxMspt, double systemCpu,
+                              double processCpu, long usedMemoryMB, long gcPauses, long gcPauseMillis,
+                              long gcMaxPauseMillis, double allocationMbPerSecond, double overheadMicrosPerTick) {
+            this.timestamp = timestamp;
+            this.ticks = ticks;
+            this.tps = tps;
+            this.meanMspt = meanMspt;
+            this.p50Mspt = p50Mspt;
+            this.p95Mspt = p95Mspt;
+            this.p99Mspt = p99Mspt;
+            this.maxMspt = maxMspt;
+            this.systemCpu = systemCpu;
+            this.processCpu = processCpu;
+            this.usedMemoryMB = usedMemoryMB;
+            this.gcPauses = gcPauses;
+            this.gcPauseMillis = gcPauseMillis;
+            this.gcMaxPauseMillis = gcMaxPauseMillis;
+            this.allocationMbPerSecond = allocationMbPerSecond;
+            this.overheadMicrosPerTick = overheadMicrosPerTick;
+        }
+        
+        /**
+         * Render as one CSV row matching {@link #CSV_HEADER}
+         */
+        public String toCsv() {
+            return String.format(Locale.ROOT, "%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f,%.3f,%.2f,%.2f,%d,%d,%d,%d,%.2f,%.2f",
+                timestamp, ticks, tps, meanMspt, p50Mspt, p95Mspt, p99Mspt, maxMspt, systemCpu, processCpu,
+                usedMemoryMB, gcPauses, gcPauseMillis, gcMaxPauseMillis, allocationMbPerSecond, overheadMicrosPerTick);
+        }
+        
+        /**
+         * Get formatted one-line summary for the console
+         */
+        public String getFormatted() {
+            return String.format("TPS %s | MSPT avg %sms p95 %sms max %sms | CPU %s%% | GC %d pauses (%dms) | overhead %s us/tick",
+                Util.formatDecimal(tps), Util.formatDecimal(meanMspt), Util.formatDecimal(p95Mspt),
+                Util.formatDecimal(maxMspt), Util.formatDecimal(systemCpu), gcPauses, gcPauseMillis,
+                Util.formatDecimal(overheadMicrosPerTick));
+        }
+        
+        // Getters
+        public long getTimestamp() { return timestamp; }
+        public long getTicks() { return ticks; }
+        public double getTps() { return tps; }
+        public double getMeanMspt() { return meanMspt; }
+        public double getP50Mspt() { return p50Mspt; }
+        public double getP95Mspt() { return p95Mspt; }
+        public double getP99Mspt() { return p99Mspt; }
+        public double getMaxMspt() { return maxMspt; }
+        public double getSystemCpu() { return systemCpu; }
+        public double getProcessCpu() { return processCpu; }
+        public long getUsedMemoryMB() { return usedMemoryMB; }
+        public long getGcPauses() { return gcPauses; }
+        public long getGcPauseMillis() { return gcPauseMillis; }
+        public long getGcMaxPauseMillis() { return gcMaxPauseMillis; }
+        public double getAllocationMbPerSecond() { return allocationMbPerSecond; }
+        public double getOverheadMicrosPerTick() { return overheadMicrosPerTick; }
+    }
+}
@@ -6,6 +6,7 @@ import java.util.List;
 import online.chatchai.github.mcbench.analysis.ChunkEntityAnalyzer;
 import online.chatchai.github.mcbench.config.ConfigManager;
 import online.chatchai.github.mcbench.metrics.MetricSampler;
+import online.chatchai.github.mcbench.metrics.TimeSeriesStore;
 
 /**
  * Recommendation engine for MCBench Pro
@@ -24,11 +25,13 @@ public class RecommendationEngine {
      * @param baseline Baseline metrics before benchmark
      * @param afterLoad Metrics after workload
      * @param analysis Chunk and entity analysis results
+     * @param timeSeries Whole-run time series, or null if none was recorded
      * @return List of recommendations
      */
     public List<String> generateRecommendations(MetricSampler.MetricSnapshot baseline,
                                                MetricSampler.MetricSnapshot afterLoad,
-                                               ChunkEntityAnalyzer.AnalysisResult analysis) {
+                                               ChunkEntityAnalyzer.AnalysisResult analysis,
+                                               TimeSeriesStore.Series timeSeries) {
         List<String> recommendations = new ArrayList<>();
         
         // Analyze TPS/MSPT performance
@@ -40,6 +43,11 @@ public class RecommendationEngine {
         // Analyze CPU usage
         analyzeCpuUsage(baseline, afterLoad, recommendations);
         
+        // Analyze the shape of the run rather than its two end points
+        if (timeSeries != null && timeSeries.size() > 0) {
+            analyzeTimeSeries(baseline, timeSeries, recommendations);
+        }
+        
         // Analyze chunk and entity counts
         analyzeChunkEntityCounts(analysis, recommendations);
         
@@ -145,6 +153,55 @@ public class RecommendationEngine {
         }
     }
     
+    /**
+     * Analyze tick, memory and CPU curves over the run
+     */
+    private void analyzeTimeSeries(MetricSampler.MetricSnapshot baseline,
+                                  TimeSeriesStore.Series timeSeries,
+                                  List<String> recommendations) {
+        // Sustained overruns vs isolated spikes during the workload
+        TimeSeriesStore.Stats workloadTicks = timeSeries.getStats(TimeSeriesStore.Metric.TICK_MS, "workload");
+        if (workloadTicks != null) {
+            double overrunShare = timeSeries.getFractionAbove(TimeSeriesStore.Metric.TICK_MS, "workload", 50.0) * 100.0;
+            if (overrunShare > 25.0) {
+                recommendations.add(String.format("Ticks exceeded the 50ms budget in %.0f%% of workload samples - " +
+                    "the server cannot sustain this load, reduce per-tick work (entities, redstone, plugins)", overrunShare));
+            } else if (workloadTicks.getP95() < configManager.getHighMsptThreshold()
+                    && workloadTicks.getMax() > Math.max(50.0, workloadTicks.getMean() * 4.0)) {
+                recommendations.add(String.format("Isolated tick spikes up to %.0fms (avg %.1fms) - " +
+                    "check the GC and slow tick sections for pauses or chunk loads", workloadTicks.getMax(), workloadTicks.getMean()));
+            }
+        }
+        
+        // Heap floor (post-GC level) should return to the baseline once the load stops; the JFR
+        // heap-after-GC column is the exact floor, the lowest used heap approximates it otherwise
+        TimeSeriesStore.Stats recoveryFloor = timeSeries.getStats(TimeSeriesStore.Metric.HEAP_AFTER_GC_MB, "recovery");
+        long baselineFloor = baseline.getHeapAfterGcMB();
+        if (recoveryFloor == null || baselineFloor < 0) {
+            recoveryFloor = timeSeries.getStats(TimeSeriesStore.Metric.USED_MEMORY_MB, "recovery");
+            baselineFloor = baseline.getUsedMemoryMB();
+        }
+        if (recoveryFloor != null
+                && recoveryFloor.getMin() - baselineFloor > baseline.getMaxMemoryMB() * 0.10) {
+            recommendations.add(String.format("Heap floor rose from %d MB to %.0f MB and did not come back after the load - " +
+                "check plugins for retained caches or leaks", baselineFloor, recoveryFloor.getMin()));
+        }
+        
+        // CPU saturation and competition from other processes
+        double highCpuThreshold = configManager.getHighCpuUsageThreshold();
+        double saturatedShare = timeSeries.getFractionAbove(TimeSeriesStore.Metric.SYSTEM_CPU, "workload", highCpuThreshold) * 100.0;
+        if (saturatedShare > 50.0) {
+            recommendations.add(String.format("System CPU stayed above %.0f%% for %.0f%% of the workload - " +
+                "the host has no CPU headroom left", highCpuThreshold, saturatedShare));
+        }
+        TimeSeriesStore.Stats systemCpu = timeSeries.getStats(TimeSeriesStore.Metric.SYSTEM_CPU, "workload");
+        TimeSeriesStore.Stats processCpu = timeSeries.getStats(TimeSeriesStore.Metric.PROCESS_CPU, "workload");
+        if (systemCpu != null && processCpu != null && systemCpu.getMean() - processCpu.getMean() > 30.0) {
+            recommendations.add(String.format("Other processes used about %.0f%% CPU during the workload - " +
+                "move them off this host or pin the server to dedicated cores", systemCpu.getMean() - processCpu.getMean()));
+        }
+    }
+    
     /**
      * Analyze chunk and entity counts
      */
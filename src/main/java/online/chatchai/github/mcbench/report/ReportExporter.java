@@ -1,16 +1,39 @@
 package online.chatchai.github.mcbench.report;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 
 import online.chatchai.github.mcbench.Main;
+import online.chatchai.github.mcbench.analysis.ChunkEntityAnalyzer;
+import online.chatchai.github.mcbench.analysis.HotspotClusterer;
+import online.chatchai.github.mcbench.benchmark.AdaptiveController;
 import online.chatchai.github.mcbench.benchmark.BenchmarkResult;
+import online.chatchai.github.mcbench.benchmark.CapacitySearch;
+import online.chatchai.github.mcbench.benchmark.IterationStatistics;
+import online.chatchai.github.mcbench.benchmark.JitWarmup;
+import online.chatchai.github.mcbench.benchmark.KernelBudgetRunner;
+import online.chatchai.github.mcbench.benchmark.ParallelWorkload;
 import online.chatchai.github.mcbench.config.ConfigManager;
+import online.chatchai.github.mcbench.metrics.CompressedSeries;
+import online.chatchai.github.mcbench.metrics.GcRecorder;
+import online.chatchai.github.mcbench.metrics.JfrAnalyzer;
+import online.chatchai.github.mcbench.metrics.MetricSampler;
+import online.chatchai.github.mcbench.metrics.StallSampler;
+import online.chatchai.github.mcbench.metrics.ThreadAccounting;
+import online.chatchai.github.mcbench.metrics.TickHistogram;
+import online.chatchai.github.mcbench.metrics.TimeSeriesStore;
 import online.chatchai.github.mcbench.util.Util;
+import online.chatchai.github.mcbench.workload.WorkloadMix;
 
 /**
  * Report exporter for MCBench Pro
@@ -52,6 +75,10 @@ public class ReportExporter {
                     break;
             }
             
+            exportCollapsedStacks(result);
+            exportTimeSeries(result);
+            exportHeatmap(result);
+            
         } catch (Exception e) {
             plugin.getLogger().log(Level.SEVERE, "Failed to export benchmark report", e);
         }
@@ -102,6 +129,119 @@ public class ReportExporter {
             "%file%", file.getAbsolutePath()));
     }
     
+    /**
+     * Write one collapsed-stack file per phase for flame graph tools
+     */
+    private void exportCollapsedStacks(BenchmarkResult result) throws IOException {
+        if (result.getStallProfiles() == null) {
+            return;
+        }
+        
+        for (StallSampler.PhaseProfile phase : result.getStallProfiles()) {
+            File file = createReportFile(phase.getPhase() + ".collapsed");
+            try (FileWriter writer = new FileWriter(file)) {
+                writer.write(phase.toCollapsed());
+                writer.flush();
+            }
+            plugin.getLogger().info(configManager.getMessage("report.export.success",
+                "%file%", file.getAbsolutePath()));
+        }
+    }
+    
+    /**
+     * Write the whole-run time series in compressed form and optionally as CSV
+     */
+    private void exportTimeSeries(BenchmarkResult result) throws IOException {
+        TimeSeriesStore.Series series = result.getTimeSeries();
+        if (series == null) {
+            return;
+        }
+        
+        File compressed = createReportFile("mcts");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(compressed)))) {
+            series.writeTo(out);
+        }
+        plugin.getLogger().info(configManager.getMessage("report.export.success",
+            "%file%", compressed.getAbsolutePath()));
+        
+        if (!configManager.isTimeSeriesCsvExportEnabled()) {
+            return;
+        }
+        
+        File file = createReportFile("timeseries.csv");
+        TimeSeriesStore.Metric[] metrics = TimeSeriesStore.Metric.values();
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            writer.write("timestamp_ms,phase");
+            for (TimeSeriesStore.Metric metric : metrics) {
+                writer.write(',');
+                writer.write(metric.getKey());
+            }
+            writer.newLine();
+            
+            CompressedSeries.Cursor cursor = series.cursor();
+            while (cursor.next()) {
+                long timestamp = cursor.getTimestamp();
+                writer.write(Long.toString(timestamp));
+                writer.write(',');
+                writer.write(series.getPhaseAt(timestamp));
+                for (TimeSeriesStore.Metric metric : metrics) {
+                    double value = cursor.getValue(metric.ordinal());
+                    writer.write(',');
+                    if (value >= 0 && !Double.isNaN(value)) {
+                        writer.write(String.format("%.3f", value));
+                    }
+                }
+                writer.newLine();
+            }
+        }
+        plugin.getLogger().info(configManager.getMessage("report.export.success",
+            "%file%", file.getAbsolutePath()));
+    }
+    
+    /**
+     * Write entities per 32x32-chunk region of every world as CSV
+     */
+    private void exportHeatmap(BenchmarkResult result) throws IOException {
+        if (!configManager.isHeatmapExportEnabled() || result.getAnalysis() == null
+            || result.getAnalysis().getRegionHeatmap().isEmpty()) {
+            return;
+        }
+        
+        File file = createReportFile("heatmap.csv");
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            writer.write("world,region_x,region_z,chunks_with_entities,entities,hot_chunks");
+            writer.newLine();
+            for (HotspotClusterer.RegionCell cell : result.getAnalysis().getRegionHeatmap()) {
+                writer.write(cell.getWorldName() + "," + cell.getRegionX() + "," + cell.getRegionZ() + ","
+                    + cell.getChunks() + "," + cell.getEntities() + "," + cell.getHotChunks());
+                writer.newLine();
+            }
+        }
+        plugin.getLogger().info(configManager.getMessage("report.export.success",
+            "%file%", file.getAbsolutePath()));
+    }
+    
+    /**
+     * Shorten a collapsed stack to its leaf-most frames for the text report
+     */
+    private String abbreviateStack(String stack) {
+        String[] frames = stack.split(";");
+        if (frames.length <= 4) {
+            return String.join(" <- ", reverse(frames));
+        }
+        String[] leaf = new String[4];
+        System.arraycopy(frames, frames.length - 4, leaf, 0, 4);
+        return String.join(" <- ", reverse(leaf)) + " <- ...";
+    }
+    
+    private String[] reverse(String[] frames) {
+        String[] reversed = new String[frames.length];
+        for (int i = 0; i < frames.length; i++) {
+            reversed[i] = frames[frames.length - 1 - i];
+        }
+        return reversed;
+    }
+    
     /**
      * Create report file with timestamp
      */
@@ -135,8 +275,41 @@ public class ReportExporter {
         sb.append("Mode: ").append(result.getMode()).append("\n");
         sb.append("Workload Duration: ").append(String.format("%.2f seconds", result.getWorkloadDuration())).append("\n");
         sb.append("Recovery Duration: ").append(String.format("%.2f seconds", result.getRecoveryDuration())).append("\n");
+        JitWarmup.Result jitWarmup = result.getJitWarmup();
+        if (jitWarmup != null) {
+            sb.append(String.format("JIT Warmup: %.2f seconds, %d batches of %d loops, %s",
+                jitWarmup.getDurationSeconds(), jitWarmup.getBatches(), jitWarmup.getBatchLoopCount(),
+                jitWarmup.isStable() ? "stable" : "NOT STABLE (time limit reached)")).append("\n");
+            sb.append(String.format("  Batch time: %.3f ms first, %.3f ms final (CV %.2f%%)",
+                jitWarmup.getFirstBatchMs(), jitWarmup.getFinalBatchMs(), Math.max(0.0, jitWarmup.getFinalCvPercent()))).append("\n");
+            if (jitWarmup.getCompilationMillis() >= 0) {
+                sb.append(String.format("  JIT compilation: %d ms during warmup, %.2f ms/s at the end",
+                    jitWarmup.getCompilationMillis(), jitWarmup.getFinalCompileMsPerSecond())).append("\n");
+            }
+        }
         sb.append("Status: ").append(result.isAborted() ? "ABORTED" : "COMPLETED").append("\n\n");
         
+        // Repeated iterations
+        IterationStatistics iterationStats = result.getIterationStats();
+        if (iterationStats != null) {
+            sb.append("ITERATIONS\n");
+            sb.append("-".repeat(30)).append("\n");
+            sb.append("Measured: ").append(iterationStats.getMeasuredCount())
+                .append(" (").append(iterationStats.getRejectedCount()).append(" rejected as outliers, modified Z-score > 3.5)\n");
+            if (iterationStats.getRecoveryStats() != null) {
+                sb.append("Recovery (s): ").append(iterationStats.getRecoveryStats().getFormatted()).append("\n");
+                sb.append("Score: ").append(iterationStats.getScoreStats().getFormatted()).append("\n");
+                sb.append("Headline recovery and score are medians of accepted iterations\n");
+            }
+            for (IterationStatistics.Iteration iteration : iterationStats.getIterations()) {
+                sb.append(String.format("#%d%s: workload %.2fs, recovery %.2fs, score %.2f",
+                    iteration.getNumber(),
+                    iteration.isWarmup() ? " (warmup)" : iteration.isRejected() ? " (rejected)" : "",
+                    iteration.getWorkloadSeconds(), iteration.getRecoverySeconds(), iteration.getScore())).append("\n");
+            }
+            sb.append("\n");
+        }
+        
         // Performance metrics
         sb.append("PERFORMANCE METRICS\n");
         sb.append("-".repeat(30)).append("\n");
@@ -153,8 +326,218 @@ public class ReportExporter {
             sb.append("After Load CPU: ").append(String.format("%.2f%%", result.getAfterLoadMetrics().getSystemCpu())).append("\n");
             sb.append("After Load RAM: ").append(String.format("%.2f%%", result.getAfterLoadMetrics().getMemoryUsage())).append("\n");
         }
+        
+        // Streamed JFR metrics
+        MetricSampler.MetricSnapshot baseline = result.getBaselineMetrics();
+        MetricSampler.MetricSnapshot afterLoad = result.getAfterLoadMetrics();
+        if (baseline != null && afterLoad != null && baseline.hasStreamedMetrics() && afterLoad.hasStreamedMetrics()) {
+            sb.append("After Load Main Thread CPU: ").append(String.format("%.2f%%", afterLoad.getMainThreadCpu())).append("\n");
+            sb.append("After Load Allocation Rate: ").append(String.format("%.2f MB/s", afterLoad.getAllocationRateMbPerSecond())).append("\n");
+            if (afterLoad.getHeapAfterGcMB() >= 0) {
+                sb.append("Heap After GC: ").append(baseline.getHeapAfterGcMB() >= 0 ? baseline.getHeapAfterGcMB() + " MB -> " : "")
+                    .append(afterLoad.getHeapAfterGcMB()).append(" MB\n");
+            }
+            sb.append("Monitor Contention During Run: ").append(afterLoad.getContendedEnters() - baseline.getContendedEnters())
+                .append(" waits, ").append(String.format("%.2f ms", afterLoad.getContendedMillis() - baseline.getContendedMillis())).append("\n");
+        }
         sb.append("\n");
         
+        // Per-tick latency
+        if (result.getWorkloadTicks() != null || result.getRecoveryTicks() != null) {
+            sb.append("TICK LATENCY (per-tick MSPT)\n");
+            sb.append("-".repeat(30)).append("\n");
+            if (result.getWorkloadTicks() != null) {
+                sb.append("Workload: ").append(result.getWorkloadTicks().getFormatted()).append("\n");
+            }
+            if (result.getRecoveryTicks() != null) {
+                sb.append("Recovery: ").append(result.getRecoveryTicks().getFormatted()).append("\n");
+            }
+            sb.append("\n");
+        }
+        
+        // Per-phase curve summary
+        TimeSeriesStore.Series timeSeries = result.getTimeSeries();
+        if (timeSeries != null) {
+            sb.append("TIME SERIES (").append(timeSeries.size()).append(" samples, every ")
+                .append(timeSeries.getIntervalMillis()).append(" ms, ")
+                .append(String.format("%.1f KB", timeSeries.getEncodedBytes() / 1024.0)).append(" compressed)\n");
+            sb.append("-".repeat(30)).append("\n");
+            for (TimeSeriesStore.Marker marker : timeSeries.getMarkers()) {
+                sb.append(marker.getLabel()).append(":\n");
+                for (TimeSeriesStore.Metric metric : TimeSeriesStore.Metric.values()) {
+                    TimeSeriesStore.Stats stats = timeSeries.getStats(metric, marker.getLabel());
+                    if (stats != null) {
+                        sb.append(String.format("  %-26s min %9.2f  avg %9.2f  p95 %9.2f  max %9.2f  trend %+8.2f/min",
+                            metric.getKey(), stats.getMin(), stats.getMean(), stats.getP95(), stats.getMax(),
+                            stats.getSlopePerMinute())).append("\n");
+                    }
+                }
+            }
+            sb.append("\n");
+        }
+        
+        // CPU by thread group
+        ThreadAccounting.RunSummary threadUsage = result.getThreadUsage();
+        if (threadUsage != null) {
+            sb.append("CPU BY THREAD GROUP (100% = one core)\n");
+            sb.append("-".repeat(30)).append("\n");
+            for (ThreadAccounting.GroupUsage group : threadUsage.getGroups()) {
+                sb.append(String.format("  %-18s %7.2f%% CPU  %8.2f MB/s  %d threads", group.getCategory().getLabel(),
+                    group.getCpuPercent(), group.getAllocationMbPerSecond(), group.getThreads())).append("\n");
+            }
+            sb.append("Busiest Threads:\n");
+            for (ThreadAccounting.ThreadUsage thread : threadUsage.getTopThreads()) {
+                sb.append(String.format("  %7.2f%% CPU  %8.2f MB/s  %s (%s)", thread.getCpuPercent(),
+                    thread.getAllocationMbPerSecond(), thread.getName(), thread.getCategory().getLabel())).append("\n");
+            }
+            sb.append("\n");
+        }
+        
+        // Slow tick stacks
+        if (result.getStallProfiles() != null) {
+            sb.append("SLOW TICK STACKS (> ").append(Util.formatDecimal(configManager.getStallThresholdMs())).append(" ms)\n");
+            sb.append("-".repeat(30)).append("\n");
+            int topStacks = configManager.getStallTopStacks();
+            for (StallSampler.PhaseProfile phase : result.getStallProfiles()) {
+                sb.append(phase.getPhase()).append(": ").append(phase.getSlowTicks()).append(" slow ticks, ")
+                    .append(phase.getSamples()).append(" samples\n");
+                int listed = 0;
+                for (Map.Entry<String, Long> stack : phase.getStacks().entrySet()) {
+                    if (listed++ >= topStacks) {
+                        break;
+                    }
+                    sb.append(String.format("  %5.1f%%  %s", stack.getValue() * 100.0 / phase.getSamples(),
+                        abbreviateStack(stack.getKey()))).append("\n");
+                }
+            }
+            sb.append("\n");
+        }
+        
+        // Capacity search
+        CapacitySearch.Result capacity = result.getCapacityResult();
+        if (capacity != null) {
+            sb.append("CAPACITY SEARCH\n");
+            sb.append("-".repeat(30)).append("\n");
+            sb.append("Sustainable Load: ").append(capacity.getHeadroomLoopCount())
+                .append(" loops/tick (p95 MSPT <= ").append(Util.formatDecimal(capacity.getTargetMspt())).append(" ms)\n");
+            sb.append("Converged: ").append(capacity.isConverged() ? "Yes" : "No").append("\n");
+            for (CapacitySearch.Step step : capacity.getSteps()) {
+                sb.append(String.format("  %d loops/tick -> p95 %.2f ms %s",
+                    step.getLoopCount(), step.getP95Mspt(), step.isPassed() ? "PASS" : "FAIL")).append("\n");
+            }
+            sb.append("\n");
+        }
+        
+        // Adaptive load
+        AdaptiveController.Result adaptive = result.getAdaptiveResult();
+        if (adaptive != null) {
+            sb.append("ADAPTIVE LOAD\n");
+            sb.append("-".repeat(30)).append("\n");
+            sb.append("Setpoint: ").append(Util.formatDecimal(adaptive.getSetpointMspt())).append(" ms\n");
+            sb.append("Sustained Work: ").append(Util.formatDecimal(adaptive.getSustainedLoopsPerTick())).append(" loops/tick\n");
+            sb.append("Mean MSPT: ").append(Util.formatDecimal(adaptive.getMeanMspt())).append(" ms\n");
+            sb.append("Tracking Error: ").append(Util.formatDecimal(adaptive.getTrackingErrorPercent())).append("%\n");
+            sb.append("Final Intensity: ").append(Util.formatDecimal(adaptive.getFinalIntensity())).append("x\n");
+            for (AdaptiveController.Sample sample : adaptive.getSamples()) {
+                sb.append(String.format("  t=%.0fs  %.0f loops/tick  %.2f ms  %.3fx",
+                    sample.getOffsetSeconds(), sample.getLoopsPerTick(), sample.getMspt(), sample.getIntensity())).append("\n");
+            }
+            sb.append("\n");
+        }
+        
+        // JFR profile
+        JfrAnalyzer.Profile profile = result.getProfile();
+        if (profile != null) {
+            sb.append("JFR PROFILE\n");
+            sb.append("-".repeat(30)).append("\n");
+            sb.append("Recording: ").append(profile.getRecordingFile()).append("\n");
+            sb.append("Hot Methods (").append(profile.getExecutionSamples()).append(" samples):\n");
+            for (JfrAnalyzer.Entry entry : profile.getHotMethods()) {
+                sb.append(String.format("  %6.2f%%  %s", profile.getSamplePercent(entry), entry.getName())).append("\n");
+            }
+            sb.append("Allocation Sites (").append(Util.formatDecimal(profile.getSampledAllocationBytes() / 1024.0 / 1024.0))
+                .append(" MB sampled):\n");
+            for (JfrAnalyzer.Entry entry : profile.getAllocationSites()) {
+                sb.append(String.format("  %6.2f%%  %10.2f MB  %s", profile.getAllocationPercent(entry),
+                    entry.getTotal() / 1024.0 / 1024.0, entry.getName())).append("\n");
+            }
+            sb.append("Lock Contention:\n");
+            for (JfrAnalyzer.Entry entry : profile.getLockContention()) {
+                sb.append(String.format("  %6dx  %10.2f ms total  %8.2f ms max  %s", entry.getCount(),
+                    entry.getTotalMillis(), entry.getMaxMillis(), entry.getName())).append("\n");
+            }
+            sb.append("GC Pause Phases:\n");
+            for (JfrAnalyzer.Entry entry : profile.getGcPhases()) {
+                sb.append(String.format("  %6dx  %10.2f ms total  %8.2f ms max  %s", entry.getCount(),
+                    entry.getTotalMillis(), entry.getMaxMillis(), entry.getName())).append("\n");
+            }
+            sb.append("\n");
+        }
+        
+        // Garbage collection
+        GcRecorder.Summary gc = result.getGcSummary();
+        if (gc != null) {
+            sb.append("GARBAGE COLLECTION\n");
+            sb.append("-".repeat(30)).append("\n");
+            sb.append("Pauses: ").append(gc.getPauseCount()).append(" (total ").append(gc.getTotalPauseMillis())
+                .append(" ms, max ").append(gc.getMaxPauseMillis()).append(" ms, avg ")
+                .append(Util.formatDecimal(gc.getAveragePauseMillis())).append(" ms)\n");
+            sb.append("Concurrent Cycles: ").append(gc.getConcurrentCount()).append(" (total ")
+                .append(gc.getTotalConcurrentMillis()).append(" ms)\n");
+            sb.append("Allocated: ").append(Util.formatDecimal(gc.getAllocatedMb())).append(" MB (")
+                .append(Util.formatDecimal(gc.getAllocationRateMbPerSecond())).append(" MB/s)\n");
+            if (gc.getDroppedEvents() > 0) {
+                sb.append("Events not listed (ring full): ").append(gc.getDroppedEvents()).append("\n");
+            }
+            for (GcRecorder.Event event : gc.getEvents()) {
+                sb.append(String.format("  +%6.1fs %-24s %-28s %5d ms  %d -> %d MB%s",
+                    event.getOffsetMillis() / 1000.0, event.getCollector(), event.getCause(), event.getDurationMillis(),
+                    event.getHeapBeforeBytes() / 1024 / 1024, event.getHeapAfterBytes() / 1024 / 1024,
+                    event.isConcurrent() ? " (concurrent)" : "")).append("\n");
+            }
+            sb.append("\n");
+        }
+        
+        // Workload modules
+        if (result.getModuleStats() != null && !result.getModuleStats().isEmpty()) {
+            sb.append("WORKLOAD MODULES\n");
+            sb.append("-".repeat(30)).append("\n");
+            for (WorkloadMix.ModuleStats module : result.getModuleStats()) {
+                sb.append(String.format("  %-10s %5.1f%%  %,.0f ops/s  %,.0f ns/op  %s B/op  (%d ops, %.1f ms, %s bytes)",
+                    module.getName(), module.getWeightPercent(), module.getOpsPerSecond(),
+                    module.getNanosPerOperation(),
+                    module.getBytesAllocated() >= 0 ? String.format("%,.0f", module.getBytesPerOperation()) : "n/a",
+                    module.getOperations(), module.getNanos() / 1_000_000.0,
+                    module.getBytesAllocated() >= 0 ? String.valueOf(module.getBytesAllocated()) : "n/a")).append("\n");
+            }
+            sb.append("\n");
+        }
+        
+        // Time-budgeted kernels
+        KernelBudgetRunner.Result kernels = result.getKernelBudgetResult();
+        if (kernels != null) {
+            sb.append("KERNEL THROUGHPUT\n");
+            sb.append("-".repeat(30)).append("\n");
+            sb.append("Budget: ").append(Util.formatDecimal(kernels.getBudgetMillisPerKernel()))
+                .append(" ms per kernel per tick (").append(kernels.getTicks()).append(" ticks)\n");
+            for (KernelBudgetRunner.KernelThroughput kernel : kernels.getKernels()) {
+                sb.append(String.format("  %-8s %,.0f ops/s (%d ops in %.1f ms)",
+                    kernel.getName(), kernel.getOpsPerSecond(), kernel.getOperations(), kernel.getElapsedMillis())).append("\n");
+            }
+            sb.append("\n");
+        }
+        
+        // Multi-core scaling
+        if (result.getScalingCurve() != null && !result.getScalingCurve().isEmpty()) {
+            sb.append("MULTI-CORE SCALING\n");
+            sb.append("-".repeat(30)).append("\n");
+            for (ParallelWorkload.ScalingPoint point : result.getScalingCurve()) {
+                sb.append(String.format("%d threads: %,.0f ops/s (speedup x%.2f, efficiency %.1f%%)",
+                    point.getThreads(), point.getOpsPerSecond(), point.getSpeedup(), point.getEfficiency())).append("\n");
+            }
+            sb.append("\n");
+        }
+        
         // Scores
         sb.append("BENCHMARK SCORES\n");
         sb.append("-".repeat(30)).append("\n");
@@ -200,6 +583,21 @@ public class ReportExporter {
                     sb.append(chunk).append("\n");
                 }
             }
+            
+            if (!result.getAnalysis().getHotspotClusters().isEmpty()) {
+                sb.append("Hotspot Clusters (").append(configManager.getHotChunkEntities()).append("+ entities per chunk):\n");
+                for (HotspotClusterer.Cluster cluster : result.getAnalysis().getHotspotClusters()) {
+                    sb.append("  • ").append(cluster.getFormatted()).append("\n");
+                }
+            }
+            
+            ChunkEntityAnalyzer.ScanCost scanCost = result.getAnalysis().getScanCost();
+            if (scanCost != null) {
+                sb.append(String.format("Scan Cost: %d chunks over %d ticks, %.2f ms main thread (max %.2f ms per tick, %.0f ms wall)",
+                    scanCost.getChunksScanned(), scanCost.getTicks(), scanCost.getMainThreadMillis(),
+                    scanCost.getMaxTickMillis(), scanCost.getWallMillis())).append("\n");
+                sb.append(String.format("Analysis: %.2f ms on a worker thread", scanCost.getAnalysisMillis())).append("\n");
+            }
             sb.append("\n");
         }
         
@@ -237,13 +635,60 @@ public class ReportExporter {
         sb.append("    \"benchmark_point\": ").append(result.getBenchmarkPoint()).append(",\n");
         sb.append("    \"aborted\": ").append(result.isAborted()).append(",\n");
         
+        // JIT warmup
+        if (result.getJitWarmup() != null) {
+            JitWarmup.Result jitWarmup = result.getJitWarmup();
+            sb.append("    \"jit_warmup\": {\n");
+            sb.append("      \"duration_seconds\": ").append(jitWarmup.getDurationSeconds()).append(",\n");
+            sb.append("      \"batches\": ").append(jitWarmup.getBatches()).append(",\n");
+            sb.append("      \"batch_loop_count\": ").append(jitWarmup.getBatchLoopCount()).append(",\n");
+            sb.append("      \"stable\": ").append(jitWarmup.isStable()).append(",\n");
+            sb.append("      \"final_cv_percent\": ").append(jitWarmup.getFinalCvPercent()).append(",\n");
+            sb.append("      \"first_batch_ms\": ").append(jitWarmup.getFirstBatchMs()).append(",\n");
+            sb.append("      \"final_batch_ms\": ").append(jitWarmup.getFinalBatchMs()).append(",\n");
+            sb.append("      \"compilation_ms\": ").append(jitWarmup.getCompilationMillis()).append(",\n");
+            sb.append("      \"final_compile_ms_per_second\": ").append(jitWarmup.getFinalCompileMsPerSecond()).append("\n");
+            sb.append("    },\n");
+        }
+        
+        // Repeated iterations
+        if (result.getIterationStats() != null) {
+            IterationStatistics iterationStats = result.getIterationStats();
+            sb.append("    \"iterations\": {\n");
+            sb.append("      \"measured\": ").append(iterationStats.getMeasuredCount()).append(",\n");
+            sb.append("      \"rejected\": ").append(iterationStats.getRejectedCount()).append(",\n");
+            if (iterationStats.getRecoveryStats() != null) {
+                appendJsonIterationSummary(sb, "recovery_seconds", iterationStats.getRecoveryStats());
+                appendJsonIterationSummary(sb, "score", iterationStats.getScoreStats());
+            }
+            sb.append("      \"runs\": [\n");
+            List<IterationStatistics.Iteration> runs = iterationStats.getIterations();
+            for (int i = 0; i < runs.size(); i++) {
+                IterationStatistics.Iteration iteration = runs.get(i);
+                sb.append("        {\"number\": ").append(iteration.getNumber())
+                    .append(", \"warmup\": ").append(iteration.isWarmup())
+                    .append(", \"rejected\": ").append(iteration.isRejected())
+                    .append(", \"workload_seconds\": ").append(iteration.getWorkloadSeconds())
+                    .append(", \"recovery_seconds\": ").append(iteration.getRecoverySeconds())
+                    .append(", \"score\": ").append(iteration.getScore()).append("}")
+                    .append(i < runs.size() - 1 ? ",\n" : "\n");
+            }
+            sb.append("      ]\n");
+            sb.append("    },\n");
+        }
+        
         // Baseline metrics
         if (result.getBaselineMetrics() != null) {
             sb.append("    \"baseline_metrics\": {\n");
             sb.append("      \"tps\": ").append(result.getBaselineMetrics().getTps()).append(",\n");
             sb.append("      \"mspt\": ").append(result.getBaselineMetrics().getMspt()).append(",\n");
             sb.append("      \"system_cpu\": ").append(result.getBaselineMetrics().getSystemCpu()).append(",\n");
-            sb.append("      \"memory_usage\": ").append(result.getBaselineMetrics().getMemoryUsage()).append("\n");
+            sb.append("      \"memory_usage\": ").append(result.getBaselineMetrics().getMemoryUsage()).append(",\n");
+            sb.append("      \"main_thread_cpu\": ").append(result.getBaselineMetrics().getMainThreadCpu()).append(",\n");
+            sb.append("      \"allocation_rate_mb_per_sec\": ").append(result.getBaselineMetrics().getAllocationRateMbPerSecond()).append(",\n");
+            sb.append("      \"heap_after_gc_mb\": ").append(result.getBaselineMetrics().getHeapAfterGcMB()).append(",\n");
+            sb.append("      \"contended_monitor_enters\": ").append(result.getBaselineMetrics().getContendedEnters()).append(",\n");
+            sb.append("      \"contended_monitor_ms\": ").append(result.getBaselineMetrics().getContendedMillis()).append("\n");
             sb.append("    },\n");
         }
         
@@ -253,10 +698,272 @@ public class ReportExporter {
             sb.append("      \"tps\": ").append(result.getAfterLoadMetrics().getTps()).append(",\n");
             sb.append("      \"mspt\": ").append(result.getAfterLoadMetrics().getMspt()).append(",\n");
             sb.append("      \"system_cpu\": ").append(result.getAfterLoadMetrics().getSystemCpu()).append(",\n");
-            sb.append("      \"memory_usage\": ").append(result.getAfterLoadMetrics().getMemoryUsage()).append("\n");
+            sb.append("      \"memory_usage\": ").append(result.getAfterLoadMetrics().getMemoryUsage()).append(",\n");
+            sb.append("      \"main_thread_cpu\": ").append(result.getAfterLoadMetrics().getMainThreadCpu()).append(",\n");
+            sb.append("      \"allocation_rate_mb_per_sec\": ").append(result.getAfterLoadMetrics().getAllocationRateMbPerSecond()).append(",\n");
+            sb.append("      \"heap_after_gc_mb\": ").append(result.getAfterLoadMetrics().getHeapAfterGcMB()).append(",\n");
+            sb.append("      \"contended_monitor_enters\": ").append(result.getAfterLoadMetrics().getContendedEnters()).append(",\n");
+            sb.append("      \"contended_monitor_ms\": ").append(result.getAfterLoadMetrics().getContendedMillis()).append("\n");
             sb.append("    },\n");
         }
         
+        // Per-tick latency
+        if (result.getWorkloadTicks() != null) {
+            appendJsonTickSummary(sb, "workload_ticks", result.getWorkloadTicks());
+        }
+        if (result.getRecoveryTicks() != null) {
+            appendJsonTickSummary(sb, "recovery_ticks", result.getRecoveryTicks());
+        }
+        
+        // Per-phase curve summary
+        if (result.getTimeSeries() != null) {
+            TimeSeriesStore.Series timeSeries = result.getTimeSeries();
+            sb.append("    \"timeseries\": {\n");
+            sb.append("      \"interval_ms\": ").append(timeSeries.getIntervalMillis()).append(",\n");
+            sb.append("      \"samples\": ").append(timeSeries.size()).append(",\n");
+            sb.append("      \"encoded_bytes\": ").append(timeSeries.getEncodedBytes()).append(",\n");
+            sb.append("      \"phases\": [\n");
+            for (int i = 0; i < timeSeries.getMarkers().size(); i++) {
+                TimeSeriesStore.Marker marker = timeSeries.getMarkers().get(i);
+                sb.append("        {\"phase\": \"").append(marker.getLabel())
+                    .append("\", \"start_ms\": ").append(marker.getTimestamp()).append(", \"metrics\": {");
+                boolean first = true;
+                for (TimeSeriesStore.Metric metric : TimeSeriesStore.Metric.values()) {
+                    TimeSeriesStore.Stats stats = timeSeries.getStats(metric, marker.getLabel());
+                    if (stats == null) {
+                        continue;
+                    }
+                    sb.append(first ? "\n" : ",\n");
+                    first = false;
+                    sb.append("          \"").append(metric.getKey()).append("\": {\"min\": ").append(stats.getMin())
+                        .append(", \"mean\": ").append(stats.getMean())
+                        .append(", \"p95\": ").append(stats.getP95())
+                        .append(", \"max\": ").append(stats.getMax())
+                        .append(", \"slope_per_min\": ").append(stats.getSlopePerMinute()).append("}");
+                }
+                sb.append(first ? "}}" : "\n        }}");
+                if (i < timeSeries.getMarkers().size() - 1) {
+                    sb.append(",");
+                }
+                sb.append("\n");
+            }
+            sb.append("      ]\n");
+            sb.append("    },\n");
+        }
+        
+        // CPU by thread group
+        if (result.getThreadUsage() != null) {
+            ThreadAccounting.RunSummary threadUsage = result.getThreadUsage();
+            sb.append("    \"thread_usage\": {\n");
+            sb.append("      \"groups\": [\n");
+            for (int i = 0; i < threadUsage.getGroups().size(); i++) {
+                ThreadAccounting.GroupUsage group = threadUsage.getGroups().get(i);
+                sb.append("        {\"group\": \"").append(group.getCategory().name().toLowerCase())
+                    .append("\", \"cpu_percent\": ").append(group.getCpuPercent())
+                    .append(", \"allocation_mb_per_sec\": ").append(group.getAllocationMbPerSecond())
+                    .append(", \"threads\": ").append(group.getThreads()).append("}");
+                if (i < threadUsage.getGroups().size() - 1) {
+                    sb.append(",");
+                }
+                sb.append("\n");
+            }
+            sb.append("      ],\n");
+            sb.append("      \"top_threads\": [\n");
+            for (int i = 0; i < threadUsage.getTopThreads().size(); i++) {
+                ThreadAccounting.ThreadUsage thread = threadUsage.getTopThreads().get(i);
+                sb.append("        {\"name\": \"").append(thread.getName().replace("\"", "\\\""))
+                    .append("\", \"group\": \"").append(thread.getCategory().name().toLowerCase())
+                    .append("\", \"cpu_percent\": ").append(thread.getCpuPercent())
+                    .append(", \"allocation_mb_per_sec\": ").append(thread.getAllocationMbPerSecond()).append("}");
+                if (i < threadUsage.getTopThreads().size() - 1) {
+                    sb.append(",");
+                }
+                sb.append("\n");
+            }
+            sb.append("      ]\n");
+            sb.append("    },\n");
+        }
+        
+        // Slow tick stacks
+        if (result.getStallProfiles() != null) {
+            sb.append("    \"stall_stacks\": [\n");
+            for (int i = 0; i < result.getStallProfiles().size(); i++) {
+                StallSampler.PhaseProfile phase = result.getStallProfiles().get(i);
+                sb.append("      {\n");
+                sb.append("        \"phase\": \"").append(phase.getPhase()).append("\",\n");
+                sb.append("        \"slow_ticks\": ").append(phase.getSlowTicks()).append(",\n");
+                sb.append("        \"samples\": ").append(phase.getSamples()).append(",\n");
+                sb.append("        \"stacks\": [");
+                int index = 0;
+                for (Map.Entry<String, Long> stack : phase.getStacks().entrySet()) {
+                    sb.append(index++ == 0 ? "\n" : ",\n");
+                    sb.append("          {\"stack\": \"").append(stack.getKey().replace("\\", "\\\\").replace("\"", "\\\""))
+                        .append("\", \"count\": ").append(stack.getValue()).append("}");
+                }
+                sb.append(index == 0 ? "]\n" : "\n        ]\n");
+                sb.append("      }");
+                if (i < result.getStallProfiles().size() - 1) {
+                    sb.append(",");
+                }
+                sb.append("\n");
+            }
+            sb.append("    ],\n");
+        }
+        
+        // Capacity search
+        if (result.getCapacityResult() != null) {
+            CapacitySearch.Result capacity = result.getCapacityResult();
+            sb.append("    \"capacity\": {\n");
+            sb.append("      \"headroom_loop_count\": ").append(capacity.getHeadroomLoopCount()).append(",\n");
+            sb.append("      \"target_mspt\": ").append(capacity.getTargetMspt()).append(",\n");
+            sb.append("      \"converged\": ").append(capacity.isConverged()).append(",\n");
+            sb.append("      \"steps\": [\n");
+            for (int i = 0; i < capacity.getSteps().size(); i++) {
+                CapacitySearch.Step step = capacity.getSteps().get(i);
+                sb.append("        {\"loop_count\": ").append(step.getLoopCount())
+                    .append(", \"p95_mspt\": ").append(step.getP95Mspt())
+                    .append(", \"passed\": ").append(step.isPassed()).append("}");
+                if (i < capacity.getSteps().size() - 1) {
+                    sb.append(",");
+                }
+                sb.append("\n");
+            }
+            sb.append("      ]\n");
+            sb.append("    },\n");
+        }
+        
+        // Adaptive load
+        if (result.getAdaptiveResult() != null) {
+            AdaptiveController.Result adaptive = result.getAdaptiveResult();
+            sb.append("    \"adaptive\": {\n");
+            sb.append("      \"setpoint_mspt\": ").append(adaptive.getSetpointMspt()).append(",\n");
+            sb.append("      \"sustained_loops_per_tick\": ").append(adaptive.getSustainedLoopsPerTick()).append(",\n");
+            sb.append("      \"mean_mspt\": ").append(adaptive.getMeanMspt()).append(",\n");
+            sb.append("      \"tracking_error_percent\": ").append(adaptive.getTrackingErrorPercent()).append(",\n");
+            sb.append("      \"final_intensity\": ").append(adaptive.getFinalIntensity()).append(",\n");
+            sb.append("      \"samples\": [\n");
+            for (int i = 0; i < adaptive.getSamples().size(); i++) {
+                AdaptiveController.Sample sample = adaptive.getSamples().get(i);
+                sb.append("        {\"offset_seconds\": ").append(sample.getOffsetSeconds())
+                    .append(", \"loops_per_tick\": ").append(sample.getLoopsPerTick())
+                    .append(", \"mspt\": ").append(sample.getMspt())
+                    .append(", \"intensity\": ").append(sample.getIntensity()).append("}");
+                if (i < adaptive.getSamples().size() - 1) {
+                    sb.append(",");
+                }
+                sb.append("\n");
+            }
+            sb.append("      ]\n");
+            sb.append("    },\n");
+        }
+        
+        // JFR profile
+        if (result.getProfile() != null) {
+            JfrAnalyzer.Profile profile = result.getProfile();
+            sb.append("    \"profile\": {\n");
+            sb.append("      \"recording_file\": \"").append(profile.getRecordingFile().replace("\\", "/")).append("\",\n");
+            sb.append("      \"execution_samples\": ").append(profile.getExecutionSamples()).append(",\n");
+            sb.append("      \"sampled_allocation_bytes\": ").append(profile.getSampledAllocationBytes()).append(",\n");
+            appendJsonEntries(sb, "hot_methods", profile.getHotMethods(), "samples");
+            sb.append(",\n");
+            appendJsonEntries(sb, "allocation_sites", profile.getAllocationSites(), "bytes");
+            sb.append(",\n");
+            appendJsonEntries(sb, "lock_contention", profile.getLockContention(), "total_ns");
+            sb.append(",\n");
+            appendJsonEntries(sb, "gc_phases", profile.getGcPhases(), "total_ns");
+            sb.append("\n");
+            sb.append("    },\n");
+        }
+        
+        // Garbage collection
+        if (result.getGcSummary() != null) {
+            GcRecorder.Summary gc = result.getGcSummary();
+            sb.append("    \"gc\": {\n");
+            sb.append("      \"pause_count\": ").append(gc.getPauseCount()).append(",\n");
+            sb.append("      \"total_pause_ms\": ").append(gc.getTotalPauseMillis()).append(",\n");
+            sb.append("      \"max_pause_ms\": ").append(gc.getMaxPauseMillis()).append(",\n");
+            sb.append("      \"concurrent_count\": ").append(gc.getConcurrentCount()).append(",\n");
+            sb.append("      \"total_concurrent_ms\": ").append(gc.getTotalConcurrentMillis()).append(",\n");
+            sb.append("      \"allocated_mb\": ").append(gc.getAllocatedMb()).append(",\n");
+            sb.append("      \"allocation_rate_mb_per_sec\": ").append(gc.getAllocationRateMbPerSecond()).append(",\n");
+            sb.append("      \"dropped_events\": ").append(gc.getDroppedEvents()).append(",\n");
+            sb.append("      \"events\": [\n");
+            for (int i = 0; i < gc.getEvents().size(); i++) {
+                GcRecorder.Event event = gc.getEvents().get(i);
+                sb.append("        {\"offset_ms\": ").append(event.getOffsetMillis())
+                    .append(", \"collector\": \"").append(event.getCollector())
+                    .append("\", \"cause\": \"").append(event.getCause())
+                    .append("\", \"duration_ms\": ").append(event.getDurationMillis())
+                    .append(", \"heap_before_bytes\": ").append(event.getHeapBeforeBytes())
+                    .append(", \"heap_after_bytes\": ").append(event.getHeapAfterBytes())
+                    .append(", \"concurrent\": ").append(event.isConcurrent()).append("}");
+                if (i < gc.getEvents().size() - 1) {
+                    sb.append(",");
+                }
+                sb.append("\n");
+            }
+            sb.append("      ]\n");
+            sb.append("    },\n");
+        }
+        
+        // Workload modules
+        if (result.getModuleStats() != null && !result.getModuleStats().isEmpty()) {
+            sb.append("    \"modules\": [\n");
+            for (int i = 0; i < result.getModuleStats().size(); i++) {
+                WorkloadMix.ModuleStats module = result.getModuleStats().get(i);
+                sb.append("      {\"name\": \"").append(module.getName())
+                    .append("\", \"weight_percent\": ").append(module.getWeightPercent())
+                    .append(", \"operations\": ").append(module.getOperations())
+                    .append(", \"nanos\": ").append(module.getNanos())
+                    .append(", \"bytes_allocated\": ").append(module.getBytesAllocated())
+                    .append(", \"ops_per_second\": ").append(module.getOpsPerSecond()).append("}");
+                if (i < result.getModuleStats().size() - 1) {
+                    sb.append(",");
+                }
+                sb.append("\n");
+            }
+            sb.append("    ],\n");
+        }
+        
+        // Time-budgeted kernels
+        if (result.getKernelBudgetResult() != null) {
+            KernelBudgetRunner.Result kernels = result.getKernelBudgetResult();
+            sb.append("    \"kernel_throughput\": {\n");
+            sb.append("      \"budget_ms_per_kernel\": ").append(kernels.getBudgetMillisPerKernel()).append(",\n");
+            sb.append("      \"ticks\": ").append(kernels.getTicks()).append(",\n");
+            sb.append("      \"kernels\": [\n");
+            for (int i = 0; i < kernels.getKernels().size(); i++) {
+                KernelBudgetRunner.KernelThroughput kernel = kernels.getKernels().get(i);
+                sb.append("        {\"name\": \"").append(kernel.getName())
+                    .append("\", \"operations\": ").append(kernel.getOperations())
+                    .append(", \"elapsed_ms\": ").append(kernel.getElapsedMillis())
+                    .append(", \"ops_per_second\": ").append(kernel.getOpsPerSecond()).append("}");
+                if (i < kernels.getKernels().size() - 1) {
+                    sb.append(",");
+                }
+                sb.append("\n");
+            }
+            sb.append("      ]\n");
+            sb.append("    },\n");
+        }
+        
+        // Multi-core scaling
+        if (result.getScalingCurve() != null && !result.getScalingCurve().isEmpty()) {
+            sb.append("    \"scaling_curve\": [\n");
+            for (int i = 0; i < result.getScalingCurve().size(); i++) {
+                ParallelWorkload.ScalingPoint point = result.getScalingCurve().get(i);
+                sb.append("      {\"threads\": ").append(point.getThreads())
+                    .append(", \"ops_per_second\": ").append(point.getOpsPerSecond())
+                    .append(", \"speedup\": ").append(point.getSpeedup())
+                    .append(", \"efficiency\": ").append(point.getEfficiency()).append("}");
+                if (i < result.getScalingCurve().size() - 1) {
+                    sb.append(",");
+                }
+                sb.append("\n");
+            }
+            sb.append("    ],\n");
+        }
+        
         // System info
         if (result.getSystemInfo() != null) {
             sb.append("    \"system_info\": {\n");
@@ -275,7 +982,34 @@ public class ReportExporter {
         if (result.getAnalysis() != null) {
             sb.append("    \"analysis\": {\n");
             sb.append("      \"total_chunks\": ").append(result.getAnalysis().getTotalLoadedChunks()).append(",\n");
-            sb.append("      \"total_entities\": ").append(result.getAnalysis().getTotalEntities()).append("\n");
+            sb.append("      \"total_entities\": ").append(result.getAnalysis().getTotalEntities());
+            List<HotspotClusterer.Cluster> clusters = result.getAnalysis().getHotspotClusters();
+            sb.append(",\n");
+            sb.append("      \"hotspot_clusters\": [");
+            for (int i = 0; i < clusters.size(); i++) {
+                HotspotClusterer.Cluster cluster = clusters.get(i);
+                sb.append(i == 0 ? "\n" : ",\n");
+                sb.append("        {\"world\": \"").append(cluster.getWorldName()).append("\"")
+                    .append(", \"min_chunk_x\": ").append(cluster.getMinChunkX())
+                    .append(", \"min_chunk_z\": ").append(cluster.getMinChunkZ())
+                    .append(", \"max_chunk_x\": ").append(cluster.getMaxChunkX())
+                    .append(", \"max_chunk_z\": ").append(cluster.getMaxChunkZ())
+                    .append(", \"chunks\": ").append(cluster.getChunks())
+                    .append(", \"entities\": ").append(cluster.getTotalEntities())
+                    .append(", \"peak_chunk_entities\": ").append(cluster.getPeakChunkEntities()).append("}");
+            }
+            sb.append(clusters.isEmpty() ? "]" : "\n      ]");
+            ChunkEntityAnalyzer.ScanCost scanCost = result.getAnalysis().getScanCost();
+            if (scanCost != null) {
+                sb.append(",\n");
+                sb.append("      \"scan_cost\": {\"chunks\": ").append(scanCost.getChunksScanned())
+                    .append(", \"ticks\": ").append(scanCost.getTicks())
+                    .append(", \"main_thread_ms\": ").append(scanCost.getMainThreadMillis())
+                    .append(", \"max_tick_ms\": ").append(scanCost.getMaxTickMillis())
+                    .append(", \"wall_ms\": ").append(scanCost.getWallMillis())
+                    .append(", \"analysis_ms\": ").append(scanCost.getAnalysisMillis()).append("}");
+            }
+            sb.append("\n");
             sb.append("    },\n");
         }
         
@@ -314,6 +1048,42 @@ public class ReportExporter {
         sb.append("  benchmark_point: ").append(result.getBenchmarkPoint()).append("\n");
         sb.append("  aborted: ").append(result.isAborted()).append("\n");
         
+        // JIT warmup
+        if (result.getJitWarmup() != null) {
+            JitWarmup.Result jitWarmup = result.getJitWarmup();
+            sb.append("  jit_warmup:\n");
+            sb.append("    duration_seconds: ").append(jitWarmup.getDurationSeconds()).append("\n");
+            sb.append("    batches: ").append(jitWarmup.getBatches()).append("\n");
+            sb.append("    batch_loop_count: ").append(jitWarmup.getBatchLoopCount()).append("\n");
+            sb.append("    stable: ").append(jitWarmup.isStable()).append("\n");
+            sb.append("    final_cv_percent: ").append(jitWarmup.getFinalCvPercent()).append("\n");
+            sb.append("    first_batch_ms: ").append(jitWarmup.getFirstBatchMs()).append("\n");
+            sb.append("    final_batch_ms: ").append(jitWarmup.getFinalBatchMs()).append("\n");
+            sb.append("    compilation_ms: ").append(jitWarmup.getCompilationMillis()).append("\n");
+            sb.append("    final_compile_ms_per_second: ").append(jitWarmup.getFinalCompileMsPerSecond()).append("\n");
+        }
+        
+        // Repeated iterations
+        if (result.getIterationStats() != null) {
+            IterationStatistics iterationStats = result.getIterationStats();
+            sb.append("  iterations:\n");
+            sb.append("    measured: ").append(iterationStats.getMeasuredCount()).append("\n");
+            sb.append("    rejected: ").append(iterationStats.getRejectedCount()).append("\n");
+            if (iterationStats.getRecoveryStats() != null) {
+                appendYamlIterationSummary(sb, "recovery_seconds", iterationStats.getRecoveryStats());
+                appendYamlIterationSummary(sb, "score", iterationStats.getScoreStats());
+            }
+            sb.append("    runs:\n");
+            for (IterationStatistics.Iteration iteration : iterationStats.getIterations()) {
+                sb.append("      - number: ").append(iteration.getNumber()).append("\n");
+                sb.append("        warmup: ").append(iteration.isWarmup()).append("\n");
+                sb.append("        rejected: ").append(iteration.isRejected()).append("\n");
+                sb.append("        workload_seconds: ").append(iteration.getWorkloadSeconds()).append("\n");
+                sb.append("        recovery_seconds: ").append(iteration.getRecoverySeconds()).append("\n");
+                sb.append("        score: ").append(iteration.getScore()).append("\n");
+            }
+        }
+        
         // Baseline metrics
         if (result.getBaselineMetrics() != null) {
             sb.append("  baseline_metrics:\n");
@@ -321,6 +1091,11 @@ public class ReportExporter {
             sb.append("    mspt: ").append(result.getBaselineMetrics().getMspt()).append("\n");
             sb.append("    system_cpu: ").append(result.getBaselineMetrics().getSystemCpu()).append("\n");
             sb.append("    memory_usage: ").append(result.getBaselineMetrics().getMemoryUsage()).append("\n");
+            sb.append("    main_thread_cpu: ").append(result.getBaselineMetrics().getMainThreadCpu()).append("\n");
+            sb.append("    allocation_rate_mb_per_sec: ").append(result.getBaselineMetrics().getAllocationRateMbPerSecond()).append("\n");
+            sb.append("    heap_after_gc_mb: ").append(result.getBaselineMetrics().getHeapAfterGcMB()).append("\n");
+            sb.append("    contended_monitor_enters: ").append(result.getBaselineMetrics().getContendedEnters()).append("\n");
+            sb.append("    contended_monitor_ms: ").append(result.getBaselineMetrics().getContendedMillis()).append("\n");
         }
         
         // After load metrics
@@ -330,6 +1105,190 @@ public class ReportExporter {
             sb.append("    mspt: ").append(result.getAfterLoadMetrics().getMspt()).append("\n");
             sb.append("    system_cpu: ").append(result.getAfterLoadMetrics().getSystemCpu()).append("\n");
             sb.append("    memory_usage: ").append(result.getAfterLoadMetrics().getMemoryUsage()).append("\n");
+            sb.append("    main_thread_cpu: ").append(result.getAfterLoadMetrics().getMainThreadCpu()).append("\n");
+            sb.append("    allocation_rate_mb_per_sec: ").append(result.getAfterLoadMetrics().getAllocationRateMbPerSecond()).append("\n");
+            sb.append("    heap_after_gc_mb: ").append(result.getAfterLoadMetrics().getHeapAfterGcMB()).append("\n");
+            sb.append("    contended_monitor_enters: ").append(result.getAfterLoadMetrics().getContendedEnters()).append("\n");
+            sb.append("    contended_monitor_ms: ").append(result.getAfterLoadMetrics().getContendedMillis()).append("\n");
+        }
+        
+        // Per-tick latency
+        if (result.getWorkloadTicks() != null) {
+            appendYamlTickSummary(sb, "workload_ticks", result.getWorkloadTicks());
+        }
+        if (result.getRecoveryTicks() != null) {
+            appendYamlTickSummary(sb, "recovery_ticks", result.getRecoveryTicks());
+        }
+        
+        // Per-phase curve summary
+        if (result.getTimeSeries() != null) {
+            TimeSeriesStore.Series timeSeries = result.getTimeSeries();
+            sb.append("  timeseries:\n");
+            sb.append("    interval_ms: ").append(timeSeries.getIntervalMillis()).append("\n");
+            sb.append("    samples: ").append(timeSeries.size()).append("\n");
+            sb.append("    encoded_bytes: ").append(timeSeries.getEncodedBytes()).append("\n");
+            sb.append("    phases:\n");
+            for (TimeSeriesStore.Marker marker : timeSeries.getMarkers()) {
+                sb.append("      - phase: ").append(marker.getLabel()).append("\n");
+                sb.append("        start_ms: ").append(marker.getTimestamp()).append("\n");
+                sb.append("        metrics:\n");
+                for (TimeSeriesStore.Metric metric : TimeSeriesStore.Metric.values()) {
+                    TimeSeriesStore.Stats stats = timeSeries.getStats(metric, marker.getLabel());
+                    if (stats == null) {
+                        continue;
+                    }
+                    sb.append("          ").append(metric.getKey()).append(":\n");
+                    sb.append("            min: ").append(stats.getMin()).append("\n");
+                    sb.append("            mean: ").append(stats.getMean()).append("\n");
+                    sb.append("            p95: ").append(stats.getP95()).append("\n");
+                    sb.append("            max: ").append(stats.getMax()).append("\n");
+                    sb.append("            slope_per_min: ").append(stats.getSlopePerMinute()).append("\n");
+                }
+            }
+        }
+        
+        // CPU by thread group
+        if (result.getThreadUsage() != null) {
+            ThreadAccounting.RunSummary threadUsage = result.getThreadUsage();
+            sb.append("  thread_usage:\n");
+            sb.append("    groups:\n");
+            for (ThreadAccounting.GroupUsage group : threadUsage.getGroups()) {
+                sb.append("      - group: ").append(group.getCategory().name().toLowerCase()).append("\n");
+                sb.append("        cpu_percent: ").append(group.getCpuPercent()).append("\n");
+                sb.append("        allocation_mb_per_sec: ").append(group.getAllocationMbPerSecond()).append("\n");
+                sb.append("        threads: ").append(group.getThreads()).append("\n");
+            }
+            sb.append("    top_threads:\n");
+            for (ThreadAccounting.ThreadUsage thread : threadUsage.getTopThreads()) {
+                sb.append("      - name: \"").append(thread.getName().replace("\"", "\\\"")).append("\"\n");
+                sb.append("        group: ").append(thread.getCategory().name().toLowerCase()).append("\n");
+                sb.append("        cpu_percent: ").append(thread.getCpuPercent()).append("\n");
+                sb.append("        allocation_mb_per_sec: ").append(thread.getAllocationMbPerSecond()).append("\n");
+            }
+        }
+        
+        // Slow tick stacks
+        if (result.getStallProfiles() != null) {
+            sb.append("  stall_stacks:\n");
+            for (StallSampler.PhaseProfile phase : result.getStallProfiles()) {
+                sb.append("    - phase: ").append(phase.getPhase()).append("\n");
+                sb.append("      slow_ticks: ").append(phase.getSlowTicks()).append("\n");
+                sb.append("      samples: ").append(phase.getSamples()).append("\n");
+                sb.append("      stacks:\n");
+                for (Map.Entry<String, Long> stack : phase.getStacks().entrySet()) {
+                    sb.append("        - stack: \"").append(stack.getKey().replace("\"", "\\\"")).append("\"\n");
+                    sb.append("          count: ").append(stack.getValue()).append("\n");
+                }
+            }
+        }
+        
+        // Capacity search
+        if (result.getCapacityResult() != null) {
+            CapacitySearch.Result capacity = result.getCapacityResult();
+            sb.append("  capacity:\n");
+            sb.append("    headroom_loop_count: ").append(capacity.getHeadroomLoopCount()).append("\n");
+            sb.append("    target_mspt: ").append(capacity.getTargetMspt()).append("\n");
+            sb.append("    converged: ").append(capacity.isConverged()).append("\n");
+            sb.append("    steps:\n");
+            for (CapacitySearch.Step step : capacity.getSteps()) {
+                sb.append("      - loop_count: ").append(step.getLoopCount()).append("\n");
+                sb.append("        p95_mspt: ").append(step.getP95Mspt()).append("\n");
+                sb.append("        passed: ").append(step.isPassed()).append("\n");
+            }
+        }
+        
+        // Adaptive load
+        if (result.getAdaptiveResult() != null) {
+            AdaptiveController.Result adaptive = result.getAdaptiveResult();
+            sb.append("  adaptive:\n");
+            sb.append("    setpoint_mspt: ").append(adaptive.getSetpointMspt()).append("\n");
+            sb.append("    sustained_loops_per_tick: ").append(adaptive.getSustainedLoopsPerTick()).append("\n");
+            sb.append("    mean_mspt: ").append(adaptive.getMeanMspt()).append("\n");
+            sb.append("    tracking_error_percent: ").append(adaptive.getTrackingErrorPercent()).append("\n");
+            sb.append("    final_intensity: ").append(adaptive.getFinalIntensity()).append("\n");
+            sb.append("    samples:\n");
+            for (AdaptiveController.Sample sample : adaptive.getSamples()) {
+                sb.append("      - offset_seconds: ").append(sample.getOffsetSeconds()).append("\n");
+                sb.append("        loops_per_tick: ").append(sample.getLoopsPerTick()).append("\n");
+                sb.append("        mspt: ").append(sample.getMspt()).append("\n");
+                sb.append("        intensity: ").append(sample.getIntensity()).append("\n");
+            }
+        }
+        
+        // JFR profile
+        if (result.getProfile() != null) {
+            JfrAnalyzer.Profile profile = result.getProfile();
+            sb.append("  profile:\n");
+            sb.append("    recording_file: \"").append(profile.getRecordingFile().replace("\\", "/")).append("\"\n");
+            sb.append("    execution_samples: ").append(profile.getExecutionSamples()).append("\n");
+            sb.append("    sampled_allocation_bytes: ").append(profile.getSampledAllocationBytes()).append("\n");
+            appendYamlEntries(sb, "hot_methods", profile.getHotMethods(), "samples");
+            appendYamlEntries(sb, "allocation_sites", profile.getAllocationSites(), "bytes");
+            appendYamlEntries(sb, "lock_contention", profile.getLockContention(), "total_ns");
+            appendYamlEntries(sb, "gc_phases", profile.getGcPhases(), "total_ns");
+        }
+        
+        // Garbage collection
+        if (result.getGcSummary() != null) {
+            GcRecorder.Summary gc = result.getGcSummary();
+            sb.append("  gc:\n");
+            sb.append("    pause_count: ").append(gc.getPauseCount()).append("\n");
+            sb.append("    total_pause_ms: ").append(gc.getTotalPauseMillis()).append("\n");
+            sb.append("    max_pause_ms: ").append(gc.getMaxPauseMillis()).append("\n");
+            sb.append("    concurrent_count: ").append(gc.getConcurrentCount()).append("\n");
+            sb.append("    total_concurrent_ms: ").append(gc.getTotalConcurrentMillis()).append("\n");
+            sb.append("    allocated_mb: ").append(gc.getAllocatedMb()).append("\n");
+            sb.append("    allocation_rate_mb_per_sec: ").append(gc.getAllocationRateMbPerSecond()).append("\n");
+            sb.append("    dropped_events: ").append(gc.getDroppedEvents()).append("\n");
+            sb.append("    events:\n");
+            for (GcRecorder.Event event : gc.getEvents()) {
+                sb.append("      - offset_ms: ").append(event.getOffsetMillis()).append("\n");
+                sb.append("        collector: \"").append(event.getCollector()).append("\"\n");
+                sb.append("        cause: \"").append(event.getCause()).append("\"\n");
+                sb.append("        duration_ms: ").append(event.getDurationMillis()).append("\n");
+                sb.append("        heap_before_bytes: ").append(event.getHeapBeforeBytes()).append("\n");
+                sb.append("        heap_after_bytes: ").append(event.getHeapAfterBytes()).append("\n");
+                sb.append("        concurrent: ").append(event.isConcurrent()).append("\n");
+            }
+        }
+        
+        // Workload modules
+        if (result.getModuleStats() != null && !result.getModuleStats().isEmpty()) {
+            sb.append("  modules:\n");
+            for (WorkloadMix.ModuleStats module : result.getModuleStats()) {
+                sb.append("    - name: ").append(module.getName()).append("\n");
+                sb.append("      weight_percent: ").append(module.getWeightPercent()).append("\n");
+                sb.append("      operations: ").append(module.getOperations()).append("\n");
+                sb.append("      nanos: ").append(module.getNanos()).append("\n");
+                sb.append("      bytes_allocated: ").append(module.getBytesAllocated()).append("\n");
+                sb.append("      ops_per_second: ").append(module.getOpsPerSecond()).append("\n");
+            }
+        }
+        
+        // Time-budgeted kernels
+        if (result.getKernelBudgetResult() != null) {
+            KernelBudgetRunner.Result kernels = result.getKernelBudgetResult();
+            sb.append("  kernel_throughput:\n");
+            sb.append("    budget_ms_per_kernel: ").append(kernels.getBudgetMillisPerKernel()).append("\n");
+            sb.append("    ticks: ").append(kernels.getTicks()).append("\n");
+            sb.append("    kernels:\n");
+            for (KernelBudgetRunner.KernelThroughput kernel : kernels.getKernels()) {
+                sb.append("      - name: ").append(kernel.getName()).append("\n");
+                sb.append("        operations: ").append(kernel.getOperations()).append("\n");
+                sb.append("        elapsed_ms: ").append(kernel.getElapsedMillis()).append("\n");
+                sb.append("        ops_per_second: ").append(kernel.getOpsPerSecond()).append("\n");
+            }
+        }
+        
+        // Multi-core scaling
+        if (result.getScalingCurve() != null && !result.getScalingCurve().isEmpty()) {
+            sb.append("  scaling_curve:\n");
+            for (ParallelWorkload.ScalingPoint point : result.getScalingCurve()) {
+                sb.append("    - threads: ").append(point.getThreads()).append("\n");
+                sb.append("      ops_per_second: ").append(point.getOpsPerSecond()).append("\n");
+                sb.append("      speedup: ").append(point.getSpeedup()).append("\n");
+                sb.append("      efficiency: ").append(point.getEfficiency()).append("\n");
+            }
         }
         
         // System info
@@ -350,6 +1309,29 @@ public class ReportExporter {
             sb.append("  analysis:\n");
             sb.append("    total_chunks: ").append(result.getAnalysis().getTotalLoadedChunks()).append("\n");
             sb.append("    total_entities: ").append(result.getAnalysis().getTotalEntities()).append("\n");
+            if (!result.getAnalysis().getHotspotClusters().isEmpty()) {
+                sb.append("    hotspot_clusters:\n");
+                for (HotspotClusterer.Cluster cluster : result.getAnalysis().getHotspotClusters()) {
+                    sb.append("      - world: \"").append(cluster.getWorldName()).append("\"\n");
+                    sb.append("        min_chunk_x: ").append(cluster.getMinChunkX()).append("\n");
+                    sb.append("        min_chunk_z: ").append(cluster.getMinChunkZ()).append("\n");
+                    sb.append("        max_chunk_x: ").append(cluster.getMaxChunkX()).append("\n");
+                    sb.append("        max_chunk_z: ").append(cluster.getMaxChunkZ()).append("\n");
+                    sb.append("        chunks: ").append(cluster.getChunks()).append("\n");
+                    sb.append("        entities: ").append(cluster.getTotalEntities()).append("\n");
+                    sb.append("        peak_chunk_entities: ").append(cluster.getPeakChunkEntities()).append("\n");
+                }
+            }
+            ChunkEntityAnalyzer.ScanCost scanCost = result.getAnalysis().getScanCost();
+            if (scanCost != null) {
+                sb.append("    scan_cost:\n");
+                sb.append("      chunks: ").append(scanCost.getChunksScanned()).append("\n");
+                sb.append("      ticks: ").append(scanCost.getTicks()).append("\n");
+                sb.append("      main_thread_ms: ").append(scanCost.getMainThreadMillis()).append("\n");
+                sb.append("      max_tick_ms: ").append(scanCost.getMaxTickMillis()).append("\n");
+                sb.append("      wall_ms: ").append(scanCost.getWallMillis()).append("\n");
+                sb.append("      analysis_ms: ").append(scanCost.getAnalysisMillis()).append("\n");
+            }
         }
         
         // Recommendations
@@ -362,4 +1344,91 @@ public class ReportExporter {
         
         return sb.toString();
     }
+    
+    /**
+     * Append a tick percentile summary as a JSON object
+     */
+    private void appendJsonTickSummary(StringBuilder sb, String key, TickHistogram.Summary summary) {
+        sb.append("    \"").append(key).append("\": {\n");
+        sb.append("      \"count\": ").append(summary.getCount()).append(",\n");
+        sb.append("      \"mean_ms\": ").append(summary.getMean()).append(",\n");
+        sb.append("      \"p50_ms\": ").append(summary.getP50()).append(",\n");
+        sb.append("      \"p90_ms\": ").append(summary.getP90()).append(",\n");
+        sb.append("      \"p99_ms\": ").append(summary.getP99()).append(",\n");
+        sb.append("      \"p999_ms\": ").append(summary.getP999()).append(",\n");
+        sb.append("      \"max_ms\": ").append(summary.getMax()).append("\n");
+        sb.append("    },\n");
+    }
+    
+    /**
+     * Append iteration statistics as a JSON object (with trailing comma)
+     */
+    private void appendJsonIterationSummary(StringBuilder sb, String key, IterationStatistics.Summary summary) {
+        sb.append("      \"").append(key).append("\": {\n");
+        sb.append("        \"count\": ").append(summary.getCount()).append(",\n");
+        sb.append("        \"mean\": ").append(summary.getMean()).append(",\n");
+        sb.append("        \"median\": ").append(summary.getMedian()).append(",\n");
+        sb.append("        \"std_dev\": ").append(summary.getStdDev()).append(",\n");
+        sb.append("        \"ci95_low\": ").append(summary.getCiLow()).append(",\n");
+        sb.append("        \"ci95_high\": ").append(summary.getCiHigh()).append(",\n");
+        sb.append("        \"cv_percent\": ").append(summary.getCoefficientOfVariation()).append("\n");
+        sb.append("      },\n");
+    }
+    
+    /**
+     * Append iteration statistics as a YAML mapping
+     */
+    private void appendYamlIterationSummary(StringBuilder sb, String key, IterationStatistics.Summary summary) {
+        sb.append("    ").append(key).append(":\n");
+        sb.append("      count: ").append(summary.getCount()).append("\n");
+        sb.append("      mean: ").append(summary.getMean()).append("\n");
+        sb.append("      median: ").append(summary.getMedian()).append("\n");
+        sb.append("      std_dev: ").append(summary.getStdDev()).append("\n");
+        sb.append("      ci95_low: ").append(summary.getCiLow()).append("\n");
+        sb.append("      ci95_high: ").append(summary.getCiHigh()).append("\n");
+        sb.append("      cv_percent: ").append(summary.getCoefficientOfVariation()).append("\n");
+    }
+    
+    /**
+     * Append a tick percentile summary as a YAML mapping
+     */
+    private void appendYamlTickSummary(StringBuilder sb, String key, TickHistogram.Summary summary) {
+        sb.append("  ").append(key).append(":\n");
+        sb.append("    count: ").append(summary.getCount()).append("\n");
+        sb.append("    mean_ms: ").append(summary.getMean()).append("\n");
+        sb.append("    p50_ms: ").append(summary.getP50()).append("\n");
+        sb.append("    p90_ms: ").append(summary.getP90()).append("\n");
+        sb.append("    p99_ms: ").append(summary.getP99()).append("\n");
+        sb.append("    p999_ms: ").append(summary.getP999()).append("\n");
+        sb.append("    max_ms: ").append(summary.getMax()).append("\n");
+    }
+    
+    /**
+     * Append a list of JFR profile entries as a JSON array (no trailing comma or newline)
+     */
+    private void appendJsonEntries(StringBuilder sb, String key, List<JfrAnalyzer.Entry> entries, String totalKey) {
+        sb.append("      \"").append(key).append("\": [");
+        for (int i = 0; i < entries.size(); i++) {
+            JfrAnalyzer.Entry entry = entries.get(i);
+            sb.append(i == 0 ? "\n" : ",\n");
+            sb.append("        {\"name\": \"").append(entry.getName().trim())
+                .append("\", \"count\": ").append(entry.getCount())
+                .append(", \"").append(totalKey).append("\": ").append(entry.getTotal())
+                .append(", \"max\": ").append(entry.getMax()).append("}");
+        }
+        sb.append(entries.isEmpty() ? "]" : "\n      ]");
+    }
+    
+    /**
+     * Append a list of JFR profile entries as a YAML sequence
+     */
+    private void appendYamlEntries(StringBuilder sb, String key, List<JfrAnalyzer.Entry> entries, String totalKey) {
+        sb.append("    ").append(key).append(":").append(entries.isEmpty() ? " []\n" : "\n");
+        for (JfrAnalyzer.Entry entry : entries) {
+            sb.append("      - name: \"").append(entry.getName().trim()).append("\"\n");
+            sb.append("        count: ").append(entry.getCount()).append("\n");
+            sb.append("        ").append(totalKey).append(": ").append(entry.getTotal()).append("\n");
+            sb.append("        max: ").append(entry.getMax()).append("\n");
+        }
+    }
 }
@@ -31,6 +31,23 @@ public class ScoreCalculator {
         plugin.getLogger().info(String.format("Score calculation for profile '%s': basePoints=%d, penalty=%d/sec, recovery=%ds", 
             profile, profileBasePoints, penaltyPerSecond, recoverySeconds));
         
+        return buildResult(profileBasePoints, penaltyPerSecond, recoverySeconds, recoverySeconds);
+    }
+    
+    /**
+     * Calculate the score of one iteration from its exact recovery time, without logging
+     * 
+     * @param profile The benchmark profile name
+     * @param recoverySeconds The unrounded recovery time in seconds
+     * @return ScoreResult containing the breakdown
+     */
+    public ScoreResult calculateScore(String profile, double recoverySeconds) {
+        int profileBasePoints = plugin.getConfig().getInt(profile + ".profileBasePoints", 1000);
+        int penaltyPerSecond = plugin.getConfig().getInt(profile + ".penaltyPerSecond", 10);
+        return buildResult(profileBasePoints, penaltyPerSecond, recoverySeconds, Math.round(recoverySeconds));
+    }
+    
+    private ScoreResult buildResult(int profileBasePoints, int penaltyPerSecond, double recoverySeconds, long reportedSeconds) {
         // Get JVM RAM information
         Util.JVMMemoryInfo memoryInfo = Util.getJVMMemoryInfo();
         long jvmMB = memoryInfo.getMaxMemoryMB();
@@ -51,7 +68,7 @@ public class ScoreCalculator {
             profileBasePoints,
             penaltyPerSecond,
             jvmMB,
-            recoverySeconds
+            reportedSeconds
         );
     }
     
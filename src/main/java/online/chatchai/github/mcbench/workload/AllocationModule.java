@@ -0,0 +1,97 @@
+package online.chatchai.github.mcbench.workload;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * GC pressure module: allocates at a fixed MB/s with a configurable lifetime mix
+ * Short-lived objects die immediately (young GC only), medium-lived objects are held in a
+ * ring sized to keep them alive for roughly mediumLifetimeSeconds (they survive a few
+ * young collections), and tenured objects are held in a ring capped at tenuredRetainMb so
+ * they get promoted and are later replaced, producing old-generation garbage.
+ * The module paces itself by wall clock time: its loop share is not used, so any weight
+ * above zero enables it. It is thread-safe, so parallel runs share one allocation rate.
+ */
+public class AllocationModule implements WorkloadModule {
+    
+    // Upper bound on ring slots so a misconfiguration cannot exhaust the heap on references alone
+    private static final int MAX_RING_SLOTS = 4_000_000;
+    
+    // Longest gap credited in one call, so a stall does not turn into a huge allocation burst
+    private static final long MAX_CATCH_UP_NANOS = 1_000_000_000L;
+    
+    private final long bytesPerSecond;
+    private final int objectSizeBytes;
+    private final int shortLivedPercent;
+    private final int mediumLivedPercent;
+    
+    private final AtomicReferenceArray<byte[]> mediumRing;
+    private final AtomicReferenceArray<byte[]> tenuredRing;
+    private final AtomicLong mediumIndex = new AtomicLong();
+    private final AtomicLong tenuredIndex = new AtomicLong();
+    private final AtomicLong lastRunNanos = new AtomicLong();
+    
+    // Keeps short-lived allocations observable so escape analysis cannot remove them
+    private volatile byte[] sink;
+    
+    public AllocationModule(double mbPerSecond, int objectSizeBytes, int shortLivedPercent,
+                           int mediumLivedPercent, int mediumLifetimeSeconds, int tenuredRetainMb) {
+        this.bytesPerSecond = (long) (Math.max(0.0, mbPerSecond) * 1024 * 1024);
+        this.objectSizeBytes = Math.max(16, objectSizeBytes);
+        this.shortLivedPercent = Math.max(0, Math.min(100, shortLivedPercent));
+        this.mediumLivedPercent = Math.max(0, Math.min(100 - this.shortLivedPercent, mediumLivedPercent));
+        
+        long mediumBytes = bytesPerSecond * this.mediumLivedPercent / 100 * Math.max(1, mediumLifetimeSeconds);
+        this.mediumRing = new AtomicReferenceArray<>(ringSlots(mediumBytes));
+        this.tenuredRing = new AtomicReferenceArray<>(ringSlots(Math.max(0, tenuredRetainMb) * 1024L * 1024L));
+    }
+    
+    private int ringSlots(long bytes) {
+        return (int) Math.max(1, Math.min(MAX_RING_SLOTS, bytes / objectSizeBytes));
+    }
+    
+    @Override
+    public String getName() {
+        return "allocation";
+    }
+    
+    @Override
+    public void run(int operations) {
+        long now = System.nanoTime();
+        long previous = lastRunNanos.getAndSet(now);
+        if (previous == 0L || bytesPerSecond == 0L) {
+            return;
+        }
+        
+        long elapsed = Math.min(MAX_CATCH_UP_NANOS, now - previous);
+        long objects = bytesPerSecond * elapsed / 1_000_000_000L / objectSizeBytes;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        
+        for (long i = 0; i < objects; i++) {
+            byte[] object = new byte[objectSizeBytes];
+            object[0] = (byte) i;
+            
+            int roll = random.nextInt(100);
+            if (roll < shortLivedPercent) {
+                sink = object;
+            } else if (roll < shortLivedPercent + mediumLivedPercent) {
+                mediumRing.set((int) (mediumIndex.getAndIncrement() % mediumRing.length()), object);
+            } else {
+                tenuredRing.set((int) (tenuredIndex.getAndIncrement() % tenuredRing.length()), object);
+            }
+        }
+    }
+    
+    @Override
+    public void close() {
+        // Release retained objects so they do not outlive the workload phase
+        for (int i = 0; i < mediumRing.length(); i++) {
+            mediumRing.set(i, null);
+        }
+        for (int i = 0; i < tenuredRing.length(); i++) {
+            tenuredRing.set(i, null);
+        }
+        sink = null;
+    }
+}
@@ -0,0 +1,43 @@
+package online.chatchai.github.mcbench.workload;
+
+/**
+ * Floating point module: square roots, trigonometry, logarithms and powers
+ */
+public class MathModule implements WorkloadModule {
+    
+    // Keeps results observable so the JIT cannot drop the loops
+    private double sink = 0.0;
+    
+    @Override
+    public String getName() {
+        return "math";
+    }
+    
+    @Override
+    public void run(int operations) {
+        double accumulator = 1.0;
+        
+        for (int i = 0; i < operations; i++) {
+            double value = (i % 1000) + 1.0;
+            
+            // Mix of mathematical operations
+            accumulator += Math.sqrt(value);
+            accumulator += Math.sin(value / 100.0);
+            accumulator += Math.cos(value / 100.0);
+            accumulator += Math.log(value);
+            accumulator += Math.pow(value, 0.5);
+            
+            // Prevent overflow
+            if (accumulator > 1e10) {
+                accumulator = accumulator % 1e6;
+            }
+        }
+        
+        sink += accumulator;
+    }
+    
+    @Override
+    public WorkloadModule fork() {
+        return new MathModule();
+    }
+}
@@ -0,0 +1,76 @@
+package online.chatchai.github.mcbench.workload;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Memory-bandwidth module: 50x50 double matrix multiplication on reused matrices
+ */
+public class MatrixModule implements WorkloadModule {
+    
+    private static final int SIZE = 50;
+    
+    // Reusable objects to prevent allocations
+    private final double[][] matrixA = new double[SIZE][SIZE];
+    private final double[][] matrixB = new double[SIZE][SIZE];
+    private final double[][] matrixResult = new double[SIZE][SIZE];
+    
+    // Keeps results observable so the JIT cannot drop the loops
+    private double sink = 0.0;
+    
+    public MatrixModule() {
+        // Initialize matrices with random values for computation reuse
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                matrixA[i][j] = ThreadLocalRandom.current().nextDouble(0.1, 10.0);
+                matrixB[i][j] = ThreadLocalRandom.current().nextDouble(0.1, 10.0);
+            }
+        }
+    }
+    
+    @Override
+    public String getName() {
+        return "matrix";
+    }
+    
+    @Override
+    public void run(int operations) {
+        for (int op = 0; op < operations; op++) {
+            // Perform matrix multiplication: result = A * B
+            for (int i = 0; i < SIZE; i++) {
+                for (int j = 0; j < SIZE; j++) {
+                    matrixResult[i][j] = 0.0;
+                    for (int k = 0; k < SIZE; k++) {
+                        matrixResult[i][j] += matrixA[i][k] * matrixB[k][j];
+                    }
+                }
+            }
+            
+            // Rotate matrices to vary computation
+            if (op % 10 == 0) {
+                rotateMatrix(matrixA);
+            }
+        }
+        
+        sink += matrixResult[0][0];
+    }
+    
+    /**
+     * Rotate matrix 90 degrees for variation in computation
+     */
+    private void rotateMatrix(double[][] matrix) {
+        for (int i = 0; i < SIZE / 2; i++) {
+            for (int j = i; j < SIZE - i - 1; j++) {
+                double temp = matrix[i][j];
+                matrix[i][j] = matrix[SIZE - 1 - j][i];
+                matrix[SIZE - 1 - j][i] = matrix[SIZE - 1 - i][SIZE - 1 - j];
+                matrix[SIZE - 1 - i][SIZE - 1 - j] = matrix[j][SIZE - 1 - i];
+                matrix[j][SIZE - 1 - i] = temp;
+            }
+        }
+    }
+    
+    @Override
+    public WorkloadModule fork() {
+        return new MatrixModule();
+    }
+}
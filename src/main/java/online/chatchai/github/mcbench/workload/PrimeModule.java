@@ -0,0 +1,54 @@
+package online.chatchai.github.mcbench.workload;
+
+/**
+ * Integer module: trial-division primality checks
+ */
+public class PrimeModule implements WorkloadModule {
+    
+    // Keeps results observable so the JIT cannot drop the loops
+    private long sink = 0L;
+    
+    @Override
+    public String getName() {
+        return "prime";
+    }
+    
+    @Override
+    public void run(int operations) {
+        int primeCount = 0;
+        
+        for (int i = 0; i < operations; i++) {
+            // Generate a number to test for primality
+            int candidate = 1000 + (i % 10000);
+            
+            if (isProbablyPrime(candidate)) {
+                primeCount++;
+            }
+        }
+        
+        sink += primeCount;
+    }
+    
+    /**
+     * Simple probabilistic primality test
+     */
+    private boolean isProbablyPrime(int n) {
+        if (n <= 1) return false;
+        if (n <= 3) return true;
+        if (n % 2 == 0 || n % 3 == 0) return false;
+        
+        // Check for factors up to sqrt(n)
+        for (int i = 5; i * i <= n; i += 6) {
+            if (n % i == 0 || n % (i + 2) == 0) {
+                return false;
+            }
+        }
+        
+        return true;
+    }
+    
+    @Override
+    public WorkloadModule fork() {
+        return new PrimeModule();
+    }
+}
@@ -0,0 +1,45 @@
+package online.chatchai.github.mcbench.workload;
+
+import java.math.BigInteger;
+
+/**
+ * String and BigInteger module: short-lived allocations plus hashing
+ */
+public class StringModule implements WorkloadModule {
+    
+    // Keeps results observable so the JIT cannot drop the loops
+    private long sink = 0L;
+    
+    @Override
+    public String getName() {
+        return "string";
+    }
+    
+    @Override
+    public void run(int operations) {
+        for (int i = 0; i < operations; i++) {
+            // String operations (memory + CPU)
+            StringBuilder sb = new StringBuilder();
+            for (int j = 0; j < 100; j++) {
+                sb.append("benchmark").append(j);
+            }
+            
+            // Hash the string for additional computation
+            int hash = sb.toString().hashCode();
+            
+            // BigInteger operations for CPU intensity
+            if (i % 100 == 0) {
+                BigInteger big1 = BigInteger.valueOf(hash);
+                BigInteger big2 = BigInteger.valueOf(i + 1);
+                BigInteger result = big1.multiply(big2).add(BigInteger.ONE);
+                
+                sink += result.signum();
+            }
+        }
+    }
+    
+    @Override
+    public WorkloadModule fork() {
+        return new StringModule();
+    }
+}
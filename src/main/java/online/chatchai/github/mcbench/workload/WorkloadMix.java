@@ -0,0 +1,213 @@
+package online.chatchai.github.mcbench.workload;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Weighted composition of workload modules for MCBench Pro
+ * Splits each tick's loop budget across modules by weight and counts operations,
+ * nanoseconds and bytes allocated per module. Forked copies share the counters, so a
+ * mix spread across worker threads still reports one set of totals.
+ */
+public class WorkloadMix {
+    
+    // Per-thread allocation counter (HotSpot); null when the JVM does not support it
+    private static final com.sun.management.ThreadMXBean ALLOCATION_MX_BEAN = createAllocationBean();
+    
+    private final WorkloadModule[] modules;
+    private final double[] weights;
+    private final double totalWeight;
+    private final ModuleCounters[] counters;
+    
+    public WorkloadMix(List<WorkloadModule> modules, List<Double> weights) {
+        this.modules = modules.toArray(new WorkloadModule[0]);
+        this.weights = new double[this.modules.length];
+        this.counters = new ModuleCounters[this.modules.length];
+        
+        double total = 0.0;
+        for (int i = 0; i < this.modules.length; i++) {
+            this.weights[i] = Math.max(0.0, weights.get(i));
+            this.counters[i] = new ModuleCounters();
+            total += this.weights[i];
+        }
+        this.totalWeight = total;
+    }
+    
+    private WorkloadMix(WorkloadModule[] modules, double[] weights, double totalWeight, ModuleCounters[] counters) {
+        this.modules = modules;
+        this.weights = weights;
+        this.totalWeight = totalWeight;
+        this.counters = counters;
+    }
+    
+    private static com.sun.management.ThreadMXBean createAllocationBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+                return sunBean;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Run the mix for the given loop count, split across modules by weight
+     * @param loopCount Total loop budget; the last module takes the rounding remainder
+     */
+    public void run(int loopCount) {
+        if (totalWeight <= 0) {
+            return;
+        }
+        
+        int remaining = loopCount;
+        for (int i = 0; i < modules.length; i++) {
+            int operations = i == modules.length - 1 ?
+                remaining : (int) (loopCount * (weights[i] / totalWeight));
+            remaining -= operations;
+            runModule(i, operations);
+        }
+    }
+    
+    /**
+     * Run a single module and account for its cost
+     * @param index Module index
+     * @param operations Number of operations
+     */
+    public void runModule(int index, int operations) {
+        if (operations <= 0) {
+            return;
+        }
+        
+        long bytesBefore = ALLOCATION_MX_BEAN != null ? ALLOCATION_MX_BEAN.getCurrentThreadAllocatedBytes() : 0L;
+        long start = System.nanoTime();
+        
+        modules[index].run(operations);
+        
+        long elapsed = System.nanoTime() - start;
+        ModuleCounters counter = counters[index];
+        counter.operations.add(operations);
+        counter.nanos.add(elapsed);
+        if (ALLOCATION_MX_BEAN != null) {
+            counter.bytes.add(ALLOCATION_MX_BEAN.getCurrentThreadAllocatedBytes() - bytesBefore);
+        }
+    }
+    
+    /**
+     * Create a copy for another worker thread with its own module state but shared counters
+     */
+    public WorkloadMix fork() {
+        WorkloadModule[] forked = new WorkloadModule[modules.length];
+        for (int i = 0; i < modules.length; i++) {
+            forked[i] = modules[i].fork();
+        }
+        return new WorkloadMix(forked, weights, totalWeight, counters);
+    }
+    
+    /**
+     * Release state retained by the modules in this copy
+     */
+    public void close() {
+        for (WorkloadModule module : modules) {
+            module.close();
+        }
+    }
+    
+    /**
+     * Get number of modules in the mix
+     */
+    public int size() {
+        return modules.length;
+    }
+    
+    /**
+     * Get module name at the given index
+     */
+    public String getName(int index) {
+        return modules[index].getName();
+    }
+    
+    /**
+     * Get a description of the mix, e.g. "math:4, prime:2"
+     */
+    public String describe() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < modules.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(modules[i].getName()).append(':').append(weights[i]);
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Check whether allocated bytes are being measured
+     */
+    public static boolean isAllocationTrackingSupported() {
+        return ALLOCATION_MX_BEAN != null;
+    }
+    
+    /**
+     * Get accumulated counters per module
+     * @return Stats for every module that completed at least one operation
+     */
+    public List<ModuleStats> getStats() {
+        List<ModuleStats> stats = new ArrayList<>();
+        for (int i = 0; i < modules.length; i++) {
+            long operations = counters[i].operations.sum();
+            if (operations == 0L) {
+                continue;
+            }
+            stats.add(new ModuleStats(
+                modules[i].getName(),
+                totalWeight > 0 ? weights[i] / totalWeight * 100.0 : 0.0,
+                operations,
+                counters[i].nanos.sum(),
+                ALLOCATION_MX_BEAN != null ? counters[i].bytes.sum() : -1L
+            ));
+        }
+        return stats;
+    }
+    
+    /**
+     * Thread-safe counters shared between forked copies
+     */
+    private static class ModuleCounters {
+        private final LongAdder operations = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+    }
+    
+    /**
+     * Per-module cost data class
+     */
+    public static class ModuleStats {
+        private final String name;
+        private final double weightPercent;
+        private final long operations;
+        private final long nanos;
+        private final long bytesAllocated;
+        
+        public ModuleStats(String name, double weightPercent, long operations, long nanos, long bytesAllocated) {
+            this.name = name;
+            this.weightPercent = weightPercent;
+            this.operations = operations;
+            this.nanos = nanos;
+            this.bytesAllocated = bytesAllocated;
+        }
+        
+        // Getters
+        public String getName() { return name; }
+        public double getWeightPercent() { return weightPercent; }
+        public long getOperations() { return operations; }
+        public long getNanos() { return nanos; }
+        public long getBytesAllocated() { return bytesAllocated; }
+        public double getOpsPerSecond() { return nanos > 0 ? operations / (nanos / 1_000_000_000.0) : 0.0; }
+        public double getNanosPerOperation() { return operations > 0 ? nanos / (double) operations : 0.0; }
+        public double getBytesPerOperation() { return operations > 0 && bytesAllocated >= 0 ? bytesAllocated / (double) operations : 0.0; }
+    }
+}
@@ -0,0 +1,40 @@
+package online.chatchai.github.mcbench.workload;
+
+/**
+ * Pluggable unit of synthetic work for MCBench Pro
+ * Profiles compose modules by name with weights in config.yml. Built-in modules are
+ * math, prime, matrix, string and allocation; other plugins can add their own by registering an
+ * implementation with the Bukkit ServicesManager:
+ * <pre>
+ * Bukkit.getServicesManager().register(WorkloadModule.class, new MyModule(), plugin, ServicePriority.Normal);
+ * </pre>
+ * Time spent, operations completed and bytes allocated are measured by the caller,
+ * so implementations only need to do the work.
+ */
+public interface WorkloadModule {
+    
+    /**
+     * Get unique module name used in config.yml (lowercase, no spaces)
+     */
+    String getName();
+    
+    /**
+     * Perform the given number of operations
+     * @param operations Number of module-defined operations to run
+     */
+    void run(int operations);
+    
+    /**
+     * Create an independent instance for use on another worker thread
+     * Stateless modules can return themselves.
+     */
+    default WorkloadModule fork() {
+        return this;
+    }
+    
+    /**
+     * Release any state retained between runs (called when the workload phase ends)
+     */
+    default void close() {
+    }
+}
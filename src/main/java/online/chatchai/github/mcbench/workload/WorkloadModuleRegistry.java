@@ -0,0 +1,125 @@
+package online.chatchai.github.mcbench.workload;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.RegisteredServiceProvider;
+
+import online.chatchai.github.mcbench.Main;
+import online.chatchai.github.mcbench.config.ConfigManager;
+
+/**
+ * Workload module registry for MCBench Pro
+ * Resolves module names from profile configs to built-in modules or to modules other
+ * plugins registered with the Bukkit ServicesManager, and builds weighted mixes from them.
+ */
+public class WorkloadModuleRegistry {
+    
+    private final Main plugin;
+    
+    public WorkloadModuleRegistry(Main plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Default weights, matching the original 1/4 math, 1/8 prime, 1/16 matrix, rest string split
+     */
+    public static Map<String, Double> getDefaultWeights() {
+        Map<String, Double> weights = new LinkedHashMap<>();
+        weights.put("math", 4.0);
+        weights.put("prime", 2.0);
+        weights.put("matrix", 1.0);
+        weights.put("string", 9.0);
+        return weights;
+    }
+    
+    /**
+     * Create a fresh instance of a module by name
+     * @param name Module name (case-insensitive)
+     * @return Module instance, or null if no built-in or registered module has that name
+     */
+    public WorkloadModule createModule(String name) {
+        switch (name.toLowerCase()) {
+            case "math":
+                return new MathModule();
+            case "prime":
+                return new PrimeModule();
+            case "matrix":
+                return new MatrixModule();
+            case "string":
+                return new StringModule();
+            case "allocation":
+                ConfigManager config = plugin.getConfigManager();
+                return new AllocationModule(
+                    config.getAllocationMbPerSecond(),
+                    config.getAllocationObjectSizeBytes(),
+                    config.getAllocationShortLivedPercent(),
+                    config.getAllocationMediumLivedPercent(),
+                    config.getAllocationMediumLifetimeSeconds(),
+                    config.getAllocationTenuredRetainMb()
+                );
+            default:
+                break;
+        }
+        
+        for (RegisteredServiceProvider<WorkloadModule> registration :
+                Bukkit.getServicesManager().getRegistrations(WorkloadModule.class)) {
+            WorkloadModule module = registration.getProvider();
+            if (module != null && module.getName().equalsIgnoreCase(name)) {
+                return module.fork();
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Get names of all available modules
+     */
+    public List<String> getAvailableModules() {
+        List<String> names = new ArrayList<>(getDefaultWeights().keySet());
+        names.add("allocation");
+        for (RegisteredServiceProvider<WorkloadModule> registration :
+                Bukkit.getServicesManager().getRegistrations(WorkloadModule.class)) {
+            WorkloadModule module = registration.getProvider();
+            if (module != null && !names.contains(module.getName().toLowerCase())) {
+                names.add(module.getName().toLowerCase());
+            }
+        }
+        return names;
+    }
+    
+    /**
+     * Build a weighted mix from profile module weights
+     * @param weights Module name to weight; empty uses the default mix
+     * @return Mix of every module that could be resolved
+     */
+    public WorkloadMix createMix(Map<String, Double> weights) {
+        Map<String, Double> requested = weights == null || weights.isEmpty() ? getDefaultWeights() : weights;
+        
+        List<WorkloadModule> modules = new ArrayList<>();
+        List<Double> moduleWeights = new ArrayList<>();
+        for (Map.Entry<String, Double> entry : requested.entrySet()) {
+            WorkloadModule module = createModule(entry.getKey());
+            if (module == null) {
+                plugin.getLogger().warning("Unknown workload module '" + entry.getKey() +
+                    "', available: " + String.join(", ", getAvailableModules()));
+                continue;
+            }
+            if (entry.getValue() <= 0) {
+                continue;
+            }
+            modules.add(module);
+            moduleWeights.add(entry.getValue());
+        }
+        
+        if (modules.isEmpty()) {
+            plugin.getLogger().warning("No usable workload modules configured, falling back to the default mix");
+            return createMix(getDefaultWeights());
+        }
+        
+        return new WorkloadMix(modules, moduleWeights);
+    }
+}